@@ -0,0 +1,71 @@
+package com.agent.benchmarks;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.agent.langchain.config.AgentExecutorConfig;
+import com.agent.langchain.config.CascadeConfig;
+import com.agent.langchain.config.ChatResponseCacheConfig;
+import com.agent.langchain.config.CheckpointConfig;
+import com.agent.langchain.config.HedgingConfig;
+import com.agent.langchain.config.ResilienceConfig;
+import com.agent.langchain.config.RoutingConfig;
+import com.agent.langchain.config.TracingConfig;
+import com.agent.langchain.model.AgentChatModels;
+import com.agent.langchain.model.ModelRegistry;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.observability.AgentMetrics;
+import com.agent.langchain.patterns.ConditionalRoutingPattern;
+import com.agent.langchain.patterns.HumanInLoopPattern;
+import com.agent.langchain.patterns.LoopPattern;
+import com.agent.langchain.patterns.ParallelFlowPattern;
+import com.agent.langchain.patterns.SequentialFlowPattern;
+import com.agent.langchain.routing.CategoryResolver;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Application context of the benchmarks: the production pattern
+ * configurations and the model decorators they are built with, with the
+ * model registry holding only {@link StubChatModel}.
+ *
+ * The web layer is left out; the stub is registered by the benchmark state
+ * before the context is refreshed.
+ */
+@Configuration
+@Import({ AgentExecutorConfig.class, CascadeConfig.class, ChatResponseCacheConfig.class, CheckpointConfig.class,
+        HedgingConfig.class, ResilienceConfig.class, RoutingConfig.class, TracingConfig.class, AgentMetrics.class,
+        AgentInstrumentation.class, AgentChatModels.class, CategoryResolver.class, ConditionalRoutingPattern.class,
+        SequentialFlowPattern.class, LoopPattern.class, ParallelFlowPattern.class, HumanInLoopPattern.class })
+public class BenchmarkConfiguration {
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    /**
+     * Registry with the stub as its only model, which every agent runs on.
+     */
+    @Bean
+    public ModelRegistry modelRegistry(StubChatModel stubChatModel) {
+        return ModelRegistry.builder()
+                .model("stub", "stub")
+                .factory(new ModelRegistry.ModelFactory() {
+                    @Override
+                    public ChatModel chatModel(String modelName) {
+                        return stubChatModel;
+                    }
+
+                    @Override
+                    public StreamingChatModel streamingChatModel(String modelName) {
+                        return new StubStreamingChatModel(stubChatModel);
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.agent.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.ExpertRouterAgent;
+import com.agent.langchain.patterns.LoopPattern.ContentRefiner;
+import com.agent.langchain.patterns.ParallelFlowPattern.StartupPitcher;
+import com.agent.langchain.patterns.SequentialFlowPattern.RecipeDeveloper;
+import com.agent.langchain.rendering.PitchDocument;
+import com.agent.langchain.review.InterviewReview;
+import com.agent.langchain.review.InterviewReviewWorkflow;
+
+/**
+ * Orchestration overhead of the five pattern beans.
+ *
+ * Every pattern runs against {@link StubChatModel}, so the measured time is
+ * what the agentic builders, the agentic scope and our model decorators
+ * (limiter, metrics, tracing) add on top of the model calls. Besides the time
+ * per operation, the {@code modelCalls} and {@code operations} counters give
+ * the model calls per operation, and with them the overhead per agent
+ * invocation.
+ *
+ * {@code answerChars} sets the size of every agent output and therefore of
+ * the agentic scope state. Run with {@code -prof gc} for allocation rates:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar PatternOrchestrationBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class PatternOrchestrationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Patterns {
+
+        @Param({ "64", "4096" })
+        public int answerChars;
+
+        @Param({ "true", "false" })
+        public boolean tracing;
+
+        StubChatModel model;
+        AnnotationConfigApplicationContext context;
+        ExpertRouterAgent expertRouterAgent;
+        RecipeDeveloper recipeDeveloper;
+        ContentRefiner contentRefiner;
+        StartupPitcher startupPitcher;
+        InterviewReviewWorkflow interviewReviews;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            model = new StubChatModel(answerChars);
+            context = new AnnotationConfigApplicationContext();
+            context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                    "agent.cache.enabled", "false",
+                    "agent.cache.disk.enabled", "false",
+                    "agent.checkpoint.enabled", "false",
+                    "agent.review.path", "",
+                    "agent.routing.semantic-cache.enabled", "false",
+                    "agent.routing.local-classifier.enabled", "false",
+                    "agent.routing.local-classifier.model-path", "",
+                    "agent.tracing.enabled", Boolean.toString(tracing))));
+            context.registerBean(StubChatModel.class, () -> model);
+            context.register(BenchmarkConfiguration.class);
+            context.refresh();
+
+            expertRouterAgent = context.getBean(ExpertRouterAgent.class);
+            recipeDeveloper = context.getBean(RecipeDeveloper.class);
+            contentRefiner = context.getBean(ContentRefiner.class);
+            startupPitcher = context.getBean(StartupPitcher.class);
+            interviewReviews = context.getBean(InterviewReviewWorkflow.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    /**
+     * Benchmark operations and the model calls they made; their ratio is the
+     * number of model calls per operation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ModelCalls {
+
+        public long operations;
+        public long modelCalls;
+
+        void record(long calls) {
+            operations++;
+            modelCalls += calls;
+        }
+    }
+
+    @Benchmark
+    public String conditionalRouting(Patterns patterns, ModelCalls calls) {
+        long before = patterns.model.calls();
+        String result = patterns.expertRouterAgent.ask("How should I budget for a house?");
+        calls.record(patterns.model.calls() - before);
+        return result;
+    }
+
+    @Benchmark
+    public String sequentialFlow(Patterns patterns, ModelCalls calls) {
+        long before = patterns.model.calls();
+        String result = patterns.recipeDeveloper.developRecipe("Italian", "vegetarian", "dinner");
+        calls.record(patterns.model.calls() - before);
+        return result;
+    }
+
+    @Benchmark
+    public String loop(Patterns patterns, ModelCalls calls) {
+        long before = patterns.model.calls();
+        String result = patterns.contentRefiner.refineContent("Remote work", "casual");
+        calls.record(patterns.model.calls() - before);
+        return result;
+    }
+
+    @Benchmark
+    public PitchDocument parallelFlow(Patterns patterns, ModelCalls calls) {
+        long before = patterns.model.calls();
+        PitchDocument result = patterns.startupPitcher.buildPitchDocument("Acme", "Drone delivery",
+                "Rural retailers");
+        calls.record(patterns.model.calls() - before);
+        return result;
+    }
+
+    @Benchmark
+    public String humanInLoop(Patterns patterns, ModelCalls calls) {
+        long before = patterns.model.calls();
+        InterviewReview review = patterns.interviewReviews.start("Alex", "Backend Engineer",
+                "Describe a system you designed", "I designed a payment service");
+        patterns.interviewReviews.submitFeedback(review.ticket(), "Good response with clear communication");
+        String result = patterns.interviewReviews.assess(review.ticket()).get(InterviewReview.ASSESSMENT);
+        calls.record(patterns.model.calls() - before);
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.agent.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.agent.langchain.dto.ParallelFlowResponse;
+import com.agent.langchain.rendering.PitchDocument;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Allocation of writing a startup pitch into the HTTP response.
+ *
+ * {@code assembledJson} is the former path: the sections are concatenated
+ * into the pitch string, wrapped in a {@link ParallelFlowResponse} and
+ * serialized by Jackson. {@code streamedJson} and {@code streamedMarkdown}
+ * write the {@link PitchDocument} straight into the response stream, as
+ * {@code PitchDocumentHttpMessageConverter} does. The response stream
+ * discards its bytes, handing each buffer to a blackhole.
+ *
+ * {@code sectionChars} sets the size of every section. Compare
+ * {@code gc.alloc.rate.norm} (bytes per operation) with:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar PitchRenderingBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class PitchRenderingBenchmark {
+
+    @Param({ "2048", "32768" })
+    public int sectionChars;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private PitchDocument document;
+    private OutputStream response;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        document = PitchDocument.of(Map.of(
+                "executiveSummary", section("Summary", sectionChars),
+                "marketAnalysis", section("Market", sectionChars),
+                "riskAssessment", section("Risk", sectionChars)));
+        response = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                blackhole.consume(bytes);
+            }
+        };
+    }
+
+    /**
+     * Section text with line breaks and quotes, so JSON output escapes.
+     */
+    private static String section(String name, int chars) {
+        StringBuilder text = new StringBuilder(chars);
+        while (text.length() < chars) {
+            text.append(name).append(" line with \"quoted\" terms and a figure of 42%.\n");
+        }
+        return text.substring(0, chars);
+    }
+
+    @Benchmark
+    public void assembledJson() {
+        jsonMapper.writeValue(response, new ParallelFlowResponse(document.toString()));
+    }
+
+    @Benchmark
+    public void streamedJson() throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(response, StandardCharsets.UTF_8));
+        document.writeJson(out);
+        out.flush();
+    }
+
+    @Benchmark
+    public void streamedMarkdown() throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(response, StandardCharsets.UTF_8));
+        document.writeMarkdown(out);
+        out.flush();
+    }
+}
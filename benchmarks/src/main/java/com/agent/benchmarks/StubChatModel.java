@@ -0,0 +1,68 @@
+package com.agent.benchmarks;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * Zero-latency {@link ChatModel} standing in for Gemini.
+ *
+ * Answers are canned but shaped like the real ones, so every pattern takes
+ * its normal path: the category router gets a category and the quality
+ * scorer a constant score below the loop's quality threshold (the loop stops
+ * on a score plateau); cascaded answers are rated confident enough to keep.
+ */
+public class StubChatModel implements ChatModel {
+
+    private final String answer;
+    private final AtomicLong calls = new AtomicLong();
+
+    /**
+     * @param answerChars length of the free-text answers, i.e. of the content
+     *                    every agent writes to the agentic scope
+     */
+    public StubChatModel(int answerChars) {
+        this.answer = "x".repeat(answerChars);
+    }
+
+    @Override
+    public ChatResponse doChat(ChatRequest chatRequest) {
+        calls.incrementAndGet();
+        return ChatResponse.builder()
+                .aiMessage(AiMessage.from(answer(chatRequest)))
+                .tokenUsage(new TokenUsage(0, 0))
+                .build();
+    }
+
+    /**
+     * @return number of model calls answered so far
+     */
+    public long calls() {
+        return calls.get();
+    }
+
+    private String answer(ChatRequest chatRequest) {
+        String prompt = "";
+        for (ChatMessage message : chatRequest.messages()) {
+            if (message instanceof UserMessage user && user.hasSingleText()) {
+                prompt = user.singleText();
+            }
+        }
+        if (prompt.contains("categorize it as")) {
+            return "FINANCIAL";
+        }
+        if (prompt.contains("quality score between 0.0 and 1.0")) {
+            return "0.5";
+        }
+        if (prompt.contains("confidence score between 0.0 and 1.0")) {
+            return "0.8";
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,28 @@
+package com.agent.benchmarks;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+/**
+ * Streaming counterpart of a stub or fake {@link ChatModel}, completing with
+ * the delegate's full answer in one step.
+ */
+public class StubStreamingChatModel implements StreamingChatModel {
+
+    private final ChatModel delegate;
+
+    public StubStreamingChatModel(ChatModel delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void doChat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        try {
+            handler.onCompleteResponse(delegate.chat(chatRequest));
+        } catch (RuntimeException e) {
+            handler.onError(e);
+        }
+    }
+}
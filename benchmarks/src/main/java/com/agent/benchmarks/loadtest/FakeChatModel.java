@@ -0,0 +1,81 @@
+package com.agent.benchmarks.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.agent.benchmarks.StubChatModel;
+
+import dev.langchain4j.exception.InternalServerException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * {@link ChatModel} behaving like a remote LLM without leaving the JVM.
+ *
+ * Answers come from {@link StubChatModel}; every call first waits for a
+ * latency drawn from the {@link LatencyModel} (time to first token) plus the
+ * generation time of the answer at {@code tokensPerSecond}, and fails with the
+ * configured error and throttling rates.
+ */
+public class FakeChatModel implements ChatModel {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final StubChatModel answers;
+    private final LatencyModel latency;
+    private final double tokensPerSecond;
+    private final double errorRate;
+    private final double throttleRate;
+
+    /**
+     * @param answers         source of the answers
+     * @param latency         latency before the first token
+     * @param tokensPerSecond generation speed; 0 for no generation delay
+     * @param errorRate       share of calls failing with a server error
+     * @param throttleRate    share of calls rejected with a rate limit error
+     */
+    public FakeChatModel(StubChatModel answers, LatencyModel latency, double tokensPerSecond, double errorRate,
+            double throttleRate) {
+        this.answers = answers;
+        this.latency = latency;
+        this.tokensPerSecond = tokensPerSecond;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+    }
+
+    @Override
+    public ChatResponse doChat(ChatRequest chatRequest) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double failure = random.nextDouble();
+        if (failure < throttleRate) {
+            throw new RateLimitException("Injected rate limit");
+        }
+        sleep(latency.sample(random));
+        if (failure < throttleRate + errorRate) {
+            throw new InternalServerException("Injected model error");
+        }
+
+        ChatResponse response = answers.doChat(chatRequest);
+        int outputTokens = Math.max(1, response.aiMessage().text().length() / CHARS_PER_TOKEN);
+        if (tokensPerSecond > 0) {
+            sleep(Duration.ofNanos((long) (outputTokens / tokensPerSecond * 1_000_000_000L)));
+        }
+        int inputTokens = chatRequest.messages().toString().length() / CHARS_PER_TOKEN;
+        return ChatResponse.builder()
+                .aiMessage(response.aiMessage())
+                .tokenUsage(new TokenUsage(inputTokens, outputTokens))
+                .build();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating", e);
+        }
+    }
+}
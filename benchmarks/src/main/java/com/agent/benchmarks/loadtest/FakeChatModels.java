@@ -0,0 +1,22 @@
+package com.agent.benchmarks.loadtest;
+
+import java.util.Map;
+
+/**
+ * The {@link FakeChatModel}s standing in for the models of the application's
+ * model registry, by provider model name.
+ *
+ * @param fallback    model of the names without a fake of their own
+ * @param byModelName fakes of single models, e.g. with their own latency
+ *                    profile
+ */
+public record FakeChatModels(FakeChatModel fallback, Map<String, FakeChatModel> byModelName) {
+
+    public FakeChatModels {
+        byModelName = Map.copyOf(byModelName);
+    }
+
+    public FakeChatModel forModel(String modelName) {
+        return byModelName.getOrDefault(modelName, fallback);
+    }
+}
@@ -0,0 +1,88 @@
+package com.agent.benchmarks.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Distribution of model response times used by {@link FakeChatModel}.
+ */
+@FunctionalInterface
+public interface LatencyModel {
+
+    /**
+     * @return the next latency drawn from the distribution
+     */
+    Duration sample(RandomGenerator random);
+
+    static LatencyModel fixed(Duration latency) {
+        return random -> latency;
+    }
+
+    /**
+     * Log-normal latency, the usual shape of service response times: most
+     * calls close to the median with a long right tail.
+     *
+     * @param median median latency
+     * @param sigma  standard deviation of the underlying normal distribution;
+     *               0.5 puts p99 at about 3.2x the median
+     */
+    static LatencyModel logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Mixture of a fast and a slow mode, e.g. warm and cold backend replicas.
+     *
+     * @param slowProbability share of calls taking the slow mode
+     */
+    static LatencyModel bimodal(LatencyModel fast, LatencyModel slow, double slowProbability) {
+        return random -> random.nextDouble() < slowProbability ? slow.sample(random) : fast.sample(random);
+    }
+
+    /**
+     * Replays recorded latencies: every call draws one of the samples at
+     * random, so the distribution is the recorded one, tail included.
+     */
+    static LatencyModel recorded(List<Duration> samples) {
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("A latency profile needs at least one sample");
+        }
+        List<Duration> profile = List.copyOf(samples);
+        return random -> profile.get(random.nextInt(profile.size()));
+    }
+
+    /**
+     * Reads a recorded latency profile: one model call latency per line, in
+     * milliseconds or with a unit ({@code 850}, {@code 850ms}, {@code 2s});
+     * blank lines and lines starting with {@code #} are ignored.
+     */
+    static LatencyModel recorded(Path profile) throws IOException {
+        List<Duration> samples = new ArrayList<>();
+        for (String line : Files.readAllLines(profile)) {
+            String sample = line.strip();
+            if (!sample.isEmpty() && !sample.startsWith("#")) {
+                samples.add(DurationStyle.detectAndParse(sample));
+            }
+        }
+        return recorded(samples);
+    }
+
+    /**
+     * Adds a fixed spike to a share of the calls, e.g. GC pauses or
+     * overloaded backend nodes.
+     */
+    default LatencyModel withTailSpikes(double spikeProbability, Duration spike) {
+        return random -> {
+            Duration latency = sample(random);
+            return random.nextDouble() < spikeProbability ? latency.plus(spike) : latency;
+        };
+    }
+}
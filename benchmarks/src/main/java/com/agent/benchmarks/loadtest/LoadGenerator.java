@@ -0,0 +1,136 @@
+package com.agent.benchmarks.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives one pattern endpoint over HTTP, in closed or open loop.
+ *
+ * Closed loop: a fixed number of users, each sending its next request when
+ * the previous one completed (plus think time). Throughput adapts to the
+ * service, which hides queueing, so latencies look better than under real
+ * traffic.
+ *
+ * Open loop: requests arrive as a Poisson process at a fixed rate whatever
+ * the service does. Latency is measured from the scheduled arrival time, so
+ * time spent waiting behind a slow service counts (no coordinated omission).
+ * Arrivals beyond {@code maxOutstanding} in-flight requests are counted as
+ * dropped.
+ *
+ * Both modes run a warmup period that is not recorded, then measure for the
+ * configured duration; requests still running at the end are awaited.
+ */
+public class LoadGenerator {
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final AtomicInteger requestNumbers = new AtomicInteger();
+
+    public LoadGenerator(URI baseUri, Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUri = baseUri;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public ScenarioResult closedLoop(PatternScenario scenario, int users, Duration thinkTime, Duration warmup,
+            Duration duration) {
+        ScenarioResult result = new ScenarioResult(scenario, "closed", users + " users");
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        ResourceSampler sampler = new ResourceSampler();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < stopAt) {
+                        long start = System.nanoTime();
+                        int status = send(scenario);
+                        if (start >= measureFrom) {
+                            result.record(status, System.nanoTime() - start);
+                        }
+                        if (!thinkTime.isZero()) {
+                            LockSupport.parkNanos(thinkTime.toNanos());
+                        }
+                    }
+                });
+            }
+        }
+        result.complete(duration, sampler.stop());
+        return result;
+    }
+
+    public ScenarioResult openLoop(PatternScenario scenario, double ratePerSecond, int maxOutstanding,
+            Duration warmup, Duration duration) {
+        ScenarioResult result = new ScenarioResult(scenario, "open", String.format("%.0f req/s", ratePerSecond));
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        double meanGapNanos = 1_000_000_000.0 / ratePerSecond;
+        AtomicInteger outstanding = new AtomicInteger();
+
+        ResourceSampler sampler = new ResourceSampler();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long next = System.nanoTime();
+            long now;
+            while ((now = System.nanoTime()) < stopAt) {
+                if (now < next) {
+                    LockSupport.parkNanos(next - now);
+                    continue;
+                }
+                long scheduled = next;
+                next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+                if (outstanding.get() >= maxOutstanding) {
+                    if (scheduled >= measureFrom) {
+                        result.count(ScenarioResult.DROPPED);
+                    }
+                    continue;
+                }
+                outstanding.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        int status = send(scenario);
+                        if (scheduled >= measureFrom) {
+                            result.record(status, System.nanoTime() - scheduled);
+                        }
+                    } finally {
+                        outstanding.decrementAndGet();
+                    }
+                });
+            }
+        }
+        result.complete(duration, sampler.stop());
+        return result;
+    }
+
+    /**
+     * @return the HTTP status, or -1 when the request failed or timed out
+     */
+    private int send(PatternScenario scenario) {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(scenario.path()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(scenario.body(requestNumbers.incrementAndGet())))
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}
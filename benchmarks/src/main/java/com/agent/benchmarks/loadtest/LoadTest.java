@@ -0,0 +1,195 @@
+package com.agent.benchmarks.loadtest;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.agent.benchmarks.StubChatModel;
+import com.agent.langchain.AgentsApplication;
+
+/**
+ * In-JVM load test of the REST API.
+ *
+ * Starts the application on a random port with every Gemini model replaced
+ * by a {@link FakeChatModel}, drives every selected pattern endpoint over HTTP in
+ * closed and/or open loop and prints throughput, latency percentiles and
+ * thread/heap usage per pattern. Runs fully offline.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.agent.benchmarks.loadtest.LoadTest \
+ *     --users=200 --rate=50 --duration=30s --latency=lognormal --latency.median=800ms
+ * </pre>
+ *
+ * Load options:
+ * <ul>
+ * <li>{@code --patterns}: comma-separated pattern keys (default: all)</li>
+ * <li>{@code --mode}: {@code closed}, {@code open} or {@code both} (default)</li>
+ * <li>{@code --users}, {@code --think-time}: closed loop users and their pause between requests</li>
+ * <li>{@code --rate}, {@code --max-outstanding}: open loop arrivals per second and in-flight cap</li>
+ * <li>{@code --warmup}, {@code --duration}, {@code --request-timeout}</li>
+ * </ul>
+ *
+ * Model options:
+ * <ul>
+ * <li>{@code --latency}: {@code lognormal} (default), {@code bimodal} or {@code fixed}</li>
+ * <li>{@code --latency.median}, {@code --latency.sigma}: the (fast mode's) log-normal distribution</li>
+ * <li>{@code --latency.slow}, {@code --latency.slow-probability}: the slow mode of {@code bimodal}</li>
+ * <li>{@code --latency.spike}, {@code --latency.spike-probability}: tail spikes added to any distribution</li>
+ * <li>{@code --tokens-per-second}: generation speed, 0 to disable; {@code --answer-chars}: answer length</li>
+ * <li>{@code --error-rate}, {@code --throttle-rate}: share of failed and rate-limited model calls</li>
+ * </ul>
+ *
+ * Any other {@code --key=value} option is passed to the application, e.g.
+ * {@code --agent.limiter.max-limit=50}.
+ */
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("patterns", "conditional-routing,sequential-flow,loop,parallel-flow,human-in-loop"),
+            Map.entry("mode", "both"),
+            Map.entry("users", "200"),
+            Map.entry("think-time", "0s"),
+            Map.entry("rate", "50"),
+            Map.entry("max-outstanding", "10000"),
+            Map.entry("warmup", "5s"),
+            Map.entry("duration", "30s"),
+            Map.entry("request-timeout", "120s"),
+            Map.entry("latency", "lognormal"),
+            Map.entry("latency.median", "800ms"),
+            Map.entry("latency.sigma", "0.5"),
+            Map.entry("latency.slow", "5s"),
+            Map.entry("latency.slow-probability", "0.1"),
+            Map.entry("latency.spike", "10s"),
+            Map.entry("latency.spike-probability", "0"),
+            Map.entry("tokens-per-second", "80"),
+            Map.entry("answer-chars", "1200"),
+            Map.entry("error-rate", "0"),
+            Map.entry("throttle-rate", "0"));
+
+    /**
+     * Application properties for an offline run; the response cache and
+     * checkpoints are off so every request reaches the model.
+     */
+    private static final Map<String, String> APPLICATION_DEFAULTS = Map.of(
+            "server.port", "0",
+            "google.ai.api-key", "offline",
+            "spring.main.allow-bean-definition-overriding", "true",
+            "agent.cache.enabled", "false",
+            "agent.cache.disk.enabled", "false",
+            "agent.checkpoint.enabled", "false",
+            "agent.review.path", "",
+            "agent.routing.local-classifier.model-path", "",
+            "logging.level.com.agent.langchain", "WARN");
+
+    public static void main(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        Map<String, String> applicationProperties = new LinkedHashMap<>(APPLICATION_DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            (DEFAULTS.containsKey(key) ? options : applicationProperties).put(key, value);
+        }
+
+        FakeChatModel model = new FakeChatModel(new StubChatModel(intOption(options, "answer-chars")),
+                latencyModel(options), doubleOption(options, "tokens-per-second"),
+                doubleOption(options, "error-rate"), doubleOption(options, "throttle-rate"));
+
+        PrintStream report = System.out;
+
+        SpringApplication application = new SpringApplication(AgentsApplication.class, LoadTestModels.class);
+        application.addInitializers(context -> context.getBeanFactory().registerSingleton("fakeChatModels",
+                new FakeChatModels(model, Map.of())));
+        List<ScenarioResult> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = application.run(applicationProperties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new))) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            LoadGenerator generator = new LoadGenerator(baseUri, durationOption(options, "request-timeout"));
+            String mode = options.get("mode");
+            for (String key : options.get("patterns").split(",")) {
+                PatternScenario scenario = PatternScenario.fromKey(key);
+                if (mode.equals("closed") || mode.equals("both")) {
+                    report.printf("Running %s, closed loop...%n", scenario.key());
+                    results.add(generator.closedLoop(scenario, intOption(options, "users"),
+                            durationOption(options, "think-time"), durationOption(options, "warmup"),
+                            durationOption(options, "duration")));
+                }
+                if (mode.equals("open") || mode.equals("both")) {
+                    report.printf("Running %s, open loop...%n", scenario.key());
+                    results.add(generator.openLoop(scenario, doubleOption(options, "rate"),
+                            intOption(options, "max-outstanding"), durationOption(options, "warmup"),
+                            durationOption(options, "duration")));
+                }
+            }
+        }
+        printReport(report, options, results);
+    }
+
+    static LatencyModel latencyModel(Map<String, String> options) {
+        LatencyModel logNormal = LatencyModel.logNormal(durationOption(options, "latency.median"),
+                doubleOption(options, "latency.sigma"));
+        LatencyModel latency = switch (options.get("latency")) {
+            case "lognormal" -> logNormal;
+            case "bimodal" -> LatencyModel.bimodal(logNormal,
+                    LatencyModel.logNormal(durationOption(options, "latency.slow"), doubleOption(options, "latency.sigma")),
+                    doubleOption(options, "latency.slow-probability"));
+            case "fixed" -> LatencyModel.fixed(durationOption(options, "latency.median"));
+            default -> throw new IllegalArgumentException("Unknown latency model: " + options.get("latency"));
+        };
+        double spikeProbability = doubleOption(options, "latency.spike-probability");
+        return spikeProbability > 0
+                ? latency.withTailSpikes(spikeProbability, durationOption(options, "latency.spike"))
+                : latency;
+    }
+
+    private static void printReport(PrintStream out, Map<String, String> options, List<ScenarioResult> results) {
+        out.println();
+        out.printf("Model: latency=%s median=%s sigma=%s, %s tokens/s, error rate %s, throttle rate %s%n",
+                options.get("latency"), options.get("latency.median"), options.get("latency.sigma"),
+                options.get("tokens-per-second"), options.get("error-rate"), options.get("throttle-rate"));
+        out.println("Latencies are of 2xx responses; threads are peak platform threads of the whole JVM.");
+        out.printf("%-20s %-6s %-11s %8s %9s %8s %8s %8s %9s %8s %9s %8s %8s %8s%n", "Pattern", "Mode", "Load",
+                "Requests", "Thrpt/s", "p50 ms", "p99 ms", "p99.9 ms", "Max ms", "Threads", "Heap MB", "GC ms",
+                "Rejected", "Errors");
+        for (ScenarioResult result : results) {
+            Map<String, Long> outcomes = result.getOutcomes();
+            long rejected = outcomes.getOrDefault("429", 0L) + outcomes.getOrDefault("503", 0L)
+                    + outcomes.getOrDefault(ScenarioResult.DROPPED, 0L);
+            long errors = result.getRequests() - outcomes.getOrDefault("2xx", 0L) - outcomes.getOrDefault("429", 0L)
+                    - outcomes.getOrDefault("503", 0L);
+            ResourceSampler.Usage usage = result.getUsage();
+            out.printf("%-20s %-6s %-11s %8d %9.1f %8.0f %8.0f %8.0f %9.0f %8d %9d %8d %8d %8d%n",
+                    result.getScenario().key(), result.getMode(), result.getLoad(), result.getRequests(),
+                    result.getThroughput(), result.latencyMillis(50), result.latencyMillis(99),
+                    result.latencyMillis(99.9), result.maxLatencyMillis(), usage.peakThreads(),
+                    usage.peakHeapBytes() / (1024 * 1024), usage.gcTime().toMillis(), rejected, errors);
+        }
+        results.stream()
+                .filter(result -> result.getOutcomes().keySet().stream().anyMatch(outcome -> !outcome.equals("2xx")))
+                .forEach(result -> out.printf("%s %s outcomes: %s%n", result.getScenario().key(), result.getMode(),
+                        result.getOutcomes()));
+    }
+
+    static int intOption(Map<String, String> options, String key) {
+        return Integer.parseInt(options.get(key).trim());
+    }
+
+    static double doubleOption(Map<String, String> options, String key) {
+        return Double.parseDouble(options.get(key).trim());
+    }
+
+    static Duration durationOption(Map<String, String> options, String key) {
+        return DurationStyle.detectAndParse(options.get(key).trim());
+    }
+}
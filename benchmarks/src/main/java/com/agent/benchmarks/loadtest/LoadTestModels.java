@@ -0,0 +1,35 @@
+package com.agent.benchmarks.loadtest;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.agent.benchmarks.StubStreamingChatModel;
+import com.agent.langchain.model.ModelRegistry;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+
+/**
+ * Overrides the factory of the application's Gemini models with
+ * {@link FakeChatModels}, so the application runs offline with its model
+ * registry and role assignments intact. The fake models themselves are
+ * registered by {@link LoadTest} before the context starts.
+ */
+@Configuration
+public class LoadTestModels {
+
+    @Bean("modelFactory")
+    public ModelRegistry.ModelFactory modelFactory(FakeChatModels fakeChatModels) {
+        return new ModelRegistry.ModelFactory() {
+            @Override
+            public ChatModel chatModel(String modelName) {
+                return fakeChatModels.forModel(modelName);
+            }
+
+            @Override
+            public StreamingChatModel streamingChatModel(String modelName) {
+                return new StubStreamingChatModel(fakeChatModels.forModel(modelName));
+            }
+        };
+    }
+}
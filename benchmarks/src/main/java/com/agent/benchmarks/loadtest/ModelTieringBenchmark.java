@@ -0,0 +1,186 @@
+package com.agent.benchmarks.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.agent.benchmarks.StubChatModel;
+import com.agent.langchain.AgentsApplication;
+
+/**
+ * End-to-end latency of every pattern with and without model tiering.
+ *
+ * Runs the application twice on fake models: once with every agent on the
+ * strong model ({@code single}) and once with routers and scorers on the
+ * fast model ({@code tiered}), as configured in the application's model
+ * registry. Each run drives every selected pattern endpoint with a few
+ * closed-loop users and the report compares p50/p99 latencies per pattern.
+ *
+ * Every model call waits for a latency replayed from the model's recorded
+ * latency profile (see {@link LatencyModel#recorded(Path)}). A model without
+ * a profile falls back to a log-normal latency around
+ * {@code --fast-median} or {@code --strong-median}, marked as synthetic in
+ * the report.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.agent.benchmarks.loadtest.ModelTieringBenchmark \
+ *     --profile.gemini-2.5-flash-lite=flash-lite.txt --profile.gemini-2.5-flash=flash.txt
+ * </pre>
+ *
+ * Options:
+ * <ul>
+ * <li>{@code --patterns}: comma-separated pattern keys (default: all)</li>
+ * <li>{@code --users}, {@code --warmup}, {@code --duration}, {@code --request-timeout}</li>
+ * <li>{@code --fast-model}, {@code --strong-model}: provider model names of the two tiers</li>
+ * <li>{@code --profile.<model name>}: recorded latency profile of a model</li>
+ * <li>{@code --fast-median}, {@code --strong-median}, {@code --latency.sigma}: synthetic fallback latencies</li>
+ * <li>{@code --answer-chars}: length of the free-text answers</li>
+ * </ul>
+ *
+ * Any other {@code --key=value} option is passed to the application.
+ */
+public class ModelTieringBenchmark {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("patterns", "conditional-routing,sequential-flow,loop,parallel-flow,human-in-loop"),
+            Map.entry("users", "4"),
+            Map.entry("warmup", "5s"),
+            Map.entry("duration", "30s"),
+            Map.entry("request-timeout", "300s"),
+            Map.entry("fast-model", "gemini-2.5-flash-lite"),
+            Map.entry("strong-model", "gemini-2.5-flash"),
+            Map.entry("fast-median", "400ms"),
+            Map.entry("strong-median", "1200ms"),
+            Map.entry("latency.sigma", "0.5"),
+            Map.entry("answer-chars", "1200"));
+
+    /**
+     * Application properties of both runs; caches, checkpoints, cascades and
+     * the local routing shortcuts are off so every request reaches the
+     * assigned models.
+     */
+    private static final Map<String, String> APPLICATION_DEFAULTS = Map.ofEntries(
+            Map.entry("server.port", "0"),
+            Map.entry("google.ai.api-key", "offline"),
+            Map.entry("spring.main.allow-bean-definition-overriding", "true"),
+            Map.entry("agent.cache.enabled", "false"),
+            Map.entry("agent.cache.disk.enabled", "false"),
+            Map.entry("agent.checkpoint.enabled", "false"),
+            Map.entry("agent.review.path", ""),
+            Map.entry("agent.cascade.enabled", "false"),
+            Map.entry("agent.routing.semantic-cache.enabled", "false"),
+            Map.entry("agent.routing.local-classifier.enabled", "false"),
+            Map.entry("agent.routing.local-classifier.model-path", ""),
+            Map.entry("logging.level.com.agent.langchain", "WARN"));
+
+    private record Setup(String name, Map<String, String> properties) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        Map<String, String> profiles = new LinkedHashMap<>();
+        Map<String, String> applicationProperties = new LinkedHashMap<>(APPLICATION_DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (key.startsWith("profile.")) {
+                profiles.put(key.substring("profile.".length()), value);
+            } else {
+                (DEFAULTS.containsKey(key) ? options : applicationProperties).put(key, value);
+            }
+        }
+
+        String fastModel = options.get("fast-model");
+        String strongModel = options.get("strong-model");
+        StubChatModel answers = new StubChatModel(LoadTest.intOption(options, "answer-chars"));
+        Map<String, String> latencySources = new LinkedHashMap<>();
+        FakeChatModels fakes = new FakeChatModels(null, Map.of(
+                fastModel, fakeModel(answers, fastModel, "fast-median", options, profiles, latencySources),
+                strongModel, fakeModel(answers, strongModel, "strong-median", options, profiles, latencySources)));
+
+        Map<String, String> models = Map.of(
+                "agent.models.names", "fast,strong",
+                "agent.models.fast.model-name", fastModel,
+                "agent.models.strong.model-name", strongModel,
+                "agent.models.default", "strong",
+                "agent.models.role.expert", "strong",
+                "agent.models.role.writer", "strong");
+        List<Setup> setups = List.of(
+                new Setup("single", Map.of("agent.models.role.router", "strong", "agent.models.role.scorer", "strong")),
+                new Setup("tiered", Map.of("agent.models.role.router", "fast", "agent.models.role.scorer", "fast")));
+
+        PrintStream report = System.out;
+        Map<String, Map<String, ScenarioResult>> results = new LinkedHashMap<>();
+        for (Setup setup : setups) {
+            Map<String, String> properties = new LinkedHashMap<>(applicationProperties);
+            properties.putAll(models);
+            properties.putAll(setup.properties());
+            SpringApplication application = new SpringApplication(AgentsApplication.class, LoadTestModels.class);
+            application.addInitializers(
+                    context -> context.getBeanFactory().registerSingleton("fakeChatModels", fakes));
+            try (ConfigurableApplicationContext context = application.run(properties.entrySet().stream()
+                    .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                    .toArray(String[]::new))) {
+                URI baseUri = URI.create(
+                        "http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                LoadGenerator generator = new LoadGenerator(baseUri,
+                        LoadTest.durationOption(options, "request-timeout"));
+                for (String key : options.get("patterns").split(",")) {
+                    PatternScenario scenario = PatternScenario.fromKey(key);
+                    report.printf("Running %s with %s models...%n", scenario.key(), setup.name());
+                    results.computeIfAbsent(scenario.key(), pattern -> new LinkedHashMap<>()).put(setup.name(),
+                            generator.closedLoop(scenario, LoadTest.intOption(options, "users"), Duration.ZERO,
+                                    LoadTest.durationOption(options, "warmup"),
+                                    LoadTest.durationOption(options, "duration")));
+                }
+            }
+        }
+        printReport(report, latencySources, results);
+    }
+
+    private static FakeChatModel fakeModel(StubChatModel answers, String modelName, String medianOption,
+            Map<String, String> options, Map<String, String> profiles, Map<String, String> latencySources)
+            throws IOException {
+        String profile = profiles.get(modelName);
+        LatencyModel latency;
+        if (profile != null) {
+            latency = LatencyModel.recorded(Path.of(profile));
+            latencySources.put(modelName, "recorded profile " + profile);
+        } else {
+            latency = LatencyModel.logNormal(LoadTest.durationOption(options, medianOption),
+                    LoadTest.doubleOption(options, "latency.sigma"));
+            latencySources.put(modelName, "synthetic log-normal, median " + options.get(medianOption));
+        }
+        // Recorded latencies are of whole calls, so no extra generation delay
+        return new FakeChatModel(answers, latency, 0, 0, 0);
+    }
+
+    private static void printReport(PrintStream out, Map<String, String> latencySources,
+            Map<String, Map<String, ScenarioResult>> results) {
+        out.println();
+        latencySources.forEach((model, source) -> out.printf("Model %s: %s%n", model, source));
+        out.println("Latencies are of 2xx responses.");
+        out.printf("%-20s %9s %10s %9s %10s %9s %9s%n", "Pattern", "Requests", "Single p50", "p99", "Tiered p50",
+                "p99", "p50 diff");
+        results.forEach((pattern, bySetup) -> {
+            ScenarioResult single = bySetup.get("single");
+            ScenarioResult tiered = bySetup.get("tiered");
+            double singleP50 = single.latencyMillis(50);
+            double tieredP50 = tiered.latencyMillis(50);
+            out.printf("%-20s %9d %10.0f %9.0f %10.0f %9.0f %8.0f%%%n", pattern,
+                    single.getRequests() + tiered.getRequests(), singleP50, single.latencyMillis(99), tieredP50,
+                    tiered.latencyMillis(99), singleP50 > 0 ? (tieredP50 - singleP50) / singleP50 * 100 : 0.0);
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.agent.benchmarks.loadtest;
+
+import java.util.function.IntFunction;
+
+/**
+ * REST endpoint of one pattern and the request bodies sent to it.
+ *
+ * Bodies differ per request number so neither the response cache nor
+ * request coalescing can answer them without running the pattern.
+ */
+public enum PatternScenario {
+
+    CONDITIONAL_ROUTING("conditional-routing", "/api/v1/patterns/conditional-routing/route",
+            n -> """
+                    {"query": "How should I budget for a house, plan %d?"}""".formatted(n)),
+    SEQUENTIAL_FLOW("sequential-flow", "/api/v1/patterns/sequential-flow/develop-recipe",
+            n -> """
+                    {"cuisine": "Italian %d", "dietary": "vegetarian", "mealType": "dinner"}""".formatted(n)),
+    LOOP("loop", "/api/v1/patterns/loop/refine-content",
+            n -> """
+                    {"topic": "Remote work, part %d", "style": "casual"}""".formatted(n)),
+    PARALLEL_FLOW("parallel-flow", "/api/v1/patterns/parallel-flow/build-pitch",
+            n -> """
+                    {"startupName": "Acme %d", "idea": "Drone delivery for rural stores",
+                     "targetMarket": "Rural retailers"}""".formatted(n)),
+    HUMAN_IN_LOOP("human-in-loop", "/api/v1/patterns/human-in-loop/submit-interview",
+            n -> """
+                    {"candidateName": "Alex %d", "position": "Backend Engineer",
+                     "question": "Describe a system you designed",
+                     "response": "I designed a payment service handling ten thousand requests per second"}"""
+                    .formatted(n));
+
+    private final String key;
+    private final String path;
+    private final IntFunction<String> body;
+
+    PatternScenario(String key, String path, IntFunction<String> body) {
+        this.key = key;
+        this.path = path;
+        this.body = body;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public String body(int requestNumber) {
+        return body.apply(requestNumber);
+    }
+
+    public static PatternScenario fromKey(String key) {
+        for (PatternScenario scenario : values()) {
+            if (scenario.key.equals(key.trim())) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown pattern: " + key);
+    }
+}
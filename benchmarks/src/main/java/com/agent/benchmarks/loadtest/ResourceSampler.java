@@ -0,0 +1,73 @@
+package com.agent.benchmarks.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+
+/**
+ * Samples thread count and heap usage of this JVM while a scenario runs.
+ *
+ * Thread counts cover platform threads only; virtual threads are not
+ * reported by the JVM's thread MXBean.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    /**
+     * Peak platform threads and heap usage, and GC time spent, over the sampled period.
+     */
+    record Usage(int peakThreads, long peakHeapBytes, Duration gcTime) {
+    }
+
+    private static final Duration INTERVAL = Duration.ofMillis(100);
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final long gcMillisAtStart = gcMillis();
+    private final Thread sampler;
+    private volatile int peakThreads;
+    private volatile long peakHeapBytes;
+
+    ResourceSampler() {
+        sample();
+        sampler = Thread.ofPlatform().daemon().name("load-test-sampler").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                sample();
+                try {
+                    Thread.sleep(INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    private void sample() {
+        peakThreads = Math.max(peakThreads, threads.getThreadCount());
+        peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    /**
+     * Stops sampling.
+     *
+     * @return usage over the sampled period
+     */
+    Usage stop() {
+        sampler.interrupt();
+        sample();
+        return new Usage(peakThreads, peakHeapBytes, Duration.ofMillis(gcMillis() - gcMillisAtStart));
+    }
+
+    @Override
+    public void close() {
+        sampler.interrupt();
+    }
+}
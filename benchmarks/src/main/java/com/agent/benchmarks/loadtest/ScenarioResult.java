@@ -0,0 +1,110 @@
+package com.agent.benchmarks.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcomes and latencies of one pattern under one load profile.
+ *
+ * Latency percentiles cover successful (2xx) responses only, so fast
+ * rejections (429, 503) do not flatter them; rejections and errors are
+ * counted per outcome instead.
+ */
+public class ScenarioResult {
+
+    static final String DROPPED = "dropped";
+    static final String IO_ERROR = "io-error";
+
+    private final PatternScenario scenario;
+    private final String mode;
+    private final String load;
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private Duration measured = Duration.ZERO;
+    private ResourceSampler.Usage usage;
+
+    ScenarioResult(PatternScenario scenario, String mode, String load) {
+        this.scenario = scenario;
+        this.mode = mode;
+        this.load = load;
+    }
+
+    void record(int status, long latencyNanos) {
+        String outcome = status < 0 ? IO_ERROR
+                : status / 100 == 2 ? "2xx"
+                : status == 429 || status == 503 || status == 504 ? Integer.toString(status)
+                : status / 100 + "xx";
+        count(outcome);
+        if (status / 100 == 2) {
+            latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos),
+                    latencyMicros.getHighestTrackableValue()));
+        }
+    }
+
+    void count(String outcome) {
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    void complete(Duration measured, ResourceSampler.Usage usage) {
+        this.measured = measured;
+        this.usage = usage;
+    }
+
+    public PatternScenario getScenario() {
+        return scenario;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public String getLoad() {
+        return load;
+    }
+
+    /**
+     * @return requests per outcome, e.g. {@code 2xx}, {@code 429}, {@code io-error}
+     */
+    public Map<String, Long> getOutcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, adder) -> counts.put(outcome, adder.sum()));
+        return counts;
+    }
+
+    public long getRequests() {
+        return getOutcomes().entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(DROPPED))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    /**
+     * @return successful responses per second over the measurement window
+     */
+    public double getThroughput() {
+        return measured.isZero() ? 0 : getOutcomes().getOrDefault("2xx", 0L) * 1000.0 / measured.toMillis();
+    }
+
+    /**
+     * @param percentile e.g. 99.9
+     * @return latency of successful responses at that percentile, in milliseconds
+     */
+    public double latencyMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double maxLatencyMillis() {
+        return latencyMicros.getMaxValue() / 1000.0;
+    }
+
+    public ResourceSampler.Usage getUsage() {
+        return usage;
+    }
+}
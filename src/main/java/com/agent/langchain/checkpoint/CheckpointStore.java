@@ -0,0 +1,348 @@
+package com.agent.langchain.checkpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.storage.MappedRecordLog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Durable store of {@link WorkflowCheckpoint}s that survives restarts.
+ *
+ * Every save appends the whole checkpoint to a {@link MappedRecordLog}; an
+ * in-memory index maps checkpoint ids to their latest record and is rebuilt
+ * from the log on startup. A finished workflow deletes its checkpoint with a
+ * tombstone, so the store only holds workflows that are still in progress or
+ * were abandoned. Checkpoints not updated for the retention period are
+ * ignored and dropped at the next compaction. When the log is full it is
+ * compacted: superseded, deleted and expired records are dropped first, then
+ * the least recently updated checkpoints until the log is back under its
+ * low-water mark.
+ *
+ * Checkpointing never fails a workflow: write errors are logged and the
+ * workflow carries on without a checkpoint. When disabled, nothing is stored
+ * and nothing is found.
+ *
+ * Metrics (tag: workflow):
+ * - agent.checkpoint.saved: checkpoints written
+ * - agent.checkpoint.resumed: runs resumed from a checkpoint
+ * - agent.checkpoint.entries: checkpoints currently held (no tag)
+ * - agent.checkpoint.size.bytes: bytes used by the log (no tag)
+ */
+public class CheckpointStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private static final double COMPACTION_LOW_WATER_MARK = 0.75;
+
+    private record IndexEntry(long offset, long sizeBytes, long updatedAtMillis) {
+    }
+
+    private final MappedRecordLog log;
+    private final Duration retention;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, IndexEntry> index = new HashMap<>();
+
+    private CheckpointStore(Builder builder) throws IOException {
+        if (builder.enabled && builder.path == null) {
+            throw new IllegalArgumentException("Checkpoint log path is required");
+        }
+        if (!builder.retention.isPositive()) {
+            throw new IllegalArgumentException("Checkpoint retention must be positive");
+        }
+        this.retention = builder.retention;
+        this.clock = builder.clock;
+        this.meterRegistry = builder.meterRegistry;
+        this.log = builder.enabled ? MappedRecordLog.open(builder.path, builder.maxBytes) : null;
+        if (log != null) {
+            rebuildIndex();
+            logger.info("Opened workflow checkpoint log at {} with {} checkpoints ({} bytes)",
+                    builder.path, index.size(), log.usedBytes());
+            Gauge.builder("agent.checkpoint.entries", this, CheckpointStore::size).register(meterRegistry);
+            Gauge.builder("agent.checkpoint.size.bytes", log, MappedRecordLog::usedBytes)
+                    .baseUnit("bytes").register(meterRegistry);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    /**
+     * @return the checkpoint, or empty if none is stored or it expired
+     */
+    public synchronized Optional<WorkflowCheckpoint> find(String id) {
+        if (log == null) {
+            return Optional.empty();
+        }
+        IndexEntry entry = index.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (isExpired(entry, clock.millis())) {
+            index.remove(id);
+            return Optional.empty();
+        }
+        byte[] value = log.readValue(entry.offset());
+        if (value == null) {
+            index.remove(id);
+            return Optional.empty();
+        }
+        return Optional.of(WorkflowCheckpoint.fromBytes(payload(value)));
+    }
+
+    /**
+     * Finds the checkpoint a run resumes from and counts the resumption.
+     *
+     * @return the checkpoint, or empty if the run starts from scratch
+     */
+    public Optional<WorkflowCheckpoint> resume(String id) {
+        Optional<WorkflowCheckpoint> checkpoint = find(id).filter(found -> !found.steps().isEmpty());
+        checkpoint.ifPresent(found -> {
+            Counter.builder("agent.checkpoint.resumed").tag("workflow", found.workflow())
+                    .register(meterRegistry).increment();
+            logger.info("Resuming {} run {} after {}", found.workflow(), id, found.steps());
+        });
+        return checkpoint;
+    }
+
+    /**
+     * Stores the checkpoint, replacing the previous one with the same id.
+     */
+    public synchronized void save(WorkflowCheckpoint checkpoint) {
+        if (log == null) {
+            return;
+        }
+        try {
+            byte[] key = checkpoint.id().getBytes(StandardCharsets.UTF_8);
+            long updatedAt = checkpoint.updatedAt().toEpochMilli();
+            byte[] value = encode(updatedAt, checkpoint.toBytes());
+            long recordSize = MappedRecordLog.recordSize(key, value);
+            if (recordSize > log.capacity() * (1 - COMPACTION_LOW_WATER_MARK)) {
+                logger.warn("Checkpoint of {} run {} is too large to store ({} bytes)", checkpoint.workflow(),
+                        checkpoint.id(), recordSize);
+                return;
+            }
+            long offset = log.append(key, value);
+            if (offset < 0) {
+                compact(recordSize);
+                offset = log.append(key, value);
+                if (offset < 0) {
+                    return;
+                }
+            }
+            index.put(checkpoint.id(), new IndexEntry(offset, recordSize, updatedAt));
+            Counter.builder("agent.checkpoint.saved").tag("workflow", checkpoint.workflow())
+                    .register(meterRegistry).increment();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write checkpoint of {} run {}: {}", checkpoint.workflow(), checkpoint.id(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes a checkpoint, typically because its workflow finished.
+     *
+     * @return whether a checkpoint was stored
+     */
+    public synchronized boolean delete(String id) {
+        if (log == null || index.remove(id) == null) {
+            return false;
+        }
+        if (log.append(id.getBytes(StandardCharsets.UTF_8), null) < 0) {
+            // No room for the tombstone; compaction drops the unindexed record instead
+            try {
+                compact(0);
+            } catch (IOException e) {
+                logger.warn("Failed to delete checkpoint {}: {}", id, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param limit maximum number of checkpoints returned
+     * @return unexpired checkpoints, most recently updated first
+     */
+    public synchronized List<WorkflowCheckpoint> inProgress(int limit) {
+        if (log == null) {
+            return List.of();
+        }
+        long now = clock.millis();
+        index.values().removeIf(entry -> isExpired(entry, now));
+        return index.values().stream()
+                .sorted(Comparator.comparingLong(IndexEntry::updatedAtMillis).reversed())
+                .limit(limit)
+                .map(entry -> log.readValue(entry.offset()))
+                .filter(Objects::nonNull)
+                .map(value -> WorkflowCheckpoint.fromBytes(payload(value)))
+                .toList();
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private boolean isExpired(IndexEntry entry, long nowMillis) {
+        return entry.updatedAtMillis() + retention.toMillis() <= nowMillis;
+    }
+
+    private void compact(long incomingRecordSize) throws IOException {
+        long now = clock.millis();
+        List<IndexEntry> live = new ArrayList<>();
+        for (IndexEntry entry : index.values()) {
+            if (!isExpired(entry, now)) {
+                live.add(entry);
+            }
+        }
+        // recently updated runs survive; keep them until the low-water mark is reached
+        live.sort(Comparator.comparingLong(IndexEntry::updatedAtMillis).reversed());
+        long budget = (long) (log.capacity() * COMPACTION_LOW_WATER_MARK) - incomingRecordSize;
+        long retained = 0;
+        int evicted = 0;
+        Set<Long> keep = new HashSet<>();
+        for (IndexEntry entry : live) {
+            if (retained + entry.sizeBytes() <= budget) {
+                keep.add(entry.offset());
+                retained += entry.sizeBytes();
+            } else {
+                evicted++;
+            }
+        }
+
+        int dropped = log.compact((offset, key, value) -> keep.contains(offset));
+        rebuildIndex();
+        logger.info("Compacted workflow checkpoint log: dropped {} records, evicted {} checkpoints", dropped,
+                evicted);
+    }
+
+    private void rebuildIndex() {
+        index.clear();
+        long now = clock.millis();
+        log.forEach((offset, key, value) -> {
+            String id = new String(key, StandardCharsets.UTF_8);
+            if (value == null) {
+                index.remove(id);
+                return;
+            }
+            IndexEntry entry = new IndexEntry(offset, MappedRecordLog.recordSize(key, value),
+                    ByteBuffer.wrap(value).getLong());
+            if (isExpired(entry, now)) {
+                index.remove(id);
+            } else {
+                index.put(id, entry);
+            }
+        });
+    }
+
+    private static byte[] encode(long updatedAtMillis, byte[] payload) {
+        return ByteBuffer.allocate(Long.BYTES + payload.length)
+                .putLong(updatedAtMillis)
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] payload(byte[] value) {
+        byte[] payload = new byte[value.length - Long.BYTES];
+        System.arraycopy(value, Long.BYTES, payload, 0, payload.length);
+        return payload;
+    }
+
+    /**
+     * Builder for {@link CheckpointStore}.
+     */
+    public static class Builder {
+
+        private boolean enabled = true;
+        private Path path;
+        private long maxBytes = 16L * 1024 * 1024;
+        private Duration retention = Duration.ofDays(1);
+        private Clock clock = Clock.systemUTC();
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Location of the checkpoint log; required when enabled.
+         */
+        public Builder path(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Size of the checkpoint log file, the byte bound of the store.
+         */
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * How long an abandoned run stays resumable after its last completed
+         * agent.
+         */
+        public Builder retention(Duration retention) {
+            this.retention = retention;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * @throws IOException if the checkpoint log cannot be opened
+         */
+        public CheckpointStore build() throws IOException {
+            return new CheckpointStore(this);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.agent.langchain.checkpoint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.agent.langchain.execution.SingleFlight;
+
+/**
+ * Agentic scope of an unfinished workflow, as of its last completed agent.
+ *
+ * The id is derived from the workflow name and its normalized inputs, so a
+ * client retrying the same request finds the checkpoint of the failed or
+ * interrupted attempt. The state holds the outputs written so far; steps
+ * lists the completed agents in completion order.
+ *
+ * @param id        identity of the workflow run, see {@link #idOf}
+ * @param workflow  workflow name
+ * @param state     scope variables written so far
+ * @param steps     completed agents, in completion order
+ * @param startedAt when the first attempt started
+ * @param updatedAt when the last agent completed
+ */
+public record WorkflowCheckpoint(String id, String workflow, Map<String, String> state, List<String> steps,
+        Instant startedAt, Instant updatedAt) {
+
+    public WorkflowCheckpoint {
+        state = Collections.unmodifiableMap(new LinkedHashMap<>(state));
+        steps = List.copyOf(steps);
+    }
+
+    /**
+     * Checkpoint of a run that has not completed any agent yet.
+     */
+    public static WorkflowCheckpoint start(String id, String workflow, Instant now) {
+        return new WorkflowCheckpoint(id, workflow, Map.of(), List.of(), now, now);
+    }
+
+    /**
+     * Identity of a workflow run: a hash of the workflow name and its
+     * inputs, normalized like {@link SingleFlight#key}.
+     */
+    public static String idOf(String workflow, String... inputs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : SingleFlight.key(workflow, inputs)) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String get(String variable) {
+        return state.get(variable);
+    }
+
+    public boolean hasCompleted(String step) {
+        return steps.contains(step);
+    }
+
+    /**
+     * @return this checkpoint after one more completed agent, with the
+     *         variables it wrote
+     */
+    public WorkflowCheckpoint with(String step, Map<String, String> variables, Instant now) {
+        Map<String, String> merged = new LinkedHashMap<>(state);
+        merged.putAll(variables);
+        List<String> completed = new ArrayList<>(steps);
+        completed.add(step);
+        return new WorkflowCheckpoint(id, workflow, merged, completed, startedAt, now);
+    }
+
+    public byte[] toBytes() {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, id);
+            writeString(out, workflow);
+            out.writeInt(state.size());
+            for (Map.Entry<String, String> variable : state.entrySet()) {
+                writeString(out, variable.getKey());
+                writeString(out, variable.getValue());
+            }
+            out.writeInt(steps.size());
+            for (String step : steps) {
+                writeString(out, step);
+            }
+            out.writeLong(startedAt.toEpochMilli());
+            out.writeLong(updatedAt.toEpochMilli());
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode workflow checkpoint", e);
+        }
+    }
+
+    public static WorkflowCheckpoint fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            String id = readString(in);
+            String workflow = readString(in);
+            int variables = in.readInt();
+            Map<String, String> state = new LinkedHashMap<>();
+            for (int i = 0; i < variables; i++) {
+                state.put(readString(in), readString(in));
+            }
+            int completed = in.readInt();
+            List<String> steps = new ArrayList<>(completed);
+            for (int i = 0; i < completed; i++) {
+                steps.add(readString(in));
+            }
+            return new WorkflowCheckpoint(id, workflow, state, steps, Instant.ofEpochMilli(in.readLong()),
+                    Instant.ofEpochMilli(in.readLong()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode workflow checkpoint", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF is limited to 64KB, agent outputs can be longer
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
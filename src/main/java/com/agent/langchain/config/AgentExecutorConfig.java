@@ -0,0 +1,66 @@
+package com.agent.langchain.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.execution.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for the shared agent executor.
+ * Every pattern fans out onto this one executor instead of owning a thread
+ * pool. Virtual threads are used by default; a bounded platform pool can be
+ * selected with {@code agent.executor.mode=platform}.
+ * Also provides the single-flight coalescer that lets identical concurrent
+ * pattern requests share one execution ({@code agent.coalescing.enabled}).
+ */
+@Configuration
+public class AgentExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentExecutorConfig.class);
+
+    @Value("${agent.executor.mode:virtual}")
+    private String mode;
+
+    @Value("${agent.executor.pool.core-size:8}")
+    private int coreSize;
+
+    @Value("${agent.executor.pool.max-size:64}")
+    private int maxSize;
+
+    @Value("${agent.executor.pool.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${agent.executor.pool.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Value("${agent.executor.shutdown.await-termination:30s}")
+    private Duration shutdownTimeout;
+
+    @Value("${agent.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    @Bean(name = "agentExecutor", destroyMethod = "close")
+    public AgentExecutor agentExecutor(MeterRegistry meterRegistry) {
+        AgentExecutor.Mode executorMode = AgentExecutor.Mode.valueOf(mode.trim().toUpperCase());
+        if (executorMode == AgentExecutor.Mode.PLATFORM) {
+            logger.info("Agent executor: platform pool core={}, max={}, queue={}", coreSize, maxSize, queueCapacity);
+            return AgentExecutor.platformThreads(coreSize, maxSize, queueCapacity, keepAlive, shutdownTimeout,
+                    meterRegistry);
+        }
+        logger.info("Agent executor: virtual threads");
+        return AgentExecutor.virtualThreads(shutdownTimeout, meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight patternSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight(coalescingEnabled, meterRegistry);
+    }
+}
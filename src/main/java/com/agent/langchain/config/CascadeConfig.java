@@ -0,0 +1,63 @@
+package com.agent.langchain.config;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.model.cascade.CascadeCheck;
+import com.agent.langchain.model.cascade.CascadePolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for model cascades.
+ * The cascaded agents, the first and check models, the escalation check and
+ * its thresholds and the shadow evaluation rate are externalized under
+ * {@code agent.cascade.*}.
+ */
+@Configuration
+public class CascadeConfig {
+
+    @Value("${agent.cascade.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.cascade.agents:}")
+    private Set<String> agents;
+
+    @Value("${agent.cascade.first-model:fast}")
+    private String firstModel;
+
+    @Value("${agent.cascade.check-model:fast}")
+    private String checkModel;
+
+    @Value("${agent.cascade.check:confidence}")
+    private String check;
+
+    @Value("${agent.cascade.min-confidence:0.7}")
+    private double minConfidence;
+
+    @Value("${agent.cascade.min-agreement:0.5}")
+    private double minAgreement;
+
+    @Value("${agent.cascade.shadow-rate:0.05}")
+    private double shadowRate;
+
+    @Bean
+    public CascadePolicy cascadePolicy(AgentExecutor agentExecutor, MeterRegistry meterRegistry) {
+        return CascadePolicy.builder()
+                .enabled(enabled && !agents.isEmpty())
+                .agents(agents)
+                .firstModel(firstModel.trim())
+                .checkModel(checkModel.trim())
+                .check(CascadeCheck.fromTag(check))
+                .minConfidence(minConfidence)
+                .minAgreement(minAgreement)
+                .shadowRate(shadowRate)
+                .executor(agentExecutor)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+}
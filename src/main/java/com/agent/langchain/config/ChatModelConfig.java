@@ -1,34 +1,215 @@
 package com.agent.langchain.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.agent.langchain.model.ModelRegistry;
+import com.agent.langchain.model.ModelRole;
+import com.agent.langchain.model.balance.BackendPool;
+import com.agent.langchain.model.balance.BalancingStrategy;
+
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
+import dev.langchain4j.model.googleai.GoogleAiGeminiStreamingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 /**
  * Configuration for chat model beans.
- * Configures Google AI Gemini chat model with externalized API key.
+ * Configures the registry of Google AI Gemini chat models (blocking and
+ * streaming) the agents run on, with externalized API key.
+ *
+ * Models are registered by name under {@code agent.models.*}, each with its
+ * Gemini model name ({@code agent.models.<name>.model-name}, by default
+ * {@code google.ai.model-name}). Agents pick their model by
+ * {@link ModelRole} ({@code agent.models.role.<role>}); single agents can be
+ * assigned a model with {@code agent.models.agents} as
+ * {@code Agent:model} pairs. Without any {@code agent.models.*} property all
+ * agents share one model named {@code default}.
+ *
+ * With several API keys ({@code google.ai.api-keys}) or endpoints
+ * ({@code google.ai.base-urls}) every registered model is served by a
+ * {@link BackendPool} of one backend per key and endpoint, load balanced and
+ * failed over as configured under {@code agent.balancing.*}.
  */
 @Configuration
 public class ChatModelConfig {
 
-    @Value("${google.ai.api-key}")
+    @Value("${google.ai.api-key:}")
     private String apiKey;
 
+    @Value("${google.ai.api-keys:}")
+    private List<String> apiKeys;
+
+    @Value("${google.ai.base-urls:}")
+    private List<String> baseUrls;
+
     @Value("${google.ai.model-name:gemini-1.5-flash}")
     private String modelName;
 
-    @Bean("geminiChatModel")
-    public ChatModel geminiChatModel() {
-        if (apiKey == null || apiKey.trim().isEmpty()) {
-            throw new IllegalStateException(
-                    "Google AI API key is not configured. Please set 'google.ai.api-key' in application.properties");
+    @Value("${agent.models.names:default}")
+    private List<String> modelNames;
+
+    @Value("${agent.models.default:}")
+    private String defaultModel;
+
+    @Value("${agent.models.agents:}")
+    private List<String> agentModels;
+
+    @Value("${agent.balancing.strategy:ewma}")
+    private String balancingStrategy;
+
+    @Value("${agent.balancing.ewma-decay:0.3}")
+    private double ewmaDecay;
+
+    @Value("${agent.balancing.ejection.base:1s}")
+    private Duration baseEjection;
+
+    @Value("${agent.balancing.ejection.max:60s}")
+    private Duration maxEjection;
+
+    /**
+     * Creates the Gemini models of the registry, behind a {@link BackendPool}
+     * when there are several backends; replaced by fakes in the benchmarks.
+     */
+    @Bean("modelFactory")
+    public ModelRegistry.ModelFactory modelFactory(MeterRegistry meterRegistry) {
+        List<String> keys = apiKeys();
+        List<String> endpoints = baseUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (keys.size() == 1 && endpoints.size() <= 1) {
+            String baseUrl = endpoints.isEmpty() ? null : endpoints.get(0);
+            return new ModelRegistry.ModelFactory() {
+                @Override
+                public ChatModel chatModel(String geminiModel) {
+                    return geminiChatModel(keys.get(0), baseUrl, geminiModel);
+                }
+
+                @Override
+                public StreamingChatModel streamingChatModel(String geminiModel) {
+                    return geminiStreamingChatModel(keys.get(0), baseUrl, geminiModel);
+                }
+            };
+        }
+
+        // One pool per Gemini model, shared by its blocking and streaming variants
+        Map<String, BackendPool> pools = new ConcurrentHashMap<>();
+        return new ModelRegistry.ModelFactory() {
+            @Override
+            public ChatModel chatModel(String geminiModel) {
+                return pools.computeIfAbsent(geminiModel, model -> backendPool(model, keys, endpoints, meterRegistry))
+                        .chatModel();
+            }
+
+            @Override
+            public StreamingChatModel streamingChatModel(String geminiModel) {
+                return pools.computeIfAbsent(geminiModel, model -> backendPool(model, keys, endpoints, meterRegistry))
+                        .streamingChatModel();
+            }
+        };
+    }
+
+    /**
+     * Pool of one backend per API key and endpoint; backends are named by
+     * key and endpoint index, so metrics and logs never show a key.
+     */
+    private BackendPool backendPool(String geminiModel, List<String> keys, List<String> endpoints,
+            MeterRegistry meterRegistry) {
+        BackendPool.Builder pool = BackendPool.builder()
+                .modelName(geminiModel)
+                .strategy(BalancingStrategy.fromTag(balancingStrategy))
+                .ewmaDecay(ewmaDecay)
+                .baseEjection(baseEjection)
+                .maxEjection(maxEjection)
+                .meterRegistry(meterRegistry);
+        List<String> baseUrlsOrDefault = new ArrayList<>(endpoints);
+        if (baseUrlsOrDefault.isEmpty()) {
+            baseUrlsOrDefault.add(null);
         }
+        for (int k = 0; k < keys.size(); k++) {
+            for (int e = 0; e < baseUrlsOrDefault.size(); e++) {
+                String baseUrl = baseUrlsOrDefault.get(e);
+                pool.backend("key" + k + "@endpoint" + e, geminiChatModel(keys.get(k), baseUrl, geminiModel),
+                        geminiStreamingChatModel(keys.get(k), baseUrl, geminiModel));
+            }
+        }
+        return pool.build();
+    }
 
+    /**
+     * @param baseUrl Gemini endpoint, null for the default one
+     */
+    private static ChatModel geminiChatModel(String key, String baseUrl, String geminiModel) {
         return GoogleAiGeminiChatModel.builder()
-                .apiKey(apiKey)
-                .modelName(modelName)
+                .apiKey(key)
+                .baseUrl(baseUrl)
+                .modelName(geminiModel)
+                .build();
+    }
+
+    private static StreamingChatModel geminiStreamingChatModel(String key, String baseUrl, String geminiModel) {
+        return GoogleAiGeminiStreamingChatModel.builder()
+                .apiKey(key)
+                .baseUrl(baseUrl)
+                .modelName(geminiModel)
                 .build();
     }
+
+    @Bean
+    public ModelRegistry modelRegistry(ModelRegistry.ModelFactory modelFactory, Environment environment) {
+        ModelRegistry.Builder registry = ModelRegistry.builder().factory(modelFactory);
+        for (String name : modelNames) {
+            registry.model(name.trim(), environment.getProperty("agent.models." + name.trim() + ".model-name",
+                    modelName));
+        }
+        if (!defaultModel.isBlank()) {
+            registry.defaultModel(defaultModel.trim());
+        }
+        for (ModelRole role : ModelRole.values()) {
+            String model = environment.getProperty("agent.models.role." + role.tag());
+            if (model != null && !model.isBlank()) {
+                registry.role(role, model.trim());
+            }
+        }
+        for (String assignment : agentModels) {
+            if (assignment.isBlank()) {
+                continue;
+            }
+            String[] agentAndModel = assignment.split(":");
+            if (agentAndModel.length != 2) {
+                throw new IllegalArgumentException("Expected Agent:model in agent.models.agents, got " + assignment);
+            }
+            registry.agent(agentAndModel[0].trim(), agentAndModel[1].trim());
+        }
+        return registry.build();
+    }
+
+    /**
+     * The default model, for plain chat outside the agent patterns.
+     */
+    @Bean("geminiChatModel")
+    public ChatModel geminiChatModel(ModelRegistry modelRegistry) {
+        return modelRegistry.defaultModel().chatModel();
+    }
+
+    /**
+     * @return the pool's API keys, else the single API key
+     */
+    private List<String> apiKeys() {
+        List<String> keys = apiKeys.stream().map(String::trim).filter(key -> !key.isEmpty()).toList();
+        if (!keys.isEmpty()) {
+            return keys;
+        }
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            throw new IllegalStateException("Google AI API key is not configured. Please set 'google.ai.api-key' "
+                    + "(or 'google.ai.api-keys') in application.properties");
+        }
+        return List.of(apiKey.trim());
+    }
 }
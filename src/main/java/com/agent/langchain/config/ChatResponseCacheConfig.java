@@ -0,0 +1,66 @@
+package com.agent.langchain.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.agent.langchain.model.cache.ChatResponseCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for the two-tier prompt/response cache.
+ * Tier sizes, TTLs, the disk location and the per-agent include/exclude lists
+ * are externalized under {@code agent.cache.*}.
+ */
+@Configuration
+public class ChatResponseCacheConfig {
+
+    @Value("${agent.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.cache.agents.include:}")
+    private Set<String> includedAgents;
+
+    @Value("${agent.cache.agents.exclude:}")
+    private Set<String> excludedAgents;
+
+    @Value("${agent.cache.heap.max-size:16MB}")
+    private DataSize heapMaxSize;
+
+    @Value("${agent.cache.heap.ttl:1h}")
+    private Duration heapTtl;
+
+    @Value("${agent.cache.disk.enabled:true}")
+    private boolean diskEnabled;
+
+    @Value("${agent.cache.disk.path:${java.io.tmpdir}/agentic-ai-patterns/chat-response-cache.log}")
+    private String diskPath;
+
+    @Value("${agent.cache.disk.max-size:64MB}")
+    private DataSize diskMaxSize;
+
+    @Value("${agent.cache.disk.ttl:1d}")
+    private Duration diskTtl;
+
+    @Bean(destroyMethod = "close")
+    public ChatResponseCache chatResponseCache(MeterRegistry meterRegistry) throws IOException {
+        return ChatResponseCache.builder()
+                .enabled(enabled)
+                .includedAgents(includedAgents)
+                .excludedAgents(excludedAgents)
+                .heapMaxBytes(heapMaxSize.toBytes())
+                .heapTtl(heapTtl)
+                .diskPath(diskEnabled ? Path.of(diskPath) : null)
+                .diskMaxBytes(diskMaxSize.toBytes())
+                .diskTtl(diskTtl)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+}
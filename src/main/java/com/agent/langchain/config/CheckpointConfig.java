@@ -0,0 +1,48 @@
+package com.agent.langchain.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.agent.langchain.checkpoint.CheckpointStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for the durable workflow checkpoints the sequential flow and
+ * loop patterns resume from. The log location, its size and the retention of
+ * abandoned runs are externalized under {@code agent.checkpoint.*}.
+ */
+@Configuration
+public class CheckpointConfig {
+
+    @Value("${agent.checkpoint.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.checkpoint.path:${java.io.tmpdir}/agentic-ai-patterns/workflow-checkpoints.log}")
+    private String path;
+
+    @Value("${agent.checkpoint.max-size:16MB}")
+    private DataSize maxSize;
+
+    @Value("${agent.checkpoint.retention:1d}")
+    private Duration retention;
+
+    @Bean(destroyMethod = "close")
+    public CheckpointStore checkpointStore(MeterRegistry meterRegistry) throws IOException {
+        return CheckpointStore.builder()
+                .enabled(enabled)
+                .path(Path.of(path))
+                .maxBytes(maxSize.toBytes())
+                .retention(retention)
+                .clock(Clock.systemUTC())
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.agent.langchain.config;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.model.hedge.HedgePolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for hedged model requests.
+ * The hedged agents, the latency percentile and floor of the hedge delay and
+ * the hedge budget are externalized under {@code agent.hedging.*}.
+ */
+@Configuration
+public class HedgingConfig {
+
+    @Value("${agent.hedging.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.hedging.agents:}")
+    private Set<String> agents;
+
+    @Value("${agent.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${agent.hedging.min-delay:500ms}")
+    private Duration minDelay;
+
+    @Value("${agent.hedging.min-samples:20}")
+    private int minSamples;
+
+    @Value("${agent.hedging.window:200}")
+    private int windowSize;
+
+    @Value("${agent.hedging.budget.ratio:0.1}")
+    private double budgetRatio;
+
+    @Value("${agent.hedging.budget.burst:10}")
+    private double budgetBurst;
+
+    @Bean
+    public HedgePolicy hedgePolicy(AgentExecutor agentExecutor, MeterRegistry meterRegistry) {
+        return HedgePolicy.builder()
+                .enabled(enabled)
+                .agents(agents)
+                .percentile(percentile)
+                .minDelay(minDelay)
+                .minSamples(minSamples)
+                .windowSize(windowSize)
+                .budgetRatio(budgetRatio)
+                .budgetBurst(budgetBurst)
+                .executor(agentExecutor)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.agent.langchain.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.agent.langchain.model.limit.AdaptiveConcurrencyLimiter;
+import com.agent.langchain.model.limit.PatternBulkheads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for load shedding.
+ * Provides the adaptive concurrency limiter shared by every model call
+ * ({@code agent.limiter.*}) and the per-pattern bulkheads
+ * ({@code agent.bulkhead.*}).
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Value("${agent.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${agent.limiter.min-limit:2}")
+    private int minLimit;
+
+    @Value("${agent.limiter.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${agent.limiter.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${agent.limiter.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${agent.bulkhead.max-concurrent.conditional-routing:64}")
+    private int conditionalRoutingMaxConcurrent;
+
+    @Value("${agent.bulkhead.max-concurrent.conditional-routing-batch:4}")
+    private int conditionalRoutingBatchMaxConcurrent;
+
+    @Value("${agent.bulkhead.max-concurrent.sequential-flow:16}")
+    private int sequentialFlowMaxConcurrent;
+
+    @Value("${agent.bulkhead.max-concurrent.loop:4}")
+    private int loopMaxConcurrent;
+
+    @Value("${agent.bulkhead.max-concurrent.parallel-flow:16}")
+    private int parallelFlowMaxConcurrent;
+
+    @Value("${agent.bulkhead.max-concurrent.human-in-loop:8}")
+    private int humanInLoopMaxConcurrent;
+
+    @Value("${agent.bulkhead.max-concurrent.default:16}")
+    private int defaultMaxConcurrent;
+
+    @Value("${agent.bulkhead.retry-after:5s}")
+    private Duration bulkheadRetryAfter;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter modelConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return AdaptiveConcurrencyLimiter.builder()
+                .initialLimit(initialLimit)
+                .minLimit(minLimit)
+                .maxLimit(maxLimit)
+                .rttTolerance(rttTolerance)
+                .smoothing(smoothing)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    @Bean
+    public PatternBulkheads patternBulkheads(MeterRegistry meterRegistry) {
+        return new PatternBulkheads(Map.of(
+                "conditional-routing", conditionalRoutingMaxConcurrent,
+                "conditional-routing-batch", conditionalRoutingBatchMaxConcurrent,
+                "sequential-flow", sequentialFlowMaxConcurrent,
+                "loop", loopMaxConcurrent,
+                "parallel-flow", parallelFlowMaxConcurrent,
+                "human-in-loop", humanInLoopMaxConcurrent),
+                defaultMaxConcurrent, bulkheadRetryAfter, meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.agent.langchain.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.routing.LocalClassifierStage;
+import com.agent.langchain.routing.NaiveBayesCategoryClassifier;
+import com.agent.langchain.routing.SemanticRouteCache;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2.AllMiniLmL6V2EmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for query routing support beans.
+ * Provides the in-process embedding model, the semantic cache of routing
+ * decisions and the local fast-path classifier used in front of the LLM
+ * category router.
+ */
+@Configuration
+public class RoutingConfig {
+
+    @Value("${agent.routing.semantic-cache.similarity-threshold:0.92}")
+    private double similarityThreshold;
+
+    @Value("${agent.routing.semantic-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${agent.routing.local-classifier.enabled:true}")
+    private boolean localClassifierEnabled;
+
+    @Value("${agent.routing.local-classifier.confidence-threshold:0.9}")
+    private double confidenceThreshold;
+
+    @Value("${agent.routing.local-classifier.min-training-examples:50}")
+    private long minTrainingExamples;
+
+    @Value("${agent.routing.local-classifier.shadow-sample-rate:0.05}")
+    private double shadowSampleRate;
+
+    @Value("${agent.routing.local-classifier.model-path:${java.io.tmpdir}/agentic-ai-patterns/category-classifier.bin}")
+    private String modelPath;
+
+    @Value("${agent.routing.local-classifier.save-every:50}")
+    private long saveEvery;
+
+    /**
+     * Local all-MiniLM-L6-v2 embedding model running in-process via ONNX,
+     * so embedding a query costs no network round-trip.
+     */
+    @Bean
+    public EmbeddingModel routingEmbeddingModel() {
+        return new AllMiniLmL6V2EmbeddingModel();
+    }
+
+    @Bean
+    public SemanticRouteCache semanticRouteCache(EmbeddingModel routingEmbeddingModel, MeterRegistry meterRegistry) {
+        return new SemanticRouteCache(routingEmbeddingModel, similarityThreshold, maxEntries, meterRegistry);
+    }
+
+    /**
+     * Shadow classifications and periodic model saves run on the shared agent
+     * executor, off the request path.
+     */
+    @Bean(destroyMethod = "close")
+    public LocalClassifierStage localClassifierStage(AgentExecutor agentExecutor, MeterRegistry meterRegistry) {
+        return LocalClassifierStage.builder()
+                .classifier(new NaiveBayesCategoryClassifier())
+                .enabled(localClassifierEnabled)
+                .confidenceThreshold(confidenceThreshold)
+                .minTrainingExamples(minTrainingExamples)
+                .shadowSampleRate(shadowSampleRate)
+                .modelPath(modelPath.isBlank() ? null : Path.of(modelPath))
+                .saveEvery(saveEvery)
+                .backgroundExecutor(agentExecutor)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.agent.langchain.config;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.agent.langchain.observability.AgentTracer;
+import com.agent.langchain.observability.OtlpJsonFileExporter;
+import com.agent.langchain.observability.TraceExporter;
+
+/**
+ * Configuration for agent execution traces ({@code agent.tracing.*}).
+ * Provides the tracer keeping the most recent traces in memory and, when a
+ * path is configured, the OTLP/JSON file exporter.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Value("${agent.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.tracing.buffer-size:200}")
+    private int bufferSize;
+
+    @Value("${agent.tracing.max-spans-per-trace:500}")
+    private int maxSpansPerTrace;
+
+    @Value("${agent.tracing.otlp-file.path:}")
+    private String otlpFilePath;
+
+    @Value("${agent.tracing.otlp-file.max-size:64MB}")
+    private DataSize otlpFileMaxSize;
+
+    @Bean
+    public AgentTracer agentTracer() {
+        List<TraceExporter> exporters = new ArrayList<>();
+        if (!otlpFilePath.isBlank()) {
+            exporters.add(new OtlpJsonFileExporter(Path.of(otlpFilePath), otlpFileMaxSize.toBytes()));
+        }
+        return new AgentTracer(enabled, bufferSize, maxSpansPerTrace, exporters);
+    }
+}
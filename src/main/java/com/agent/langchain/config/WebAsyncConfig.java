@@ -0,0 +1,36 @@
+package com.agent.langchain.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.agent.langchain.execution.AgentExecutor;
+
+/**
+ * Configuration for asynchronous Spring MVC request handling.
+ * Async work is dispatched to the shared agent executor, and the container
+ * level request timeout is kept as a backstop above the per-pattern timeouts
+ * ({@code agent.async.timeout.*}), which are what normally end a slow request.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final AgentExecutor agentExecutor;
+
+    @Value("${agent.async.request-timeout:15m}")
+    private Duration requestTimeout;
+
+    public WebAsyncConfig(AgentExecutor agentExecutor) {
+        this.agentExecutor = agentExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(agentExecutor));
+        configurer.setDefaultTimeout(requestTimeout.toMillis());
+    }
+}
@@ -0,0 +1,226 @@
+package com.agent.langchain.controller;
+
+import com.agent.langchain.checkpoint.CheckpointStore;
+import com.agent.langchain.checkpoint.WorkflowCheckpoint;
+import com.agent.langchain.dto.ConfidenceThresholdRequest;
+import com.agent.langchain.dto.RoutingStatsResponse;
+import com.agent.langchain.dto.SimilarityThresholdRequest;
+import com.agent.langchain.dto.TraceSpanResponse;
+import com.agent.langchain.dto.TraceSummaryResponse;
+import com.agent.langchain.dto.WorkflowCheckpointResponse;
+import com.agent.langchain.observability.AgentTrace;
+import com.agent.langchain.observability.AgentTracer;
+import com.agent.langchain.observability.TraceSpan;
+import com.agent.langchain.routing.CategoryResolver;
+import com.agent.langchain.routing.LocalClassifierStage;
+import com.agent.langchain.routing.SemanticRouteCache;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for operational tuning of the agent patterns.
+ *
+ * Exposes runtime statistics and knobs that operators adjust without
+ * redeploying, such as the semantic route cache similarity threshold and the
+ * local classifier confidence threshold, the most recent agent
+ * execution traces and the checkpoints of unfinished workflow runs.
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    private final SemanticRouteCache semanticRouteCache;
+    private final LocalClassifierStage localClassifier;
+    private final CategoryResolver categoryResolver;
+    private final AgentTracer agentTracer;
+    private final CheckpointStore checkpointStore;
+
+    public AdminController(SemanticRouteCache semanticRouteCache, LocalClassifierStage localClassifier,
+            CategoryResolver categoryResolver, AgentTracer agentTracer, CheckpointStore checkpointStore) {
+        this.semanticRouteCache = semanticRouteCache;
+        this.localClassifier = localClassifier;
+        this.categoryResolver = categoryResolver;
+        this.agentTracer = agentTracer;
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * Returns routing statistics: semantic cache hit rate, share of traffic
+     * handled locally and the shadow-mode disagreement rate.
+     */
+    @GetMapping("/routing/stats")
+    public ResponseEntity<RoutingStatsResponse> routingStats() {
+        return ResponseEntity.ok(buildRoutingStats());
+    }
+
+    /**
+     * Changes the similarity a cached routing decision must reach to be reused.
+     */
+    @PutMapping("/routing/semantic-cache/threshold")
+    public ResponseEntity<RoutingStatsResponse> updateSimilarityThreshold(
+            @Valid @RequestBody SimilarityThresholdRequest request) {
+        logger.info("Updating semantic route cache similarity threshold from {} to {}",
+                semanticRouteCache.getSimilarityThreshold(), request.getSimilarityThreshold());
+        semanticRouteCache.setSimilarityThreshold(request.getSimilarityThreshold());
+        return ResponseEntity.ok(buildRoutingStats());
+    }
+
+    /**
+     * Forgets every cached routing decision.
+     */
+    @DeleteMapping("/routing/semantic-cache")
+    public ResponseEntity<RoutingStatsResponse> clearSemanticCache() {
+        logger.info("Clearing semantic route cache ({} entries)", semanticRouteCache.size());
+        semanticRouteCache.clear();
+        return ResponseEntity.ok(buildRoutingStats());
+    }
+
+    /**
+     * Changes the confidence a local classifier prediction must reach to be used.
+     */
+    @PutMapping("/routing/local-classifier/threshold")
+    public ResponseEntity<RoutingStatsResponse> updateConfidenceThreshold(
+            @Valid @RequestBody ConfidenceThresholdRequest request) {
+        logger.info("Updating local classifier confidence threshold from {} to {}",
+                localClassifier.getConfidenceThreshold(), request.getConfidenceThreshold());
+        localClassifier.setConfidenceThreshold(request.getConfidenceThreshold());
+        return ResponseEntity.ok(buildRoutingStats());
+    }
+
+    /**
+     * Persists the local classifier model now instead of waiting for the next
+     * periodic save.
+     */
+    @PostMapping("/routing/local-classifier/save")
+    public ResponseEntity<RoutingStatsResponse> saveLocalClassifier() {
+        logger.info("Saving local classifier ({} examples)", localClassifier.getTrainingExamples());
+        localClassifier.saveModel();
+        return ResponseEntity.ok(buildRoutingStats());
+    }
+
+    /**
+     * Lists the most recent execution traces, newest first.
+     *
+     * @param pattern optional pattern name to filter by, e.g. {@code loop}
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<List<TraceSummaryResponse>> traces(@RequestParam(required = false) String pattern) {
+        return ResponseEntity.ok(agentTracer.recentTraces().stream()
+                .filter(trace -> pattern == null || trace.getPattern().equals(pattern))
+                .map(AdminController::toSummary)
+                .toList());
+    }
+
+    /**
+     * Returns the span tree of one execution trace.
+     */
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<TraceSpanResponse> trace(@PathVariable String traceId) {
+        return agentTracer.findTrace(traceId)
+                .map(trace -> ResponseEntity.ok(toSpanResponse(trace.getRoot())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Lists the checkpoints of workflow runs that have not finished, most
+     * recently updated first. A run listed here was interrupted, failed or is
+     * still running; retrying its request resumes it.
+     */
+    @GetMapping("/checkpoints")
+    public ResponseEntity<List<WorkflowCheckpointResponse>> checkpoints(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(checkpointStore.inProgress(limit).stream()
+                .map(AdminController::toCheckpointResponse)
+                .toList());
+    }
+
+    /**
+     * Returns the checkpoint of one unfinished workflow run.
+     */
+    @GetMapping("/checkpoints/{id}")
+    public ResponseEntity<WorkflowCheckpointResponse> checkpoint(@PathVariable String id) {
+        return checkpointStore.find(id)
+                .map(checkpoint -> ResponseEntity.ok(toCheckpointResponse(checkpoint)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Discards a checkpoint, so that retrying its request starts from scratch.
+     */
+    @DeleteMapping("/checkpoints/{id}")
+    public ResponseEntity<Void> deleteCheckpoint(@PathVariable String id) {
+        if (!checkpointStore.delete(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        logger.info("Discarded workflow checkpoint {}", id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static WorkflowCheckpointResponse toCheckpointResponse(WorkflowCheckpoint checkpoint) {
+        WorkflowCheckpointResponse response = new WorkflowCheckpointResponse();
+        response.setId(checkpoint.id());
+        response.setWorkflow(checkpoint.workflow());
+        response.setCompletedSteps(checkpoint.steps());
+        response.setState(checkpoint.state());
+        response.setStartedAt(checkpoint.startedAt());
+        response.setUpdatedAt(checkpoint.updatedAt());
+        return response;
+    }
+
+    private static TraceSummaryResponse toSummary(AgentTrace trace) {
+        TraceSpan root = trace.getRoot();
+        TraceSummaryResponse summary = new TraceSummaryResponse();
+        summary.setTraceId(trace.getTraceId());
+        summary.setPattern(trace.getPattern());
+        summary.setStartTime(trace.getStartTime());
+        summary.setDurationMs(root.getDurationNanos() / 1_000_000.0);
+        summary.setStatus(root.getStatus().name());
+        summary.setError(root.getError());
+        summary.setSpanCount(trace.getSpanCount());
+        summary.setDroppedSpans(trace.getDroppedSpans());
+        return summary;
+    }
+
+    private static TraceSpanResponse toSpanResponse(TraceSpan span) {
+        TraceSpanResponse response = new TraceSpanResponse();
+        response.setSpanId(span.getSpanId());
+        response.setName(span.getName());
+        response.setKind(span.getKind().name());
+        response.setStatus(span.getStatus().name());
+        response.setError(span.getError());
+        response.setStartOffsetMs(span.getStartOffsetNanos() / 1_000_000.0);
+        response.setDurationMs(span.getDurationNanos() / 1_000_000.0);
+        response.setRetries(span.getRetries());
+        response.setAttributes(span.getAttributes());
+        response.setChildren(span.getChildren().stream().map(AdminController::toSpanResponse).toList());
+        return response;
+    }
+
+    private RoutingStatsResponse buildRoutingStats() {
+        RoutingStatsResponse stats = new RoutingStatsResponse();
+        stats.setSemanticCacheHits(semanticRouteCache.getHits());
+        stats.setSemanticCacheMisses(semanticRouteCache.getMisses());
+        stats.setSemanticCacheHitRate(semanticRouteCache.hitRate());
+        stats.setSemanticCacheEntries(semanticRouteCache.size());
+        stats.setSemanticCacheMaxEntries(semanticRouteCache.getMaxEntries());
+        stats.setSimilarityThreshold(semanticRouteCache.getSimilarityThreshold());
+        stats.setSemanticCacheDecisions(categoryResolver.getSemanticCacheDecisions());
+        stats.setLocalDecisions(categoryResolver.getLocalDecisions());
+        stats.setLlmDecisions(categoryResolver.getLlmDecisions());
+        stats.setLocalShare(categoryResolver.localShare());
+        stats.setLocalClassifierEnabled(localClassifier.isEnabled());
+        stats.setLocalTrainingExamples(localClassifier.getTrainingExamples());
+        stats.setConfidenceThreshold(localClassifier.getConfidenceThreshold());
+        stats.setShadowSamples(localClassifier.getShadowSamples());
+        stats.setShadowDisagreements(localClassifier.getShadowDisagreements());
+        stats.setShadowDisagreementRate(localClassifier.disagreementRate());
+        return stats;
+    }
+}
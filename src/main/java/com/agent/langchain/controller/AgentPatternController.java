@@ -1,16 +1,25 @@
 package com.agent.langchain.controller;
 
+import com.agent.langchain.dto.BatchExpertQueryRequest;
+import com.agent.langchain.dto.BatchExpertQueryResponse;
 import com.agent.langchain.dto.ContentRefinementRequest;
 import com.agent.langchain.dto.ContentRefinementResponse;
 import com.agent.langchain.dto.ExpertQueryRequest;
 import com.agent.langchain.dto.ExpertQueryResponse;
+import com.agent.langchain.dto.HumanFeedbackRequest;
 import com.agent.langchain.dto.HumanInLoopRequest;
 import com.agent.langchain.dto.HumanInLoopResponse;
 import com.agent.langchain.dto.ParallelFlowRequest;
 import com.agent.langchain.dto.ParallelFlowResponse;
 import com.agent.langchain.dto.RecipeRequest;
 import com.agent.langchain.dto.RecipeResponse;
-import com.agent.langchain.patterns.HumanInLoopPattern;
+import com.agent.langchain.refinement.EditMode;
+import com.agent.langchain.refinement.RefinementResult;
+import com.agent.langchain.refinement.RefinementSettings;
+import com.agent.langchain.rendering.PitchDocument;
+import com.agent.langchain.rendering.PitchDocumentHttpMessageConverter;
+import com.agent.langchain.review.InterviewReview;
+import com.agent.langchain.routing.BatchExpertRouter.RoutedAnswer;
 import com.agent.langchain.services.AgentPatternService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -18,6 +27,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST Controller for AI Agent Patterns.
  * 
@@ -29,7 +44,13 @@ import org.springframework.web.bind.annotation.*;
  * - Sequential Flow: Processes requests through a pipeline of agents
  * - Loop Pattern: Iteratively refines content through quality scoring and editing
  * - Parallel Flow: Executes multiple independent agents concurrently
- * - Human in Loop: Simple one-step interview coaching with human feedback
+ * - Human in Loop: Interview coaching suspended for human review; reviewers
+ * list the pending reviews and submit feedback, which resumes the workflow
+ * 
+ * All endpoints are asynchronous: the servlet request thread is released as
+ * soon as the pattern has been handed to the agent executor, and the response
+ * is written when the returned future completes. Each pattern has its own
+ * timeout (see {@link AgentPatternService}); expiry yields 504 Gateway Timeout.
  */
 @RestController
 @RequestMapping("/api/v1/patterns")
@@ -38,12 +59,9 @@ public class AgentPatternController {
     private static final Logger logger = LoggerFactory.getLogger(AgentPatternController.class);
 
     private final AgentPatternService agentPatternService;
-    private final HumanInLoopPattern.InterviewSupervisor interviewSupervisor;
 
-    public AgentPatternController(AgentPatternService agentPatternService, 
-            HumanInLoopPattern.InterviewSupervisor interviewSupervisor) {
+    public AgentPatternController(AgentPatternService agentPatternService) {
         this.agentPatternService = agentPatternService;
-        this.interviewSupervisor = interviewSupervisor;
     }
 
     /**
@@ -51,10 +69,27 @@ public class AgentPatternController {
      * Routes a query to the appropriate expert agent using the conditional routing pattern.
      */
     @PostMapping("/conditional-routing/route")
-    public ResponseEntity<ExpertQueryResponse> conditionalRouting(@Valid @RequestBody ExpertQueryRequest request) {
+    public CompletableFuture<ResponseEntity<ExpertQueryResponse>> conditionalRouting(
+            @Valid @RequestBody ExpertQueryRequest request) {
         logger.info("Received conditional routing request");
-        String response = agentPatternService.executeConditionalRouting(request.getQuery());
-        return ResponseEntity.ok(new ExpertQueryResponse(response));
+        return agentPatternService.executeConditionalRoutingAsync(request.getQuery())
+                .thenApply(response -> ResponseEntity.ok(new ExpertQueryResponse(response)));
+    }
+
+    /**
+     * Batch Conditional Routing Endpoint.
+     * Routes many queries at once; results come back in request order, each
+     * with either the expert's response or its own error.
+     */
+    @PostMapping("/conditional-routing/route-batch")
+    public CompletableFuture<ResponseEntity<BatchExpertQueryResponse>> conditionalRoutingBatch(
+            @Valid @RequestBody BatchExpertQueryRequest request) {
+        logger.info("Received conditional routing batch request with {} queries", request.getQueries().size());
+        List<String> queries = request.getQueries().stream()
+                .map(query -> query == null ? null : query.getQuery())
+                .toList();
+        return agentPatternService.executeConditionalRoutingBatchAsync(queries)
+                .thenApply(answers -> ResponseEntity.ok(toBatchResponse(answers)));
     }
 
     /**
@@ -62,12 +97,12 @@ public class AgentPatternController {
      * Develops a complete recipe through a sequential pipeline of specialized agents.
      */
     @PostMapping("/sequential-flow/develop-recipe")
-    public ResponseEntity<RecipeResponse> sequentialFlow(@Valid @RequestBody RecipeRequest request) {
+    public CompletableFuture<ResponseEntity<RecipeResponse>> sequentialFlow(@Valid @RequestBody RecipeRequest request) {
         logger.info("Received sequential flow request for cuisine: {}, dietary: {}, mealType: {}",
                 request.getCuisine(), request.getDietary(), request.getMealType());
-        String recipe = agentPatternService.executeSequentialFlow(
-                request.getCuisine(), request.getDietary(), request.getMealType());
-        return ResponseEntity.ok(new RecipeResponse(recipe));
+        return agentPatternService.executeSequentialFlowAsync(
+                request.getCuisine(), request.getDietary(), request.getMealType())
+                .thenApply(recipe -> ResponseEntity.ok(new RecipeResponse(recipe)));
     }
 
     /**
@@ -75,71 +110,141 @@ public class AgentPatternController {
      * Refines content through an iterative loop of quality scoring and editing.
      */
     @PostMapping("/loop/refine-content")
-    public ResponseEntity<ContentRefinementResponse> loopPattern(@Valid @RequestBody ContentRefinementRequest request) {
+    public CompletableFuture<ResponseEntity<ContentRefinementResponse>> loopPattern(
+            @Valid @RequestBody ContentRefinementRequest request) {
         logger.info("Received loop pattern request for topic: {}, style: {}", 
                 request.getTopic(), request.getStyle());
-        String content = agentPatternService.executeLoopPattern(request.getTopic(), request.getStyle());
-        return ResponseEntity.ok(new ContentRefinementResponse(content));
+        return agentPatternService.executeLoopPatternAsync(request.getTopic(), request.getStyle(),
+                toRefinementSettings(request))
+                .thenApply(result -> ResponseEntity.ok(toContentRefinementResponse(result)));
     }
 
     /**
      * Parallel Flow Pattern Endpoint.
      * Builds a comprehensive startup pitch by executing multiple agents in parallel.
+     *
+     * The pitch sections are written straight into the response by
+     * {@link PitchDocumentHttpMessageConverter}: JSON shaped as
+     * {@link ParallelFlowResponse} by default, or markdown or plain text
+     * when the client accepts {@code text/markdown} or {@code text/plain}.
      */
     @PostMapping("/parallel-flow/build-pitch")
-    public ResponseEntity<ParallelFlowResponse> parallelFlow(@Valid @RequestBody ParallelFlowRequest request) {
+    public CompletableFuture<ResponseEntity<PitchDocument>> parallelFlow(
+            @Valid @RequestBody ParallelFlowRequest request) {
         logger.info("Received parallel flow request for startup: {}", request.getStartupName());
-        String pitch = agentPatternService.executeParallelFlow(
-                request.getStartupName(), request.getIdea(), request.getTargetMarket());
-        return ResponseEntity.ok(new ParallelFlowResponse(pitch));
+        return agentPatternService.executeParallelFlowAsync(
+                request.getStartupName(), request.getIdea(), request.getTargetMarket())
+                .thenApply(ResponseEntity::ok);
     }
 
     /**
-     * Human in Loop Pattern - Single Step Endpoint.
+     * Human in Loop Pattern - Submission Endpoint.
      * 
-     * Submission → AI Coaching Feedback → Human Feedback → Final Assessment
-     * All in one API call.
+     * Submission → AI Coaching Feedback → suspended for human review.
+     * Answers 202 Accepted with the review ticket and the coaching feedback;
+     * the Location header points at the review.
      * 
      * @param request the interview coaching request with candidate, position, question, response
-     * @return complete assessment with coaching feedback, human feedback, and final recommendation
+     * @return the review awaiting human feedback
      */
     @PostMapping("/human-in-loop/submit-interview")
-    public ResponseEntity<HumanInLoopResponse> submitInterviewResponse(
+    public CompletableFuture<ResponseEntity<HumanInLoopResponse>> submitInterviewResponse(
             @Valid @RequestBody HumanInLoopRequest request) {
         logger.info("Received interview response from candidate: {}, position: {}",
                 request.getCandidateName(), request.getPosition());
+        return agentPatternService.executeHumanInLoopAsync(request.getCandidateName(), request.getPosition(),
+                request.getQuestion(), request.getResponse())
+                .thenApply(review -> ResponseEntity.accepted()
+                        .location(reviewLocation(review))
+                        .body(toHumanInLoopResponse(review)));
+    }
+
+    /**
+     * Human in Loop Pattern - Pending Reviews Endpoint.
+     * Lists the interviews waiting for a human interviewer, oldest first.
+     */
+    @GetMapping("/human-in-loop/reviews")
+    public ResponseEntity<List<HumanInLoopResponse>> pendingReviews(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(agentPatternService.getPendingInterviewReviews(limit).stream()
+                .map(AgentPatternController::toHumanInLoopResponse)
+                .toList());
+    }
+
+    /**
+     * Human in Loop Pattern - Review Status Endpoint.
+     * Returns the review with the final assessment once it is completed.
+     */
+    @GetMapping("/human-in-loop/reviews/{ticket}")
+    public ResponseEntity<HumanInLoopResponse> review(@PathVariable String ticket) {
+        return ResponseEntity.ok(toHumanInLoopResponse(agentPatternService.getInterviewReview(ticket)));
+    }
+
+    /**
+     * Human in Loop Pattern - Feedback Endpoint.
+     * 
+     * Human Feedback → Final Assessment, written in the background.
+     * Answers 202 Accepted; poll the review for the assessment. Unknown
+     * tickets yield 404, reviews that do not wait for feedback 409.
+     */
+    @PostMapping("/human-in-loop/reviews/{ticket}/feedback")
+    public ResponseEntity<HumanInLoopResponse> submitFeedback(@PathVariable String ticket,
+            @Valid @RequestBody HumanFeedbackRequest request) {
+        logger.info("Received human feedback for review {}", ticket);
+        InterviewReview review = agentPatternService.submitInterviewFeedback(ticket, request.getFeedback());
+        return ResponseEntity.accepted()
+                .location(reviewLocation(review))
+                .body(toHumanInLoopResponse(review));
+    }
+
+    /**
+     * Builds the interview response DTO from the review's workflow scope.
+     */
+    static HumanInLoopResponse toHumanInLoopResponse(InterviewReview review) {
+        return new HumanInLoopResponse(
+                review.ticket(),
+                review.status().tag(),
+                review.get(InterviewReview.CANDIDATE_NAME),
+                review.get(InterviewReview.POSITION),
+                review.get(InterviewReview.QUESTION),
+                review.get(InterviewReview.COACH_FEEDBACK),
+                review.get(InterviewReview.HUMAN_FEEDBACK),
+                review.get(InterviewReview.ASSESSMENT),
+                review.error(),
+                review.submittedAt(),
+                review.updatedAt());
+    }
+
+    private static URI reviewLocation(InterviewReview review) {
+        return URI.create("/api/v1/patterns/human-in-loop/reviews/" + review.ticket());
+    }
+
+    /**
+     * Termination settings of a refinement request; unset fields keep the
+     * configured defaults.
+     */
+    static RefinementSettings toRefinementSettings(ContentRefinementRequest request) {
+        return new RefinementSettings(request.getQualityThreshold(), request.getMaxIterations(),
+                request.getPlateauWindow(), request.getMinImprovement(),
+                request.getLatencyBudgetMs() == null ? null : Duration.ofMillis(request.getLatencyBudgetMs()),
+                request.getTokenBudget(), request.getCandidates(),
+                request.getEditMode() == null ? null : EditMode.fromTag(request.getEditMode()));
+    }
+
+    static ContentRefinementResponse toContentRefinementResponse(RefinementResult result) {
+        return new ContentRefinementResponse(result.content(), result.score(), result.iterations(),
+                result.candidates(), result.stopReason().tag(), result.scores(), result.tokens(),
+                result.tokensSaved());
+    }
 
-        try {
-            // Build the complete interview request
-            String interviewRequest = String.format(
-                    "Analyze this interview response:\n\n" +
-                    "Candidate: %s\n" +
-                    "Position: %s\n" +
-                    "Question: %s\n" +
-                    "Response: %s\n\n" +
-                    "Provide AI coaching feedback, collect human interviewer feedback, " +
-                    "and synthesize both into a final hiring assessment.",
-                    request.getCandidateName(), request.getPosition(),
-                    request.getQuestion(), request.getResponse());
-
-            // Execute the supervisor - returns complete assessment including human feedback
-            String completeAssessment = interviewSupervisor.conductInterview(interviewRequest);
-
-            // For this simplified version, we parse the assessment to extract components
-            // In real scenario, supervisor returns structured data
-            HumanInLoopResponse response = new HumanInLoopResponse(
-                    request.getCandidateName(),
-                    request.getPosition(),
-                    "AI Coaching Feedback - [See finalAssessment for complete feedback]",
-                    "Human Feedback - [Collected during assessment]",
-                    completeAssessment);
-
-            logger.info("Successfully completed interview assessment for candidate: {}", 
-                    request.getCandidateName());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error processing interview: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to process interview: " + e.getMessage(), e);
+    private static BatchExpertQueryResponse toBatchResponse(List<RoutedAnswer> answers) {
+        List<BatchExpertQueryResponse.Result> results = new ArrayList<>(answers.size());
+        for (int i = 0; i < answers.size(); i++) {
+            RoutedAnswer answer = answers.get(i);
+            results.add(new BatchExpertQueryResponse.Result(i,
+                    answer.category() == null ? null : answer.category().name(),
+                    answer.response(), answer.error()));
         }
+        return new BatchExpertQueryResponse(results);
     }
 }
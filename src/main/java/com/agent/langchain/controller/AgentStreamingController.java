@@ -0,0 +1,110 @@
+package com.agent.langchain.controller;
+
+import com.agent.langchain.dto.ContentRefinementRequest;
+import com.agent.langchain.dto.ExpertQueryRequest;
+import com.agent.langchain.dto.ExpertQueryResponse;
+import com.agent.langchain.dto.HumanInLoopRequest;
+import com.agent.langchain.dto.ParallelFlowRequest;
+import com.agent.langchain.dto.ParallelFlowResponse;
+import com.agent.langchain.dto.RecipeRequest;
+import com.agent.langchain.dto.RecipeResponse;
+import com.agent.langchain.services.AgentPatternService;
+import com.agent.langchain.services.AgentStreamingService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for streaming AI Agent Patterns.
+ *
+ * Every pattern endpoint of {@link AgentPatternController} has a streaming
+ * variant under the same path with a {@code /stream} suffix. It accepts the
+ * same request body and answers with Server-Sent Events:
+ * - stage: an agent started or completed ({"agent", "status"})
+ * - token: a token delta of the speaking agent ({"agent", "text"})
+ * - section: a finished part of the result, sent before the whole result
+ * ({"section", "status", "content"}); used by the parallel flow
+ * - result: the same response DTO as the blocking endpoint
+ * - error: an ErrorResponse if the pattern failed
+ */
+@RestController
+@RequestMapping("/api/v1/patterns")
+public class AgentStreamingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentStreamingController.class);
+
+    private final AgentPatternService agentPatternService;
+    private final AgentStreamingService agentStreamingService;
+
+    public AgentStreamingController(AgentPatternService agentPatternService,
+            AgentStreamingService agentStreamingService) {
+        this.agentPatternService = agentPatternService;
+        this.agentStreamingService = agentStreamingService;
+    }
+
+    /**
+     * Streaming Conditional Routing Pattern Endpoint.
+     */
+    @PostMapping(value = "/conditional-routing/route/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter conditionalRouting(@Valid @RequestBody ExpertQueryRequest request) {
+        logger.info("Received streaming conditional routing request");
+        return agentStreamingService.stream("conditional routing",
+                () -> new ExpertQueryResponse(agentPatternService.executeConditionalRouting(request.getQuery())));
+    }
+
+    /**
+     * Streaming Sequential Flow Pattern Endpoint.
+     */
+    @PostMapping(value = "/sequential-flow/develop-recipe/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter sequentialFlow(@Valid @RequestBody RecipeRequest request) {
+        logger.info("Received streaming sequential flow request for cuisine: {}, dietary: {}, mealType: {}",
+                request.getCuisine(), request.getDietary(), request.getMealType());
+        return agentStreamingService.stream("sequential flow",
+                () -> new RecipeResponse(agentPatternService.executeSequentialFlow(
+                        request.getCuisine(), request.getDietary(), request.getMealType())));
+    }
+
+    /**
+     * Streaming Loop Pattern Endpoint.
+     */
+    @PostMapping(value = "/loop/refine-content/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter loopPattern(@Valid @RequestBody ContentRefinementRequest request) {
+        logger.info("Received streaming loop pattern request for topic: {}, style: {}",
+                request.getTopic(), request.getStyle());
+        return agentStreamingService.stream("loop pattern",
+                () -> AgentPatternController.toContentRefinementResponse(agentPatternService.executeLoopPattern(
+                        request.getTopic(), request.getStyle(), AgentPatternController.toRefinementSettings(request))));
+    }
+
+    /**
+     * Streaming Parallel Flow Pattern Endpoint.
+     * Token events of the three parallel agents are interleaved; clients
+     * demultiplex them by agent name. Each pitch section is flushed as a
+     * section event as soon as its agent finishes, times out or fails.
+     */
+    @PostMapping(value = "/parallel-flow/build-pitch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter parallelFlow(@Valid @RequestBody ParallelFlowRequest request) {
+        logger.info("Received streaming parallel flow request for startup: {}", request.getStartupName());
+        return agentStreamingService.stream("parallel flow",
+                () -> new ParallelFlowResponse(agentPatternService.executeParallelFlow(
+                        request.getStartupName(), request.getIdea(), request.getTargetMarket())));
+    }
+
+    /**
+     * Streaming Human in Loop Pattern Endpoint.
+     * Streams the coaching phase; the result is the review awaiting human
+     * feedback, to be continued through the review endpoints.
+     */
+    @PostMapping(value = "/human-in-loop/submit-interview/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter submitInterviewResponse(@Valid @RequestBody HumanInLoopRequest request) {
+        logger.info("Received streaming interview response from candidate: {}, position: {}",
+                request.getCandidateName(), request.getPosition());
+        return agentStreamingService.stream("human in loop",
+                () -> AgentPatternController.toHumanInLoopResponse(agentPatternService.executeHumanInLoop(
+                        request.getCandidateName(), request.getPosition(),
+                        request.getQuestion(), request.getResponse())));
+    }
+}
@@ -0,0 +1,136 @@
+package com.agent.langchain.dataflow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency graph of a {@link DataflowWorkflow}.
+ *
+ * A node depends on the node producing each of its inputs; inputs that are
+ * workflow inputs add no edge. The graph is validated when it is built: every
+ * input must be a workflow input or some node's output, output keys must be
+ * unique, and the graph must be acyclic.
+ */
+public final class DataflowGraph {
+
+    private final Set<String> inputs;
+    private final Map<String, List<DataflowNode>> dependencies;
+    private final Map<String, List<DataflowNode>> dependents;
+    private final List<DataflowNode> topologicalOrder;
+
+    /**
+     * @param inputs state keys provided by the caller of the workflow
+     * @param nodes  the agents, in any order
+     */
+    public DataflowGraph(Collection<String> inputs, Collection<DataflowNode> nodes) {
+        this.inputs = Collections.unmodifiableSet(new LinkedHashSet<>(inputs));
+        Map<String, DataflowNode> byName = new LinkedHashMap<>();
+        Map<String, DataflowNode> producers = new HashMap<>();
+        for (DataflowNode node : nodes) {
+            if (byName.putIfAbsent(node.name(), node) != null) {
+                throw new IllegalArgumentException("Duplicate dataflow node " + node.name());
+            }
+            if (this.inputs.contains(node.outputKey())) {
+                throw new IllegalArgumentException(node.name() + " overwrites workflow input " + node.outputKey());
+            }
+            DataflowNode other = producers.putIfAbsent(node.outputKey(), node);
+            if (other != null) {
+                throw new IllegalArgumentException(node.name() + " and " + other.name() + " both write "
+                        + node.outputKey());
+            }
+        }
+
+        Map<String, List<DataflowNode>> dependencies = new HashMap<>();
+        Map<String, List<DataflowNode>> dependents = new HashMap<>();
+        for (DataflowNode node : byName.values()) {
+            Set<DataflowNode> requires = new LinkedHashSet<>();
+            for (String input : node.inputs()) {
+                DataflowNode producer = producers.get(input);
+                if (producer != null) {
+                    requires.add(producer);
+                } else if (!this.inputs.contains(input)) {
+                    throw new IllegalArgumentException(node.name() + " reads " + input
+                            + ", which is neither a workflow input nor an agent output");
+                }
+            }
+            dependencies.put(node.name(), List.copyOf(requires));
+            for (DataflowNode producer : requires) {
+                dependents.computeIfAbsent(producer.name(), name -> new ArrayList<>()).add(node);
+            }
+        }
+        dependents.replaceAll((name, list) -> List.copyOf(list));
+        this.dependencies = Map.copyOf(dependencies);
+        this.dependents = Map.copyOf(dependents);
+        this.topologicalOrder = sort(byName.values());
+    }
+
+    /**
+     * Kahn's algorithm, keeping the declaration order among ready nodes.
+     */
+    private List<DataflowNode> sort(Collection<DataflowNode> declared) {
+        Map<String, Integer> pending = new HashMap<>();
+        Deque<DataflowNode> ready = new ArrayDeque<>();
+        for (DataflowNode node : declared) {
+            int count = dependencies.get(node.name()).size();
+            pending.put(node.name(), count);
+            if (count == 0) {
+                ready.add(node);
+            }
+        }
+        List<DataflowNode> order = new ArrayList<>(declared.size());
+        while (!ready.isEmpty()) {
+            DataflowNode node = ready.poll();
+            order.add(node);
+            for (DataflowNode dependent : dependentsOf(node)) {
+                if (pending.merge(dependent.name(), -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() < declared.size()) {
+            List<String> cyclic = declared.stream()
+                    .filter(node -> !order.contains(node))
+                    .map(DataflowNode::name)
+                    .toList();
+            throw new IllegalArgumentException("Dataflow nodes depend on each other in a cycle: " + cyclic);
+        }
+        return List.copyOf(order);
+    }
+
+    /**
+     * @return the workflow inputs, in declaration order
+     */
+    public Set<String> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * @return the nodes producing the inputs of the given node
+     */
+    public List<DataflowNode> dependenciesOf(DataflowNode node) {
+        return dependencies.get(node.name());
+    }
+
+    /**
+     * @return the nodes reading the output of the given node
+     */
+    public List<DataflowNode> dependentsOf(DataflowNode node) {
+        return dependents.getOrDefault(node.name(), List.of());
+    }
+
+    /**
+     * @return the nodes in an order where every node comes after its dependencies
+     */
+    public List<DataflowNode> topologicalOrder() {
+        return topologicalOrder;
+    }
+}
@@ -0,0 +1,100 @@
+package com.agent.langchain.dataflow;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import dev.langchain4j.agentic.Agent;
+import dev.langchain4j.agentic.planner.AgentInstance;
+import dev.langchain4j.service.V;
+
+/**
+ * One agent of a {@link DataflowWorkflow}, with the state keys it reads and
+ * the key it writes.
+ *
+ * The inputs are taken from the {@code @V} parameters of the agent's
+ * {@code @Agent} method, the same declarations the prompt template uses; the
+ * agent type and output key are read from the built agent, so the key is
+ * declared once, with {@code outputKey(...)} on its builder.
+ *
+ * @param name      node name, the simple name of the agent interface
+ * @param agent     the agent instance
+ * @param method    its {@code @Agent} method
+ * @param inputs    state keys of the method arguments, in parameter order
+ * @param outputKey state key the result is written to
+ */
+public record DataflowNode(String name, Object agent, Method method, List<String> inputs, String outputKey) {
+
+    public DataflowNode {
+        inputs = List.copyOf(inputs);
+    }
+
+    /**
+     * Describes an agent built with {@code AgenticServices.agentBuilder}.
+     *
+     * @param agent the built agent, which exposes its interface and output key
+     */
+    public static DataflowNode of(Object agent) {
+        if (!(agent instanceof AgentInstance instance)) {
+            throw new IllegalArgumentException(agent + " was not built with AgenticServices.agentBuilder");
+        }
+        Class<?> agentType = instance.type();
+        String outputKey = instance.outputKey();
+        if (outputKey == null || outputKey.isBlank()) {
+            throw new IllegalArgumentException("Output key of " + agentType.getSimpleName() + " is required");
+        }
+        Method method = agentMethod(agentType);
+        List<String> inputs = new ArrayList<>(method.getParameterCount());
+        for (Parameter parameter : method.getParameters()) {
+            V variable = parameter.getAnnotation(V.class);
+            if (variable == null) {
+                throw new IllegalArgumentException("Parameter " + parameter.getName() + " of "
+                        + agentType.getSimpleName() + "." + method.getName() + " has no @V name");
+            }
+            inputs.add(variable.value());
+        }
+        return new DataflowNode(agentType.getSimpleName(), agent, method, inputs, outputKey);
+    }
+
+    private static Method agentMethod(Class<?> agentType) {
+        Method found = null;
+        for (Method method : agentType.getMethods()) {
+            if (method.isAnnotationPresent(Agent.class)) {
+                if (found != null) {
+                    throw new IllegalArgumentException(agentType.getSimpleName() + " has more than one @Agent method");
+                }
+                found = method;
+            }
+        }
+        if (found == null) {
+            throw new IllegalArgumentException(agentType.getSimpleName() + " has no @Agent method");
+        }
+        return found;
+    }
+
+    /**
+     * Invokes the agent with its inputs taken from the given state.
+     */
+    Object invoke(Map<String, Object> state) {
+        Object[] arguments = new Object[inputs.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = state.get(inputs.get(i));
+        }
+        try {
+            return method.invoke(agent, arguments);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Agent " + name + " failed", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Agent " + name + " is not accessible", e);
+        }
+    }
+}
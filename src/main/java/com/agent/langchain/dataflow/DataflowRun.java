@@ -0,0 +1,89 @@
+package com.agent.langchain.dataflow;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of one {@link DataflowWorkflow} run.
+ *
+ * @param output       the workflow output
+ * @param elapsed      wall-clock time of the run
+ * @param timings      when each agent ran, in start order; agents that timed
+ *                     out or failed are included, skipped ones are not
+ * @param criticalPath the chain of agents that determined the elapsed time,
+ *                     in execution order
+ * @param failures     agents without output, in partial-result mode
+ */
+public record DataflowRun(Object output, Duration elapsed, List<NodeTiming> timings, List<NodeTiming> criticalPath,
+        List<NodeFailure> failures) {
+
+    public DataflowRun {
+        timings = List.copyOf(timings);
+        criticalPath = List.copyOf(criticalPath);
+        failures = List.copyOf(failures);
+    }
+
+    /**
+     * How an agent of the run ended.
+     */
+    public enum NodeStatus {
+        COMPLETED,
+        FAILED,
+        TIMED_OUT,
+        /**
+         * Not run because an agent it depends on has no output.
+         */
+        SKIPPED;
+
+        /**
+         * @return the status as used in events and metric tags, e.g. {@code timed-out}
+         */
+        public String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    /**
+     * When one agent ran, relative to the start of the run.
+     *
+     * @param node     node name
+     * @param start    offset of the invocation start
+     * @param duration invocation time, or time until it timed out or failed
+     */
+    public record NodeTiming(String node, Duration start, Duration duration) {
+
+        public Duration end() {
+            return start.plus(duration);
+        }
+    }
+
+    /**
+     * An agent that produced no output. In partial-result mode it takes the
+     * place of the output in the workflow state, so the output function can
+     * mark the gap.
+     *
+     * @param node      node name
+     * @param outputKey the state key left without output
+     * @param status    FAILED, TIMED_OUT or SKIPPED
+     * @param message   what went wrong
+     */
+    public record NodeFailure(String node, String outputKey, NodeStatus status, String message) {
+    }
+
+    /**
+     * @return whether every agent produced its output
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * @return the critical path, e.g. {@code "IngredientCurator (1200 ms) -> CookingMethodDesigner (2300 ms)"}
+     */
+    public String describeCriticalPath() {
+        return criticalPath.stream()
+                .map(timing -> timing.node() + " (" + timing.duration().toMillis() + " ms)")
+                .collect(Collectors.joining(" -> "));
+    }
+}
@@ -0,0 +1,583 @@
+package com.agent.langchain.dataflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.checkpoint.CheckpointStore;
+import com.agent.langchain.checkpoint.WorkflowCheckpoint;
+import com.agent.langchain.dataflow.DataflowRun.NodeFailure;
+import com.agent.langchain.dataflow.DataflowRun.NodeStatus;
+import com.agent.langchain.dataflow.DataflowRun.NodeTiming;
+import com.agent.langchain.exception.PatternTimeoutException;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.observability.TokenUsageRecorder;
+import com.agent.langchain.streaming.AgentStreamListener;
+import com.agent.langchain.streaming.AgentStreams;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs agents in the order their data dependencies dictate.
+ *
+ * Instead of a topology written down with {@code subAgents(...)}, the
+ * workflow derives a {@link DataflowGraph} from what every agent declares:
+ * its {@code @V} inputs and its output key. Each agent is started on the
+ * executor as soon as all its inputs are in the workflow state, so
+ * independent agents run in parallel and a chain runs in sequence, whatever
+ * order the agents were registered in.
+ *
+ * Agents run with the caller's trace, stream listener and token recorder.
+ * An agent may have a deadline, counted from when its inputs became
+ * available; an agent still running at its deadline is interrupted. By
+ * default a timed-out or failed agent fails the run and the agents still
+ * running are cancelled. In partial-result mode the run carries on instead:
+ * a {@link NodeFailure} takes the place of the missing output, agents that
+ * depend on it are skipped, and the output function sees which parts are
+ * missing. When the run is streamed, every agent's output (or failure) is
+ * sent as a section as soon as it is known.
+ *
+ * With a {@link CheckpointStore}, the workflow state is checkpointed after
+ * every agent that produces text. A run with the same inputs as an earlier
+ * run that failed or was interrupted, by a client retry or after a restart,
+ * resumes from that checkpoint: restored agents are not run again and their
+ * outputs are streamed right away. The checkpoint is deleted once a run
+ * completes without missing outputs.
+ *
+ * Every run reports its critical path: starting from the agent that finished
+ * last, the chain of dependencies that each finished last before their
+ * dependent could start. Only speeding up agents on that path shortens the
+ * run. The path is logged, added to the workflow's trace span and counted.
+ *
+ * Metrics (tag: workflow):
+ * - agent.dataflow.duration: wall-clock time per run
+ * - agent.dataflow.critical.path: runs in which an agent was on the critical
+ * path (tag: agent)
+ * - agent.dataflow.node.failures: agents without output (tags: agent, status)
+ */
+public class DataflowWorkflow {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataflowWorkflow.class);
+
+    private final String name;
+    private final DataflowGraph graph;
+    private final Map<String, Duration> deadlines;
+    private final boolean partialResults;
+    private final Function<Map<String, Object>, Object> output;
+    private final AgentInstrumentation instrumentation;
+    private final ExecutorService executor;
+    private final CheckpointStore checkpoints;
+    private final MeterRegistry meterRegistry;
+    private final Timer duration;
+
+    private DataflowWorkflow(Builder builder) {
+        if (builder.name == null || builder.name.isBlank()) {
+            throw new IllegalArgumentException("Workflow name is required");
+        }
+        if (builder.nodes.isEmpty()) {
+            throw new IllegalArgumentException("Workflow " + builder.name + " has no agents");
+        }
+        if (!builder.deadlines.isEmpty() && builder.executor == null) {
+            throw new IllegalArgumentException("Agent deadlines of workflow " + builder.name + " need an executor");
+        }
+        this.name = builder.name;
+        this.graph = new DataflowGraph(builder.inputs, builder.nodes);
+        this.deadlines = Map.copyOf(builder.deadlines);
+        this.partialResults = builder.partialResults;
+        this.output = builder.output != null ? builder.output : finalOutput(builder.name, graph);
+        this.instrumentation = builder.instrumentation;
+        this.executor = builder.executor;
+        this.checkpoints = builder.checkpoints != null && builder.checkpoints.isEnabled() ? builder.checkpoints : null;
+        this.meterRegistry = builder.meterRegistry;
+        this.duration = Timer.builder("agent.dataflow.duration").tag("workflow", name).register(meterRegistry);
+        logger.info("Dataflow {} derived from agent declarations: {}", name, describe(graph));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the output of the only agent no other agent depends on
+     * @throws IllegalArgumentException if there are several such agents
+     */
+    private static Function<Map<String, Object>, Object> finalOutput(String name, DataflowGraph graph) {
+        List<DataflowNode> sinks = graph.topologicalOrder().stream()
+                .filter(node -> graph.dependentsOf(node).isEmpty())
+                .toList();
+        if (sinks.size() > 1) {
+            throw new IllegalArgumentException("Workflow " + name + " has several final agents "
+                    + sinks.stream().map(DataflowNode::name).toList() + ", its output must be set");
+        }
+        String key = sinks.get(0).outputKey();
+        return state -> state.get(key);
+    }
+
+    public DataflowGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Runs the workflow in a span named after it.
+     *
+     * @param inputs values of all declared workflow inputs
+     */
+    public DataflowRun run(Map<String, Object> inputs) {
+        if (!inputs.keySet().containsAll(graph.getInputs())) {
+            Set<String> missing = new LinkedHashSet<>(graph.getInputs());
+            missing.removeAll(inputs.keySet());
+            throw new IllegalArgumentException("Missing inputs of workflow " + name + ": " + missing);
+        }
+        return instrumentation == null ? execute(inputs) : instrumentation.inSpan(name, () -> execute(inputs));
+    }
+
+    private DataflowRun execute(Map<String, Object> inputs) {
+        String checkpointId = checkpoints == null ? null : checkpointId(inputs);
+        WorkflowCheckpoint checkpoint = checkpointId == null ? null
+                : checkpoints.resume(checkpointId)
+                        .orElseGet(() -> WorkflowCheckpoint.start(checkpointId, name, checkpoints.now()));
+        Execution execution = new Execution(inputs, AgentStreams.currentListener(), checkpoint);
+        if (executor == null) {
+            execution.runSerially();
+        } else {
+            execution.runConcurrently();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - execution.startNanos);
+        duration.record(elapsed);
+
+        List<NodeTiming> criticalPath = criticalPath(execution.timings);
+        List<NodeTiming> byStart = new ArrayList<>(execution.timings.values());
+        byStart.sort(Comparator.comparing(NodeTiming::start));
+        DataflowRun run = new DataflowRun(output.apply(Collections.unmodifiableMap(execution.state)), elapsed,
+                byStart, criticalPath, execution.failures);
+        for (NodeTiming timing : criticalPath) {
+            Counter.builder("agent.dataflow.critical.path")
+                    .tag("workflow", name)
+                    .tag("agent", timing.node())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (instrumentation != null) {
+            instrumentation.attribute("critical.path", run.describeCriticalPath());
+            if (!execution.restored.isEmpty()) {
+                instrumentation.attribute("checkpoint.restored", String.join(", ", execution.restored));
+            }
+        }
+        if (checkpointId != null && execution.failures.isEmpty()) {
+            checkpoints.delete(checkpointId);
+        }
+        logger.info("Dataflow {} finished in {} ms, critical path: {}", name, elapsed.toMillis(),
+                run.describeCriticalPath());
+        return run;
+    }
+
+    /**
+     * State of one run. Only the calling thread touches it: it hands every
+     * agent a snapshot of the state when submitting it and writes back the
+     * results as they complete.
+     */
+    private class Execution {
+
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Object> state;
+        private final AgentStreamListener listener;
+        private final Map<String, Integer> pending = new HashMap<>();
+        private final Map<String, NodeTiming> timings = new LinkedHashMap<>();
+        private final List<NodeFailure> failures = new ArrayList<>();
+        private final Set<String> resolved = new LinkedHashSet<>();
+        private final Map<Future<Completed>, Running> running = new HashMap<>();
+        private final List<String> restored = new ArrayList<>();
+        private CompletionService<Completed> completion;
+        private WorkflowCheckpoint checkpoint;
+
+        Execution(Map<String, Object> inputs, AgentStreamListener listener, WorkflowCheckpoint checkpoint) {
+            this.state = new HashMap<>(inputs);
+            this.listener = listener;
+            this.checkpoint = checkpoint;
+            if (checkpoint != null) {
+                restore(checkpoint);
+            }
+        }
+
+        /**
+         * Takes the outputs of the agents completed by an earlier attempt.
+         */
+        private void restore(WorkflowCheckpoint checkpoint) {
+            for (DataflowNode node : graph.topologicalOrder()) {
+                String value = checkpoint.get(node.outputKey());
+                if (!checkpoint.hasCompleted(node.name()) || value == null) {
+                    continue;
+                }
+                state.put(node.outputKey(), value);
+                resolved.add(node.name());
+                restored.add(node.name());
+                if (listener != null) {
+                    listener.onSectionCompleted(node.outputKey(), NodeStatus.COMPLETED.tag(), value);
+                }
+            }
+        }
+
+        void runSerially() {
+            for (DataflowNode node : graph.topologicalOrder()) {
+                if (resolved.contains(node.name())) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                try {
+                    complete(invoke(node, new HashMap<>(state), startNanos));
+                } catch (RuntimeException e) {
+                    fail(node, NodeStatus.FAILED, e, start);
+                }
+            }
+        }
+
+        /**
+         * Schedules agents as their inputs become available and waits for
+         * them, at most until the earliest deadline of a running agent.
+         */
+        void runConcurrently() {
+            completion = new ExecutorCompletionService<>(executor);
+            for (DataflowNode node : graph.topologicalOrder()) {
+                if (resolved.contains(node.name())) {
+                    continue;
+                }
+                int dependencies = (int) graph.dependenciesOf(node).stream()
+                        .filter(dependency -> !resolved.contains(dependency.name()))
+                        .count();
+                pending.put(node.name(), dependencies);
+                if (dependencies == 0) {
+                    submit(node);
+                }
+            }
+            try {
+                while (resolved.size() < graph.topologicalOrder().size()) {
+                    Future<Completed> future = nextCompletion();
+                    if (future == null) {
+                        expireOverdue();
+                        continue;
+                    }
+                    Running task = running.remove(future);
+                    if (task == null) {
+                        // Cancelled at its deadline
+                        continue;
+                    }
+                    try {
+                        complete(future.get());
+                    } catch (ExecutionException e) {
+                        fail(task.node(), NodeStatus.FAILED, e.getCause(), task.submittedNanos());
+                    }
+                }
+            } catch (InterruptedException e) {
+                cancelRunning();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running dataflow " + name, e);
+            } catch (RuntimeException | Error e) {
+                cancelRunning();
+                throw e;
+            }
+        }
+
+        private void submit(DataflowNode node) {
+            Map<String, Object> snapshot = new HashMap<>(state);
+            Supplier<Completed> task = inheritContext(() -> invoke(node, snapshot, startNanos));
+            long submittedNanos = System.nanoTime();
+            Duration deadline = deadlines.get(node.name());
+            long deadlineNanos = deadline == null ? Long.MAX_VALUE : submittedNanos + deadline.toNanos();
+            running.put(completion.submit(task::get), new Running(node, submittedNanos, deadlineNanos));
+        }
+
+        private Future<Completed> nextCompletion() throws InterruptedException {
+            long earliest = running.values().stream().mapToLong(Running::deadlineNanos).min().orElse(Long.MAX_VALUE);
+            if (earliest == Long.MAX_VALUE) {
+                return completion.take();
+            }
+            return completion.poll(earliest - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private void expireOverdue() {
+            long now = System.nanoTime();
+            List<Map.Entry<Future<Completed>, Running>> overdue = running.entrySet().stream()
+                    .filter(entry -> entry.getValue().deadlineNanos() <= now)
+                    .toList();
+            for (Map.Entry<Future<Completed>, Running> entry : overdue) {
+                entry.getKey().cancel(true);
+                running.remove(entry.getKey());
+                Running task = entry.getValue();
+                Duration deadline = deadlines.get(task.node().name());
+                fail(task.node(), NodeStatus.TIMED_OUT, new PatternTimeoutException(task.node().name(), deadline),
+                        task.submittedNanos());
+            }
+        }
+
+        private void cancelRunning() {
+            running.keySet().forEach(future -> future.cancel(true));
+            running.clear();
+        }
+
+        private void complete(Completed completed) {
+            DataflowNode node = completed.node();
+            state.put(node.outputKey(), completed.value());
+            timings.put(node.name(), completed.timing());
+            resolved.add(node.name());
+            if (checkpoint != null && completed.value() instanceof String text) {
+                checkpoint = checkpoint.with(node.name(), Map.of(node.outputKey(), text), checkpoints.now());
+                checkpoints.save(checkpoint);
+            }
+            if (listener != null) {
+                listener.onSectionCompleted(node.outputKey(), NodeStatus.COMPLETED.tag(),
+                        String.valueOf(completed.value()));
+            }
+            for (DataflowNode dependent : graph.dependentsOf(node)) {
+                if (completion != null && pending.merge(dependent.name(), -1, Integer::sum) == 0) {
+                    submit(dependent);
+                }
+            }
+        }
+
+        /**
+         * Rethrows the failure, or in partial-result mode records it and
+         * skips everything depending on the node.
+         */
+        private void fail(DataflowNode node, NodeStatus status, Throwable cause, long startedNanos) {
+            if (!partialResults) {
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Agent " + node.name() + " failed", cause);
+            }
+            timings.put(node.name(), new NodeTiming(node.name(), Duration.ofNanos(startedNanos - startNanos),
+                    Duration.ofNanos(System.nanoTime() - startedNanos)));
+            logger.warn("Dataflow {}: agent {} {}: {}", name, node.name(), status.tag(), cause.getMessage());
+            record(new NodeFailure(node.name(), node.outputKey(), status, cause.getMessage()));
+            for (DataflowNode dependent : graph.dependentsOf(node)) {
+                skip(dependent, node);
+            }
+        }
+
+        private void skip(DataflowNode node, DataflowNode cause) {
+            if (resolved.contains(node.name())) {
+                return;
+            }
+            record(new NodeFailure(node.name(), node.outputKey(), NodeStatus.SKIPPED,
+                    cause.name() + " produced no " + cause.outputKey()));
+            for (DataflowNode dependent : graph.dependentsOf(node)) {
+                skip(dependent, node);
+            }
+        }
+
+        private void record(NodeFailure failure) {
+            state.put(failure.outputKey(), failure);
+            failures.add(failure);
+            resolved.add(failure.node());
+            Counter.builder("agent.dataflow.node.failures")
+                    .tag("workflow", name)
+                    .tag("agent", failure.node())
+                    .tag("status", failure.status().tag())
+                    .register(meterRegistry)
+                    .increment();
+            if (listener != null) {
+                listener.onSectionCompleted(failure.outputKey(), failure.status().tag(), failure.message());
+            }
+        }
+    }
+
+    /**
+     * Identity of a run, from the declared inputs and their values sorted by
+     * input name, so it neither depends on the declaration order nor matches
+     * a run with the same values given to other inputs.
+     */
+    String checkpointId(Map<String, Object> inputs) {
+        String[] parts = graph.getInputs().stream().sorted()
+                .flatMap(input -> Stream.of(input, String.valueOf(inputs.get(input))))
+                .toArray(String[]::new);
+        return WorkflowCheckpoint.idOf(name, parts);
+    }
+
+    private <T> Supplier<T> inheritContext(Supplier<T> task) {
+        Supplier<T> traced = instrumentation == null ? task : instrumentation.propagate(task);
+        return AgentStreams.propagate(TokenUsageRecorder.propagate(traced));
+    }
+
+    private static Completed invoke(DataflowNode node, Map<String, Object> state, long runStartNanos) {
+        long start = System.nanoTime();
+        Object value = node.invoke(state);
+        NodeTiming timing = new NodeTiming(node.name(), Duration.ofNanos(start - runStartNanos),
+                Duration.ofNanos(System.nanoTime() - start));
+        return new Completed(node, value, timing);
+    }
+
+    /**
+     * Walks back from the agent that finished last, each time to the
+     * dependency that finished last. Skipped agents have no timing and are
+     * left out.
+     */
+    private List<NodeTiming> criticalPath(Map<String, NodeTiming> timings) {
+        DataflowNode current = latest(graph.topologicalOrder(), timings);
+        List<NodeTiming> path = new ArrayList<>();
+        while (current != null) {
+            path.add(0, timings.get(current.name()));
+            current = latest(graph.dependenciesOf(current), timings);
+        }
+        return path;
+    }
+
+    private static DataflowNode latest(List<DataflowNode> nodes, Map<String, NodeTiming> timings) {
+        DataflowNode latest = null;
+        for (DataflowNode node : nodes) {
+            NodeTiming timing = timings.get(node.name());
+            if (timing != null && (latest == null || timing.end().compareTo(timings.get(latest.name()).end()) > 0)) {
+                latest = node;
+            }
+        }
+        return latest;
+    }
+
+    private static String describe(DataflowGraph graph) {
+        List<String> edges = new ArrayList<>();
+        for (DataflowNode node : graph.topologicalOrder()) {
+            List<String> dependencies = graph.dependenciesOf(node).stream().map(DataflowNode::name).toList();
+            edges.add(node.name() + (dependencies.isEmpty() ? "" : " <- " + String.join(", ", dependencies)));
+        }
+        return String.join("; ", edges);
+    }
+
+    private record Completed(DataflowNode node, Object value, NodeTiming timing) {
+    }
+
+    private record Running(DataflowNode node, long submittedNanos, long deadlineNanos) {
+    }
+
+    /**
+     * Builder for {@link DataflowWorkflow}.
+     */
+    public static class Builder {
+
+        private String name;
+        private final Set<String> inputs = new LinkedHashSet<>();
+        private final List<DataflowNode> nodes = new ArrayList<>();
+        private final Map<String, Duration> deadlines = new HashMap<>();
+        private boolean partialResults;
+        private Function<Map<String, Object>, Object> output;
+        private AgentInstrumentation instrumentation;
+        private ExecutorService executor;
+        private CheckpointStore checkpoints;
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        /**
+         * Name of the workflow in logs, metrics and traces.
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * State keys the caller provides.
+         */
+        public Builder inputs(String... inputs) {
+            this.inputs.addAll(List.of(inputs));
+            return this;
+        }
+
+        /**
+         * Adds an agent; see {@link DataflowNode#of}.
+         */
+        public Builder agent(Object agent) {
+            this.nodes.add(DataflowNode.of(agent));
+            return this;
+        }
+
+        /**
+         * Adds an agent that must answer within the given time after its
+         * inputs are available; a zero or negative deadline means none.
+         */
+        public Builder agent(Object agent, Duration deadline) {
+            DataflowNode node = DataflowNode.of(agent);
+            this.nodes.add(node);
+            if (deadline != null && deadline.isPositive()) {
+                this.deadlines.put(node.name(), deadline);
+            }
+            return this;
+        }
+
+        /**
+         * Whether a timed-out or failed agent leaves a gap instead of failing
+         * the run; off by default.
+         */
+        public Builder partialResults(boolean partialResults) {
+            this.partialResults = partialResults;
+            return this;
+        }
+
+        /**
+         * Combines the final state into the workflow output; by default the
+         * output of the one agent no other agent depends on, and required
+         * when there are several. In partial-result mode missing outputs are
+         * {@link NodeFailure}s.
+         */
+        public Builder output(Function<Map<String, Object>, Object> output) {
+            this.output = output;
+            return this;
+        }
+
+        /**
+         * Trace span of the workflow; none when not set.
+         */
+        public Builder instrumentation(AgentInstrumentation instrumentation) {
+            this.instrumentation = instrumentation;
+            return this;
+        }
+
+        /**
+         * Executor running the agents; agents run one after another in
+         * dependency order when not set.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Store of the checkpoints runs resume from; runs always start from
+         * scratch when not set.
+         */
+        public Builder checkpoints(CheckpointStore checkpoints) {
+            this.checkpoints = checkpoints;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public DataflowWorkflow build() {
+            return new DataflowWorkflow(this);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.agent.langchain.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for batch expert agent queries.
+ * Individual queries are not validated up front: an invalid query fails on
+ * its own in the batch response instead of rejecting the whole batch.
+ */
+public class BatchExpertQueryRequest {
+
+    @NotEmpty(message = "Queries cannot be empty")
+    @Size(max = 1000, message = "A batch can contain at most 1000 queries")
+    private List<ExpertQueryRequest> queries;
+
+    public BatchExpertQueryRequest() {
+    }
+
+    public BatchExpertQueryRequest(List<ExpertQueryRequest> queries) {
+        this.queries = queries;
+    }
+
+    public List<ExpertQueryRequest> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<ExpertQueryRequest> queries) {
+        this.queries = queries;
+    }
+}
@@ -0,0 +1,113 @@
+package com.agent.langchain.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for batch expert agent queries.
+ * Holds one result per submitted query, in submission order.
+ */
+public class BatchExpertQueryResponse {
+
+    /**
+     * Result of a single query: the expert's response, or the error that
+     * stopped it.
+     */
+    public static class Result {
+
+        private int index;
+        private String category;
+        private String response;
+        private String error;
+
+        public Result() {
+        }
+
+        public Result(int index, String category, String response, String error) {
+            this.index = index;
+            this.category = category;
+            this.response = response;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public String getResponse() {
+            return response;
+        }
+
+        public void setResponse(String response) {
+            this.response = response;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+
+    private List<Result> results;
+    private int succeeded;
+    private int failed;
+    private LocalDateTime timestamp;
+
+    public BatchExpertQueryResponse() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public BatchExpertQueryResponse(List<Result> results) {
+        this.results = results;
+        this.failed = (int) results.stream().filter(result -> result.getError() != null).count();
+        this.succeeded = results.size() - failed;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
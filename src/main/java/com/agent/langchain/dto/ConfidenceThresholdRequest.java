@@ -0,0 +1,31 @@
+package com.agent.langchain.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request DTO for tuning the local classifier confidence threshold.
+ */
+public class ConfidenceThresholdRequest {
+
+    @NotNull(message = "Confidence threshold cannot be empty")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Confidence threshold must be greater than 0.0")
+    @DecimalMax(value = "1.0", message = "Confidence threshold must be at most 1.0")
+    private Double confidenceThreshold;
+
+    public ConfidenceThresholdRequest() {
+    }
+
+    public ConfidenceThresholdRequest(Double confidenceThreshold) {
+        this.confidenceThreshold = confidenceThreshold;
+    }
+
+    public Double getConfidenceThreshold() {
+        return confidenceThreshold;
+    }
+
+    public void setConfidenceThreshold(Double confidenceThreshold) {
+        this.confidenceThreshold = confidenceThreshold;
+    }
+}
@@ -1,10 +1,17 @@
 package com.agent.langchain.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 /**
  * Request DTO for content refinement using loop pattern.
+ * The termination settings are optional; unset ones use the configured
+ * defaults ({@code agent.loop.*}).
  */
 public class ContentRefinementRequest {
 
@@ -16,6 +23,35 @@ public class ContentRefinementRequest {
     @Size(min = 2, max = 100, message = "Style must be between 2 and 100 characters")
     private String style;
 
+    @DecimalMin(value = "0.0", inclusive = false, message = "Quality threshold must be greater than 0.0")
+    @DecimalMax(value = "1.0", message = "Quality threshold must be at most 1.0")
+    private Double qualityThreshold;
+
+    @Min(value = 0, message = "Max iterations cannot be negative")
+    @Max(value = 10, message = "Max iterations must be at most 10")
+    private Integer maxIterations;
+
+    @Min(value = 0, message = "Plateau window cannot be negative")
+    @Max(value = 10, message = "Plateau window must be at most 10")
+    private Integer plateauWindow;
+
+    @DecimalMin(value = "0.0", message = "Minimum improvement cannot be negative")
+    @DecimalMax(value = "1.0", message = "Minimum improvement must be at most 1.0")
+    private Double minImprovement;
+
+    @Min(value = 1, message = "Latency budget must be at least 1 ms")
+    private Long latencyBudgetMs;
+
+    @Min(value = 1, message = "Token budget must be at least 1")
+    private Long tokenBudget;
+
+    @Min(value = 1, message = "Candidates must be at least 1")
+    @Max(value = 8, message = "Candidates must be at most 8")
+    private Integer candidates;
+
+    @Pattern(regexp = "(?i)full|patch", message = "Edit mode must be full or patch")
+    private String editMode;
+
     public ContentRefinementRequest() {
     }
 
@@ -39,4 +75,68 @@ public class ContentRefinementRequest {
     public void setStyle(String style) {
         this.style = style;
     }
+
+    public Double getQualityThreshold() {
+        return qualityThreshold;
+    }
+
+    public void setQualityThreshold(Double qualityThreshold) {
+        this.qualityThreshold = qualityThreshold;
+    }
+
+    public Integer getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(Integer maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public Integer getPlateauWindow() {
+        return plateauWindow;
+    }
+
+    public void setPlateauWindow(Integer plateauWindow) {
+        this.plateauWindow = plateauWindow;
+    }
+
+    public Double getMinImprovement() {
+        return minImprovement;
+    }
+
+    public void setMinImprovement(Double minImprovement) {
+        this.minImprovement = minImprovement;
+    }
+
+    public Long getLatencyBudgetMs() {
+        return latencyBudgetMs;
+    }
+
+    public void setLatencyBudgetMs(Long latencyBudgetMs) {
+        this.latencyBudgetMs = latencyBudgetMs;
+    }
+
+    public Long getTokenBudget() {
+        return tokenBudget;
+    }
+
+    public void setTokenBudget(Long tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    public Integer getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(Integer candidates) {
+        this.candidates = candidates;
+    }
+
+    public String getEditMode() {
+        return editMode;
+    }
+
+    public void setEditMode(String editMode) {
+        this.editMode = editMode;
+    }
 }
@@ -1,12 +1,24 @@
 package com.agent.langchain.dto;
 
+import java.util.List;
+
 /**
  * Response DTO for content refinement.
- * Contains the refined content after iterative quality improvement.
+ * Contains the refined content after iterative quality improvement, its
+ * score and how the loop got there: edit rounds (iterations), candidate edits
+ * over all rounds, stop reason, score history, tokens used and, in patch
+ * mode, the estimated tokens saved compared with full rewrites.
  */
 public class ContentRefinementResponse {
 
     private String content;
+    private Double score;
+    private Integer iterations;
+    private Integer candidates;
+    private String stopReason;
+    private List<Double> scores;
+    private Long tokens;
+    private Long tokensSaved;
 
     public ContentRefinementResponse() {
     }
@@ -15,6 +27,18 @@ public class ContentRefinementResponse {
         this.content = content;
     }
 
+    public ContentRefinementResponse(String content, Double score, Integer iterations, Integer candidates,
+            String stopReason, List<Double> scores, Long tokens, Long tokensSaved) {
+        this.content = content;
+        this.score = score;
+        this.iterations = iterations;
+        this.candidates = candidates;
+        this.stopReason = stopReason;
+        this.scores = scores;
+        this.tokens = tokens;
+        this.tokensSaved = tokensSaved;
+    }
+
     public String getContent() {
         return content;
     }
@@ -22,4 +46,60 @@ public class ContentRefinementResponse {
     public void setContent(String content) {
         this.content = content;
     }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Integer getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(Integer iterations) {
+        this.iterations = iterations;
+    }
+
+    public Integer getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(Integer candidates) {
+        this.candidates = candidates;
+    }
+
+    public String getStopReason() {
+        return stopReason;
+    }
+
+    public void setStopReason(String stopReason) {
+        this.stopReason = stopReason;
+    }
+
+    public List<Double> getScores() {
+        return scores;
+    }
+
+    public void setScores(List<Double> scores) {
+        this.scores = scores;
+    }
+
+    public Long getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(Long tokens) {
+        this.tokens = tokens;
+    }
+
+    public Long getTokensSaved() {
+        return tokensSaved;
+    }
+
+    public void setTokensSaved(Long tokensSaved) {
+        this.tokensSaved = tokensSaved;
+    }
 }
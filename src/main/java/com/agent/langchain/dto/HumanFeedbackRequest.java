@@ -0,0 +1,29 @@
+package com.agent.langchain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for a human interviewer's feedback on a pending review.
+ */
+public class HumanFeedbackRequest {
+
+    @NotBlank(message = "Feedback cannot be empty")
+    @Size(min = 2, max = 2000, message = "Feedback must be between 2 and 2000 characters")
+    private String feedback;
+
+    public HumanFeedbackRequest() {
+    }
+
+    public HumanFeedbackRequest(String feedback) {
+        this.feedback = feedback;
+    }
+
+    public String getFeedback() {
+        return feedback;
+    }
+
+    public void setFeedback(String feedback) {
+        this.feedback = feedback;
+    }
+}
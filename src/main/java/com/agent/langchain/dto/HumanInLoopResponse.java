@@ -1,26 +1,61 @@
 package com.agent.langchain.dto;
 
+import java.time.Instant;
+
 /**
- * Response DTO for interview coaching - returns complete assessment in single response.
+ * Response DTO for interview reviews - the review ticket, its status and the
+ * feedback and assessment produced so far.
+ *
+ * Status is one of awaiting-review, assessing, completed or failed; the final
+ * assessment is set once the review is completed.
  */
 public class HumanInLoopResponse {
 
+    private String ticket;
+    private String status;
     private String candidateName;
     private String position;
+    private String question;
     private String coachingFeedback;
     private String humanFeedback;
     private String finalAssessment;
+    private String error;
+    private Instant submittedAt;
+    private Instant updatedAt;
 
     public HumanInLoopResponse() {
     }
 
-    public HumanInLoopResponse(String candidateName, String position, String coachingFeedback, 
-            String humanFeedback, String finalAssessment) {
+    public HumanInLoopResponse(String ticket, String status, String candidateName, String position,
+            String question, String coachingFeedback, String humanFeedback, String finalAssessment, String error,
+            Instant submittedAt, Instant updatedAt) {
+        this.ticket = ticket;
+        this.status = status;
         this.candidateName = candidateName;
         this.position = position;
+        this.question = question;
         this.coachingFeedback = coachingFeedback;
         this.humanFeedback = humanFeedback;
         this.finalAssessment = finalAssessment;
+        this.error = error;
+        this.submittedAt = submittedAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
     }
 
     public String getCandidateName() {
@@ -39,6 +74,14 @@ public class HumanInLoopResponse {
         this.position = position;
     }
 
+    public String getQuestion() {
+        return question;
+    }
+
+    public void setQuestion(String question) {
+        this.question = question;
+    }
+
     public String getCoachingFeedback() {
         return coachingFeedback;
     }
@@ -62,4 +105,28 @@ public class HumanInLoopResponse {
     public void setFinalAssessment(String finalAssessment) {
         this.finalAssessment = finalAssessment;
     }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
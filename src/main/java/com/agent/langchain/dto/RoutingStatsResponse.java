@@ -0,0 +1,158 @@
+package com.agent.langchain.dto;
+
+/**
+ * Response DTO for routing statistics.
+ * Reports how routing decisions are split between the semantic cache, the
+ * local classifier and the LLM router, and how well the local classifier
+ * agrees with the LLM in shadow mode.
+ */
+public class RoutingStatsResponse {
+
+    private long semanticCacheHits;
+    private long semanticCacheMisses;
+    private double semanticCacheHitRate;
+    private int semanticCacheEntries;
+    private int semanticCacheMaxEntries;
+    private double similarityThreshold;
+    private long semanticCacheDecisions;
+    private long localDecisions;
+    private long llmDecisions;
+    private double localShare;
+    private boolean localClassifierEnabled;
+    private long localTrainingExamples;
+    private double confidenceThreshold;
+    private long shadowSamples;
+    private long shadowDisagreements;
+    private double shadowDisagreementRate;
+
+    public RoutingStatsResponse() {
+    }
+
+    public long getSemanticCacheHits() {
+        return semanticCacheHits;
+    }
+
+    public void setSemanticCacheHits(long semanticCacheHits) {
+        this.semanticCacheHits = semanticCacheHits;
+    }
+
+    public long getSemanticCacheMisses() {
+        return semanticCacheMisses;
+    }
+
+    public void setSemanticCacheMisses(long semanticCacheMisses) {
+        this.semanticCacheMisses = semanticCacheMisses;
+    }
+
+    public double getSemanticCacheHitRate() {
+        return semanticCacheHitRate;
+    }
+
+    public void setSemanticCacheHitRate(double semanticCacheHitRate) {
+        this.semanticCacheHitRate = semanticCacheHitRate;
+    }
+
+    public int getSemanticCacheEntries() {
+        return semanticCacheEntries;
+    }
+
+    public void setSemanticCacheEntries(int semanticCacheEntries) {
+        this.semanticCacheEntries = semanticCacheEntries;
+    }
+
+    public int getSemanticCacheMaxEntries() {
+        return semanticCacheMaxEntries;
+    }
+
+    public void setSemanticCacheMaxEntries(int semanticCacheMaxEntries) {
+        this.semanticCacheMaxEntries = semanticCacheMaxEntries;
+    }
+
+    public double getSimilarityThreshold() {
+        return similarityThreshold;
+    }
+
+    public void setSimilarityThreshold(double similarityThreshold) {
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public long getSemanticCacheDecisions() {
+        return semanticCacheDecisions;
+    }
+
+    public void setSemanticCacheDecisions(long semanticCacheDecisions) {
+        this.semanticCacheDecisions = semanticCacheDecisions;
+    }
+
+    public long getLocalDecisions() {
+        return localDecisions;
+    }
+
+    public void setLocalDecisions(long localDecisions) {
+        this.localDecisions = localDecisions;
+    }
+
+    public long getLlmDecisions() {
+        return llmDecisions;
+    }
+
+    public void setLlmDecisions(long llmDecisions) {
+        this.llmDecisions = llmDecisions;
+    }
+
+    public double getLocalShare() {
+        return localShare;
+    }
+
+    public void setLocalShare(double localShare) {
+        this.localShare = localShare;
+    }
+
+    public boolean isLocalClassifierEnabled() {
+        return localClassifierEnabled;
+    }
+
+    public void setLocalClassifierEnabled(boolean localClassifierEnabled) {
+        this.localClassifierEnabled = localClassifierEnabled;
+    }
+
+    public long getLocalTrainingExamples() {
+        return localTrainingExamples;
+    }
+
+    public void setLocalTrainingExamples(long localTrainingExamples) {
+        this.localTrainingExamples = localTrainingExamples;
+    }
+
+    public double getConfidenceThreshold() {
+        return confidenceThreshold;
+    }
+
+    public void setConfidenceThreshold(double confidenceThreshold) {
+        this.confidenceThreshold = confidenceThreshold;
+    }
+
+    public long getShadowSamples() {
+        return shadowSamples;
+    }
+
+    public void setShadowSamples(long shadowSamples) {
+        this.shadowSamples = shadowSamples;
+    }
+
+    public long getShadowDisagreements() {
+        return shadowDisagreements;
+    }
+
+    public void setShadowDisagreements(long shadowDisagreements) {
+        this.shadowDisagreements = shadowDisagreements;
+    }
+
+    public double getShadowDisagreementRate() {
+        return shadowDisagreementRate;
+    }
+
+    public void setShadowDisagreementRate(double shadowDisagreementRate) {
+        this.shadowDisagreementRate = shadowDisagreementRate;
+    }
+}
@@ -0,0 +1,31 @@
+package com.agent.langchain.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request DTO for tuning the semantic route cache similarity threshold.
+ */
+public class SimilarityThresholdRequest {
+
+    @NotNull(message = "Similarity threshold cannot be empty")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Similarity threshold must be greater than 0.0")
+    @DecimalMax(value = "1.0", message = "Similarity threshold must be at most 1.0")
+    private Double similarityThreshold;
+
+    public SimilarityThresholdRequest() {
+    }
+
+    public SimilarityThresholdRequest(Double similarityThreshold) {
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public Double getSimilarityThreshold() {
+        return similarityThreshold;
+    }
+
+    public void setSimilarityThreshold(Double similarityThreshold) {
+        this.similarityThreshold = similarityThreshold;
+    }
+}
@@ -0,0 +1,105 @@
+package com.agent.langchain.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO for one span of an execution trace and, recursively, its
+ * children. Offsets are relative to the start of the trace.
+ */
+public class TraceSpanResponse {
+
+    private String spanId;
+    private String name;
+    private String kind;
+    private String status;
+    private String error;
+    private double startOffsetMs;
+    private double durationMs;
+    private int retries;
+    private Map<String, Object> attributes;
+    private List<TraceSpanResponse> children;
+
+    public TraceSpanResponse() {
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public void setSpanId(String spanId) {
+        this.spanId = spanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public double getStartOffsetMs() {
+        return startOffsetMs;
+    }
+
+    public void setStartOffsetMs(double startOffsetMs) {
+        this.startOffsetMs = startOffsetMs;
+    }
+
+    public double getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(double durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, Object> attributes) {
+        this.attributes = attributes;
+    }
+
+    public List<TraceSpanResponse> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<TraceSpanResponse> children) {
+        this.children = children;
+    }
+}
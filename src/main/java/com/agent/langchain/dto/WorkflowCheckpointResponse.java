@@ -0,0 +1,70 @@
+package com.agent.langchain.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO describing the checkpoint of an unfinished workflow run: the
+ * agents it completed and the scope variables they wrote.
+ */
+public class WorkflowCheckpointResponse {
+
+    private String id;
+    private String workflow;
+    private List<String> completedSteps;
+    private Map<String, String> state;
+    private Instant startedAt;
+    private Instant updatedAt;
+
+    public WorkflowCheckpointResponse() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getWorkflow() {
+        return workflow;
+    }
+
+    public void setWorkflow(String workflow) {
+        this.workflow = workflow;
+    }
+
+    public List<String> getCompletedSteps() {
+        return completedSteps;
+    }
+
+    public void setCompletedSteps(List<String> completedSteps) {
+        this.completedSteps = completedSteps;
+    }
+
+    public Map<String, String> getState() {
+        return state;
+    }
+
+    public void setState(Map<String, String> state) {
+        this.state = state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
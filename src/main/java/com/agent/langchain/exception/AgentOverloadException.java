@@ -0,0 +1,27 @@
+package com.agent.langchain.exception;
+
+import java.time.Duration;
+
+/**
+ * Base class for fast rejections caused by load shedding. Carries the HTTP
+ * status to answer with and a hint for the {@code Retry-After} header.
+ */
+public abstract class AgentOverloadException extends RuntimeException {
+
+    private final int status;
+    private final Duration retryAfter;
+
+    protected AgentOverloadException(String message, int status, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,21 @@
+package com.agent.langchain.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a pattern already runs its maximum number of concurrent
+ * executions. Answered with 429 Too Many Requests.
+ */
+public class BulkheadFullException extends AgentOverloadException {
+
+    private final String pattern;
+
+    public BulkheadFullException(String pattern, int maxConcurrent, Duration retryAfter) {
+        super("Too many concurrent " + pattern + " requests (limit " + maxConcurrent + ")", 429, retryAfter);
+        this.pattern = pattern;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+}
@@ -0,0 +1,14 @@
+package com.agent.langchain.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the adaptive concurrency limit of model calls is reached.
+ * Answered with 503 Service Unavailable.
+ */
+public class ConcurrencyLimitExceededException extends AgentOverloadException {
+
+    public ConcurrencyLimitExceededException(int limit, Duration retryAfter) {
+        super("Model concurrency limit of " + limit + " reached", 503, retryAfter);
+    }
+}
@@ -3,6 +3,7 @@ package com.agent.langchain.exception;
 import com.agent.langchain.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -56,11 +57,71 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Handles asynchronous pattern executions that ran out of time.
+     */
+    @ExceptionHandler(PatternTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handlePatternTimeoutException(PatternTimeoutException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.GATEWAY_TIMEOUT.value());
+
+        logger.warn("Pattern timeout: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
+    /**
+     * Handles unknown or expired review tickets.
+     */
+    @ExceptionHandler(ReviewNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReviewNotFoundException(ReviewNotFoundException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.NOT_FOUND.value());
+
+        logger.warn("Review not found: {}", ex.getTicket());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    /**
+     * Handles feedback for reviews that do not wait for it.
+     */
+    @ExceptionHandler(ReviewConflictException.class)
+    public ResponseEntity<ErrorResponse> handleReviewConflictException(ReviewConflictException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.CONFLICT.value());
+
+        logger.warn("Review conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Handles load shedding rejections with their status and a Retry-After header.
+     */
+    @ExceptionHandler(AgentOverloadException.class)
+    public ResponseEntity<ErrorResponse> handleAgentOverloadException(AgentOverloadException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), ex.getStatus());
+
+        logger.warn("Request rejected: {}", ex.getMessage());
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errorResponse);
+    }
+
     /**
      * Handles all other runtime exceptions.
+     * Overload rejections raised inside an agent arrive wrapped, so the cause
+     * chain is checked for them first.
      */
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof AgentOverloadException overload) {
+                return handleAgentOverloadException(overload);
+            }
+        }
+
         ErrorResponse errorResponse = new ErrorResponse(
                 "An error occurred while processing your request",
                 HttpStatus.INTERNAL_SERVER_ERROR.value());
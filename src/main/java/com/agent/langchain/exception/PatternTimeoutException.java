@@ -0,0 +1,27 @@
+package com.agent.langchain.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an asynchronous pattern execution exceeds its configured
+ * timeout. The running agents are interrupted.
+ */
+public class PatternTimeoutException extends RuntimeException {
+
+    private final String patternName;
+    private final Duration timeout;
+
+    public PatternTimeoutException(String patternName, Duration timeout) {
+        super(patternName + " did not complete within " + timeout.toMillis() + " ms");
+        this.patternName = patternName;
+        this.timeout = timeout;
+    }
+
+    public String getPatternName() {
+        return patternName;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,26 @@
+package com.agent.langchain.exception;
+
+/**
+ * Thrown when feedback is submitted for a review that no longer waits for
+ * it, e.g. because another reviewer already answered. Answered with
+ * 409 Conflict.
+ */
+public class ReviewConflictException extends RuntimeException {
+
+    private final String ticket;
+    private final String status;
+
+    public ReviewConflictException(String ticket, String status) {
+        super("Review " + ticket + " does not accept feedback in status " + status);
+        this.ticket = ticket;
+        this.status = status;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
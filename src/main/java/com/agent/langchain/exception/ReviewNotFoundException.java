@@ -0,0 +1,19 @@
+package com.agent.langchain.exception;
+
+/**
+ * Thrown when a review ticket is unknown or has expired. Answered with
+ * 404 Not Found.
+ */
+public class ReviewNotFoundException extends RuntimeException {
+
+    private final String ticket;
+
+    public ReviewNotFoundException(String ticket) {
+        super("No review with ticket " + ticket);
+        this.ticket = ticket;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+}
@@ -0,0 +1,195 @@
+package com.agent.langchain.execution;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Shared executor for agent work: parallel sub-agent fan-out, streamed
+ * invocations and background routing tasks.
+ *
+ * Two modes are supported:
+ * - VIRTUAL: one virtual thread per task, so blocking LLM calls cost no
+ * platform thread and concurrency is bounded only by downstream limits
+ * - PLATFORM: a bounded platform thread pool with a bounded queue; when both
+ * are full the submitting thread runs the task itself (back-pressure instead
+ * of rejection)
+ *
+ * {@link #close()} stops accepting work, waits up to the configured grace
+ * period for running tasks and then interrupts what is left.
+ *
+ * Metrics:
+ * - agent.executor.active: tasks currently running
+ * - agent.executor.queued: tasks submitted but not yet started
+ * - agent.executor.completed: finished tasks
+ * - agent.executor.task.duration: run time of each task
+ * - agent.executor.queue.wait: time between submission and start
+ */
+public class AgentExecutor extends AbstractExecutorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentExecutor.class);
+
+    public enum Mode {
+        VIRTUAL, PLATFORM
+    }
+
+    private final ExecutorService delegate;
+    private final Mode mode;
+    private final Duration shutdownTimeout;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter completed;
+    private final Timer taskDuration;
+    private final Timer queueWait;
+
+    private AgentExecutor(ExecutorService delegate, Mode mode, Duration shutdownTimeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.mode = mode;
+        this.shutdownTimeout = shutdownTimeout;
+
+        String modeTag = mode.name().toLowerCase();
+        Gauge.builder("agent.executor.active", active, AtomicInteger::get).tag("mode", modeTag).register(meterRegistry);
+        Gauge.builder("agent.executor.queued", queued, AtomicInteger::get).tag("mode", modeTag).register(meterRegistry);
+        this.completed = Counter.builder("agent.executor.completed").tag("mode", modeTag).register(meterRegistry);
+        this.taskDuration = Timer.builder("agent.executor.task.duration").tag("mode", modeTag).register(meterRegistry);
+        this.queueWait = Timer.builder("agent.executor.queue.wait").tag("mode", modeTag).register(meterRegistry);
+    }
+
+    /**
+     * Creates an executor running every task on its own virtual thread.
+     */
+    public static AgentExecutor virtualThreads(Duration shutdownTimeout, MeterRegistry meterRegistry) {
+        ThreadFactory threadFactory = Thread.ofVirtual().name("agent-vt-", 0).factory();
+        return new AgentExecutor(Executors.newThreadPerTaskExecutor(threadFactory), Mode.VIRTUAL,
+                shutdownTimeout, meterRegistry);
+    }
+
+    /**
+     * Creates an executor backed by a bounded platform thread pool.
+     *
+     * @param coreSize      threads kept alive when idle
+     * @param maxSize       upper bound of threads
+     * @param queueCapacity tasks waiting for a thread before the pool grows
+     *                      beyond the core size
+     * @param keepAlive     idle time after which threads above the core size exit
+     */
+    public static AgentExecutor platformThreads(int coreSize, int maxSize, int queueCapacity, Duration keepAlive,
+            Duration shutdownTimeout, MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(coreSize, maxSize, keepAlive.toMillis(),
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "agent-pool-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Agent executor is shut down");
+                    }
+                    runnable.run();
+                });
+        return new AgentExecutor(pool, Mode.PLATFORM, shutdownTimeout, meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            delegate.execute(wrap(command, submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private Runnable wrap(Runnable command, long submittedAt) {
+        return () -> {
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            long startedAt = System.nanoTime();
+            queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                command.run();
+            } finally {
+                taskDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                active.decrementAndGet();
+                completed.increment();
+            }
+        };
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Graceful shutdown: drains running tasks for up to the configured grace
+     * period, then interrupts the rest.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            if (!awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                List<Runnable> dropped = shutdownNow();
+                logger.warn("Agent executor did not drain within {}; interrupted running tasks, dropped {} queued",
+                        shutdownTimeout, dropped.size());
+            }
+        } catch (InterruptedException e) {
+            shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
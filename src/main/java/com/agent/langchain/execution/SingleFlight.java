@@ -0,0 +1,167 @@
+package com.agent.langchain.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical executions into one.
+ *
+ * The first caller for a key starts the execution; callers arriving while it
+ * is still running subscribe to it and receive the same result or failure.
+ * Nothing is kept once the execution completes, so this is not a cache: a
+ * request arriving after completion starts a new execution.
+ *
+ * Every caller gets its own future. Cancelling it detaches only that caller;
+ * the shared execution is cancelled once its last caller is gone.
+ *
+ * Metrics:
+ * - agent.coalescing.callers{pattern}: callers that joined a running execution
+ * - agent.coalescing.inflight: executions currently shared
+ */
+public class SingleFlight {
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Map<Object, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    public SingleFlight(boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("agent.coalescing.inflight", flights, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Builds a coalescing key from a pattern name and its inputs. Inputs are
+     * trimmed, lower-cased and have whitespace runs collapsed, so trivially
+     * different spellings of the same request share an execution.
+     */
+    public static List<String> key(String pattern, String... inputs) {
+        List<String> key = new ArrayList<>(inputs.length + 1);
+        key.add(pattern);
+        for (String input : inputs) {
+            key.add(input == null ? "" : input.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+        }
+        return key;
+    }
+
+    /**
+     * Runs the execution for the key, or joins the one already running.
+     *
+     * @param pattern   pattern name used as metric tag
+     * @param key       identity of the request, see {@link #key(String, String...)}
+     * @param execution starts the execution; only called by the first caller
+     * @return this caller's view of the shared result
+     */
+    public <T> CompletableFuture<T> execute(String pattern, Object key, Supplier<CompletableFuture<T>> execution) {
+        if (!enabled) {
+            return execution.get();
+        }
+        while (true) {
+            Flight<T> flight = new Flight<>(key);
+            @SuppressWarnings("unchecked")
+            Flight<T> existing = (Flight<T>) flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                CompletableFuture<T> caller = flight.subscribe();
+                flight.start(execution);
+                return caller;
+            }
+            CompletableFuture<T> caller = existing.subscribe();
+            if (caller != null) {
+                Counter.builder("agent.coalescing.callers").tag("pattern", pattern).register(meterRegistry).increment();
+                return caller;
+            }
+            // The existing flight is finishing; retry with a fresh one.
+        }
+    }
+
+    /**
+     * @return number of executions currently shared
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private final class Flight<T> {
+
+        private final Object key;
+        private final CompletableFuture<T> shared = new CompletableFuture<>();
+        private int subscribers;
+        private boolean closed;
+
+        private Flight(Object key) {
+            this.key = key;
+        }
+
+        /**
+         * @return a new caller future, or null if the flight no longer accepts callers
+         */
+        private synchronized CompletableFuture<T> subscribe() {
+            if (closed) {
+                return null;
+            }
+            subscribers++;
+            CompletableFuture<T> caller = new CompletableFuture<>();
+            shared.whenComplete((value, error) -> {
+                if (error != null) {
+                    caller.completeExceptionally(error);
+                } else {
+                    caller.complete(value);
+                }
+            });
+            caller.whenComplete((value, error) -> {
+                if (caller.isCancelled()) {
+                    unsubscribe();
+                }
+            });
+            return caller;
+        }
+
+        private void unsubscribe() {
+            synchronized (this) {
+                if (--subscribers > 0 || closed) {
+                    return;
+                }
+                closed = true;
+            }
+            flights.remove(key, this);
+            shared.cancel(true);
+        }
+
+        private void start(Supplier<CompletableFuture<T>> execution) {
+            CompletableFuture<T> running;
+            try {
+                running = execution.get();
+            } catch (RuntimeException e) {
+                finish(null, e);
+                return;
+            }
+            running.whenComplete(this::finish);
+            shared.whenComplete((value, error) -> {
+                if (shared.isCancelled()) {
+                    running.cancel(true);
+                }
+            });
+        }
+
+        private void finish(T value, Throwable error) {
+            synchronized (this) {
+                closed = true;
+            }
+            flights.remove(key, this);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(value);
+            }
+        }
+    }
+}
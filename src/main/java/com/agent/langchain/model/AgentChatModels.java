@@ -0,0 +1,140 @@
+package com.agent.langchain.model;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.agent.langchain.model.ModelRegistry.RegisteredModel;
+import com.agent.langchain.model.cache.CachingChatModel;
+import com.agent.langchain.model.cache.ChatResponseCache;
+import com.agent.langchain.model.cascade.CascadePolicy;
+import com.agent.langchain.model.cascade.CascadingChatModel;
+import com.agent.langchain.model.hedge.HedgePolicy;
+import com.agent.langchain.model.hedge.HedgingChatModel;
+import com.agent.langchain.model.limit.AdaptiveConcurrencyLimiter;
+import com.agent.langchain.model.limit.ConcurrencyLimitedChatModel;
+import com.agent.langchain.observability.AgentMetrics;
+import com.agent.langchain.observability.AgentTracer;
+import com.agent.langchain.observability.MeteredChatModel;
+import com.agent.langchain.observability.TracingChatModel;
+import com.agent.langchain.streaming.StreamStageChatModel;
+import com.agent.langchain.streaming.StreamingBridgeChatModel;
+
+import dev.langchain4j.model.chat.ChatModel;
+
+/**
+ * Hands out the {@link ChatModel} each agent should be built with.
+ *
+ * Pattern configurations ask for a model per agent interface and
+ * {@link ModelRole} instead of wiring a raw Gemini model directly; the
+ * {@link ModelRegistry} decides which model the agent runs on, and
+ * cross-cutting model behaviour (response caching, model cascades, hedging,
+ * token streaming, concurrency limiting, metrics, tracing, ...) is decided
+ * in one place and can be enabled or disabled per agent. Agents are
+ * identified by the simple name of their interface, e.g.
+ * {@code CategoryRouter} or {@code ContentEditor}.
+ *
+ * Decoration order, outermost first:
+ * stream stage events -> trace span -> response cache -> model cascade ->
+ * hedging -> metrics -> concurrency limiter -> streaming bridge ->
+ * registry model
+ *
+ * A cascaded agent has one hedging/metrics chain per tier below the
+ * cascade: its first tier runs on the cascade's first model and escalates to
+ * the agent's registry model. The cascade sits below the cache, so a cached
+ * answer is served without running the cascade again.
+ *
+ * The concurrency limiter is shared by all agents and models and sits below the cache,
+ * so cache hits never take a model call slot. Metrics sit below the cache as
+ * well, so recorded latencies and tokens are those of real model calls.
+ * Trace spans sit above the cache, so a trace shows every model call an
+ * agent made, including the ones answered from the cache. Hedging sits
+ * above metrics and the limiter, so a hedged duplicate is measured and
+ * limited like any other model call.
+ */
+@Component
+public class AgentChatModels {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentChatModels.class);
+
+    /**
+     * Agent tag of the model calls rating cascaded answers.
+     */
+    private static final String CASCADE_CHECK_AGENT = "CascadeCheck";
+
+    private final ModelRegistry modelRegistry;
+    private final Map<String, ChatModel> limitedModels = new HashMap<>();
+    private final ChatResponseCache responseCache;
+    private final HedgePolicy hedgePolicy;
+    private final CascadePolicy cascadePolicy;
+    private final AgentMetrics agentMetrics;
+    private final AgentTracer agentTracer;
+
+    public AgentChatModels(ModelRegistry modelRegistry, ChatResponseCache responseCache, HedgePolicy hedgePolicy,
+            CascadePolicy cascadePolicy, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            @Value("${agent.limiter.max-wait:2s}") Duration maxWait, AgentMetrics agentMetrics,
+            AgentTracer agentTracer) {
+        this.modelRegistry = modelRegistry;
+        for (RegisteredModel model : modelRegistry.models()) {
+            limitedModels.put(model.name(), new ConcurrencyLimitedChatModel(
+                    new StreamingBridgeChatModel(model.chatModel(), model.streamingChatModel()), concurrencyLimiter,
+                    maxWait));
+        }
+        this.responseCache = responseCache;
+        this.hedgePolicy = hedgePolicy;
+        this.cascadePolicy = cascadePolicy;
+        if (cascadePolicy.isEnabled()) {
+            // Fail at startup, not on the first cascaded request
+            modelRegistry.model(cascadePolicy.firstModel());
+            modelRegistry.model(cascadePolicy.checkModel());
+        }
+        this.agentMetrics = agentMetrics;
+        this.agentTracer = agentTracer;
+    }
+
+    /**
+     * Returns the chat model for the given agent interface.
+     *
+     * @param agentType the agent interface, e.g. {@code CategoryRouter.class}
+     * @param role      the agent's role, which picks its model in the
+     *                  {@link ModelRegistry}
+     * @return the decorated chat model for that agent
+     */
+    public ChatModel forAgent(Class<?> agentType, ModelRole role) {
+        String agentName = agentType.getSimpleName();
+        String pattern = AgentMetrics.patternOf(agentType);
+        RegisteredModel registered = modelRegistry.forAgent(agentName, role);
+        ChatModel model = tier(registered.name(), pattern, agentName);
+        boolean cascaded = cascadePolicy.isEnabledFor(agentName)
+                && !registered.name().equals(cascadePolicy.firstModel());
+        if (cascaded) {
+            ChatModel checkModel = new MeteredChatModel(limitedModels.get(cascadePolicy.checkModel()), agentMetrics,
+                    pattern, CASCADE_CHECK_AGENT);
+            model = new CascadingChatModel(model, tier(cascadePolicy.firstModel(), pattern, agentName), checkModel,
+                    cascadePolicy, agentName);
+        }
+        if (responseCache.isEnabledFor(agentName)) {
+            model = new CachingChatModel(model, responseCache);
+        }
+        logger.debug("Agent {} ({}) runs on model {} ({}), cached={}, hedged={}, cascaded from {}", agentName,
+                role.tag(), registered.name(), registered.modelName(), model instanceof CachingChatModel,
+                hedgePolicy.isEnabledFor(agentName), cascaded ? cascadePolicy.firstModel() : "-");
+        return new StreamStageChatModel(new TracingChatModel(model, agentTracer, agentName), agentName);
+    }
+
+    /**
+     * @return the metered, and if enabled hedged, model of one tier of an agent
+     */
+    private ChatModel tier(String modelName, String pattern, String agentName) {
+        ChatModel model = new MeteredChatModel(limitedModels.get(modelName), agentMetrics, pattern, agentName);
+        if (hedgePolicy.isEnabledFor(agentName)) {
+            model = new HedgingChatModel(model, hedgePolicy, agentName);
+        }
+        return model;
+    }
+}
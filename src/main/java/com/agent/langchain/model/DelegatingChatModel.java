@@ -0,0 +1,73 @@
+package com.agent.langchain.model;
+
+import java.util.List;
+import java.util.Set;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * Base class for {@link ChatModel} decorators.
+ *
+ * Forwards every call and every piece of model metadata (default parameters,
+ * capabilities, provider) to the wrapped model, so agents built on top of a
+ * decorated model behave exactly as if they were talking to the delegate.
+ * Subclasses override {@link #chat(ChatRequest)} to add behaviour around the
+ * call.
+ */
+public abstract class DelegatingChatModel implements ChatModel {
+
+    protected final ChatModel delegate;
+
+    protected DelegatingChatModel(ChatModel delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate chat model cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        return delegate.chat(chatRequest);
+    }
+
+    /**
+     * Returns the request as the delegate will actually send it, i.e. with the
+     * delegate's default parameters (model name, temperature, ...) merged in.
+     */
+    protected ChatRequest renderedRequest(ChatRequest chatRequest) {
+        return ChatRequest.builder()
+                .messages(chatRequest.messages())
+                .parameters(delegate.defaultRequestParameters().overrideWith(chatRequest.parameters()))
+                .build();
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return delegate.defaultRequestParameters();
+    }
+
+    @Override
+    public List<ChatModelListener> listeners() {
+        return delegate.listeners();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return delegate.provider();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return delegate.supportedCapabilities();
+    }
+
+    public ChatModel getDelegate() {
+        return delegate;
+    }
+}
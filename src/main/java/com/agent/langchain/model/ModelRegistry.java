@@ -0,0 +1,186 @@
+package com.agent.langchain.model;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+
+/**
+ * Named chat models and the model each agent runs on.
+ *
+ * Models are registered under a name of our own, typically a tier such as
+ * {@code fast} or {@code strong}, with the provider's model name. An agent
+ * runs on the model assigned to it by name, else on the model of its
+ * {@link ModelRole}, else on the default model; so cheap one-word jobs like
+ * routing and scoring can run on a faster, cheaper model than the experts and
+ * writers. Every assignment must name a registered model.
+ */
+public class ModelRegistry {
+
+    /**
+     * A registered model.
+     *
+     * @param name               registry name, e.g. {@code fast}
+     * @param modelName          provider model name, e.g.
+     *                           {@code gemini-2.5-flash-lite}
+     * @param chatModel          the blocking model
+     * @param streamingChatModel the streaming variant of the same model
+     */
+    public record RegisteredModel(String name, String modelName, ChatModel chatModel,
+            StreamingChatModel streamingChatModel) {
+    }
+
+    /**
+     * Creates the provider models of the registered names.
+     */
+    public interface ModelFactory {
+
+        ChatModel chatModel(String modelName);
+
+        /**
+         * Streaming variant of the model, used by the SSE endpoints to
+         * forward token deltas as they are generated.
+         */
+        StreamingChatModel streamingChatModel(String modelName);
+    }
+
+    private final Map<String, RegisteredModel> models;
+    private final RegisteredModel defaultModel;
+    private final Map<ModelRole, RegisteredModel> roleModels = new EnumMap<>(ModelRole.class);
+    private final Map<String, RegisteredModel> agentModels = new HashMap<>();
+
+    private ModelRegistry(Builder builder) {
+        if (builder.modelNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one model must be registered");
+        }
+        if (builder.factory == null) {
+            throw new IllegalArgumentException("Model factory is required");
+        }
+        Map<String, RegisteredModel> registered = new LinkedHashMap<>();
+        builder.modelNames.forEach((name, modelName) -> registered.put(name, new RegisteredModel(name, modelName,
+                builder.factory.chatModel(modelName), builder.factory.streamingChatModel(modelName))));
+        this.models = registered;
+        this.defaultModel = builder.defaultModel == null ? registered.values().iterator().next()
+                : lookup(builder.defaultModel, "default model");
+        builder.roles.forEach((role, name) -> roleModels.put(role, lookup(name, "role " + role.tag())));
+        builder.agents.forEach((agent, name) -> agentModels.put(agent, lookup(name, "agent " + agent)));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param agentName simple name of the agent interface
+     * @param role      the agent's role
+     * @return the model the agent runs on
+     */
+    public RegisteredModel forAgent(String agentName, ModelRole role) {
+        RegisteredModel model = agentModels.get(agentName);
+        if (model == null) {
+            model = role == null ? null : roleModels.get(role);
+        }
+        return model == null ? defaultModel : model;
+    }
+
+    public RegisteredModel defaultModel() {
+        return defaultModel;
+    }
+
+    /**
+     * @param name registry name
+     * @return the model registered under the name
+     * @throws IllegalArgumentException if no model is registered under the name
+     */
+    public RegisteredModel model(String name) {
+        RegisteredModel model = models.get(name);
+        if (model == null) {
+            throw new IllegalArgumentException(
+                    "Model '" + name + "' is not registered; known models: " + models.keySet());
+        }
+        return model;
+    }
+
+    /**
+     * @return the registered models, in registration order
+     */
+    public Collection<RegisteredModel> models() {
+        return models.values();
+    }
+
+    private RegisteredModel lookup(String name, String assignee) {
+        RegisteredModel model = models.get(name);
+        if (model == null) {
+            throw new IllegalArgumentException(
+                    "Model '" + name + "' of " + assignee + " is not registered; known models: " + models.keySet());
+        }
+        return model;
+    }
+
+    /**
+     * Builder for {@link ModelRegistry}.
+     */
+    public static class Builder {
+
+        private final Map<String, String> modelNames = new LinkedHashMap<>();
+        private final Map<ModelRole, String> roles = new EnumMap<>(ModelRole.class);
+        private final Map<String, String> agents = new HashMap<>();
+        private String defaultModel;
+        private ModelFactory factory;
+
+        /**
+         * Registers a model.
+         *
+         * @param name      registry name
+         * @param modelName provider model name
+         */
+        public Builder model(String name, String modelName) {
+            modelNames.put(name, modelName);
+            return this;
+        }
+
+        /**
+         * Model of the agents without a role or role model; the first
+         * registered model when not set.
+         */
+        public Builder defaultModel(String name) {
+            this.defaultModel = name;
+            return this;
+        }
+
+        /**
+         * Model of the agents in the role.
+         */
+        public Builder role(ModelRole role, String name) {
+            roles.put(role, name);
+            return this;
+        }
+
+        /**
+         * Model of one agent, overriding its role.
+         *
+         * @param agentName simple name of the agent interface
+         */
+        public Builder agent(String agentName, String name) {
+            agents.put(agentName, name);
+            return this;
+        }
+
+        public Builder factory(ModelFactory factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if an assignment names an
+         *                                  unregistered model
+         */
+        public ModelRegistry build() {
+            return new ModelRegistry(this);
+        }
+    }
+}
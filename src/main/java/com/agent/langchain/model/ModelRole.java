@@ -0,0 +1,28 @@
+package com.agent.langchain.model;
+
+import java.util.Locale;
+
+/**
+ * Kind of job an agent does, which decides the model tier it runs on.
+ */
+public enum ModelRole {
+
+    /** Picks a category or route; answers with a word or two. */
+    ROUTER,
+
+    /** Rates or condenses content for another agent; short, structured answers. */
+    SCORER,
+
+    /** Answers, analyses or assesses in depth. */
+    EXPERT,
+
+    /** Writes or edits long-form content. */
+    WRITER;
+
+    /**
+     * @return the role as used in properties, e.g. {@code router}
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,93 @@
+package com.agent.langchain.model.balance;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+
+/**
+ * One backend of a {@link BackendPool}, e.g. one API key on one endpoint,
+ * with its load and health.
+ *
+ * A backend is ejected after a backend failure until its ejection ends;
+ * every consecutive failure doubles the ejection, and the first success
+ * after re-admission resets it.
+ */
+final class Backend {
+
+    private final String name;
+    private final ChatModel chatModel;
+    private final StreamingChatModel streamingChatModel;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private double latencyEwmaNanos;
+    private int consecutiveFailures;
+    private long ejectedUntilMillis;
+
+    Backend(String name, ChatModel chatModel, StreamingChatModel streamingChatModel) {
+        this.name = name;
+        this.chatModel = chatModel;
+        this.streamingChatModel = streamingChatModel;
+    }
+
+    String name() {
+        return name;
+    }
+
+    ChatModel chatModel() {
+        return chatModel;
+    }
+
+    StreamingChatModel streamingChatModel() {
+        return streamingChatModel;
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    void end() {
+        outstanding.decrementAndGet();
+    }
+
+    synchronized double latencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    synchronized boolean isAvailable(long nowMillis) {
+        return nowMillis >= ejectedUntilMillis;
+    }
+
+    synchronized long ejectedUntilMillis() {
+        return ejectedUntilMillis;
+    }
+
+    /**
+     * Records a successful call and re-admits the backend for good.
+     *
+     * @param decay weight of the new latency in the EWMA
+     */
+    synchronized void onSuccess(long latencyNanos, double decay) {
+        latencyEwmaNanos = latencyEwmaNanos == 0.0 ? latencyNanos
+                : decay * latencyNanos + (1.0 - decay) * latencyEwmaNanos;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Ejects the backend for {@code base * 2^(consecutive failures - 1)}, at
+     * most {@code max}.
+     *
+     * @return the ejection
+     */
+    synchronized Duration eject(long nowMillis, Duration base, Duration max) {
+        consecutiveFailures++;
+        int doublings = Math.min(consecutiveFailures - 1, 30);
+        long millis = Math.min(base.toMillis() << doublings, max.toMillis());
+        ejectedUntilMillis = Math.max(ejectedUntilMillis, nowMillis + millis);
+        return Duration.ofMillis(millis);
+    }
+}
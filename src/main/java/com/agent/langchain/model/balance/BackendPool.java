@@ -0,0 +1,282 @@
+package com.agent.langchain.model.balance;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.InternalServerException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.exception.TimeoutException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Interchangeable backends of one model, e.g. the same Gemini model behind
+ * several API keys or endpoints, and the load balancing and failover
+ * between them.
+ *
+ * Every call goes to one backend picked by the {@link BalancingStrategy}
+ * among the backends that are not ejected. A call failing with a backend
+ * failure (rate limit, 5xx, timeout or I/O error) ejects its backend, for
+ * the base ejection doubled per consecutive failure up to the maximum, and
+ * is retried on another backend, at most once per backend; other failures,
+ * such as invalid requests, are not the backend's fault and are thrown
+ * as is. When no untried backend is available, the untried backend
+ * re-admitted first is still tried rather than failing outright.
+ *
+ * Metrics (tags: model, backend):
+ * - agent.backend.calls{outcome=success|ejected|error}: calls per backend
+ * - agent.backend.outstanding: calls in flight
+ * - agent.backend.available: 1 unless the backend is ejected
+ * - agent.backend.failovers (tag: model): calls retried on another backend
+ */
+public class BackendPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackendPool.class);
+
+    private final String modelName;
+    private final List<Backend> backends;
+    private final BalancingStrategy strategy;
+    private final double ewmaDecay;
+    private final Duration baseEjection;
+    private final Duration maxEjection;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger nextStart = new AtomicInteger();
+    private final Counter failovers;
+
+    private BackendPool(Builder builder) {
+        if (builder.backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one backend is required");
+        }
+        if (builder.ewmaDecay <= 0.0 || builder.ewmaDecay > 1.0) {
+            throw new IllegalArgumentException("EWMA decay must be in (0.0, 1.0]");
+        }
+        if (builder.baseEjection.isNegative() || builder.maxEjection.compareTo(builder.baseEjection) < 0) {
+            throw new IllegalArgumentException("Ejections must satisfy 0 <= base <= max");
+        }
+        this.modelName = builder.modelName;
+        this.backends = List.copyOf(builder.backends);
+        this.strategy = builder.strategy;
+        this.ewmaDecay = builder.ewmaDecay;
+        this.baseEjection = builder.baseEjection;
+        this.maxEjection = builder.maxEjection;
+        this.clock = builder.clock;
+        this.meterRegistry = builder.meterRegistry;
+        this.failovers = Counter.builder("agent.backend.failovers").tag("model", modelName).register(meterRegistry);
+        for (Backend backend : backends) {
+            Gauge.builder("agent.backend.outstanding", backend, Backend::outstanding)
+                    .tags("model", modelName, "backend", backend.name())
+                    .register(meterRegistry);
+            Gauge.builder("agent.backend.available", backend, b -> b.isAvailable(clock.millis()) ? 1.0 : 0.0)
+                    .tags("model", modelName, "backend", backend.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a blocking model balancing over the backends
+     */
+    public ChatModel chatModel() {
+        return new LoadBalancedChatModel(this);
+    }
+
+    /**
+     * @return a streaming model balancing over the backends; a stream is
+     *         only failed over before its first token
+     */
+    public StreamingChatModel streamingChatModel() {
+        return new LoadBalancedStreamingChatModel(this);
+    }
+
+    /**
+     * @return whether the error means the backend is unhealthy or overloaded
+     *         and another backend may well succeed
+     */
+    public static boolean isBackendFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof RateLimitException || t instanceof InternalServerException
+                    || t instanceof TimeoutException || t instanceof java.util.concurrent.TimeoutException
+                    || t instanceof IOException) {
+                return true;
+            }
+            if (t instanceof HttpException http && (http.statusCode() == 429 || http.statusCode() >= 500)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Picks the backend of the next attempt of a call.
+     *
+     * @param tried backends the call already failed on
+     * @return the best available untried backend, else the untried backend
+     *         re-admitted first, or null when every backend was tried
+     */
+    Backend select(Set<Backend> tried) {
+        long now = clock.millis();
+        int start = Math.floorMod(nextStart.getAndIncrement(), backends.size());
+        Backend best = null;
+        double bestLoad = Double.MAX_VALUE;
+        Backend readmittedFirst = null;
+        for (int i = 0; i < backends.size(); i++) {
+            // Rotating the start spreads calls over equally loaded backends
+            Backend backend = backends.get((start + i) % backends.size());
+            if (tried.contains(backend)) {
+                continue;
+            }
+            if (!backend.isAvailable(now)) {
+                if (readmittedFirst == null || backend.ejectedUntilMillis() < readmittedFirst.ejectedUntilMillis()) {
+                    readmittedFirst = backend;
+                }
+                continue;
+            }
+            double load = switch (strategy) {
+                case LEAST_OUTSTANDING -> backend.outstanding();
+                case EWMA -> backend.latencyEwmaNanos() * (backend.outstanding() + 1);
+            };
+            if (load < bestLoad) {
+                best = backend;
+                bestLoad = load;
+            }
+        }
+        return best != null ? best : readmittedFirst;
+    }
+
+    void onSuccess(Backend backend, long latencyNanos) {
+        backend.onSuccess(latencyNanos, ewmaDecay);
+        calls(backend, "success").increment();
+    }
+
+    /**
+     * Records a failed call, ejecting the backend on a backend failure.
+     *
+     * @return whether the call may be retried on another backend
+     */
+    boolean onFailure(Backend backend, Throwable error) {
+        if (!isBackendFailure(error)) {
+            calls(backend, "error").increment();
+            return false;
+        }
+        Duration ejection = backend.eject(clock.millis(), baseEjection, maxEjection);
+        calls(backend, "ejected").increment();
+        logger.warn("Ejected backend {} of {} for {} ms: {}", backend.name(), modelName, ejection.toMillis(),
+                error.getMessage());
+        return true;
+    }
+
+    void onFailover(Backend backend) {
+        failovers.increment();
+        logger.debug("Failing over {} call to backend {}", modelName, backend.name());
+    }
+
+    /**
+     * @return the backend whose models describe the pool's model (default
+     *         parameters, capabilities, provider)
+     */
+    Backend first() {
+        return backends.get(0);
+    }
+
+    private Counter calls(Backend backend, String outcome) {
+        return Counter.builder("agent.backend.calls")
+                .tags("model", modelName, "backend", backend.name(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builder for {@link BackendPool}.
+     */
+    public static class Builder {
+
+        private final List<Backend> backends = new ArrayList<>();
+        private String modelName = "model";
+        private BalancingStrategy strategy = BalancingStrategy.EWMA;
+        private double ewmaDecay = 0.3;
+        private Duration baseEjection = Duration.ofSeconds(1);
+        private Duration maxEjection = Duration.ofSeconds(60);
+        private Clock clock = Clock.systemUTC();
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        /**
+         * Name of the model served by the backends, used in metrics and logs.
+         */
+        public Builder modelName(String modelName) {
+            this.modelName = modelName;
+            return this;
+        }
+
+        /**
+         * Adds a backend.
+         *
+         * @param name               backend name in metrics and logs; must
+         *                           not reveal credentials
+         * @param chatModel          the backend's blocking model
+         * @param streamingChatModel the backend's streaming model
+         */
+        public Builder backend(String name, ChatModel chatModel, StreamingChatModel streamingChatModel) {
+            backends.add(new Backend(name, chatModel, streamingChatModel));
+            return this;
+        }
+
+        public Builder strategy(BalancingStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * Weight of the latest latency in a backend's latency EWMA.
+         */
+        public Builder ewmaDecay(double ewmaDecay) {
+            this.ewmaDecay = ewmaDecay;
+            return this;
+        }
+
+        /**
+         * Ejection after a backend's first consecutive failure.
+         */
+        public Builder baseEjection(Duration baseEjection) {
+            this.baseEjection = baseEjection;
+            return this;
+        }
+
+        /**
+         * Upper bound of the doubled ejections.
+         */
+        public Builder maxEjection(Duration maxEjection) {
+            this.maxEjection = maxEjection;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public BackendPool build() {
+            return new BackendPool(this);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.agent.langchain.model.balance;
+
+import java.util.Locale;
+
+/**
+ * How a {@link BackendPool} picks the backend of a model call among the
+ * backends that are not ejected.
+ */
+public enum BalancingStrategy {
+
+    /** The backend with the fewest calls in flight. */
+    LEAST_OUTSTANDING,
+
+    /**
+     * The backend with the lowest latency EWMA weighted by its calls in
+     * flight, so a slow or busy backend gets less traffic.
+     */
+    EWMA;
+
+    /**
+     * @return the strategy as used in settings, e.g. {@code least-outstanding}
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * @param tag a strategy tag, case-insensitive
+     * @throws IllegalArgumentException if the tag names no strategy
+     */
+    public static BalancingStrategy fromTag(String tag) {
+        for (BalancingStrategy strategy : values()) {
+            if (strategy.tag().equalsIgnoreCase(tag.trim())) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown balancing strategy: " + tag);
+    }
+}
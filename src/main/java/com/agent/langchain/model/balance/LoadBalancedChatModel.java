@@ -0,0 +1,57 @@
+package com.agent.langchain.model.balance;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.agent.langchain.model.DelegatingChatModel;
+import com.agent.langchain.observability.AgentTracer;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * {@link ChatModel} sending each call to one backend of a
+ * {@link BackendPool} and failing over to the next backend on a backend
+ * failure, so a workflow keeps running when a key is rate limited or an
+ * endpoint is down. A failover counts as a retry of the current trace span.
+ * Model metadata is that of the pool's first backend.
+ */
+public class LoadBalancedChatModel extends DelegatingChatModel {
+
+    private final BackendPool pool;
+
+    LoadBalancedChatModel(BackendPool pool) {
+        super(pool.first().chatModel());
+        this.pool = pool;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        Set<Backend> tried = new HashSet<>();
+        RuntimeException lastFailure = null;
+        Backend backend;
+        while ((backend = pool.select(tried)) != null) {
+            tried.add(backend);
+            if (lastFailure != null) {
+                pool.onFailover(backend);
+                AgentTracer.recordRetry();
+            }
+            long start = System.nanoTime();
+            backend.begin();
+            try {
+                ChatResponse response = backend.chatModel().chat(chatRequest);
+                pool.onSuccess(backend, System.nanoTime() - start);
+                return response;
+            } catch (RuntimeException e) {
+                if (!pool.onFailure(backend, e)) {
+                    throw e;
+                }
+                lastFailure = e;
+            } finally {
+                backend.end();
+            }
+        }
+        throw lastFailure;
+    }
+}
@@ -0,0 +1,142 @@
+package com.agent.langchain.model.balance;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.agent.langchain.observability.AgentTracer;
+import com.agent.langchain.observability.TraceSpan;
+
+import dev.langchain4j.model.ModelProvider;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+/**
+ * {@link StreamingChatModel} sending each stream to one backend of a
+ * {@link BackendPool}.
+ *
+ * A stream failing with a backend failure before its first token is failed
+ * over to the next backend like a blocking call; once tokens have been
+ * forwarded the failure is passed on, since they cannot be taken back. A
+ * failover counts as a retry of the caller's trace span.
+ * Model metadata is that of the pool's first backend.
+ */
+public class LoadBalancedStreamingChatModel implements StreamingChatModel {
+
+    private final BackendPool pool;
+    private final StreamingChatModel first;
+
+    LoadBalancedStreamingChatModel(BackendPool pool) {
+        this.pool = pool;
+        this.first = pool.first().streamingChatModel();
+    }
+
+    @Override
+    public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        attempt(chatRequest, handler, AgentTracer.currentSpan(), new HashSet<>(), null);
+    }
+
+    /**
+     * @param span trace span of the caller, captured up front since failovers
+     *             run on the thread reporting the failure
+     */
+    private void attempt(ChatRequest chatRequest, StreamingChatResponseHandler handler, Optional<TraceSpan> span,
+            Set<Backend> tried, Throwable lastFailure) {
+        Backend backend = pool.select(tried);
+        if (backend == null) {
+            handler.onError(lastFailure);
+            return;
+        }
+        tried.add(backend);
+        if (lastFailure != null) {
+            pool.onFailover(backend);
+            span.ifPresent(TraceSpan::recordRetry);
+        }
+        Attempt attempt = new Attempt(chatRequest, handler, span, tried, backend);
+        backend.begin();
+        try {
+            backend.streamingChatModel().chat(chatRequest, attempt);
+        } catch (RuntimeException e) {
+            attempt.onError(e);
+        }
+    }
+
+    /**
+     * Handler of one backend's stream, forwarding to the caller's handler.
+     */
+    private class Attempt implements StreamingChatResponseHandler {
+
+        private final ChatRequest chatRequest;
+        private final StreamingChatResponseHandler handler;
+        private final Optional<TraceSpan> span;
+        private final Set<Backend> tried;
+        private final Backend backend;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean streamed = new AtomicBoolean();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        Attempt(ChatRequest chatRequest, StreamingChatResponseHandler handler, Optional<TraceSpan> span,
+                Set<Backend> tried, Backend backend) {
+            this.chatRequest = chatRequest;
+            this.handler = handler;
+            this.span = span;
+            this.tried = tried;
+            this.backend = backend;
+        }
+
+        @Override
+        public void onPartialResponse(String partialResponse) {
+            streamed.set(true);
+            handler.onPartialResponse(partialResponse);
+        }
+
+        @Override
+        public void onCompleteResponse(ChatResponse completeResponse) {
+            if (ended.compareAndSet(false, true)) {
+                backend.end();
+                pool.onSuccess(backend, System.nanoTime() - start);
+            }
+            handler.onCompleteResponse(completeResponse);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            backend.end();
+            if (pool.onFailure(backend, error) && !streamed.get()) {
+                attempt(chatRequest, handler, span, tried, error);
+            } else {
+                handler.onError(error);
+            }
+        }
+    }
+
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return first.defaultRequestParameters();
+    }
+
+    @Override
+    public List<ChatModelListener> listeners() {
+        return first.listeners();
+    }
+
+    @Override
+    public ModelProvider provider() {
+        return first.provider();
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return first.supportedCapabilities();
+    }
+}
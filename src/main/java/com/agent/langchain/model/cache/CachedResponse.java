@@ -0,0 +1,105 @@
+package com.agent.langchain.model.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+
+/**
+ * Cached form of a {@link ChatResponse}.
+ *
+ * Only plain text answers are cached; the compact binary encoding is shared by
+ * the heap and disk tiers so both can account for entry size in bytes.
+ */
+public record CachedResponse(String text, String modelName, String finishReason, long createdAtMillis) {
+
+    private static final int FIXED_OVERHEAD_BYTES = 64;
+
+    /**
+     * Builds a cache entry from a model response.
+     *
+     * @return the entry, or null if the response is not cacheable (tool calls,
+     *         empty text, truncated or filtered output)
+     */
+    public static CachedResponse from(ChatResponse response) {
+        AiMessage aiMessage = response.aiMessage();
+        if (aiMessage == null || aiMessage.text() == null || aiMessage.hasToolExecutionRequests()) {
+            return null;
+        }
+        FinishReason finishReason = response.finishReason();
+        if (finishReason != null && finishReason != FinishReason.STOP) {
+            return null;
+        }
+        return new CachedResponse(aiMessage.text(), response.modelName(),
+                finishReason != null ? finishReason.name() : null, System.currentTimeMillis());
+    }
+
+    /**
+     * Rebuilds a response. Token usage is deliberately left empty since a cache
+     * hit does not consume any model tokens.
+     */
+    public ChatResponse toChatResponse() {
+        return ChatResponse.builder()
+                .aiMessage(AiMessage.from(text))
+                .modelName(modelName)
+                .finishReason(finishReason != null ? FinishReason.valueOf(finishReason) : null)
+                .build();
+    }
+
+    /**
+     * Approximate on-heap footprint, used to enforce the heap tier byte bound.
+     */
+    public long estimatedSizeBytes() {
+        return FIXED_OVERHEAD_BYTES
+                + 2L * text.length()
+                + (modelName != null ? 2L * modelName.length() : 0);
+    }
+
+    public byte[] toBytes() {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length() + 64);
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            writeNullable(out, text);
+            writeNullable(out, modelName);
+            writeNullable(out, finishReason);
+            out.writeLong(createdAtMillis);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode cached response", e);
+        }
+    }
+
+    public static CachedResponse fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return new CachedResponse(readNullable(in), readNullable(in), readNullable(in), in.readLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode cached response", e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            // writeUTF is limited to 64KB, model answers can be longer
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
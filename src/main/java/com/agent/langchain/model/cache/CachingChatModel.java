@@ -0,0 +1,67 @@
+package com.agent.langchain.model.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.agent.langchain.model.DelegatingChatModel;
+
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * {@link ChatModel} decorator that serves repeated requests from a
+ * {@link ChatResponseCache}.
+ *
+ * The cache key is a SHA-256 digest of the fully rendered request: the
+ * serialized messages plus the effective request parameters (model name,
+ * temperature, token limits, response format, ...) after the delegate's
+ * defaults have been merged in. Two agents sending the same prompt with the
+ * same parameters therefore share an entry.
+ */
+public class CachingChatModel extends DelegatingChatModel {
+
+    private final ChatResponseCache cache;
+
+    public CachingChatModel(ChatModel delegate, ChatResponseCache cache) {
+        super(delegate);
+        this.cache = cache;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        String key = cacheKey(renderedRequest(chatRequest));
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            return cached.toChatResponse();
+        }
+
+        ChatResponse response = delegate.chat(chatRequest);
+        CachedResponse entry = CachedResponse.from(response);
+        if (entry != null) {
+            cache.put(key, entry);
+        }
+        return response;
+    }
+
+    /**
+     * Computes the cache key of a rendered request.
+     */
+    static String cacheKey(ChatRequest renderedRequest) {
+        ChatRequestParameters parameters = renderedRequest.parameters();
+        StringBuilder canonical = new StringBuilder()
+                .append(parameters.modelName()).append('\n')
+                .append(parameters).append('\n')
+                .append(ChatMessageSerializer.messagesToJson(renderedRequest.messages()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
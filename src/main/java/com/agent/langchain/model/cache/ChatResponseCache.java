@@ -0,0 +1,228 @@
+package com.agent.langchain.model.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two-tier prompt/response cache shared by all agents.
+ *
+ * Lookups go to the on-heap LRU tier first and fall back to the memory-mapped
+ * disk tier; disk hits are promoted back to the heap. Both tiers are bounded
+ * in bytes. Which agents may use the cache is decided per agent name: an
+ * agent is cached when the cache is enabled, it is listed in the include list
+ * (or the include list is empty) and it is not listed in the exclude list.
+ *
+ * Metrics (all tagged with {@code tier=heap|disk}):
+ * - agent.cache.requests{result=hit|miss}
+ * - agent.cache.evictions
+ * - agent.cache.size.bytes / agent.cache.entries
+ */
+public class ChatResponseCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatResponseCache.class);
+
+    private final boolean enabled;
+    private final Set<String> includedAgents;
+    private final Set<String> excludedAgents;
+    private final HeapCacheTier heapTier;
+    private final DiskCacheTier diskTier;
+
+    private final Counter heapHits;
+    private final Counter heapMisses;
+    private final Counter diskHits;
+    private final Counter diskMisses;
+    private final Counter heapEvictions;
+    private final Counter diskEvictions;
+
+    private ChatResponseCache(Builder builder) throws IOException {
+        this.enabled = builder.enabled;
+        this.includedAgents = Set.copyOf(builder.includedAgents);
+        this.excludedAgents = Set.copyOf(builder.excludedAgents);
+        this.heapTier = new HeapCacheTier(builder.heapMaxBytes, builder.heapTtl);
+        this.diskTier = builder.enabled && builder.diskPath != null
+                ? new DiskCacheTier(builder.diskPath, builder.diskMaxBytes, builder.diskTtl)
+                : null;
+        MeterRegistry meterRegistry = builder.meterRegistry;
+
+        this.heapHits = requests(meterRegistry, "heap", "hit");
+        this.heapMisses = requests(meterRegistry, "heap", "miss");
+        this.diskHits = requests(meterRegistry, "disk", "hit");
+        this.diskMisses = requests(meterRegistry, "disk", "miss");
+        this.heapEvictions = evictions(meterRegistry, "heap");
+        this.diskEvictions = evictions(meterRegistry, "disk");
+
+        Gauge.builder("agent.cache.size.bytes", heapTier, HeapCacheTier::sizeBytes)
+                .tag("tier", "heap").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("agent.cache.entries", heapTier, HeapCacheTier::entryCount)
+                .tag("tier", "heap").register(meterRegistry);
+        if (diskTier != null) {
+            Gauge.builder("agent.cache.size.bytes", diskTier, DiskCacheTier::sizeBytes)
+                    .tag("tier", "disk").baseUnit("bytes").register(meterRegistry);
+            Gauge.builder("agent.cache.entries", diskTier, DiskCacheTier::entryCount)
+                    .tag("tier", "disk").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Whether responses for the given agent should be cached.
+     *
+     * @param agentName simple name of the agent interface, e.g. "CategoryRouter"
+     */
+    public boolean isEnabledFor(String agentName) {
+        return enabled
+                && (includedAgents.isEmpty() || includedAgents.contains(agentName))
+                && !excludedAgents.contains(agentName);
+    }
+
+    /**
+     * @return the cached response, or null on a miss in both tiers
+     */
+    public CachedResponse get(String key) {
+        CachedResponse response = heapTier.get(key);
+        if (response != null) {
+            heapHits.increment();
+            return response;
+        }
+        heapMisses.increment();
+
+        if (diskTier == null) {
+            return null;
+        }
+        response = diskTier.get(key);
+        if (response == null) {
+            diskMisses.increment();
+            return null;
+        }
+        diskHits.increment();
+        heapEvictions.increment(heapTier.put(key, response));
+        return response;
+    }
+
+    /**
+     * Stores a response in both tiers. Disk failures are logged and otherwise
+     * ignored; the cache must never fail a model call.
+     */
+    public void put(String key, CachedResponse response) {
+        heapEvictions.increment(heapTier.put(key, response));
+        if (diskTier != null) {
+            try {
+                diskEvictions.increment(diskTier.put(key, response));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to write response to disk cache: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops all entries from both tiers.
+     */
+    public void clear() {
+        heapTier.clear();
+        if (diskTier != null) {
+            diskTier.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (diskTier != null) {
+            diskTier.close();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static Counter requests(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("agent.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter evictions(MeterRegistry registry, String tier) {
+        return Counter.builder("agent.cache.evictions")
+                .tag("tier", tier)
+                .register(registry);
+    }
+
+    public static class Builder {
+
+        private boolean enabled = true;
+        private Set<String> includedAgents = Set.of();
+        private Set<String> excludedAgents = Set.of();
+        private long heapMaxBytes = 16L * 1024 * 1024;
+        private Duration heapTtl = Duration.ofHours(1);
+        private Path diskPath;
+        private long diskMaxBytes = 64L * 1024 * 1024;
+        private Duration diskTtl = Duration.ofDays(1);
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder includedAgents(Set<String> includedAgents) {
+            this.includedAgents = includedAgents;
+            return this;
+        }
+
+        public Builder excludedAgents(Set<String> excludedAgents) {
+            this.excludedAgents = excludedAgents;
+            return this;
+        }
+
+        public Builder heapMaxBytes(long heapMaxBytes) {
+            this.heapMaxBytes = heapMaxBytes;
+            return this;
+        }
+
+        public Builder heapTtl(Duration heapTtl) {
+            this.heapTtl = heapTtl;
+            return this;
+        }
+
+        /**
+         * Location of the disk tier; null disables the disk tier.
+         */
+        public Builder diskPath(Path diskPath) {
+            this.diskPath = diskPath;
+            return this;
+        }
+
+        public Builder diskMaxBytes(long diskMaxBytes) {
+            this.diskMaxBytes = diskMaxBytes;
+            return this;
+        }
+
+        public Builder diskTtl(Duration diskTtl) {
+            this.diskTtl = diskTtl;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * @throws IOException if the disk tier cannot be opened
+         */
+        public ChatResponseCache build() throws IOException {
+            return new ChatResponseCache(this);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.agent.langchain.model.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.storage.MappedRecordLog;
+
+/**
+ * Memory-mapped on-disk tier that survives restarts.
+ *
+ * Responses are appended to a {@link MappedRecordLog} whose file size is the
+ * byte bound of the tier. An in-memory index maps cache keys to record
+ * offsets and is rebuilt from the log on startup. When the log is full it is
+ * compacted: expired and superseded records are dropped first, then the
+ * oldest live entries until the log is back under its low-water mark.
+ */
+class DiskCacheTier implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskCacheTier.class);
+
+    private static final double COMPACTION_LOW_WATER_MARK = 0.75;
+
+    private record IndexEntry(long offset, long sizeBytes, long expiresAtMillis) {
+    }
+
+    private final MappedRecordLog log;
+    private final long ttlMillis;
+    private final Map<String, IndexEntry> index = new HashMap<>();
+
+    DiskCacheTier(Path path, long maxBytes, Duration ttl) throws IOException {
+        this.log = MappedRecordLog.open(path, maxBytes);
+        this.ttlMillis = ttl.toMillis();
+        rebuildIndex();
+        logger.info("Opened disk response cache at {} with {} entries ({} bytes)",
+                path, index.size(), log.usedBytes());
+    }
+
+    /**
+     * @return the cached response, or null if absent or expired
+     */
+    synchronized CachedResponse get(String key) {
+        IndexEntry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            index.remove(key);
+            return null;
+        }
+        byte[] value = log.readValue(entry.offset());
+        if (value == null) {
+            index.remove(key);
+            return null;
+        }
+        return CachedResponse.fromBytes(payload(value));
+    }
+
+    /**
+     * Appends a response, compacting the log first if it is full.
+     *
+     * @return the number of live entries evicted by compaction
+     */
+    synchronized int put(String key, CachedResponse response) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        byte[] value = encode(expiresAt, response.toBytes());
+        long recordSize = MappedRecordLog.recordSize(keyBytes, value);
+        if (recordSize > log.capacity() * (1 - COMPACTION_LOW_WATER_MARK)) {
+            return 0;
+        }
+
+        long offset = log.append(keyBytes, value);
+        int evicted = 0;
+        if (offset < 0) {
+            evicted = compact(recordSize);
+            offset = log.append(keyBytes, value);
+            if (offset < 0) {
+                return evicted;
+            }
+        }
+        index.put(key, new IndexEntry(offset, recordSize, expiresAt));
+        return evicted;
+    }
+
+    synchronized long sizeBytes() {
+        return log.usedBytes();
+    }
+
+    synchronized int entryCount() {
+        return index.size();
+    }
+
+    synchronized void clear() {
+        log.clear();
+        index.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        log.close();
+    }
+
+    private int compact(long incomingRecordSize) throws IOException {
+        long now = System.currentTimeMillis();
+        List<IndexEntry> live = new ArrayList<>();
+        for (IndexEntry entry : index.values()) {
+            if (entry.expiresAtMillis() > now) {
+                live.add(entry);
+            }
+        }
+        // newest entries survive; keep them until the low-water mark is reached
+        live.sort(Comparator.comparingLong(IndexEntry::offset).reversed());
+        long budget = (long) (log.capacity() * COMPACTION_LOW_WATER_MARK) - incomingRecordSize;
+        long retained = 0;
+        int evicted = 0;
+        Set<Long> keep = new HashSet<>();
+        for (IndexEntry entry : live) {
+            if (retained + entry.sizeBytes() <= budget) {
+                keep.add(entry.offset());
+                retained += entry.sizeBytes();
+            } else {
+                evicted++;
+            }
+        }
+
+        int dropped = log.compact((offset, key, value) -> keep.contains(offset));
+        rebuildIndex();
+        logger.info("Compacted disk response cache: dropped {} records, evicted {} live entries",
+                dropped, evicted);
+        return evicted;
+    }
+
+    private void rebuildIndex() {
+        index.clear();
+        long now = System.currentTimeMillis();
+        log.forEach((offset, key, value) -> {
+            String cacheKey = new String(key, StandardCharsets.UTF_8);
+            if (value == null) {
+                index.remove(cacheKey);
+                return;
+            }
+            long expiresAt = ByteBuffer.wrap(value).getLong();
+            if (expiresAt > now) {
+                index.put(cacheKey, new IndexEntry(offset, MappedRecordLog.recordSize(key, value), expiresAt));
+            } else {
+                index.remove(cacheKey);
+            }
+        });
+    }
+
+    private static byte[] encode(long expiresAtMillis, byte[] payload) {
+        return ByteBuffer.allocate(Long.BYTES + payload.length)
+                .putLong(expiresAtMillis)
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] payload(byte[] value) {
+        byte[] payload = new byte[value.length - Long.BYTES];
+        System.arraycopy(value, Long.BYTES, payload, 0, payload.length);
+        return payload;
+    }
+}
@@ -0,0 +1,88 @@
+package com.agent.langchain.model.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * On-heap LRU tier with a time-to-live and a size bound in bytes.
+ *
+ * Entries are kept in access order; when a put pushes the estimated footprint
+ * over the bound, least recently used entries are evicted until it fits.
+ */
+class HeapCacheTier {
+
+    private record Entry(CachedResponse response, long sizeBytes, long expiresAtMillis) {
+    }
+
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long sizeBytes;
+
+    HeapCacheTier(long maxBytes, Duration ttl) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * @return the cached response, or null if absent or expired
+     */
+    synchronized CachedResponse get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            remove(key);
+            return null;
+        }
+        return entry.response();
+    }
+
+    /**
+     * Stores a response, evicting least recently used entries as needed.
+     *
+     * @return the number of entries evicted to make room
+     */
+    synchronized int put(String key, CachedResponse response) {
+        long size = response.estimatedSizeBytes() + 2L * key.length();
+        if (size > maxBytes) {
+            return 0;
+        }
+        remove(key);
+        entries.put(key, new Entry(response, size, System.currentTimeMillis() + ttlMillis));
+        sizeBytes += size;
+
+        int evicted = 0;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> candidate = eldest.next();
+            sizeBytes -= candidate.getValue().sizeBytes();
+            eldest.remove();
+            evicted++;
+        }
+        return evicted;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    synchronized long sizeBytes() {
+        return sizeBytes;
+    }
+
+    synchronized int entryCount() {
+        return entries.size();
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            sizeBytes -= removed.sizeBytes();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.agent.langchain.model.cascade;
+
+import java.util.Locale;
+
+/**
+ * How a {@link CascadingChatModel} decides whether the first tier's answer is
+ * good enough.
+ */
+public enum CascadeCheck {
+
+    /**
+     * The check model rates its confidence that the answer is correct and
+     * complete; one short extra call.
+     */
+    CONFIDENCE,
+
+    /**
+     * The first tier answers a second time and the two answers must agree;
+     * no judge, but a second full answer.
+     */
+    SELF_CONSISTENCY;
+
+    /**
+     * @return the check as used in settings and metric tags, e.g.
+     *         {@code self-consistency}
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * @param tag a check tag, case-insensitive
+     * @throws IllegalArgumentException if the tag names no check
+     */
+    public static CascadeCheck fromTag(String tag) {
+        for (CascadeCheck check : values()) {
+            if (check.tag().equalsIgnoreCase(tag.trim())) {
+                return check;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cascade check: " + tag);
+    }
+}
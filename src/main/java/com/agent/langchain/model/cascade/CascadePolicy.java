@@ -0,0 +1,209 @@
+package com.agent.langchain.model.cascade;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Which agents answer through a model cascade and when the cascade
+ * escalates; shared by every {@link CascadingChatModel}.
+ *
+ * Cascading is enabled per agent: the listed agents answer with the first
+ * model (a registry name, typically the {@code fast} tier) and escalate to
+ * the model they are assigned in the registry when the {@link CascadeCheck}
+ * fails. A sampled share of the accepted answers is also sent to the
+ * escalation model in the background and both answers are scored, which
+ * measures what the cascade costs in quality.
+ */
+public class CascadePolicy {
+
+    private final boolean enabled;
+    private final Set<String> agents;
+    private final String firstModel;
+    private final String checkModel;
+    private final CascadeCheck check;
+    private final double minConfidence;
+    private final double minAgreement;
+    private final double shadowRate;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+
+    private CascadePolicy(Builder builder) {
+        if (builder.minConfidence < 0.0 || builder.minConfidence > 1.0) {
+            throw new IllegalArgumentException("Cascade min confidence must be in [0.0, 1.0]");
+        }
+        if (builder.minAgreement < 0.0 || builder.minAgreement > 1.0) {
+            throw new IllegalArgumentException("Cascade min agreement must be in [0.0, 1.0]");
+        }
+        if (builder.shadowRate < 0.0 || builder.shadowRate > 1.0) {
+            throw new IllegalArgumentException("Cascade shadow rate must be in [0.0, 1.0]");
+        }
+        if (builder.enabled && builder.shadowRate > 0.0 && builder.executor == null) {
+            throw new IllegalArgumentException("Cascade shadow evaluation needs an executor");
+        }
+        this.enabled = builder.enabled;
+        this.agents = Set.copyOf(builder.agents);
+        this.firstModel = builder.firstModel;
+        this.checkModel = builder.checkModel;
+        this.check = builder.check;
+        this.minConfidence = builder.minConfidence;
+        this.minAgreement = builder.minAgreement;
+        this.shadowRate = builder.shadowRate;
+        this.executor = builder.executor;
+        this.meterRegistry = builder.meterRegistry;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param agentName simple name of the agent interface, e.g. "CreativeExpert"
+     */
+    public boolean isEnabledFor(String agentName) {
+        return enabled && agents.contains(agentName);
+    }
+
+    /**
+     * @return registry name of the model answering first
+     */
+    public String firstModel() {
+        return firstModel;
+    }
+
+    /**
+     * @return registry name of the model rating answers
+     */
+    public String checkModel() {
+        return checkModel;
+    }
+
+    CascadeCheck check() {
+        return check;
+    }
+
+    double minConfidence() {
+        return minConfidence;
+    }
+
+    double minAgreement() {
+        return minAgreement;
+    }
+
+    /**
+     * @return whether an accepted answer should be shadow-evaluated
+     */
+    boolean sampleShadow() {
+        return shadowRate > 0.0 && ThreadLocalRandom.current().nextDouble() < shadowRate;
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    MeterRegistry meterRegistry() {
+        return meterRegistry;
+    }
+
+    /**
+     * Builder for {@link CascadePolicy}.
+     */
+    public static class Builder {
+
+        private boolean enabled = true;
+        private Set<String> agents = Set.of();
+        private String firstModel = "fast";
+        private String checkModel = "fast";
+        private CascadeCheck check = CascadeCheck.CONFIDENCE;
+        private double minConfidence = 0.7;
+        private double minAgreement = 0.5;
+        private double shadowRate = 0.0;
+        private ExecutorService executor;
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Agents answering through the cascade; none when empty.
+         */
+        public Builder agents(Set<String> agents) {
+            this.agents = agents;
+            return this;
+        }
+
+        /**
+         * Registry name of the model answering first.
+         */
+        public Builder firstModel(String firstModel) {
+            this.firstModel = firstModel;
+            return this;
+        }
+
+        /**
+         * Registry name of the model rating the confidence of answers and
+         * scoring shadow evaluations.
+         */
+        public Builder checkModel(String checkModel) {
+            this.checkModel = checkModel;
+            return this;
+        }
+
+        public Builder check(CascadeCheck check) {
+            this.check = check;
+            return this;
+        }
+
+        /**
+         * Confidence below which a {@link CascadeCheck#CONFIDENCE} check
+         * escalates.
+         */
+        public Builder minConfidence(double minConfidence) {
+            this.minConfidence = minConfidence;
+            return this;
+        }
+
+        /**
+         * Word overlap of two first-tier answers below which a
+         * {@link CascadeCheck#SELF_CONSISTENCY} check escalates.
+         */
+        public Builder minAgreement(double minAgreement) {
+            this.minAgreement = minAgreement;
+            return this;
+        }
+
+        /**
+         * Share of accepted answers that are shadow-evaluated; 0 disables.
+         */
+        public Builder shadowRate(double shadowRate) {
+            this.shadowRate = shadowRate;
+            return this;
+        }
+
+        /**
+         * Executor running shadow evaluations.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public CascadePolicy build() {
+            return new CascadePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.agent.langchain.model.cascade;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.exception.AgentOverloadException;
+import com.agent.langchain.model.DelegatingChatModel;
+import com.agent.langchain.streaming.AgentStreams;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link ChatModel} decorator answering with a cheaper model first and
+ * escalating to the agent's own model only when the answer looks weak.
+ *
+ * The first tier answers every request. The {@link CascadePolicy}'s
+ * {@link CascadeCheck} then decides whether the answer is kept: the check
+ * model rates its confidence in the answer, or the first tier answers again
+ * and both answers must share enough words. A kept answer is returned as is;
+ * otherwise, and when the first tier or the check fails, the request is sent
+ * to the wrapped (escalation) model. An {@link AgentOverloadException} or an
+ * interrupt is passed on instead of escalating: the escalation model waits
+ * for the same concurrency limiter, and an interrupted request is being
+ * abandoned. Streamed stages skip the cascade and go to the escalation model
+ * directly, since their tokens are forwarded as they are generated and
+ * cannot be taken back.
+ *
+ * A sampled share of the kept answers is shadow-evaluated in the background:
+ * the escalation model answers too and the check model scores both answers.
+ * Shadow calls are real model calls and show up in the agent's model call
+ * metrics, but not in the latency or tokens of the request. When the
+ * executor rejects a shadow evaluation it is skipped.
+ *
+ * Metrics (tag: agent):
+ * - agent.cascade.requests{outcome=accepted|escalated}: escalation rate
+ * - agent.cascade.tier.duration{tier=first|check|escalation}: latency per tier
+ * - agent.cascade.shadow.score{tier=first|escalation}: scores of shadow-evaluated answers
+ * - agent.cascade.shadow.quality.delta: mean escalation minus first-tier score
+ */
+public class CascadingChatModel extends DelegatingChatModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(CascadingChatModel.class);
+
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    private static final Pattern SCORE = Pattern.compile("\\d+(?:\\.\\d+)?");
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private static final String CHECK_PROMPT = """
+            Rate how confident you are that the following answer to the user request is correct, complete and helpful.
+            Reply with only a confidence score between 0.0 and 1.0 and nothing else.
+            The user request is: '%s'.
+            The answer is: '%s'.
+            """;
+
+    private final ChatModel firstTier;
+    private final ChatModel checkModel;
+    private final CascadePolicy policy;
+    private final String agentName;
+    private final Counter accepted;
+    private final Counter escalated;
+    private final Timer firstDuration;
+    private final Timer checkDuration;
+    private final Timer escalationDuration;
+    private final DistributionSummary shadowFirstScore;
+    private final DistributionSummary shadowEscalationScore;
+    private final DoubleAdder shadowDeltaSum = new DoubleAdder();
+    private final LongAdder shadowEvaluations = new LongAdder();
+
+    /**
+     * @param escalation the agent's own model, answering escalated requests
+     * @param firstTier  the cheaper model answering first
+     * @param checkModel the model rating answers
+     */
+    public CascadingChatModel(ChatModel escalation, ChatModel firstTier, ChatModel checkModel, CascadePolicy policy,
+            String agentName) {
+        super(escalation);
+        this.firstTier = firstTier;
+        this.checkModel = checkModel;
+        this.policy = policy;
+        this.agentName = agentName;
+        this.accepted = requests("accepted");
+        this.escalated = requests("escalated");
+        this.firstDuration = tierTimer("first");
+        this.checkDuration = tierTimer("check");
+        this.escalationDuration = tierTimer("escalation");
+        this.shadowFirstScore = shadowScore("first");
+        this.shadowEscalationScore = shadowScore("escalation");
+        Gauge.builder("agent.cascade.shadow.quality.delta", this, CascadingChatModel::meanQualityDelta)
+                .tag("agent", agentName)
+                .register(policy.meterRegistry());
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        if (AgentStreams.inStreamedStage()) {
+            return delegate.chat(chatRequest);
+        }
+        ChatResponse first;
+        try {
+            first = firstDuration.record(() -> firstTier.chat(chatRequest));
+        } catch (RuntimeException e) {
+            if (!escalates(e)) {
+                throw e;
+            }
+            logger.debug("First tier of {} failed, escalating: {}", agentName, e.getMessage());
+            return escalate(chatRequest);
+        }
+        String question = question(chatRequest);
+        String answer = first.aiMessage().text();
+        if (!accepts(chatRequest, question, answer)) {
+            return escalate(chatRequest);
+        }
+        accepted.increment();
+        if (policy.sampleShadow()) {
+            try {
+                policy.executor().execute(() -> shadow(chatRequest, question, answer));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Skipped shadow evaluation of {}: {}", agentName, e.getMessage());
+            }
+        }
+        return first;
+    }
+
+    /**
+     * @return mean of escalation minus first-tier scores of the shadow
+     *         evaluations so far, NaN before the first one
+     */
+    public double meanQualityDelta() {
+        long count = shadowEvaluations.sum();
+        return count == 0 ? Double.NaN : shadowDeltaSum.sum() / count;
+    }
+
+    private boolean accepts(ChatRequest chatRequest, String question, String answer) {
+        if (answer == null || answer.isBlank()) {
+            return false;
+        }
+        try {
+            Boolean passed = checkDuration.record(() -> switch (policy.check()) {
+                case CONFIDENCE -> score(question, answer) >= policy.minConfidence();
+                case SELF_CONSISTENCY ->
+                    agreement(answer, firstTier.chat(chatRequest).aiMessage().text()) >= policy.minAgreement();
+            });
+            return Boolean.TRUE.equals(passed);
+        } catch (RuntimeException e) {
+            if (!escalates(e)) {
+                throw e;
+            }
+            logger.debug("Cascade check of {} failed, escalating: {}", agentName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return whether a failure of the first tier or the check is escalated;
+     *         overload and interrupts are not, since escalating would wait on
+     *         the same full limiter or outlive an abandoned request
+     */
+    private static boolean escalates(RuntimeException e) {
+        if (e instanceof AgentOverloadException || Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ChatResponse escalate(ChatRequest chatRequest) {
+        escalated.increment();
+        logger.debug("Escalating {} request", agentName);
+        return escalationDuration.record(() -> delegate.chat(chatRequest));
+    }
+
+    private void shadow(ChatRequest chatRequest, String question, String answer) {
+        try {
+            String escalationAnswer = delegate.chat(chatRequest).aiMessage().text();
+            double firstScore = score(question, answer);
+            double escalationScore = score(question, escalationAnswer == null ? "" : escalationAnswer);
+            shadowFirstScore.record(firstScore);
+            shadowEscalationScore.record(escalationScore);
+            shadowDeltaSum.add(escalationScore - firstScore);
+            shadowEvaluations.increment();
+        } catch (RuntimeException e) {
+            logger.debug("Shadow evaluation of {} failed: {}", agentName, e.getMessage());
+        }
+    }
+
+    /**
+     * Asks the check model how good the answer is.
+     *
+     * @return the score in [0.0, 1.0]; 0.0 when the reply holds no number
+     */
+    double score(String question, String answer) {
+        String reply = checkModel.chat(CHECK_PROMPT.formatted(question, answer));
+        Matcher number = SCORE.matcher(reply == null ? "" : reply);
+        if (!number.find()) {
+            logger.debug("No score in the {} check reply: {}", agentName, reply);
+            return 0.0;
+        }
+        return Math.min(1.0, Double.parseDouble(number.group()));
+    }
+
+    /**
+     * Jaccard similarity of the word sets of two answers, case-insensitive.
+     */
+    static double agreement(String first, String second) {
+        Set<String> firstWords = words(first);
+        Set<String> secondWords = words(second);
+        if (firstWords.isEmpty() && secondWords.isEmpty()) {
+            return 1.0;
+        }
+        Set<String> union = new HashSet<>(firstWords);
+        union.addAll(secondWords);
+        firstWords.retainAll(secondWords);
+        return (double) firstWords.size() / union.size();
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new HashSet<>();
+        if (text != null) {
+            Matcher word = WORD.matcher(text.toLowerCase(Locale.ROOT));
+            while (word.find()) {
+                words.add(word.group());
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the text of the last user message, which the agents fill
+     *         with the user request
+     */
+    private static String question(ChatRequest chatRequest) {
+        List<ChatMessage> messages = chatRequest.messages();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) instanceof UserMessage user && user.hasSingleText()) {
+                return user.singleText();
+            }
+        }
+        return "";
+    }
+
+    private Counter requests(String outcome) {
+        return Counter.builder("agent.cascade.requests")
+                .tags("agent", agentName, "outcome", outcome)
+                .register(policy.meterRegistry());
+    }
+
+    private Timer tierTimer(String tier) {
+        return Timer.builder("agent.cascade.tier.duration")
+                .tags("agent", agentName, "tier", tier)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(policy.meterRegistry());
+    }
+
+    private DistributionSummary shadowScore(String tier) {
+        return DistributionSummary.builder("agent.cascade.shadow.score")
+                .tags("agent", agentName, "tier", tier)
+                .register(policy.meterRegistry());
+    }
+}
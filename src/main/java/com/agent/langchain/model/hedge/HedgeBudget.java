@@ -0,0 +1,55 @@
+package com.agent.langchain.model.hedge;
+
+/**
+ * Caps hedged requests at a share of all requests.
+ *
+ * A token bucket: every request adds {@code ratio} tokens, up to
+ * {@code burst}, and every hedge takes a whole token. Over time at most
+ * {@code ratio} extra calls are made per request, and a provider slowdown
+ * that makes every call a hedge candidate cannot double the load on it.
+ */
+public final class HedgeBudget {
+
+    private final double ratio;
+    private final double burst;
+    private double tokens;
+
+    /**
+     * @param ratio share of requests that may be hedged, e.g. 0.1 for 10%
+     * @param burst hedges allowed in a row after a quiet period; the bucket
+     *              starts full
+     */
+    public HedgeBudget(double ratio, double burst) {
+        if (ratio < 0.0 || ratio > 1.0) {
+            throw new IllegalArgumentException("Hedge budget ratio must be in [0.0, 1.0]");
+        }
+        if (burst < 1.0) {
+            throw new IllegalArgumentException("Hedge budget burst must be at least 1");
+        }
+        this.ratio = ratio;
+        this.burst = burst;
+        this.tokens = burst;
+    }
+
+    /**
+     * Credits the budget for one request.
+     */
+    public synchronized void onRequest() {
+        tokens = Math.min(burst, tokens + ratio);
+    }
+
+    /**
+     * @return whether a hedge may be sent; if so, its token is taken
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    public synchronized double available() {
+        return tokens;
+    }
+}
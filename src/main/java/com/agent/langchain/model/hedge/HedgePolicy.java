@@ -0,0 +1,192 @@
+package com.agent.langchain.model.hedge;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * When and how often chat requests are hedged; shared by every
+ * {@link HedgingChatModel}.
+ *
+ * Hedging is enabled per agent: only the listed agents are hedged, typically
+ * those fanned out in parallel, where the slowest of several calls sets the
+ * latency. An agent's hedge delay is the configured percentile of its recent
+ * latencies, but never less than the minimum delay; until enough latencies
+ * are known the agent is not hedged. All agents draw from one
+ * {@link HedgeBudget}.
+ *
+ * Metrics:
+ * - agent.hedge.budget.available: hedges that may be sent right now
+ */
+public class HedgePolicy {
+
+    private final boolean enabled;
+    private final Set<String> agents;
+    private final double percentile;
+    private final Duration minDelay;
+    private final int minSamples;
+    private final int windowSize;
+    private final HedgeBudget budget;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+
+    private HedgePolicy(Builder builder) {
+        if (builder.percentile <= 0.0 || builder.percentile >= 1.0) {
+            throw new IllegalArgumentException("Hedge percentile must be in (0.0, 1.0)");
+        }
+        if (builder.minSamples < 1 || builder.minSamples > builder.windowSize) {
+            throw new IllegalArgumentException("Hedge min samples must be in [1, window size]");
+        }
+        if (builder.enabled && builder.executor == null) {
+            throw new IllegalArgumentException("Hedging needs an executor");
+        }
+        this.enabled = builder.enabled;
+        this.agents = Set.copyOf(builder.agents);
+        this.percentile = builder.percentile;
+        this.minDelay = builder.minDelay;
+        this.minSamples = builder.minSamples;
+        this.windowSize = builder.windowSize;
+        this.budget = new HedgeBudget(builder.budgetRatio, builder.budgetBurst);
+        this.executor = builder.executor;
+        this.meterRegistry = builder.meterRegistry;
+        Gauge.builder("agent.hedge.budget.available", budget, HedgeBudget::available).register(meterRegistry);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param agentName simple name of the agent interface, e.g. "MarketAnalyzer"
+     */
+    public boolean isEnabledFor(String agentName) {
+        return enabled && agents.contains(agentName);
+    }
+
+    /**
+     * @return the hedge delay for an agent with the given latencies, or null
+     *         while too few are known
+     */
+    Duration delayFor(LatencyWindow latencies) {
+        if (latencies.size() < minSamples) {
+            return null;
+        }
+        Duration observed = latencies.percentile(percentile);
+        return observed.compareTo(minDelay) < 0 ? minDelay : observed;
+    }
+
+    LatencyWindow newWindow() {
+        return new LatencyWindow(windowSize);
+    }
+
+    HedgeBudget budget() {
+        return budget;
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    MeterRegistry meterRegistry() {
+        return meterRegistry;
+    }
+
+    /**
+     * Builder for {@link HedgePolicy}.
+     */
+    public static class Builder {
+
+        private boolean enabled = true;
+        private Set<String> agents = Set.of();
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(500);
+        private int minSamples = 20;
+        private int windowSize = 200;
+        private double budgetRatio = 0.1;
+        private double budgetBurst = 10;
+        private ExecutorService executor;
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Agents to hedge; none when empty.
+         */
+        public Builder agents(Set<String> agents) {
+            this.agents = agents;
+            return this;
+        }
+
+        /**
+         * Latency percentile after which a hedge is sent, e.g. 0.95.
+         */
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Lower bound of the hedge delay, so fast agents are not hedged on noise.
+         */
+        public Builder minDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Latencies an agent needs before it is hedged.
+         */
+        public Builder minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Recent latencies kept per agent.
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Share of requests that may be hedged.
+         */
+        public Builder budgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /**
+         * Hedges allowed in a row after a quiet period.
+         */
+        public Builder budgetBurst(double budgetBurst) {
+            this.budgetBurst = budgetBurst;
+            return this;
+        }
+
+        /**
+         * Executor running both the original and the hedged call.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public HedgePolicy build() {
+            return new HedgePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.agent.langchain.model.hedge;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.model.DelegatingChatModel;
+import com.agent.langchain.observability.AgentTracer;
+import com.agent.langchain.observability.TokenUsageRecorder;
+import com.agent.langchain.streaming.AgentStreams;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link ChatModel} decorator sending a duplicate of a slow request.
+ *
+ * The request is sent on the {@link HedgePolicy}'s executor. If it has not
+ * answered after the agent's hedge delay (its recent p95 latency by
+ * default) and the {@link HedgeBudget} allows, the same request is sent a
+ * second time; the first successful answer is returned and the other call is
+ * cancelled. When one of the two fails, the other one is still waited for.
+ *
+ * A duplicate counts as a retry of the current model call span, and both
+ * attempts run inside that span.
+ *
+ * Requests are sent directly on the calling thread, without hedging, while
+ * the agent has too few latencies for a delay and while a stage is being
+ * streamed, whose tokens must come from a single call on the calling thread.
+ * One latency is recorded per request, that of the original call. When the
+ * duplicate wins, the original call is cancelled and the time it had been
+ * running so far is recorded as a lower bound; recording only the calls
+ * that complete would leave the slow ones out, and the delay would keep
+ * shrinking.
+ *
+ * Metrics (tag: agent):
+ * - agent.hedge.fired: duplicate requests sent
+ * - agent.hedge.won: requests answered by the duplicate
+ * - agent.hedge.denied: hedges not sent because the budget was spent
+ * - agent.hedge.delay: hedge delay in effect when a request was sent
+ */
+public class HedgingChatModel extends DelegatingChatModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgingChatModel.class);
+
+    private final HedgePolicy policy;
+    private final String agentName;
+    private final LatencyWindow latencies;
+    private final Counter fired;
+    private final Counter won;
+    private final Counter denied;
+    private final Timer delay;
+
+    public HedgingChatModel(ChatModel delegate, HedgePolicy policy, String agentName) {
+        super(delegate);
+        this.policy = policy;
+        this.agentName = agentName;
+        this.latencies = policy.newWindow();
+        this.fired = Counter.builder("agent.hedge.fired").tag("agent", agentName).register(policy.meterRegistry());
+        this.won = Counter.builder("agent.hedge.won").tag("agent", agentName).register(policy.meterRegistry());
+        this.denied = Counter.builder("agent.hedge.denied").tag("agent", agentName).register(policy.meterRegistry());
+        this.delay = Timer.builder("agent.hedge.delay").tag("agent", agentName).register(policy.meterRegistry());
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        policy.budget().onRequest();
+        Duration hedgeDelay = policy.delayFor(latencies);
+        if (hedgeDelay == null || AgentStreams.inStreamedStage()) {
+            return timed(chatRequest);
+        }
+        delay.record(hedgeDelay);
+
+        CompletionService<ChatResponse> attempts = new ExecutorCompletionService<>(policy.executor());
+        Supplier<ChatResponse> attempt = AgentTracer.propagate(TokenUsageRecorder.propagate(
+                () -> delegate.chat(chatRequest)));
+        long start = System.nanoTime();
+        AtomicBoolean recorded = new AtomicBoolean();
+        Future<ChatResponse> primary = attempts.submit(() -> {
+            ChatResponse response = attempt.get();
+            if (recorded.compareAndSet(false, true)) {
+                latencies.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+            return response;
+        });
+        Future<ChatResponse> hedge = null;
+        try {
+            Future<ChatResponse> first = attempts.poll(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+            if (first == null) {
+                if (policy.budget().tryAcquire()) {
+                    hedge = attempts.submit(attempt::get);
+                    fired.increment();
+                    AgentTracer.recordRetry();
+                    logger.debug("Hedged {} request after {} ms", agentName, hedgeDelay.toMillis());
+                } else {
+                    denied.increment();
+                }
+                first = attempts.take();
+            }
+            try {
+                return answer(first, hedge);
+            } catch (ExecutionException e) {
+                if (hedge == null) {
+                    throw unwrap(e);
+                }
+                logger.debug("First {} attempt failed, waiting for the other: {}", agentName,
+                        e.getCause().getMessage());
+                try {
+                    return answer(attempts.take(), hedge);
+                } catch (ExecutionException second) {
+                    throw unwrap(second);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + agentName + " model call", e);
+        } finally {
+            if (primary.cancel(true) && recorded.compareAndSet(false, true)) {
+                latencies.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private ChatResponse answer(Future<ChatResponse> attempt, Future<ChatResponse> hedge)
+            throws ExecutionException, InterruptedException {
+        ChatResponse response = attempt.get();
+        if (attempt == hedge) {
+            won.increment();
+        }
+        return response;
+    }
+
+    LatencyWindow latencies() {
+        return latencies;
+    }
+
+    private ChatResponse timed(ChatRequest chatRequest) {
+        long start = System.nanoTime();
+        ChatResponse response = delegate.chat(chatRequest);
+        latencies.record(Duration.ofNanos(System.nanoTime() - start));
+        return response;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (e.getCause() instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Model call failed", e.getCause());
+    }
+}
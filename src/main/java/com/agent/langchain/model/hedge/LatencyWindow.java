@@ -0,0 +1,53 @@
+package com.agent.langchain.model.hedge;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The most recent call latencies of one agent, for percentile estimates.
+ *
+ * A fixed-size ring buffer: old samples drop out as new ones arrive, so the
+ * estimate follows changes in provider latency. A percentile sorts a copy
+ * of at most {@code size} samples, negligible next to a model call.
+ */
+public final class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyWindow(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Latency window size must be positive");
+        }
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * @param quantile e.g. 0.95 for the p95
+     * @return the latency below which the given share of the samples lies, or
+     *         null without samples
+     */
+    public Duration percentile(double quantile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) {
+                return null;
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+}
@@ -0,0 +1,290 @@
+package com.agent.langchain.model.limit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Gradient-based adaptive concurrency limiter.
+ *
+ * The limit follows the ratio between the long-term and the short-term
+ * latency of completed calls: while the backend answers as fast as usual the
+ * limit grows by roughly sqrt(limit) per sample, and when latency rises above
+ * {@code rttTolerance} times its long-term average the limit shrinks
+ * proportionally (by at most half per sample). Calls failing because the
+ * backend is overloaded (rate limited, timed out, 5xx) cut the limit by
+ * {@code backoffRatio}. Growth is skipped while less than half of the limit
+ * is in use, so an idle service does not inflate its limit.
+ *
+ * Latencies are exponentially averaged over {@code shortWindow} and
+ * {@code longWindow} samples. LLM latency varies with prompt and answer size,
+ * so the short window smooths over several calls instead of reacting to each.
+ *
+ * Metrics:
+ * - agent.limiter.limit / agent.limiter.inflight
+ * - agent.limiter.rtt.short / agent.limiter.rtt.long (milliseconds)
+ * - agent.limiter.calls{result=success|dropped|ignored|rejected}
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final double shortAlpha;
+    private final double longAlpha;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    private final Counter successCounter;
+    private final Counter droppedCounter;
+    private final Counter ignoredCounter;
+    private final Counter rejectedCounter;
+
+    private AdaptiveConcurrencyLimiter(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.smoothing = builder.smoothing;
+        this.rttTolerance = builder.rttTolerance;
+        this.backoffRatio = builder.backoffRatio;
+        this.shortAlpha = 2.0 / (builder.shortWindow + 1);
+        this.longAlpha = 2.0 / (builder.longWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, builder.initialLimit));
+
+        MeterRegistry registry = builder.meterRegistry;
+        Gauge.builder("agent.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+        Gauge.builder("agent.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight).register(registry);
+        Gauge.builder("agent.limiter.rtt.short", this, l -> l.snapshot(true)).baseUnit("milliseconds").register(registry);
+        Gauge.builder("agent.limiter.rtt.long", this, l -> l.snapshot(false)).baseUnit("milliseconds").register(registry);
+        this.successCounter = calls(registry, "success");
+        this.droppedCounter = calls(registry, "dropped");
+        this.ignoredCounter = calls(registry, "ignored");
+        this.rejectedCounter = calls(registry, "rejected");
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static Counter calls(MeterRegistry registry, String result) {
+        return Counter.builder("agent.limiter.calls").tag("result", result).register(registry);
+    }
+
+    /**
+     * Acquires a permit, waiting at most {@code maxWait} for one to free up.
+     *
+     * @return the permit, or null when the limit is still reached after waiting
+     */
+    public Permit tryAcquire(Duration maxWait) throws InterruptedException {
+        long remaining = maxWait.toNanos();
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    rejectedCounter.increment();
+                    return null;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return new Permit(System.nanoTime(), inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return suggested client back-off: the current short-term latency,
+     *         rounded up to whole seconds and capped at 30 seconds
+     */
+    public Duration retryAfter() {
+        long seconds = (long) Math.ceil(snapshot(true) / 1000.0);
+        return Duration.ofSeconds(Math.max(1, Math.min(30, seconds)));
+    }
+
+    private double snapshot(boolean shortTerm) {
+        lock.lock();
+        try {
+            return (shortTerm ? shortRttNanos : longRttNanos) / 1_000_000.0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart) {
+        if (shortRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += shortAlpha * (rttNanos - shortRttNanos);
+            longRttNanos += longAlpha * (rttNanos - longRttNanos);
+        }
+
+        // After a latency spike the long average lags behind; let it catch up
+        // once latency is back down so the limit can grow again.
+        if (longRttNanos / shortRttNanos > 2.0) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        setLimit(limit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        released.signalAll();
+    }
+
+    /**
+     * A granted slot. Exactly one of the completion methods must be called.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The call succeeded; its latency feeds the limit.
+         */
+        public void onSuccess() {
+            long rtt = System.nanoTime() - startNanos;
+            release(() -> onSample(rtt, inFlightAtStart));
+            successCounter.increment();
+        }
+
+        /**
+         * The backend signalled overload; the limit backs off.
+         */
+        public void onDropped() {
+            release(() -> setLimit(limit * backoffRatio));
+            droppedCounter.increment();
+        }
+
+        /**
+         * The call failed for a reason unrelated to load.
+         */
+        public void onIgnore() {
+            release(() -> { });
+            ignoredCounter.increment();
+        }
+
+        private void release(Runnable update) {
+            lock.lock();
+            try {
+                inFlight--;
+                update.run();
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link AdaptiveConcurrencyLimiter}.
+     */
+    public static class Builder {
+
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private double smoothing = 0.2;
+        private double rttTolerance = 1.5;
+        private double backoffRatio = 0.9;
+        private int shortWindow = 10;
+        private int longWindow = 200;
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public Builder smoothing(double smoothing) {
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * @param rttTolerance how far short-term latency may exceed the long-term
+         *                     average before the limit starts shrinking
+         */
+        public Builder rttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+            return this;
+        }
+
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        public Builder shortWindow(int shortWindow) {
+            this.shortWindow = shortWindow;
+            return this;
+        }
+
+        public Builder longWindow(int longWindow) {
+            this.longWindow = longWindow;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public AdaptiveConcurrencyLimiter build() {
+            return new AdaptiveConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.agent.langchain.model.limit;
+
+import java.time.Duration;
+
+import com.agent.langchain.exception.ConcurrencyLimitExceededException;
+import com.agent.langchain.model.DelegatingChatModel;
+
+import dev.langchain4j.exception.InternalServerException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.exception.TimeoutException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * {@link ChatModel} decorator that admits calls through an
+ * {@link AdaptiveConcurrencyLimiter}.
+ *
+ * A call waits at most {@code maxWait} for a free slot and otherwise fails
+ * with {@link ConcurrencyLimitExceededException}, so a slow backend makes the
+ * service shed load instead of piling up blocked threads. Rate limit,
+ * timeout and 5xx failures from the backend count as overload signals.
+ */
+public class ConcurrencyLimitedChatModel extends DelegatingChatModel {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration maxWait;
+
+    public ConcurrencyLimitedChatModel(ChatModel delegate, AdaptiveConcurrencyLimiter limiter, Duration maxWait) {
+        super(delegate);
+        this.limiter = limiter;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.tryAcquire(maxWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a model call slot", e);
+        }
+        if (permit == null) {
+            throw new ConcurrencyLimitExceededException(limiter.getLimit(), limiter.retryAfter());
+        }
+
+        try {
+            ChatResponse response = delegate.chat(chatRequest);
+            permit.onSuccess();
+            return response;
+        } catch (RuntimeException e) {
+            if (isOverload(e)) {
+                permit.onDropped();
+            } else {
+                permit.onIgnore();
+            }
+            throw e;
+        } catch (Error e) {
+            permit.onIgnore();
+            throw e;
+        }
+    }
+
+    private static boolean isOverload(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof RateLimitException || t instanceof TimeoutException
+                    || t instanceof InternalServerException || t instanceof java.util.concurrent.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
@@ -0,0 +1,99 @@
+package com.agent.langchain.model.limit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import com.agent.langchain.exception.BulkheadFullException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-pattern bulkheads.
+ *
+ * Each pattern gets its own bounded number of concurrent executions, so a
+ * burst of an expensive pattern (the loop pattern makes up to 11 model calls
+ * per request) cannot take every model call slot from cheap ones such as
+ * conditional routing. A full bulkhead rejects immediately with
+ * {@link BulkheadFullException} instead of queueing the request.
+ *
+ * Patterns without a configured limit fall back to {@code defaultMaxConcurrent}.
+ *
+ * Metrics:
+ * - agent.bulkhead.active{pattern}
+ * - agent.bulkhead.rejected{pattern}
+ */
+public class PatternBulkheads {
+
+    /**
+     * A held bulkhead slot; closing it frees the slot.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Bulkhead(int maxConcurrent, Semaphore semaphore, Counter rejected) {
+    }
+
+    private final Map<String, Integer> maxConcurrent;
+    private final int defaultMaxConcurrent;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxConcurrent        limits keyed by pattern name, e.g. {@code loop}
+     * @param defaultMaxConcurrent limit of patterns missing from the map
+     * @param retryAfter           back-off suggested to rejected clients
+     */
+    public PatternBulkheads(Map<String, Integer> maxConcurrent, int defaultMaxConcurrent, Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        this.maxConcurrent = Map.copyOf(maxConcurrent);
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Takes a slot of the pattern's bulkhead.
+     *
+     * @param pattern the pattern name, e.g. {@code conditional-routing}
+     * @return the slot, to be closed when the execution ends
+     * @throws BulkheadFullException if the pattern is already at its limit
+     */
+    public Permit acquire(String pattern) {
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(pattern, this::create);
+        if (!bulkhead.semaphore().tryAcquire()) {
+            bulkhead.rejected().increment();
+            throw new BulkheadFullException(pattern, bulkhead.maxConcurrent(), retryAfter);
+        }
+        return bulkhead.semaphore()::release;
+    }
+
+    /**
+     * @return number of executions currently holding a slot of the pattern
+     */
+    public int active(String pattern) {
+        Bulkhead bulkhead = bulkheads.get(pattern);
+        return bulkhead == null ? 0 : bulkhead.maxConcurrent() - bulkhead.semaphore().availablePermits();
+    }
+
+    public int maxConcurrent(String pattern) {
+        return maxConcurrent.getOrDefault(pattern, defaultMaxConcurrent);
+    }
+
+    private Bulkhead create(String pattern) {
+        int limit = maxConcurrent(pattern);
+        Bulkhead bulkhead = new Bulkhead(limit, new Semaphore(limit),
+                Counter.builder("agent.bulkhead.rejected").tag("pattern", pattern).register(meterRegistry));
+        Gauge.builder("agent.bulkhead.active", bulkhead,
+                b -> b.maxConcurrent() - b.semaphore().availablePermits())
+                .tag("pattern", pattern)
+                .register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,69 @@
+package com.agent.langchain.observability;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.agentic.agent.AgentRequest;
+import dev.langchain4j.agentic.agent.AgentResponse;
+import dev.langchain4j.agentic.scope.AgenticScope;
+
+/**
+ * Agent invocation hooks feeding both {@link AgentMetrics} and
+ * {@link AgentTracer}, so pattern configurations register a single pair.
+ */
+@Component
+public class AgentInstrumentation {
+
+    private final AgentMetrics metrics;
+    private final AgentTracer tracer;
+
+    public AgentInstrumentation(AgentMetrics metrics, AgentTracer tracer) {
+        this.metrics = metrics;
+        this.tracer = tracer;
+    }
+
+    /**
+     * @param pattern tag of the pattern the agent belongs to
+     */
+    public Consumer<AgentRequest> beforeInvocation(String pattern) {
+        return metrics.beforeInvocation(pattern).andThen(tracer.beforeInvocation());
+    }
+
+    /**
+     * @param pattern tag of the pattern the agent belongs to
+     */
+    public Consumer<AgentResponse> afterInvocation(String pattern) {
+        return metrics.afterInvocation(pattern).andThen(tracer.afterInvocation());
+    }
+
+    /**
+     * {@code beforeCall} hook for root workflows; see {@link AgentTracer#attachToScope()}.
+     */
+    public Consumer<AgenticScope> attachToScope() {
+        return tracer.attachToScope();
+    }
+
+    /**
+     * Traces a step that is not an AI agent invocation, e.g. waiting for human input.
+     */
+    public <T> T inSpan(String name, Supplier<T> step) {
+        return tracer.inSpan(name, step);
+    }
+
+    /**
+     * Adds an attribute to the innermost open span of the current trace, if any.
+     */
+    public void attribute(String key, Object value) {
+        AgentTracer.currentSpan().ifPresent(span -> span.attribute(key, value));
+    }
+
+    /**
+     * Binds a task to the current trace before it is handed to another thread;
+     * see {@link AgentTracer#propagate(Supplier)}.
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        return AgentTracer.propagate(task);
+    }
+}
@@ -0,0 +1,143 @@
+package com.agent.langchain.observability;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.agent.langchain.exception.AgentOverloadException;
+
+import dev.langchain4j.agentic.agent.AgentRequest;
+import dev.langchain4j.agentic.agent.AgentResponse;
+import dev.langchain4j.agentic.scope.AgenticScope;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instrumentation of agents, shared by every pattern.
+ *
+ * Two levels are measured:
+ * - Agent invocations inside a workflow, through the
+ * {@code beforeAgentInvocation}/{@code afterAgentInvocation} hooks returned
+ * by {@link #beforeInvocation(String)} and {@link #afterInvocation(String)}.
+ * Workflow agents (sequences, loops, ...) are timed too, so the time of a
+ * pipeline can be compared with the time of its stages.
+ * - Model calls of each agent, through {@link MeteredChatModel}. These also
+ * cover agents called directly rather than through a workflow, and carry the
+ * outcome and token counts of every call.
+ *
+ * The framework does not call the after-hook when an agent fails; failures
+ * show up as model calls with {@code outcome=error} or {@code outcome=rejected}.
+ *
+ * Metrics (tags: pattern, agent, outcome):
+ * - agent.invocation.duration: p50/p95/p99 and histogram of agent invocations
+ * - agent.model.call.duration: p50/p95/p99 and histogram of model calls
+ * - agent.tokens{type=prompt|completion}: tokens used by model calls
+ */
+@Component
+public class AgentMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentMetrics.class);
+
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+    private final MeterRegistry meterRegistry;
+    private final Map<AgenticScope, Map<String, Long>> openInvocations =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public AgentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Derives the pattern tag of an agent interface from the pattern
+     * configuration class declaring it, e.g. {@code ConditionalRoutingPattern}
+     * becomes {@code conditional-routing}.
+     */
+    public static String patternOf(Class<?> agentType) {
+        Class<?> declaring = agentType.getEnclosingClass();
+        if (declaring == null) {
+            return "none";
+        }
+        String name = declaring.getSimpleName().replaceFirst("Pattern$", "");
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return hook marking the start of an agent invocation
+     */
+    public Consumer<AgentRequest> beforeInvocation(String pattern) {
+        return request -> {
+            logger.debug("{} - invoking agent {}", pattern, request.agentId());
+            openInvocations.computeIfAbsent(request.agenticScope(), scope -> new ConcurrentHashMap<>())
+                    .put(request.agentId(), System.nanoTime());
+        };
+    }
+
+    /**
+     * @return hook recording the duration of a completed agent invocation
+     */
+    public Consumer<AgentResponse> afterInvocation(String pattern) {
+        return response -> {
+            Map<String, Long> open = openInvocations.get(response.agenticScope());
+            Long start = open == null ? null : open.remove(response.agentId());
+            if (start == null) {
+                return;
+            }
+            timer("agent.invocation.duration", pattern, agentName(response), "success")
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        };
+    }
+
+    /**
+     * Records one model call of an agent.
+     *
+     * @param response the model response, null when the call failed
+     * @param error    the failure, null when the call succeeded
+     */
+    public void recordModelCall(String pattern, String agent, Duration duration, ChatResponse response,
+            Throwable error) {
+        String outcome = error == null ? "success" : error instanceof AgentOverloadException ? "rejected" : "error";
+        timer("agent.model.call.duration", pattern, agent, outcome).record(duration);
+
+        TokenUsage usage = response == null ? null : response.tokenUsage();
+        if (usage != null) {
+            tokens(pattern, agent, "prompt", usage.inputTokenCount());
+            tokens(pattern, agent, "completion", usage.outputTokenCount());
+        }
+    }
+
+    private void tokens(String pattern, String agent, String type, Integer count) {
+        if (count != null && count > 0) {
+            Counter.builder("agent.tokens")
+                    .tags("pattern", pattern, "agent", agent, "type", type)
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    private Timer timer(String name, String pattern, String agent, String outcome) {
+        return timers.computeIfAbsent(String.join("|", name, pattern, agent, outcome), key -> Timer.builder(name)
+                .tags("pattern", pattern, "agent", agent, "outcome", outcome)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private static String agentName(AgentResponse response) {
+        Class<?> type = response.agent().type();
+        return type != null ? type.getSimpleName() : response.agentName();
+    }
+}
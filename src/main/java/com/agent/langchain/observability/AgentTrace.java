@@ -0,0 +1,90 @@
+package com.agent.langchain.observability;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.langchain4j.agentic.planner.AgentInstance;
+
+/**
+ * Span tree of one pattern execution.
+ *
+ * The root span stands for the pattern call; workflow, agent, model and step
+ * spans hang below it. A trace holds at most {@code maxSpans} spans, further
+ * spans are counted as dropped but not recorded.
+ */
+public final class AgentTrace {
+
+    private final String traceId = TraceSpan.randomHex(16);
+    private final String pattern;
+    private final Instant startTime = Instant.now();
+    private final long startEpochNanos = startTime.getEpochSecond() * 1_000_000_000L + startTime.getNano();
+    private final int maxSpans;
+    private final TraceSpan root;
+    private final ConcurrentLinkedDeque<TraceSpan> openSpans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger spanCount = new AtomicInteger(1);
+    private final AtomicInteger droppedSpans = new AtomicInteger();
+
+    AgentTrace(String pattern, int maxSpans) {
+        this.pattern = pattern;
+        this.maxSpans = maxSpans;
+        this.root = new TraceSpan(this, null, pattern, TraceSpan.Kind.PATTERN, null);
+    }
+
+    /**
+     * Starts a child span.
+     *
+     * @return the span, or null when the trace is full
+     */
+    TraceSpan startSpan(TraceSpan parent, String name, TraceSpan.Kind kind, AgentInstance agent) {
+        if (spanCount.incrementAndGet() > maxSpans) {
+            spanCount.decrementAndGet();
+            droppedSpans.incrementAndGet();
+            return null;
+        }
+        TraceSpan span = new TraceSpan(this, parent, name, kind, agent);
+        parent.addChild(span);
+        openSpans.add(span);
+        return span;
+    }
+
+    void onSpanEnded(TraceSpan span) {
+        openSpans.remove(span);
+    }
+
+    /**
+     * @return spans started but not yet ended, oldest first
+     */
+    List<TraceSpan> openSpans() {
+        return List.copyOf(openSpans);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public TraceSpan getRoot() {
+        return root;
+    }
+
+    public int getSpanCount() {
+        return spanCount.get();
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans.get();
+    }
+}
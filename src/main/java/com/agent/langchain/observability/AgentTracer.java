@@ -0,0 +1,371 @@
+package com.agent.langchain.observability;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dev.langchain4j.agentic.UntypedAgent;
+import dev.langchain4j.agentic.agent.AgentRequest;
+import dev.langchain4j.agentic.agent.AgentResponse;
+import dev.langchain4j.agentic.planner.AgentInstance;
+import dev.langchain4j.agentic.scope.AgenticScope;
+import dev.langchain4j.invocation.LangChain4jManaged;
+
+/**
+ * Records a span tree per pattern execution.
+ *
+ * {@link #trace(String, Supplier)} opens the trace around a pattern call. The
+ * trace is then found the same way as stream listeners (see
+ * {@code AgentStreams}): through a thread-local on the calling thread and
+ * through the root {@link AgenticScope}, to which {@link #attachToScope()}
+ * copies it, on threads running parallel sub-agents.
+ *
+ * Spans are opened and closed by the agent invocation hooks, by
+ * {@link TracingChatModel} for model calls and by {@link #inSpan} for custom
+ * steps. A span's parent is the innermost span still open on the same thread;
+ * a sub-agent started on another thread is attached to the open workflow span
+ * that declares it as sub-agent, or to the root.
+ *
+ * Completed traces are kept in a ring buffer of the most recent
+ * {@code bufferSize} traces and handed to the configured exporters.
+ */
+public class AgentTracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentTracer.class);
+
+    /**
+     * AgenticScope state key holding the trace.
+     */
+    public static final String TRACE_STATE_KEY = "agentTrace";
+
+    private static final ThreadLocal<AgentTrace> CURRENT_TRACE = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<TraceSpan>> OPEN_SPANS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final boolean enabled;
+    private final int bufferSize;
+    private final int maxSpansPerTrace;
+    private final List<TraceExporter> exporters;
+    private final Deque<AgentTrace> recent = new ArrayDeque<>();
+
+    public AgentTracer(boolean enabled, int bufferSize, int maxSpansPerTrace, List<TraceExporter> exporters) {
+        this.enabled = enabled;
+        this.bufferSize = bufferSize;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.exporters = List.copyOf(exporters);
+    }
+
+    /**
+     * Runs a pattern call inside a new trace.
+     *
+     * @param pattern pattern name, used as root span name
+     * @param body    the pattern call
+     */
+    public <T> T trace(String pattern, Supplier<T> body) {
+        if (!enabled) {
+            return body.get();
+        }
+        AgentTrace trace = new AgentTrace(pattern, maxSpansPerTrace);
+        AgentTrace previous = CURRENT_TRACE.get();
+        CURRENT_TRACE.set(trace);
+        Deque<TraceSpan> stack = OPEN_SPANS.get();
+        stack.push(trace.getRoot());
+        try {
+            T result = body.get();
+            trace.getRoot().attribute("output.chars", sizeOf(result));
+            finish(trace, TraceSpan.Status.OK, null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            finish(trace, TraceSpan.Status.ERROR, e.getMessage());
+            throw e;
+        } finally {
+            stack.removeIf(span -> span.getTrace() == trace);
+            if (previous != null) {
+                CURRENT_TRACE.set(previous);
+            } else {
+                CURRENT_TRACE.remove();
+            }
+        }
+    }
+
+    /**
+     * {@code beforeCall} hook for root workflows, making the trace visible to
+     * sub-agents running on other threads.
+     */
+    public Consumer<AgenticScope> attachToScope() {
+        return agenticScope -> {
+            AgentTrace trace = CURRENT_TRACE.get();
+            if (trace != null && !agenticScope.hasState(TRACE_STATE_KEY)) {
+                agenticScope.writeState(TRACE_STATE_KEY, trace);
+            }
+        };
+    }
+
+    /**
+     * @return hook opening a span for an agent invocation
+     */
+    public Consumer<AgentRequest> beforeInvocation() {
+        return request -> {
+            AgentTrace trace = traceOf(request.agenticScope());
+            if (trace == null) {
+                return;
+            }
+            AgentInstance agent = request.agent();
+            boolean workflow = agent.subagents() != null && !agent.subagents().isEmpty();
+            TraceSpan span = trace.startSpan(parentFor(trace, agent.agentId()), spanName(agent),
+                    workflow ? TraceSpan.Kind.WORKFLOW : TraceSpan.Kind.AGENT, agent);
+            if (span != null) {
+                span.attribute("agent.id", agent.agentId())
+                        .attribute("input.chars", sizeOf(request.inputs()));
+                OPEN_SPANS.get().push(span);
+            }
+        };
+    }
+
+    /**
+     * @return hook closing the span of a completed agent invocation
+     */
+    public Consumer<AgentResponse> afterInvocation() {
+        return response -> {
+            AgentTrace trace = traceOf(response.agenticScope());
+            if (trace == null) {
+                return;
+            }
+            TraceSpan span = popSpan(trace, response.agentId());
+            if (span != null) {
+                span.attribute("output.chars", sizeOf(response.output()));
+                span.end(TraceSpan.Status.OK, null);
+            }
+        };
+    }
+
+    /**
+     * Runs a custom step, e.g. waiting for human input, in its own span.
+     */
+    public <T> T inSpan(String name, Supplier<T> step) {
+        AgentTrace trace = currentTrace();
+        TraceSpan span = trace == null ? null : trace.startSpan(innermostSpan(trace), name, TraceSpan.Kind.STEP, null);
+        if (span == null) {
+            return step.get();
+        }
+        OPEN_SPANS.get().push(span);
+        try {
+            T result = step.get();
+            span.attribute("output.chars", sizeOf(result));
+            span.end(TraceSpan.Status.OK, null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            span.end(TraceSpan.Status.ERROR, e.getMessage());
+            throw e;
+        } finally {
+            OPEN_SPANS.get().remove(span);
+        }
+    }
+
+    /**
+     * Binds a task to the trace of the calling thread, for tasks handed to
+     * another thread outside an agentic workflow. Spans the task opens become
+     * children of the caller's innermost open span.
+     *
+     * @return the task, unchanged when not tracing
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        AgentTrace trace = currentTrace();
+        if (trace == null) {
+            return task;
+        }
+        TraceSpan parent = innermostSpan(trace);
+        return () -> {
+            AgentTrace previous = CURRENT_TRACE.get();
+            CURRENT_TRACE.set(trace);
+            Deque<TraceSpan> stack = OPEN_SPANS.get();
+            stack.push(parent);
+            try {
+                return task.get();
+            } finally {
+                stack.remove(parent);
+                if (previous != null) {
+                    CURRENT_TRACE.set(previous);
+                } else {
+                    CURRENT_TRACE.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Opens a model call span below the innermost open span of this thread.
+     * It stays the innermost open span until {@link #endModelCall}, so the
+     * model decorators below it count their retries on it.
+     *
+     * @return the span, to be ended by the caller, or null when not tracing
+     */
+    TraceSpan startModelCall(String agentName) {
+        AgentTrace trace = currentTrace();
+        if (trace == null) {
+            return null;
+        }
+        TraceSpan span = trace.startSpan(innermostSpan(trace), agentName + " model call", TraceSpan.Kind.MODEL,
+                null);
+        if (span != null) {
+            OPEN_SPANS.get().push(span);
+        }
+        return span;
+    }
+
+    void endModelCall(TraceSpan span, TraceSpan.Status status, String error) {
+        OPEN_SPANS.get().remove(span);
+        span.end(status, error);
+    }
+
+    /**
+     * @return the innermost open span of the current trace on this thread
+     */
+    public static Optional<TraceSpan> currentSpan() {
+        AgentTrace trace = currentTrace();
+        return trace == null ? Optional.empty() : Optional.of(innermostSpan(trace));
+    }
+
+    /**
+     * Counts a retried attempt, e.g. a hedged duplicate or a failover to
+     * another backend, on the innermost open span of this thread, normally
+     * the model call span; does nothing when not tracing.
+     */
+    public static void recordRetry() {
+        currentSpan().ifPresent(TraceSpan::recordRetry);
+    }
+
+    /**
+     * @return completed traces, most recent first
+     */
+    public List<AgentTrace> recentTraces() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    public Optional<AgentTrace> findTrace(String traceId) {
+        return recentTraces().stream().filter(trace -> trace.getTraceId().equals(traceId)).findFirst();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    private static AgentTrace currentTrace() {
+        Map<Class<? extends LangChain4jManaged>, LangChain4jManaged> managed = LangChain4jManaged.current();
+        if (managed != null && managed.get(AgenticScope.class) instanceof AgenticScope agenticScope) {
+            AgentTrace trace = traceOf(agenticScope);
+            if (trace != null) {
+                return trace;
+            }
+        }
+        return CURRENT_TRACE.get();
+    }
+
+    private static AgentTrace traceOf(AgenticScope agenticScope) {
+        if (agenticScope != null && agenticScope.readState(TRACE_STATE_KEY) instanceof AgentTrace trace) {
+            return trace;
+        }
+        return CURRENT_TRACE.get();
+    }
+
+    /**
+     * Innermost open span of the trace on this thread. Ended spans, e.g. of
+     * finished traces left behind on a pooled thread, are discarded on the way.
+     */
+    private static TraceSpan currentParent(AgentTrace trace) {
+        Deque<TraceSpan> stack = OPEN_SPANS.get();
+        stack.removeIf(span -> !span.isOpen());
+        for (TraceSpan span : stack) {
+            if (span.getTrace() == trace && span.isOpen()) {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    private static TraceSpan innermostSpan(AgentTrace trace) {
+        TraceSpan span = currentParent(trace);
+        return span != null ? span : trace.getRoot();
+    }
+
+    private static TraceSpan parentFor(AgentTrace trace, String agentId) {
+        TraceSpan parent = currentParent(trace);
+        if (parent != null) {
+            return parent;
+        }
+        List<TraceSpan> open = trace.openSpans();
+        for (int i = open.size() - 1; i >= 0; i--) {
+            AgentInstance agent = open.get(i).getAgent();
+            if (agent != null && agent.subagents() != null
+                    && agent.subagents().stream().anyMatch(sub -> agentId.equals(sub.agentId()))) {
+                return open.get(i);
+            }
+        }
+        return trace.getRoot();
+    }
+
+    private static TraceSpan popSpan(AgentTrace trace, String agentId) {
+        Iterator<TraceSpan> stack = OPEN_SPANS.get().iterator();
+        while (stack.hasNext()) {
+            TraceSpan span = stack.next();
+            if (span.getTrace() != trace) {
+                continue;
+            }
+            stack.remove();
+            if (span.getAgent() != null && agentId.equals(span.getAgent().agentId())) {
+                return span;
+            }
+            // A span above the completed agent never completed itself.
+            span.end(TraceSpan.Status.ERROR, "Invocation did not complete");
+        }
+        return trace.openSpans().stream()
+                .filter(span -> span.getAgent() != null && agentId.equals(span.getAgent().agentId()))
+                .reduce((first, second) -> second)
+                .orElse(null);
+    }
+
+    private void finish(AgentTrace trace, TraceSpan.Status status, String error) {
+        for (TraceSpan span : trace.openSpans()) {
+            span.end(TraceSpan.Status.ERROR, "Still running when the pattern completed");
+        }
+        trace.getRoot().end(status, error);
+        synchronized (recent) {
+            recent.addFirst(trace);
+            while (recent.size() > bufferSize) {
+                recent.removeLast();
+            }
+        }
+        for (TraceExporter exporter : exporters) {
+            try {
+                exporter.export(trace);
+            } catch (RuntimeException e) {
+                logger.warn("Trace exporter failed for trace {}: {}", trace.getTraceId(), e.getMessage());
+            }
+        }
+    }
+
+    private static String spanName(AgentInstance agent) {
+        Class<?> type = agent.type();
+        return type != null && type != UntypedAgent.class ? type.getSimpleName() : agent.name();
+    }
+
+    private static int sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map.values().stream().mapToInt(AgentTracer::sizeOf).sum();
+        }
+        return String.valueOf(value).length();
+    }
+}
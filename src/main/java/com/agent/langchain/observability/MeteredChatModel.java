@@ -0,0 +1,45 @@
+package com.agent.langchain.observability;
+
+import java.time.Duration;
+
+import com.agent.langchain.model.DelegatingChatModel;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * {@link ChatModel} decorator recording latency, outcome and token usage of
+ * every call of one agent through {@link AgentMetrics}, and adds the tokens
+ * to the {@link TokenUsageRecorder} of the request, if any.
+ */
+public class MeteredChatModel extends DelegatingChatModel {
+
+    private final AgentMetrics metrics;
+    private final String pattern;
+    private final String agentName;
+
+    public MeteredChatModel(ChatModel delegate, AgentMetrics metrics, String pattern, String agentName) {
+        super(delegate);
+        this.metrics = metrics;
+        this.pattern = pattern;
+        this.agentName = agentName;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        long start = System.nanoTime();
+        ChatResponse response = null;
+        Throwable error = null;
+        try {
+            response = delegate.chat(chatRequest);
+            TokenUsageRecorder.record(response.tokenUsage());
+            return response;
+        } catch (RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            metrics.recordModelCall(pattern, agentName, Duration.ofNanos(System.nanoTime() - start), response, error);
+        }
+    }
+}
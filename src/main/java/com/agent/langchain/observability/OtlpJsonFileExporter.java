@@ -0,0 +1,129 @@
+package com.agent.langchain.observability;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Appends every trace as one OTLP/JSON {@code ExportTraceServiceRequest} line
+ * (the format of the OpenTelemetry Collector file exporter), so traces can be
+ * replayed into any OTLP backend or inspected with standard tooling.
+ *
+ * When the file grows beyond {@code maxSizeBytes} it is renamed to
+ * {@code <file>.1}, replacing the previous rotation.
+ */
+public class OtlpJsonFileExporter implements TraceExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpJsonFileExporter.class);
+
+    private static final String SERVICE_NAME = "agentic-ai-patterns";
+    private static final int STATUS_OK = 1;
+    private static final int STATUS_ERROR = 2;
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_CLIENT = 3;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final Path path;
+    private final long maxSizeBytes;
+
+    public OtlpJsonFileExporter(Path path, long maxSizeBytes) {
+        this.path = path;
+        this.maxSizeBytes = maxSizeBytes;
+        logger.info("Exporting agent traces to {}", path);
+    }
+
+    @Override
+    public synchronized void export(AgentTrace trace) {
+        byte[] line = (toJson(trace) + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            if (Files.exists(path) && Files.size(path) + line.length > maxSizeBytes) {
+                Files.move(path, path.resolveSibling(path.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.write(path, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the trace as a single-line OTLP/JSON export request
+     */
+    String toJson(AgentTrace trace) {
+        ObjectNode request = jsonMapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", SERVICE_NAME);
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", AgentTracer.class.getName());
+        ArrayNode spans = scopeSpans.putArray("spans");
+
+        Deque<TraceSpan> pending = new ArrayDeque<>();
+        pending.push(trace.getRoot());
+        while (!pending.isEmpty()) {
+            TraceSpan span = pending.pop();
+            spans.add(toJson(trace, span));
+            span.getChildren().reversed().forEach(pending::push);
+        }
+        return jsonMapper.writeValueAsString(request);
+    }
+
+    private ObjectNode toJson(AgentTrace trace, TraceSpan span) {
+        ObjectNode node = jsonMapper.createObjectNode();
+        node.put("traceId", trace.getTraceId());
+        node.put("spanId", span.getSpanId());
+        if (span.getParent() != null) {
+            node.put("parentSpanId", span.getParent().getSpanId());
+        }
+        node.put("name", span.getName());
+        node.put("kind", span.getKind() == TraceSpan.Kind.MODEL ? SPAN_KIND_CLIENT : SPAN_KIND_INTERNAL);
+        long start = span.getStartEpochNanos();
+        node.put("startTimeUnixNano", Long.toString(start));
+        node.put("endTimeUnixNano", Long.toString(start + span.getDurationNanos()));
+
+        ArrayNode attributes = node.putArray("attributes");
+        addAttribute(attributes, "agent.pattern", trace.getPattern());
+        addAttribute(attributes, "span.kind", span.getKind().name().toLowerCase());
+        if (span.getRetries() > 0) {
+            addAttribute(attributes, "retries", span.getRetries());
+        }
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            addAttribute(attributes, attribute.getKey(), attribute.getValue());
+        }
+
+        ObjectNode status = node.putObject("status");
+        status.put("code", span.getStatus() == TraceSpan.Status.OK ? STATUS_OK : STATUS_ERROR);
+        if (span.getError() != null) {
+            status.put("message", span.getError());
+        }
+        return node;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode anyValue = attribute.putObject("value");
+        switch (value) {
+            case Integer i -> anyValue.put("intValue", Integer.toString(i));
+            case Long l -> anyValue.put("intValue", Long.toString(l));
+            case Number n -> anyValue.put("doubleValue", n.doubleValue());
+            case Boolean b -> anyValue.put("boolValue", b);
+            default -> anyValue.put("stringValue", String.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.agent.langchain.observability;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * Accumulates the tokens used by the model calls of one request.
+ *
+ * A recorder is made current on a thread with {@link #recording}; every
+ * {@link MeteredChatModel} call on that thread adds its token usage to it.
+ * Work fanned out to other threads calls {@link #recording} again with the
+ * same recorder, see {@link #propagate}. Cached answers never reach the metered model and cost no
+ * tokens.
+ */
+public final class TokenUsageRecorder {
+
+    private static final ThreadLocal<TokenUsageRecorder> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+
+    /**
+     * Runs the body with this recorder current on the calling thread.
+     */
+    public <T> T recording(Supplier<T> body) {
+        TokenUsageRecorder previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return body.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Binds a task to the recorder of the calling thread, for tasks handed to
+     * another thread.
+     *
+     * @return the task, unchanged when no recorder is current
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        TokenUsageRecorder recorder = CURRENT.get();
+        return recorder == null ? task : () -> recorder.recording(task);
+    }
+
+    /**
+     * @return the recorder current on this thread, or null
+     */
+    public static TokenUsageRecorder current() {
+        return CURRENT.get();
+    }
+
+    static void record(TokenUsage usage) {
+        TokenUsageRecorder recorder = CURRENT.get();
+        if (recorder == null || usage == null) {
+            return;
+        }
+        if (usage.inputTokenCount() != null) {
+            recorder.promptTokens.addAndGet(usage.inputTokenCount());
+        }
+        if (usage.outputTokenCount() != null) {
+            recorder.completionTokens.addAndGet(usage.outputTokenCount());
+        }
+    }
+
+    public long getPromptTokens() {
+        return promptTokens.get();
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens.get();
+    }
+
+    public long getTotalTokens() {
+        return promptTokens.get() + completionTokens.get();
+    }
+}
@@ -0,0 +1,10 @@
+package com.agent.langchain.observability;
+
+/**
+ * Receives every completed {@link AgentTrace}.
+ */
+@FunctionalInterface
+public interface TraceExporter {
+
+    void export(AgentTrace trace);
+}
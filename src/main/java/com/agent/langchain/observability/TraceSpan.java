@@ -0,0 +1,160 @@
+package com.agent.langchain.observability;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.langchain4j.agentic.planner.AgentInstance;
+
+/**
+ * One timed node of an {@link AgentTrace}: the pattern itself, a workflow
+ * (sequence, parallel, loop, conditional, supervisor), a leaf agent, a model
+ * call or a custom step such as waiting for human feedback.
+ */
+public final class TraceSpan {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public enum Kind {
+        PATTERN, WORKFLOW, AGENT, MODEL, STEP
+    }
+
+    public enum Status {
+        OK, ERROR, UNFINISHED
+    }
+
+    private final AgentTrace trace;
+    private final String spanId = randomHex(8);
+    private final TraceSpan parent;
+    private final String name;
+    private final Kind kind;
+    private final AgentInstance agent;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<TraceSpan> children = new CopyOnWriteArrayList<>();
+    private final AtomicInteger retries = new AtomicInteger();
+    private volatile long endNanos;
+    private volatile Status status = Status.UNFINISHED;
+    private volatile String error;
+
+    TraceSpan(AgentTrace trace, TraceSpan parent, String name, Kind kind, AgentInstance agent) {
+        this.trace = trace;
+        this.parent = parent;
+        this.name = name;
+        this.kind = kind;
+        this.agent = agent;
+    }
+
+    static String randomHex(int bytes) {
+        byte[] id = new byte[bytes];
+        RANDOM.nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+
+    /**
+     * Adds an attribute, e.g. input size or token counts.
+     */
+    public TraceSpan attribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Counts a retried attempt of the work covered by this span.
+     */
+    public void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    /**
+     * Ends the span; later calls are ignored.
+     */
+    public synchronized void end(Status status, String error) {
+        if (this.status != Status.UNFINISHED) {
+            return;
+        }
+        this.endNanos = System.nanoTime();
+        this.error = error;
+        this.status = status;
+        trace.onSpanEnded(this);
+    }
+
+    public boolean isOpen() {
+        return status == Status.UNFINISHED;
+    }
+
+    public AgentTrace getTrace() {
+        return trace;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public TraceSpan getParent() {
+        return parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    AgentInstance getAgent() {
+        return agent;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return Map.copyOf(attributes);
+    }
+
+    public List<TraceSpan> getChildren() {
+        return List.copyOf(children);
+    }
+
+    void addChild(TraceSpan child) {
+        children.add(child);
+    }
+
+    public int getRetries() {
+        return retries.get();
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return start of the span relative to the start of its trace
+     */
+    public long getStartOffsetNanos() {
+        return startNanos - trace.getRoot().startNanos;
+    }
+
+    /**
+     * @return duration of the span, or the time elapsed so far when still open
+     */
+    public long getDurationNanos() {
+        return (isOpen() ? System.nanoTime() : endNanos) - startNanos;
+    }
+
+    /**
+     * @return wall-clock start in nanoseconds since the epoch
+     */
+    public long getStartEpochNanos() {
+        return trace.getStartEpochNanos() + getStartOffsetNanos();
+    }
+}
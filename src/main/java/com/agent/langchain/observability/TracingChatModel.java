@@ -0,0 +1,66 @@
+package com.agent.langchain.observability;
+
+import com.agent.langchain.model.DelegatingChatModel;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * {@link ChatModel} decorator recording every call of one agent as a model
+ * span of the current {@link AgentTrace}.
+ */
+public class TracingChatModel extends DelegatingChatModel {
+
+    private final AgentTracer tracer;
+    private final String agentName;
+
+    public TracingChatModel(ChatModel delegate, AgentTracer tracer, String agentName) {
+        super(delegate);
+        this.tracer = tracer;
+        this.agentName = agentName;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        TraceSpan span = tracer.startModelCall(agentName);
+        if (span == null) {
+            return delegate.chat(chatRequest);
+        }
+        span.attribute("prompt.chars", promptChars(chatRequest));
+        try {
+            ChatResponse response = delegate.chat(chatRequest);
+            AiMessage aiMessage = response.aiMessage();
+            span.attribute("response.chars", aiMessage == null || aiMessage.text() == null ? 0 : aiMessage.text().length());
+            TokenUsage usage = response.tokenUsage();
+            if (usage != null) {
+                span.attribute("tokens.prompt", usage.inputTokenCount())
+                        .attribute("tokens.completion", usage.outputTokenCount());
+            }
+            tracer.endModelCall(span, TraceSpan.Status.OK, null);
+            return response;
+        } catch (RuntimeException | Error e) {
+            tracer.endModelCall(span, TraceSpan.Status.ERROR, e.getMessage());
+            throw e;
+        }
+    }
+
+    private static int promptChars(ChatRequest chatRequest) {
+        int chars = 0;
+        for (ChatMessage message : chatRequest.messages()) {
+            String text = switch (message) {
+                case SystemMessage system -> system.text();
+                case UserMessage user -> user.hasSingleText() ? user.singleText() : null;
+                case AiMessage ai -> ai.text();
+                default -> null;
+            };
+            chars += text == null ? 0 : text.length();
+        }
+        return chars;
+    }
+}
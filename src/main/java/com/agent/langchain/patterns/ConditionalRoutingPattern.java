@@ -1,17 +1,18 @@
 package com.agent.langchain.patterns;
 
-import java.util.function.Consumer;
-
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.agent.langchain.model.AgentChatModels;
+import com.agent.langchain.model.ModelRole;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.routing.CategoryResolver;
+import com.agent.langchain.streaming.AgentStreams;
+
 import dev.langchain4j.agentic.Agent;
 import dev.langchain4j.agentic.AgenticServices;
 import dev.langchain4j.agentic.UntypedAgent;
-import dev.langchain4j.agentic.agent.AgentRequest;
-import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
 
@@ -35,8 +36,10 @@ import dev.langchain4j.service.V;
 public class ConditionalRoutingPattern {
 
         @Autowired
-        @Qualifier("geminiChatModel")
-        private ChatModel chatModel;
+        private AgentChatModels chatModels;
+
+        @Autowired
+        private AgentInstrumentation instrumentation;
 
         /**
          * Enum representing query categories for routing.
@@ -46,11 +49,9 @@ public class ConditionalRoutingPattern {
         }
 
         /**
-         * Logger for agent invocations during the routing process.
+         * Tag of this pattern in agent metrics and traces.
          */
-        Consumer<AgentRequest> agentRequestLogger = (ag) -> {
-                System.out.println("Received Request for Agent: " + ag.agentId());
-        };
+        private static final String PATTERN = "conditional-routing";
 
         /**
          * Category Router Agent Interface.
@@ -72,6 +73,27 @@ public class ConditionalRoutingPattern {
                 RequestCategory classify(@V("request") String request);
         }
 
+        /**
+         * Batch Category Router Agent Interface.
+         * Classifies many numbered queries in a single model call; used by the
+         * batch routing endpoint.
+         */
+        public interface BatchCategoryRouter {
+                @UserMessage("""
+                                Categorize each of the following numbered user requests as 'creative', 'financial', 'wellness', or 'career'.
+                                - 'creative': Questions about art, design, writing, music, content creation, or creative problem-solving
+                                - 'financial': Questions about money management, investing, budgeting, business finance, or economic advice
+                                - 'wellness': Questions about health, fitness, mental wellbeing, nutrition, lifestyle, or personal development
+                                - 'career': Questions about job search, professional growth, workplace issues, skills development, or career transitions
+                                In case a request doesn't belong to any of those categories, categorize it as 'unknown'.
+                                Reply with exactly one line per request in the form '<number>: <category>' and nothing else.
+                                The user requests are:
+                                {{requests}}
+                                """)
+                @Agent("Router agent that classifies a numbered list of queries into expert domains")
+                String classifyAll(@V("requests") String requests);
+        }
+
         /**
          * Creative Expert Agent Interface.
          * Provides expert guidance on art, design, writing, music, and creative
@@ -125,55 +147,144 @@ public class ConditionalRoutingPattern {
         }
 
         /**
-         * Bean definition for the Expert Router Agent.
-         * 
-         * This bean creates a multi-step agentic workflow:
-         * 1. CategoryRouter agent classifies the incoming query
-         * 2. Based on classification, one of four expert agents is invoked
-         * 3. The selected expert returns their specialized response
+         * Routing Category Agent.
+         * Non-AI agent that resolves the query category through the
+         * {@link CategoryResolver} (semantic cache, then local classifier, then
+         * LLM router)
+         * and publishes it under the "category" key for the conditional step.
+         */
+        public record RoutingCategoryAgent(CategoryResolver categoryResolver) {
+
+                @Agent(value = "Resolves the expert domain of a query, reusing decisions for near-duplicate queries", outputKey = "category")
+                public RequestCategory classify(@V("request") String request) {
+                        return categoryResolver.resolve(request);
+                }
+        }
+
+        /**
+         * The expert agents, addressable by category.
+         */
+        public record ExpertPanel(CreativeExpert creativeExpert, FinancialAdvisor financialAdvisor,
+                        WellnessCoach wellnessCoach, CareerMentor careerMentor) {
+
+                /**
+                 * Asks the expert of the given category.
+                 *
+                 * @return the expert's answer, or null for UNKNOWN queries
+                 */
+                public String answer(RequestCategory category, String request) {
+                        return switch (category) {
+                                case CREATIVE -> creativeExpert.answer(request);
+                                case FINANCIAL -> financialAdvisor.answer(request);
+                                case WELLNESS -> wellnessCoach.answer(request);
+                                case CAREER -> careerMentor.answer(request);
+                                case UNKNOWN -> null;
+                        };
+                }
+        }
+
+        /**
+         * Bean definition for the LLM Category Router Agent.
+         * Used by the {@link CategoryResolver} when no cached decision applies.
          * 
-         * @return configured ExpertRouterAgent bean
+         * @return configured CategoryRouter bean
          */
         @Bean
-        public ExpertRouterAgent expertRouterAgent() {
-                // Step 1: Build the category router agent
-                CategoryRouter routerAgent = AgenticServices
+        public CategoryRouter categoryRouter() {
+                return AgenticServices
                                 .agentBuilder(CategoryRouter.class)
-                                .chatModel(chatModel)
-                                .beforeAgentInvocation(agentRequestLogger)
+                                .chatModel(chatModels.forAgent(CategoryRouter.class, ModelRole.ROUTER))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("category")
                                 .build();
+        }
 
-                // Step 2: Build specialized expert agents
+        /**
+         * Bean definition for the LLM Batch Category Router Agent.
+         * 
+         * @return configured BatchCategoryRouter bean
+         */
+        @Bean
+        public BatchCategoryRouter batchCategoryRouter() {
+                return AgenticServices
+                                .agentBuilder(BatchCategoryRouter.class)
+                                .chatModel(chatModels.forAgent(BatchCategoryRouter.class, ModelRole.ROUTER))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
+                                .build();
+        }
+
+        /**
+         * Bean definition for the expert agents.
+         * 
+         * @return the four specialized expert agents
+         */
+        @Bean
+        public ExpertPanel expertPanel() {
                 CreativeExpert creativeExpert = AgenticServices
                                 .agentBuilder(CreativeExpert.class)
-                                .chatModel(chatModel)
-                                .beforeAgentInvocation(agentRequestLogger)
+                                .chatModel(chatModels.forAgent(CreativeExpert.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("response")
                                 .build();
 
                 FinancialAdvisor financialAdvisor = AgenticServices
                                 .agentBuilder(FinancialAdvisor.class)
-                                .chatModel(chatModel)
-                                .beforeAgentInvocation(agentRequestLogger)
+                                .chatModel(chatModels.forAgent(FinancialAdvisor.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("response")
                                 .build();
 
                 WellnessCoach wellnessCoach = AgenticServices
                                 .agentBuilder(WellnessCoach.class)
-                                .chatModel(chatModel)
+                                .chatModel(chatModels.forAgent(WellnessCoach.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("response")
                                 .build();
 
                 CareerMentor careerMentor = AgenticServices
                                 .agentBuilder(CareerMentor.class)
-                                .chatModel(chatModel)
-                                .beforeAgentInvocation(agentRequestLogger)
+                                .chatModel(chatModels.forAgent(CareerMentor.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("response")
                                 .build();
 
+                return new ExpertPanel(creativeExpert, financialAdvisor, wellnessCoach, careerMentor);
+        }
+
+        /**
+         * Bean definition for the Expert Router Agent.
+         * 
+         * This bean creates a multi-step agentic workflow:
+         * 1. The query category is resolved (semantic cache, local classifier or
+         * CategoryRouter agent)
+         * 2. Based on classification, one of four expert agents is invoked
+         * 3. The selected expert returns their specialized response
+         * 
+         * @param categoryResolver resolver deciding the query category
+         * @param expertPanel      the specialized expert agents
+         * @return configured ExpertRouterAgent bean
+         */
+        @Bean
+        public ExpertRouterAgent expertRouterAgent(CategoryResolver categoryResolver, ExpertPanel expertPanel) {
+                // Step 1: Resolve the category (cached decision, local classifier or LLM router)
+                RoutingCategoryAgent routerAgent = new RoutingCategoryAgent(categoryResolver);
+
+                // Step 2: Take the specialized expert agents
+                CreativeExpert creativeExpert = expertPanel.creativeExpert();
+                FinancialAdvisor financialAdvisor = expertPanel.financialAdvisor();
+                WellnessCoach wellnessCoach = expertPanel.wellnessCoach();
+                CareerMentor careerMentor = expertPanel.careerMentor();
+
                 // Step 3: Build conditional routing based on category
                 UntypedAgent expertsAgent = AgenticServices.conditionalBuilder()
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .subAgents(agenticScope -> agenticScope.readState("category",
                                                 RequestCategory.UNKNOWN) == RequestCategory.CREATIVE, creativeExpert)
                                 .subAgents(agenticScope -> agenticScope.readState("category",
@@ -187,6 +298,7 @@ public class ConditionalRoutingPattern {
                 // Step 4: Chain router and expert agents in sequence
                 return AgenticServices
                                 .sequenceBuilder(ExpertRouterAgent.class)
+                                .beforeCall(AgentStreams.attachToScope().andThen(instrumentation.attachToScope()))
                                 .subAgents(routerAgent, expertsAgent)
                                 .outputKey("response")
                                 .build();
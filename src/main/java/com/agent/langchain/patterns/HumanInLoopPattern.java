@@ -1,67 +1,78 @@
 package com.agent.langchain.patterns;
 
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.agent.langchain.model.AgentChatModels;
+import com.agent.langchain.model.ModelRole;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.review.InterviewReviewStore;
+import com.agent.langchain.review.InterviewReviewWorkflow;
+
 import dev.langchain4j.agentic.Agent;
 import dev.langchain4j.agentic.AgenticServices;
-import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Configuration for the Human in Loop pattern.
  * 
- * Simplified implementation demonstrating human-in-the-loop feedback integration.
- * 
- * Use Case: AI Interview Coach with Real-Time Human Feedback
- * Single-step workflow:
+ * Use Case: AI Interview Coach with Human Review
+ * Two-phase workflow:
  * - Candidate submits interview response
- * - AI provides coaching feedback
- * - Human interviewer provides feedback via console
- * - Final assessment synthesizes both perspectives
+ * - AI provides coaching feedback; the workflow is suspended and the
+ * submission is answered with a review ticket
+ * - A human interviewer picks the review from the pending list and submits
+ * feedback at any later time
+ * - The workflow resumes: the final assessment synthesizes both perspectives
  * 
  * This pattern demonstrates:
- * - Minimal service layer - direct agent invocation
- * - Consumer/Supplier for human feedback collection
- * - Direct supervisor orchestration without intermediate storage
+ * - Suspending a workflow on human input without holding a thread
+ * - The workflow scope stored between the two phases (see {@link InterviewReviewWorkflow})
+ * - Atomic claiming, so every review is resumed exactly once
  */
 @Configuration
 public class HumanInLoopPattern {
 
         private static final Logger logger = LoggerFactory.getLogger(HumanInLoopPattern.class);
 
-        @Autowired
-        @Qualifier("geminiChatModel")
-        private ChatModel chatModel;
-
         /**
-         * Record representing the Human-in-the-Loop feedback mechanism.
-         * Encapsulates the request writer (prompt to human) and response reader
-         * (receive human feedback).
+         * Tag of this pattern in agent metrics and traces.
          */
-        public record HumanFeedbackLoop(Consumer<String> requestWriter, Supplier<String> responseReader) {
-
-                /**
-                 * Requests feedback from the human interviewer.
-                 * 
-                 * @param feedbackRequest the question/request for human feedback
-                 * @return the human's feedback response
-                 */
-                @Agent("An agent that collects real-time feedback from human interviewers")
-                public String collectFeedback(String feedbackRequest) {
-                        requestWriter.accept(feedbackRequest);
-                        return responseReader.get();
-                }
-        }
+        private static final String PATTERN = "human-in-loop";
+
+        @Autowired
+        private AgentChatModels chatModels;
+
+        @Autowired
+        private AgentInstrumentation instrumentation;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Value("${agent.review.pending-ttl:7d}")
+        private Duration pendingTtl = Duration.ofDays(7);
+
+        @Value("${agent.review.retention:1h}")
+        private Duration retention = Duration.ofHours(1);
+
+        @Value("${agent.review.path:${java.io.tmpdir}/agentic-ai-patterns/interview-reviews.log}")
+        private String reviewLogPath;
+
+        @Value("${agent.review.max-size:16MB}")
+        private DataSize reviewLogMaxSize = DataSize.ofMegabytes(16);
 
         /**
          * Interview Coach Agent Interface.
@@ -120,14 +131,6 @@ public class HumanInLoopPattern {
                                 @V("humanFeedback") String humanFeedback);
         }
 
-        /**
-         * Interview Supervisor - orchestrates the complete workflow.
-         */
-        public interface InterviewSupervisor {
-                @Agent("Supervisor orchestrating interview workflow")
-                String conductInterview(@V("request") String request);
-        }
-
         /**
          * Interview Coach Agent Bean.
          */
@@ -136,7 +139,9 @@ public class HumanInLoopPattern {
                 logger.info("Creating InterviewCoach agent");
                 return AgenticServices
                                 .agentBuilder(InterviewCoach.class)
-                                .chatModel(chatModel)
+                                .chatModel(chatModels.forAgent(InterviewCoach.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .build();
         }
 
@@ -148,46 +153,41 @@ public class HumanInLoopPattern {
                 logger.info("Creating InterviewAssessor agent");
                 return AgenticServices
                                 .agentBuilder(InterviewAssessor.class)
-                                .chatModel(chatModel)
+                                .chatModel(chatModels.forAgent(InterviewAssessor.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .build();
         }
 
         /**
-         * Human Feedback Loop Bean - provides console I/O for human feedback.
+         * Interview Review Store Bean - keeps suspended reviews in a
+         * memory-mapped log, so they survive restarts; an empty path keeps
+         * them in memory only.
          */
-        @Bean
-        public HumanFeedbackLoop humanFeedbackLoop() {
-                logger.info("Creating HumanFeedbackLoop");
-                return new HumanFeedbackLoop(
-                                request -> {
-                                        System.out.println("\n🔹 REQUEST FOR HUMAN INTERVIEWER:");
-                                        System.out.println(request);
-                                        System.out.print("\n> Your feedback: ");
-                                },
-                                () -> {
-                                        try {
-                                                return System.console() != null 
-                                                        ? System.console().readLine() 
-                                                        : "Good response with clear communication";
-                                        } catch (Exception e) {
-                                                logger.error("Error reading human feedback", e);
-                                                return "Unable to collect feedback";
-                                        }
-                                }
-                );
+        @Bean(destroyMethod = "close")
+        public InterviewReviewStore interviewReviewStore() throws IOException {
+                return InterviewReviewStore.builder()
+                                .pendingTtl(pendingTtl)
+                                .retention(retention)
+                                .path(reviewLogPath.isBlank() ? null : Path.of(reviewLogPath))
+                                .maxBytes(reviewLogMaxSize.toBytes())
+                                .clock(Clock.systemUTC())
+                                .meterRegistry(meterRegistry)
+                                .build();
         }
 
         /**
-         * Interview Supervisor Bean - orchestrates the complete interview workflow.
-         * Coordinates InterviewCoach, HumanFeedbackLoop, and InterviewAssessor.
+         * Interview Review Workflow Bean - coaches, suspends for human review
+         * and resumes with the assessor once feedback arrives.
          */
         @Bean
-        public InterviewSupervisor interviewSupervisor() {
-                logger.info("Creating InterviewSupervisor");
-                return AgenticServices
-                                .supervisorBuilder(InterviewSupervisor.class)
-                                .chatModel(chatModel)
-                                .subAgents(interviewCoach(), humanFeedbackLoop(), interviewAssessor())
+        public InterviewReviewWorkflow interviewReviewWorkflow() throws IOException {
+                logger.info("Creating InterviewReviewWorkflow");
+                return InterviewReviewWorkflow.builder()
+                                .interviewCoach(interviewCoach())
+                                .interviewAssessor(interviewAssessor())
+                                .store(interviewReviewStore())
+                                .meterRegistry(meterRegistry)
                                 .build();
         }
 }
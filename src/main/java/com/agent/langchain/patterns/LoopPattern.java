@@ -1,19 +1,29 @@
 package com.agent.langchain.patterns;
 
-import java.util.function.Consumer;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.agent.langchain.checkpoint.CheckpointStore;
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.model.AgentChatModels;
+import com.agent.langchain.model.ModelRole;
+import com.agent.langchain.model.limit.AdaptiveConcurrencyLimiter;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.refinement.CandidateSizer;
+import com.agent.langchain.refinement.EditMode;
+import com.agent.langchain.refinement.RefinementLoop;
+import com.agent.langchain.refinement.RefinementResult;
+import com.agent.langchain.refinement.RefinementSettings;
+
 import dev.langchain4j.agentic.Agent;
 import dev.langchain4j.agentic.AgenticServices;
-import dev.langchain4j.agentic.UntypedAgent;
-import dev.langchain4j.agentic.agent.AgentRequest;
-import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Configuration for the Loop Pattern.
@@ -27,7 +37,8 @@ import dev.langchain4j.service.V;
  * 1. Content Creator: Generates initial content based on topic and style
  * 2. Quality Scorer: Evaluates content quality (0.0 to 1.0 scale)
  * 3. Content Editor: Refines content based on quality feedback
- * 4. Loop continues until quality score >= 0.8 or max iterations reached
+ * 4. Loop continues until the termination policy stops it: quality score
+ * reached, iteration limit, score plateau, or latency/token budget spent
  * 
  * This pattern is ideal for scenarios where:
  * - Quality improvement requires multiple iterations
@@ -39,15 +50,52 @@ import dev.langchain4j.service.V;
 public class LoopPattern {
 
     @Autowired
-    @Qualifier("geminiChatModel")
-    private ChatModel chatModel;
+    private AgentChatModels chatModels;
 
-    /**
-     * Logger for agent invocations during the loop process.
-     */
-    Consumer<AgentRequest> agentRequestLogger = (ag) -> {
-        System.out.println("Loop Pattern - Processing with Agent: " + ag.agentId());
-    };
+    @Autowired
+    private AgentInstrumentation instrumentation;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AgentExecutor agentExecutor;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private CheckpointStore checkpointStore;
+
+    @Value("${agent.loop.quality-threshold:0.9}")
+    private double qualityThreshold = 0.9;
+
+    @Value("${agent.loop.max-iterations:5}")
+    private int maxIterations = 5;
+
+    @Value("${agent.loop.plateau.window:2}")
+    private int plateauWindow = 2;
+
+    @Value("${agent.loop.plateau.min-improvement:0.02}")
+    private double minImprovement = 0.02;
+
+    @Value("${agent.loop.latency-budget:0s}")
+    private Duration latencyBudget = Duration.ZERO;
+
+    @Value("${agent.loop.token-budget:0}")
+    private long tokenBudget;
+
+    @Value("${agent.loop.candidates.default:1}")
+    private int candidates = 1;
+
+    @Value("${agent.loop.candidates.max:4}")
+    private int maxCandidates = 4;
+
+    @Value("${agent.loop.candidates.headroom-share:0.5}")
+    private double candidateHeadroomShare = 0.5;
+
+    @Value("${agent.loop.edit-mode:full}")
+    private String editMode = "full";
 
     /**
      * Content Creator Agent Interface.
@@ -120,25 +168,126 @@ public class LoopPattern {
         String editContent(@V("content") String content, @V("score") Double score);
     }
 
+    /**
+     * Content Patcher Agent Interface.
+     * Patch-mode counterpart of the editor: answers with replacements of the
+     * passages it improves instead of the whole content.
+     */
+    public interface ContentPatcher {
+        @UserMessage("""
+                You are an expert content editor.
+                Improve the following content to enhance its quality by rewriting only the passages that need it.
+
+                Current Quality Score: {{score}}
+
+                Focus on:
+                - Enhancing clarity and flow
+                - Improving engagement and style
+                - Fixing any grammatical issues
+                - Strengthening the narrative
+
+                Content to improve:
+                {{content}}
+
+                Answer only with patches, one block per passage you change:
+                <<<<<<< FIND
+                the passage to replace, copied exactly from the content and long enough to occur only once
+                =======
+                the improved passage
+                >>>>>>> REPLACE
+                Do not repeat unchanged text outside the blocks.
+                """)
+        @Agent("Improves content quality with replacements of individual passages")
+        String patchContent(@V("content") String content, @V("score") Double score);
+    }
+
+    /**
+     * Content Summarizer Agent Interface.
+     * Condenses the version being edited so patch-mode scoring does not need
+     * to read all of it.
+     */
+    public interface ContentSummarizer {
+        @UserMessage("""
+                You are a content analyst.
+                Summarize the following content in at most five sentences, covering its structure, key points,
+                tone and any weaknesses in clarity, engagement, grammar or relevance.
+
+                Content:
+                {{content}}
+
+                Return only the summary and nothing else.
+                """)
+        @Agent("Summarizes content for scoring its revisions")
+        String summarizeContent(@V("content") String content);
+    }
+
+    /**
+     * Change Scorer Agent Interface.
+     * Patch-mode counterpart of the scorer: rates a revision from a summary of
+     * the previous version and the changed passages.
+     */
+    public interface ChangeScorer {
+        @UserMessage("""
+                You are a content quality analyst.
+                A piece of content was revised. Below are a summary of the version before the revision and the
+                revised passages with some surrounding text; everything else is unchanged.
+                Evaluate the quality of the revised content as a whole and provide a score between 0.0 and 1.0.
+
+                Evaluation Criteria:
+                - Clarity and coherence (0.3 weight)
+                - Engagement and style (0.3 weight)
+                - Grammar and structure (0.2 weight)
+                - Relevance to topic (0.2 weight)
+
+                Summary of the previous version:
+                {{summary}}
+
+                Revised passages:
+                {{changes}}
+
+                Respond with ONLY a decimal number between 0.0 and 1.0 (e.g., 0.75).
+                Do not include any explanation, just the number.
+                """)
+        @Agent("Evaluates the quality of revised content from its changes")
+        Double scoreChanges(@V("summary") String summary, @V("changes") String changes);
+    }
+
     /**
      * Content Refiner Agent Interface.
      * Main orchestrator that coordinates the iterative refinement workflow.
      */
     public interface ContentRefiner {
-        String refineContent(String topic, String style);
+        RefinementResult refineContent(String topic, String style, RefinementSettings settings);
+
+        /**
+         * Refines content with the configured default settings.
+         *
+         * @return the best-scored content
+         */
+        default String refineContent(String topic, String style) {
+            return refineContent(topic, style, RefinementSettings.NONE).content();
+        }
     }
 
     /**
      * Bean definition for the Content Refiner Agent.
      * 
-     * This bean creates an iterative loop workflow that:
+     * This bean creates an iterative refinement loop that:
      * 1. ContentCreator generates initial content
      * 2. QualityScorer evaluates the content (loop starts)
-     * 3. ContentEditor improves the content based on score
-     * 4. Loop repeats until score >= 0.8 or max 5 iterations
+     * 3. The termination policy decides whether to stop
+     * 4. ContentEditor improves the best content so far based on its score;
+     * with candidates > 1 several edits are made and scored in parallel and
+     * the best one is kept
+     * 5. Loop repeats until the policy stops it
      * 
-     * The loop pattern enables continuous improvement until quality standards are
-     * met.
+     * The default policy stops at score >= 0.9, after 5 edits or when the best
+     * score stops improving; requests can override the thresholds and add
+     * latency and token budgets (see {@link RefinementLoop}). In patch edit
+     * mode the editor and scorer are replaced by ContentPatcher, with
+     * ContentSummarizer and ChangeScorer, to send only the changes. Progress is
+     * checkpointed after every round, so retrying a failed or interrupted
+     * request resumes from its best version so far.
      * 
      * @return configured ContentRefiner bean
      */
@@ -147,43 +296,49 @@ public class LoopPattern {
         // Stage 1: Build the content creator agent
         ContentCreator contentCreator = AgenticServices
                 .agentBuilder(ContentCreator.class)
-                .chatModel(chatModel)
-                .beforeAgentInvocation(agentRequestLogger)
-                .outputKey("content")
+                .chatModel(chatModels.forAgent(ContentCreator.class, ModelRole.WRITER))
                 .build();
 
         // Stage 2: Build the quality scorer agent
         QualityScorer qualityScorer = AgenticServices
                 .agentBuilder(QualityScorer.class)
-                .chatModel(chatModel)
-                .beforeAgentInvocation(agentRequestLogger)
-                .outputKey("score")
+                .chatModel(chatModels.forAgent(QualityScorer.class, ModelRole.SCORER))
                 .build();
 
         // Stage 3: Build the content editor agent
         ContentEditor contentEditor = AgenticServices
                 .agentBuilder(ContentEditor.class)
-                .chatModel(chatModel)
-                .beforeAgentInvocation(agentRequestLogger)
-                .outputKey("content")
+                .chatModel(chatModels.forAgent(ContentEditor.class, ModelRole.WRITER))
                 .build();
 
-        // Stage 4: Build the refinement loop (scorer -> editor)
-        UntypedAgent refinementLoop = AgenticServices
-                .loopBuilder()
-                .subAgents(qualityScorer, contentEditor)
-                .maxIterations(5)
-                .exitCondition(agenticScope -> {
-                    System.out.println("Quality Scorer - Score: " + agenticScope.readState("score", 0.0));
-                    return agenticScope.readState("score", 0.0) >= 0.9;
-                })
+        // Patch mode: edits as passage replacements, scored from a summary and the changes
+        ContentPatcher contentPatcher = AgenticServices
+                .agentBuilder(ContentPatcher.class)
+                .chatModel(chatModels.forAgent(ContentPatcher.class, ModelRole.WRITER))
+                .build();
+        ContentSummarizer contentSummarizer = AgenticServices
+                .agentBuilder(ContentSummarizer.class)
+                .chatModel(chatModels.forAgent(ContentSummarizer.class, ModelRole.SCORER))
+                .build();
+        ChangeScorer changeScorer = AgenticServices
+                .agentBuilder(ChangeScorer.class)
+                .chatModel(chatModels.forAgent(ChangeScorer.class, ModelRole.SCORER))
                 .build();
 
-        // Stage 5: Chain creator and refinement loop in sequence
-        return AgenticServices
-                .sequenceBuilder(ContentRefiner.class)
-                .subAgents(contentCreator, refinementLoop)
-                .outputKey("content")
+        // Stage 4: Drive creator, scorer and editor with the termination policy;
+        // best-of-K candidates run on the shared agent executor
+        return RefinementLoop.builder()
+                .contentCreator(contentCreator)
+                .qualityScorer(qualityScorer)
+                .contentEditor(contentEditor)
+                .patchAgents(contentPatcher, contentSummarizer, changeScorer)
+                .instrumentation(instrumentation)
+                .executor(agentExecutor)
+                .candidateSizer(new CandidateSizer(concurrencyLimiter, maxCandidates, candidateHeadroomShare))
+                .defaults(new RefinementSettings(qualityThreshold, maxIterations, plateauWindow, minImprovement,
+                        latencyBudget, tokenBudget, candidates, EditMode.fromTag(editMode)))
+                .checkpoints(checkpointStore)
+                .meterRegistry(meterRegistry)
                 .build();
     }
 }
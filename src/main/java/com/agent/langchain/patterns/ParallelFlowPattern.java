@@ -1,19 +1,25 @@
 package com.agent.langchain.patterns;
 
-import java.util.concurrent.Executors;
-import java.util.function.Consumer;
+import java.time.Duration;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.agent.langchain.dataflow.DataflowWorkflow;
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.model.AgentChatModels;
+import com.agent.langchain.model.ModelRole;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.rendering.PitchDocument;
+
 import dev.langchain4j.agentic.Agent;
 import dev.langchain4j.agentic.AgenticServices;
-import dev.langchain4j.agentic.agent.AgentRequest;
-import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Configuration for the Parallel Flow pattern.
@@ -40,15 +46,33 @@ import dev.langchain4j.service.V;
 public class ParallelFlowPattern {
 
         @Autowired
-        @Qualifier("geminiChatModel")
-        private ChatModel chatModel;
+        private AgentChatModels chatModels;
+
+        @Autowired
+        private AgentInstrumentation instrumentation;
+
+        @Autowired
+        private AgentExecutor agentExecutor;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Value("${agent.pitch.deadline.executive-summary:0s}")
+        private Duration executiveSummaryDeadline = Duration.ZERO;
+
+        @Value("${agent.pitch.deadline.market-analysis:0s}")
+        private Duration marketAnalysisDeadline = Duration.ZERO;
+
+        @Value("${agent.pitch.deadline.risk-assessment:0s}")
+        private Duration riskAssessmentDeadline = Duration.ZERO;
+
+        @Value("${agent.pitch.partial-results:false}")
+        private boolean partialResults;
 
         /**
-         * Logger for agent invocations during parallel flow.
+         * Tag of this pattern in agent metrics and traces.
          */
-        Consumer<AgentRequest> agentRequestLogger = (ag) -> {
-                System.out.println("Parallel Flow - Processing with Agent: " + ag.agentId());
-        };
+        private static final String PATTERN = "parallel-flow";
 
         /**
          * Executive Summary Agent Interface.
@@ -142,7 +166,14 @@ public class ParallelFlowPattern {
          * Main orchestrator that combines results from all parallel agents.
          */
         public interface StartupPitcher {
-                String buildPitch(String startupName, String idea, String targetMarket);
+                PitchDocument buildPitchDocument(String startupName, String idea, String targetMarket);
+
+                /**
+                 * @return the pitch rendered as the plain text document
+                 */
+                default String buildPitch(String startupName, String idea, String targetMarket) {
+                        return buildPitchDocument(startupName, idea, targetMarket).toString();
+                }
         }
 
         /**
@@ -153,8 +184,18 @@ public class ParallelFlowPattern {
          * 2. MarketAnalyzer analyzes market opportunity
          * 3. RiskAssessor identifies risks and mitigation strategies
          * 
-         * All three agents execute in parallel using a thread pool (2 threads).
-         * Their outputs are combined into a comprehensive startup pitch document.
+         * All three agents execute in parallel on the shared agent executor:
+         * a {@link DataflowWorkflow} derives from their {@code @V} inputs that
+         * none depends on another's output.
+         *
+         * Each section has its own deadline ({@code agent.pitch.deadline.*}).
+         * With {@code agent.pitch.partial-results} a section that times out or
+         * fails is replaced by an explicit marker and the sections that did
+         * finish are still returned; otherwise the whole pitch fails. Streamed
+         * pitches receive every section as soon as it is done.
+         * Their outputs are kept as the sections of a {@link PitchDocument},
+         * which is rendered straight into the response instead of being
+         * concatenated into one string.
          * 
          * @return configured StartupPitcher bean
          */
@@ -163,63 +204,46 @@ public class ParallelFlowPattern {
                 // Stage 1: Build the executive summary generator agent
                 ExecutiveSummaryGenerator executiveSummaryGenerator = AgenticServices
                                 .agentBuilder(ExecutiveSummaryGenerator.class)
-                                .chatModel(chatModel)
-                                .beforeAgentInvocation(agentRequestLogger)
+                                .chatModel(chatModels.forAgent(ExecutiveSummaryGenerator.class, ModelRole.WRITER))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("executiveSummary")
                                 .build();
 
                 // Stage 2: Build the market analyzer agent
                 MarketAnalyzer marketAnalyzer = AgenticServices
                                 .agentBuilder(MarketAnalyzer.class)
-                                .chatModel(chatModel)
-                                .beforeAgentInvocation(agentRequestLogger)
+                                .chatModel(chatModels.forAgent(MarketAnalyzer.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("marketAnalysis")
                                 .build();
 
                 // Stage 3: Build the risk assessor agent
                 RiskAssessor riskAssessor = AgenticServices
                                 .agentBuilder(RiskAssessor.class)
-                                .chatModel(chatModel)
-                                .beforeAgentInvocation(agentRequestLogger)
+                                .chatModel(chatModels.forAgent(RiskAssessor.class, ModelRole.EXPERT))
+                                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                                 .outputKey("riskAssessment")
                                 .build();
 
-                // Build the parallel workflow
-                return AgenticServices
-                                .parallelBuilder(StartupPitcher.class)
-                                .subAgents(executiveSummaryGenerator, marketAnalyzer, riskAssessor)
-                                .executor(Executors.newFixedThreadPool(3))
-                                .outputKey("pitch")
-                                .output(agenticScope -> {
-                                        String executiveSummary = agenticScope.readState("executiveSummary", "");
-                                        String marketAnalysis = agenticScope.readState("marketAnalysis", "");
-                                        String riskAssessment = agenticScope.readState("riskAssessment", "");
-
-                                        // Combine all outputs into a comprehensive pitch document
-                                        StringBuilder pitchDocument = new StringBuilder();
-                                        pitchDocument.append(
-                                                        "═══════════════════════════════════════════════════════════\n");
-                                        pitchDocument.append("                    STARTUP PITCH DOCUMENT\n");
-                                        pitchDocument.append(
-                                                        "═══════════════════════════════════════════════════════════\n\n");
-
-                                        pitchDocument.append("EXECUTIVE SUMMARY\n");
-                                        pitchDocument.append(
-                                                        "───────────────────────────────────────────────────────────\n");
-                                        pitchDocument.append(executiveSummary).append("\n\n");
-
-                                        pitchDocument.append("MARKET ANALYSIS\n");
-                                        pitchDocument.append(
-                                                        "───────────────────────────────────────────────────────────\n");
-                                        pitchDocument.append(marketAnalysis).append("\n\n");
-
-                                        pitchDocument.append("RISK ASSESSMENT & MITIGATION\n");
-                                        pitchDocument.append(
-                                                        "───────────────────────────────────────────────────────────\n");
-                                        pitchDocument.append(riskAssessment).append("\n");
-
-                                        return pitchDocument.toString();
-                                })
+                // Build the workflow; all three only read the request inputs, so they run in parallel.
+                // Each section has its own deadline; a late or failed section leaves a marker.
+                DataflowWorkflow workflow = DataflowWorkflow.builder()
+                                .name("StartupPitcher")
+                                .inputs("startupName", "idea", "targetMarket")
+                                .agent(executiveSummaryGenerator, executiveSummaryDeadline)
+                                .agent(marketAnalyzer, marketAnalysisDeadline)
+                                .agent(riskAssessor, riskAssessmentDeadline)
+                                .partialResults(partialResults)
+                                .instrumentation(instrumentation)
+                                .executor(agentExecutor)
+                                .meterRegistry(meterRegistry)
+                                .output(PitchDocument::of)
                                 .build();
+                return (startupName, idea, targetMarket) -> (PitchDocument) workflow
+                                .run(Map.of("startupName", startupName, "idea", idea, "targetMarket", targetMarket))
+                                .output();
         }
 }
@@ -1,18 +1,23 @@
 package com.agent.langchain.patterns;
 
-import java.util.function.Consumer;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.agent.langchain.checkpoint.CheckpointStore;
+import com.agent.langchain.dataflow.DataflowWorkflow;
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.model.AgentChatModels;
+import com.agent.langchain.model.ModelRole;
+import com.agent.langchain.observability.AgentInstrumentation;
+
 import dev.langchain4j.agentic.Agent;
 import dev.langchain4j.agentic.AgenticServices;
-import dev.langchain4j.agentic.agent.AgentRequest;
-import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Configuration for the Sequential Flow pattern.
@@ -37,15 +42,24 @@ import dev.langchain4j.service.V;
 public class SequentialFlowPattern {
 
     @Autowired
-    @Qualifier("geminiChatModel")
-    private ChatModel chatModel;
+    private AgentChatModels chatModels;
+
+    @Autowired
+    private AgentInstrumentation instrumentation;
+
+    @Autowired
+    private AgentExecutor agentExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CheckpointStore checkpointStore;
 
     /**
-     * Logger for agent invocations during the sequential flow.
+     * Tag of this pattern in agent metrics and traces.
      */
-    Consumer<AgentRequest> agentRequestLogger = (ag) -> {
-        System.out.println("Sequential Flow - Processing with Agent: " + ag.agentId());
-    };
+    private static final String PATTERN = "sequential-flow";
 
     /**
      * Ingredient Curator Agent Interface.
@@ -149,6 +163,11 @@ public class SequentialFlowPattern {
      * 3. NutritionalAnalyst adds nutritional information to the complete recipe
      * 
      * Each agent's output becomes input for the next agent in the sequence.
+     * The order is not written down: a {@link DataflowWorkflow} derives it
+     * from the {@code @V} inputs and output keys, and would run any agents
+     * added later in parallel where their inputs allow.
+     * The workflow state is checkpointed after each agent, so retrying a
+     * failed or interrupted request resumes after its last completed agent.
      * 
      * @return configured RecipeDeveloper bean
      */
@@ -157,32 +176,44 @@ public class SequentialFlowPattern {
         // Stage 1: Build the ingredient curator agent
         IngredientCurator ingredientCurator = AgenticServices
                 .agentBuilder(IngredientCurator.class)
-                .chatModel(chatModel)
-                .beforeAgentInvocation(agentRequestLogger)
+                .chatModel(chatModels.forAgent(IngredientCurator.class, ModelRole.WRITER))
+                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                 .outputKey("ingredients")
                 .build();
 
         // Stage 2: Build the cooking method designer agent
         CookingMethodDesigner cookingMethodDesigner = AgenticServices
                 .agentBuilder(CookingMethodDesigner.class)
-                .chatModel(chatModel)
-                .beforeAgentInvocation(agentRequestLogger)
+                .chatModel(chatModels.forAgent(CookingMethodDesigner.class, ModelRole.WRITER))
+                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                 .outputKey("recipe")
                 .build();
 
         // Stage 3: Build the nutritional analyst agent
         NutritionalAnalyst nutritionalAnalyst = AgenticServices
                 .agentBuilder(NutritionalAnalyst.class)
-                .chatModel(chatModel)
-                .beforeAgentInvocation(agentRequestLogger)
+                .chatModel(chatModels.forAgent(NutritionalAnalyst.class, ModelRole.EXPERT))
+                .beforeAgentInvocation(instrumentation.beforeInvocation(PATTERN))
+                .afterAgentInvocation(instrumentation.afterInvocation(PATTERN))
                 .outputKey("nutritionalInfo")
                 .build();
 
-        // Build the sequential workflow
-        return AgenticServices
-                .sequenceBuilder(RecipeDeveloper.class)
-                .subAgents(ingredientCurator, cookingMethodDesigner, nutritionalAnalyst)
-                .outputKey("nutritionalInfo")
+        // Build the workflow; the sequence follows from the agents' inputs and outputs
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("RecipeDeveloper")
+                .inputs("cuisine", "dietary", "mealType")
+                .agent(ingredientCurator)
+                .agent(cookingMethodDesigner)
+                .agent(nutritionalAnalyst)
+                .instrumentation(instrumentation)
+                .executor(agentExecutor)
+                .checkpoints(checkpointStore)
+                .meterRegistry(meterRegistry)
                 .build();
+        return (cuisine, dietary, mealType) -> (String) workflow
+                .run(Map.of("cuisine", cuisine, "dietary", dietary, "mealType", mealType))
+                .output();
     }
 }
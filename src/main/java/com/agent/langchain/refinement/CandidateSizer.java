@@ -0,0 +1,50 @@
+package com.agent.langchain.refinement;
+
+import com.agent.langchain.model.limit.AdaptiveConcurrencyLimiter;
+
+/**
+ * Decides how many candidate edits a refinement round generates.
+ *
+ * A request asks for up to {@code maxCandidates} candidates. Each one keeps
+ * a model call in flight, so the count is cut to a share of the free slots
+ * of the shared {@link AdaptiveConcurrencyLimiter}: under load rounds shrink
+ * towards a single serial edit instead of crowding out other requests, and
+ * when the backend slows down and the limit drops they shrink with it.
+ */
+public class CandidateSizer {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int maxCandidates;
+    private final double headroomShare;
+
+    /**
+     * @param limiter       the shared model call limiter, or null to ignore load
+     * @param maxCandidates upper bound of candidates per round
+     * @param headroomShare share of the free limiter slots one round may use
+     */
+    public CandidateSizer(AdaptiveConcurrencyLimiter limiter, int maxCandidates, double headroomShare) {
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("Max candidates must be positive");
+        }
+        if (headroomShare <= 0.0 || headroomShare > 1.0) {
+            throw new IllegalArgumentException("Headroom share must be in (0.0, 1.0]");
+        }
+        this.limiter = limiter;
+        this.maxCandidates = maxCandidates;
+        this.headroomShare = headroomShare;
+    }
+
+    /**
+     * @param requested candidates asked for by the request
+     * @return candidates to generate in the next round, at least one
+     */
+    public int candidates(int requested) {
+        int wanted = Math.min(requested, maxCandidates);
+        if (wanted <= 1 || limiter == null) {
+            return Math.max(1, wanted);
+        }
+        int free = limiter.getLimit() - limiter.getInFlight();
+        int affordable = (int) Math.floor(free * headroomShare);
+        return Math.max(1, Math.min(wanted, affordable));
+    }
+}
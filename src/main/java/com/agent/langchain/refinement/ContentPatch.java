@@ -0,0 +1,118 @@
+package com.agent.langchain.refinement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replacement of one passage of the content, as returned by the patch-mode
+ * editor.
+ *
+ * The editor quotes the passage it replaces instead of giving offsets, which
+ * language models get wrong. Patches are written as blocks:
+ *
+ * <pre>
+ * &lt;&lt;&lt;&lt;&lt;&lt;&lt; FIND
+ * passage to replace
+ * =======
+ * replacement
+ * &gt;&gt;&gt;&gt;&gt;&gt;&gt; REPLACE
+ * </pre>
+ *
+ * A patch applies when its passage occurs exactly once in the content and
+ * does not overlap another patch; all patches are located in the original
+ * content, so they do not depend on each other's order.
+ *
+ * @param find        passage of the original content, verbatim
+ * @param replacement text replacing it
+ */
+public record ContentPatch(String find, String replacement) {
+
+    private static final Pattern BLOCK = Pattern.compile(
+            "<<<<<<< FIND\\R(.*?)\\R=======\\R(.*?)\\R?>>>>>>> REPLACE", Pattern.DOTALL);
+
+    /**
+     * Characters of unchanged content shown around a changed region.
+     */
+    static final int REGION_CONTEXT = 160;
+
+    /**
+     * Content after patching.
+     *
+     * @param content        the patched content
+     * @param changedRegions every replacement with some surrounding context,
+     *                       in content order
+     * @param rejected       patches that could not be applied
+     */
+    public record Applied(String content, List<String> changedRegions, int rejected) {
+
+        public boolean changed() {
+            return !changedRegions.isEmpty();
+        }
+    }
+
+    private record Span(int start, int end, String replacement) {
+    }
+
+    /**
+     * @return the patches in the editor's answer, in order; none if it holds
+     *         no well-formed block
+     */
+    public static List<ContentPatch> parse(String answer) {
+        List<ContentPatch> patches = new ArrayList<>();
+        if (answer == null) {
+            return patches;
+        }
+        Matcher block = BLOCK.matcher(answer);
+        while (block.find()) {
+            patches.add(new ContentPatch(block.group(1), block.group(2)));
+        }
+        return patches;
+    }
+
+    /**
+     * Applies the patches that locate a unique, non-overlapping passage and
+     * rejects the others.
+     */
+    public static Applied apply(String content, List<ContentPatch> patches) {
+        List<Span> spans = new ArrayList<>();
+        int rejected = 0;
+        for (ContentPatch patch : patches) {
+            int start = patch.find().isEmpty() ? -1 : content.indexOf(patch.find());
+            if (start < 0 || content.indexOf(patch.find(), start + 1) >= 0) {
+                rejected++;
+                continue;
+            }
+            Span span = new Span(start, start + patch.find().length(), patch.replacement());
+            if (spans.stream().anyMatch(other -> span.start() < other.end() && other.start() < span.end())) {
+                rejected++;
+                continue;
+            }
+            spans.add(span);
+        }
+        spans.sort(Comparator.comparingInt(Span::start));
+
+        StringBuilder patched = new StringBuilder(content.length());
+        List<int[]> replaced = new ArrayList<>(spans.size());
+        int copied = 0;
+        for (Span span : spans) {
+            patched.append(content, copied, span.start());
+            int start = patched.length();
+            patched.append(span.replacement());
+            replaced.add(new int[] { start, patched.length() });
+            copied = span.end();
+        }
+        patched.append(content, copied, content.length());
+
+        String result = patched.toString();
+        List<String> regions = new ArrayList<>(replaced.size());
+        for (int[] region : replaced) {
+            int from = Math.max(0, region[0] - REGION_CONTEXT);
+            int to = Math.min(result.length(), region[1] + REGION_CONTEXT);
+            regions.add(result.substring(from, to));
+        }
+        return new Applied(result, regions, rejected);
+    }
+}
@@ -0,0 +1,38 @@
+package com.agent.langchain.refinement;
+
+import java.util.Locale;
+
+/**
+ * How the refinement loop edits content.
+ */
+public enum EditMode {
+
+    /** The editor rewrites the whole content and the scorer reads all of it. */
+    FULL,
+
+    /**
+     * The editor returns {@link ContentPatch}es that are applied locally and
+     * the scorer reads only the changed regions and a summary of the rest.
+     */
+    PATCH;
+
+    /**
+     * @return the mode as used in settings and metric tags, e.g. {@code patch}
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param tag a mode tag, case-insensitive
+     * @throws IllegalArgumentException if the tag names no mode
+     */
+    public static EditMode fromTag(String tag) {
+        for (EditMode mode : values()) {
+            if (mode.tag().equalsIgnoreCase(tag.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown edit mode: " + tag);
+    }
+}
@@ -0,0 +1,459 @@
+package com.agent.langchain.refinement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.checkpoint.CheckpointStore;
+import com.agent.langchain.checkpoint.WorkflowCheckpoint;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.observability.TokenUsageRecorder;
+import com.agent.langchain.patterns.LoopPattern.ChangeScorer;
+import com.agent.langchain.patterns.LoopPattern.ContentCreator;
+import com.agent.langchain.patterns.LoopPattern.ContentEditor;
+import com.agent.langchain.patterns.LoopPattern.ContentPatcher;
+import com.agent.langchain.patterns.LoopPattern.ContentRefiner;
+import com.agent.langchain.patterns.LoopPattern.ContentSummarizer;
+import com.agent.langchain.patterns.LoopPattern.QualityScorer;
+import com.agent.langchain.refinement.RefinementProgress.Candidate;
+import com.agent.langchain.streaming.AgentStreams;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Content refinement loop with pluggable termination.
+ *
+ * The creator writes the first version, then the loop scores the current
+ * version, asks the {@link TerminationPolicy} whether to stop and otherwise
+ * runs an edit round on the best version so far. Every edit is scored, so
+ * the returned content is always the best-scored version: an edit that
+ * lowers the score is dropped and the next round starts from the best
+ * version again.
+ *
+ * A round makes one edit, or in best-of-K mode ({@code candidates > 1})
+ * several independent edits of the same version that are edited and scored
+ * in parallel on the executor; the best candidate wins. This trades extra
+ * model calls for fewer serial rounds until the threshold is reached. The
+ * {@link CandidateSizer} shrinks K while the model backend is busy. A failed
+ * candidate is dropped as long as another one of its round succeeded.
+ *
+ * In {@link EditMode#PATCH patch mode} the editor answers with
+ * {@link ContentPatch}es instead of the whole content; they are applied
+ * locally and the edit is scored from the changed regions and a summary of
+ * the version being edited, made once per version and shared by the
+ * candidates of a round. Model output and scoring input then grow with the
+ * size of the changes instead of the size of the content. An edit whose
+ * patches cannot be applied falls back to a full rewrite. The tokens saved
+ * compared with full rewrites are estimated from the text lengths, at about
+ * {@value #CHARS_PER_TOKEN} characters per token, net of the summaries and
+ * failed patch attempts.
+ *
+ * The agents are invoked directly, each in its own trace span. Token usage
+ * is collected per request with a {@link TokenUsageRecorder} and feeds the
+ * token budget.
+ *
+ * With a {@link CheckpointStore}, the best version and the scores are
+ * checkpointed after the initial scoring and after every round. A request
+ * with the same topic, style and settings as one that failed or was
+ * interrupted resumes from its last round instead of creating the content
+ * again; latency and token budgets count from the resumption.
+ *
+ * Metrics (tag: reason):
+ * - agent.loop.iterations: edit rounds per refinement, by stop reason
+ * - agent.loop.score: best score per refinement, by stop reason
+ * - agent.loop.round.candidates: candidates generated per round
+ * - agent.loop.discarded.edits: edits dropped for not improving the score
+ * - agent.loop.patch.rejected: patches that could not be applied
+ * - agent.loop.patch.fallbacks: patch edits redone as full rewrites
+ * - agent.loop.tokens.saved: estimated tokens saved per patch-mode refinement
+ */
+public class RefinementLoop implements ContentRefiner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefinementLoop.class);
+
+    /**
+     * Workflow name of the loop's checkpoints.
+     */
+    private static final String WORKFLOW = "ContentRefiner";
+
+    /**
+     * Average characters per token, for estimating the tokens of full
+     * rewrites that patch mode avoided.
+     */
+    static final int CHARS_PER_TOKEN = 4;
+
+    private final ContentCreator contentCreator;
+    private final QualityScorer qualityScorer;
+    private final ContentEditor contentEditor;
+    private final ContentPatcher contentPatcher;
+    private final ContentSummarizer contentSummarizer;
+    private final ChangeScorer changeScorer;
+    private final AgentInstrumentation instrumentation;
+    private final ExecutorService executor;
+    private final CandidateSizer candidateSizer;
+    private final RefinementSettings defaults;
+    private final CheckpointStore checkpoints;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary roundCandidates;
+    private final Counter discardedEdits;
+    private final Counter rejectedPatches;
+    private final Counter patchFallbacks;
+    private final DistributionSummary tokensSaved;
+
+    private RefinementLoop(Builder builder) {
+        if (builder.contentCreator == null || builder.qualityScorer == null || builder.contentEditor == null) {
+            throw new IllegalArgumentException("Creator, scorer and editor agents are required");
+        }
+        // Fails fast on defaults that leave a required setting unresolved
+        builder.defaults.terminationPolicy();
+        boolean patching = builder.contentPatcher != null && builder.contentSummarizer != null
+                && builder.changeScorer != null;
+        if (builder.defaults.editMode() == EditMode.PATCH && !patching) {
+            throw new IllegalArgumentException("Patch mode needs patcher, summarizer and change scorer agents");
+        }
+        this.contentCreator = builder.contentCreator;
+        this.qualityScorer = builder.qualityScorer;
+        this.contentEditor = builder.contentEditor;
+        this.contentPatcher = patching ? builder.contentPatcher : null;
+        this.contentSummarizer = builder.contentSummarizer;
+        this.changeScorer = builder.changeScorer;
+        this.instrumentation = builder.instrumentation;
+        this.executor = builder.executor;
+        this.candidateSizer = builder.candidateSizer;
+        this.defaults = builder.defaults;
+        this.checkpoints = builder.checkpoints != null && builder.checkpoints.isEnabled() ? builder.checkpoints : null;
+        this.meterRegistry = builder.meterRegistry;
+        this.roundCandidates = DistributionSummary.builder("agent.loop.round.candidates").register(meterRegistry);
+        this.discardedEdits = Counter.builder("agent.loop.discarded.edits").register(meterRegistry);
+        this.rejectedPatches = Counter.builder("agent.loop.patch.rejected").register(meterRegistry);
+        this.patchFallbacks = Counter.builder("agent.loop.patch.fallbacks").register(meterRegistry);
+        this.tokensSaved = DistributionSummary.builder("agent.loop.tokens.saved").register(meterRegistry);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public RefinementResult refineContent(String topic, String style, RefinementSettings settings) {
+        RefinementSettings resolved = (settings == null ? RefinementSettings.NONE : settings).orElse(defaults);
+        TerminationPolicy policy = resolved.terminationPolicy();
+        int requestedCandidates = resolved.candidates() == null ? 1 : resolved.candidates();
+        if (resolved.editMode() == EditMode.PATCH && contentPatcher == null) {
+            throw new IllegalArgumentException("Patch mode is not available: no patcher agents configured");
+        }
+        PatchEditor patches = resolved.editMode() == EditMode.PATCH ? new PatchEditor() : null;
+        String checkpointId = checkpoints == null ? null
+                : WorkflowCheckpoint.idOf(WORKFLOW, topic, style, resolved.toString());
+        TokenUsageRecorder tokens = new TokenUsageRecorder();
+        return tokens.recording(() -> refine(topic, style, policy, requestedCandidates,
+                new RefinementProgress(tokens::getTotalTokens), checkpointId, patches));
+    }
+
+    private RefinementResult refine(String topic, String style, TerminationPolicy policy, int requestedCandidates,
+            RefinementProgress progress, String checkpointId, PatchEditor patches) {
+        Optional<WorkflowCheckpoint> resumed = checkpointId == null ? Optional.empty()
+                : checkpoints.resume(checkpointId);
+        WorkflowCheckpoint checkpoint;
+        if (resumed.isPresent()) {
+            checkpoint = resumed.get();
+            restore(progress, checkpoint);
+        } else {
+            String initial = inSpan("ContentCreator", () -> contentCreator.createContent(topic, style));
+            progress.recordInitial(new Candidate(initial, score(initial)));
+            checkpoint = checkpointId == null ? null
+                    : save(WorkflowCheckpoint.start(checkpointId, WORKFLOW, checkpoints.now()), "ContentCreator",
+                            progress);
+        }
+        while (true) {
+            logger.debug("Refinement round {}: best score {}", progress.getIterations(), progress.getBestScore());
+            Optional<StopReason> stop = policy.evaluate(progress);
+            if (stop.isPresent()) {
+                if (checkpoint != null) {
+                    checkpoints.delete(checkpoint.id());
+                }
+                return finish(progress, stop.get(), patches);
+            }
+
+            int candidates = executor == null ? 1 : candidateSizer.candidates(requestedCandidates);
+            roundCandidates.record(candidates);
+            String best = progress.getBestContent();
+            double bestScore = progress.getBestScore();
+            List<Candidate> round = candidates == 1
+                    ? List.of(editAndScore(best, bestScore, patches))
+                    : editInParallel(best, bestScore, candidates, patches);
+            discardedEdits.increment(progress.recordRound(round));
+            if (checkpoint != null) {
+                checkpoint = save(checkpoint, "ContentEditor round " + progress.getIterations(), progress);
+            }
+        }
+    }
+
+    private WorkflowCheckpoint save(WorkflowCheckpoint checkpoint, String step, RefinementProgress progress) {
+        WorkflowCheckpoint next = checkpoint.with(step, Map.of(
+                "content", progress.getBestContent(),
+                "score", String.valueOf(progress.getBestScore()),
+                "scores", join(progress.getScores()),
+                "bestScores", join(progress.getBestScores()),
+                "iterations", String.valueOf(progress.getIterations()),
+                "candidates", String.valueOf(progress.getCandidates())), checkpoints.now());
+        checkpoints.save(next);
+        return next;
+    }
+
+    private static void restore(RefinementProgress progress, WorkflowCheckpoint checkpoint) {
+        progress.resume(
+                new Candidate(checkpoint.get("content"), Double.parseDouble(checkpoint.get("score"))),
+                split(checkpoint.get("scores")),
+                split(checkpoint.get("bestScores")),
+                Integer.parseInt(checkpoint.get("iterations")),
+                Integer.parseInt(checkpoint.get("candidates")));
+    }
+
+    private static String join(List<Double> values) {
+        return String.join(",", values.stream().map(String::valueOf).toList());
+    }
+
+    private static List<Double> split(String values) {
+        return values.isEmpty() ? List.of() : Arrays.stream(values.split(",")).map(Double::valueOf).toList();
+    }
+
+    private Candidate editAndScore(String content, double score, PatchEditor patches) {
+        if (patches != null) {
+            return patches.editAndScore(content, score);
+        }
+        String edited = inSpan("ContentEditor", () -> contentEditor.editContent(content, score));
+        return new Candidate(edited, score(edited));
+    }
+
+    /**
+     * Patch-mode edits of one refinement: the summary of the version being
+     * edited and the tokens saved so far. Candidates of a round may use it
+     * from several threads.
+     */
+    private final class PatchEditor {
+
+        private final AtomicLong saved = new AtomicLong();
+        private String summarized;
+        private String summary;
+
+        Candidate editAndScore(String content, double score) {
+            String answer = inSpan("ContentPatcher", () -> contentPatcher.patchContent(content, score));
+            ContentPatch.Applied applied = ContentPatch.apply(content, ContentPatch.parse(answer));
+            rejectedPatches.increment(applied.rejected());
+            if (!applied.changed()) {
+                logger.debug("No applicable patch in editor answer, rewriting in full");
+                patchFallbacks.increment();
+                saved.addAndGet(-(estimateTokens(content) + estimateTokens(answer)));
+                return RefinementLoop.this.editAndScore(content, score, null);
+            }
+            String contentSummary = summaryOf(content);
+            String changes = String.join("\n[...]\n", applied.changedRegions());
+            double changedScore = clamp(inSpan("ChangeScorer",
+                    () -> changeScorer.scoreChanges(contentSummary, changes)));
+            // A full rewrite would have returned the whole content and had all of it scored
+            saved.addAndGet(2 * estimateTokens(applied.content())
+                    - estimateTokens(answer) - estimateTokens(contentSummary) - estimateTokens(changes));
+            return new Candidate(applied.content(), changedScore);
+        }
+
+        private synchronized String summaryOf(String content) {
+            if (!content.equals(summarized)) {
+                summary = inSpan("ContentSummarizer", () -> contentSummarizer.summarizeContent(content));
+                summarized = content;
+                saved.addAndGet(-(estimateTokens(content) + estimateTokens(summary)));
+            }
+            return summary;
+        }
+
+        long tokensSaved() {
+            return saved.get();
+        }
+    }
+
+    static long estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Runs one best-of-K round: every candidate is edited and scored on its
+     * own executor task, carrying the caller's trace, stream listener and
+     * token recorder.
+     */
+    private List<Candidate> editInParallel(String content, double score, int candidates, PatchEditor patches) {
+        Supplier<Candidate> task = inheritContext(() -> editAndScore(content, score, patches));
+        List<Future<Candidate>> running = new ArrayList<>(candidates);
+        List<Candidate> round = new ArrayList<>(candidates);
+        RuntimeException failure = null;
+        try {
+            for (int i = 0; i < candidates; i++) {
+                running.add(executor.submit(task::get));
+            }
+            for (Future<Candidate> future : running) {
+                try {
+                    round.add(future.get());
+                } catch (ExecutionException e) {
+                    logger.warn("Refinement candidate failed: {}", e.getCause().getMessage());
+                    failure = e.getCause() instanceof RuntimeException runtime ? runtime
+                            : new IllegalStateException("Refinement candidate failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            running.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while refining content", e);
+        }
+        if (round.isEmpty()) {
+            throw failure;
+        }
+        return round;
+    }
+
+    private <T> Supplier<T> inheritContext(Supplier<T> task) {
+        Supplier<T> traced = instrumentation == null ? task : instrumentation.propagate(task);
+        return AgentStreams.propagate(TokenUsageRecorder.propagate(traced));
+    }
+
+    private double score(String content) {
+        return clamp(inSpan("QualityScorer", () -> qualityScorer.scoreContent(content)));
+    }
+
+    private static double clamp(Double score) {
+        if (score == null || score.isNaN()) {
+            return 0.0;
+        }
+        return Math.max(0.0, Math.min(1.0, score));
+    }
+
+    private <T> T inSpan(String name, Supplier<T> step) {
+        return instrumentation == null ? step.get() : instrumentation.inSpan(name, step);
+    }
+
+    private RefinementResult finish(RefinementProgress progress, StopReason reason, PatchEditor patches) {
+        long saved = patches == null ? 0 : patches.tokensSaved();
+        if (patches != null) {
+            tokensSaved.record(saved);
+        }
+        DistributionSummary.builder("agent.loop.iterations")
+                .tag("reason", reason.tag())
+                .serviceLevelObjectives(1, 2, 3, 4, 5, 6, 8, 10)
+                .register(meterRegistry)
+                .record(progress.getIterations());
+        DistributionSummary.builder("agent.loop.score")
+                .tag("reason", reason.tag())
+                .register(meterRegistry)
+                .record(progress.getBestScore());
+        logger.info("Refinement stopped ({}) after {} rounds and {} candidates with score {}, ~{} tokens saved",
+                reason.tag(), progress.getIterations(), progress.getCandidates(), progress.getBestScore(), saved);
+        return new RefinementResult(progress.getBestContent(), progress.getBestScore(), progress.getIterations(),
+                progress.getCandidates(), reason, progress.getScores(), progress.getTokensUsed(), saved);
+    }
+
+    /**
+     * Builder for {@link RefinementLoop}.
+     */
+    public static class Builder {
+
+        private ContentCreator contentCreator;
+        private QualityScorer qualityScorer;
+        private ContentEditor contentEditor;
+        private ContentPatcher contentPatcher;
+        private ContentSummarizer contentSummarizer;
+        private ChangeScorer changeScorer;
+        private AgentInstrumentation instrumentation;
+        private ExecutorService executor;
+        private CandidateSizer candidateSizer = new CandidateSizer(null, 1, 1.0);
+        private RefinementSettings defaults = new RefinementSettings(0.9, 5, 2, 0.02, null, null, 1,
+                EditMode.FULL);
+        private CheckpointStore checkpoints;
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder contentCreator(ContentCreator contentCreator) {
+            this.contentCreator = contentCreator;
+            return this;
+        }
+
+        public Builder qualityScorer(QualityScorer qualityScorer) {
+            this.qualityScorer = qualityScorer;
+            return this;
+        }
+
+        public Builder contentEditor(ContentEditor contentEditor) {
+            this.contentEditor = contentEditor;
+            return this;
+        }
+
+        /**
+         * Agents of patch mode; patch mode is unavailable unless all three
+         * are set.
+         */
+        public Builder patchAgents(ContentPatcher contentPatcher, ContentSummarizer contentSummarizer,
+                ChangeScorer changeScorer) {
+            this.contentPatcher = contentPatcher;
+            this.contentSummarizer = contentSummarizer;
+            this.changeScorer = changeScorer;
+            return this;
+        }
+
+        /**
+         * Trace spans for every agent call; none when not set.
+         */
+        public Builder instrumentation(AgentInstrumentation instrumentation) {
+            this.instrumentation = instrumentation;
+            return this;
+        }
+
+        /**
+         * Executor of best-of-K candidates; every round makes a single edit
+         * when not set.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder candidateSizer(CandidateSizer candidateSizer) {
+            this.candidateSizer = candidateSizer;
+            return this;
+        }
+
+        /**
+         * Fully resolved settings used where a request sets none.
+         */
+        public Builder defaults(RefinementSettings defaults) {
+            this.defaults = defaults;
+            return this;
+        }
+
+        /**
+         * Store of the checkpoints refinements resume from; refinements
+         * always start from scratch when not set.
+         */
+        public Builder checkpoints(CheckpointStore checkpoints) {
+            this.checkpoints = checkpoints;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public RefinementLoop build() {
+            return new RefinementLoop(this);
+        }
+    }
+}
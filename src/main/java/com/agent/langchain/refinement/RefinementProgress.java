@@ -0,0 +1,187 @@
+package com.agent.langchain.refinement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Running state of one refinement loop, as seen by the
+ * {@link TerminationPolicy}.
+ *
+ * The initial version and every candidate edit are recorded with their
+ * score; the best one is kept, so an edit that lowers the score never
+ * replaces it. Iterations count the edit rounds so far, each of which may
+ * have produced several candidates. Round averages cover the rounds after
+ * the initial scoring, or the initial creation and scoring while there are
+ * none yet, and serve to predict the cost of the next round. A loop
+ * resumed from a checkpoint averages over the rounds made since resuming.
+ */
+public class RefinementProgress {
+
+    /**
+     * A scored version of the content.
+     */
+    public record Candidate(String content, double score) {
+    }
+
+    private final long startNanos;
+    private final LongSupplier tokensUsed;
+    private final List<Double> scores = new ArrayList<>();
+    private final List<Double> bestScores = new ArrayList<>();
+
+    private String bestContent;
+    private double bestScore = Double.NEGATIVE_INFINITY;
+    private int iterations;
+    private int candidates;
+    private int resumedIterations;
+    private long firstScoredNanos;
+    private long firstScoredTokens;
+
+    /**
+     * @param tokensUsed tokens used by the loop so far
+     */
+    public RefinementProgress(LongSupplier tokensUsed) {
+        this.startNanos = System.nanoTime();
+        this.tokensUsed = tokensUsed;
+    }
+
+    /**
+     * Records the scored initial version.
+     */
+    public void recordInitial(Candidate initial) {
+        firstScoredNanos = System.nanoTime();
+        firstScoredTokens = tokensUsed.getAsLong();
+        offer(initial);
+        bestScores.add(bestScore);
+    }
+
+    /**
+     * Continues where a checkpointed loop left off.
+     *
+     * @param best       best version so far
+     * @param scores     scores of every version so far
+     * @param bestScores best score after the initial scoring and each round
+     * @param iterations edit rounds so far
+     * @param candidates candidate edits so far
+     */
+    public void resume(Candidate best, List<Double> scores, List<Double> bestScores, int iterations,
+            int candidates) {
+        firstScoredNanos = System.nanoTime();
+        firstScoredTokens = tokensUsed.getAsLong();
+        this.bestContent = best.content();
+        this.bestScore = best.score();
+        this.scores.addAll(scores);
+        this.bestScores.addAll(bestScores);
+        this.iterations = iterations;
+        this.resumedIterations = iterations;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Records one edit round.
+     *
+     * @param roundCandidates the scored candidates of the round
+     * @return candidates that did not become the new best
+     */
+    public int recordRound(List<Candidate> roundCandidates) {
+        iterations++;
+        candidates += roundCandidates.size();
+        int kept = 0;
+        for (Candidate candidate : roundCandidates) {
+            if (offer(candidate)) {
+                kept = 1;
+            }
+        }
+        bestScores.add(bestScore);
+        return roundCandidates.size() - kept;
+    }
+
+    private boolean offer(Candidate candidate) {
+        scores.add(candidate.score());
+        if (candidate.score() > bestScore) {
+            bestScore = candidate.score();
+            bestContent = candidate.content();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return edit rounds so far
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return candidate edits made over all rounds
+     */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    public String getBestContent() {
+        return bestContent;
+    }
+
+    public double getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return scores of every version, in the order they were recorded
+     */
+    public List<Double> getScores() {
+        return List.copyOf(scores);
+    }
+
+    /**
+     * @return best score after the initial scoring and after each round
+     */
+    public List<Double> getBestScores() {
+        return List.copyOf(bestScores);
+    }
+
+    /**
+     * @return how much the best score rose over the last {@code rounds}
+     *         rounds, or positive infinity when fewer were made
+     */
+    public double improvementOver(int rounds) {
+        int last = bestScores.size() - 1;
+        if (rounds < 1 || last - rounds < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return bestScores.get(last) - bestScores.get(last - rounds);
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    public long getTokensUsed() {
+        return tokensUsed.getAsLong();
+    }
+
+    /**
+     * @return expected duration of the next edit round
+     */
+    public Duration averageRoundDuration() {
+        int rounds = iterations - resumedIterations;
+        if (rounds == 0) {
+            return getElapsed();
+        }
+        return Duration.ofNanos((System.nanoTime() - firstScoredNanos) / rounds);
+    }
+
+    /**
+     * @return expected tokens of the next edit round
+     */
+    public long averageRoundTokens() {
+        int rounds = iterations - resumedIterations;
+        if (rounds == 0) {
+            return getTokensUsed();
+        }
+        return (getTokensUsed() - firstScoredTokens) / rounds;
+    }
+}
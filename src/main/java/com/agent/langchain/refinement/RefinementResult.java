@@ -0,0 +1,20 @@
+package com.agent.langchain.refinement;
+
+import java.util.List;
+
+/**
+ * Outcome of a refinement loop.
+ *
+ * @param content     the best-scored version of the content
+ * @param score       its score
+ * @param iterations  edit rounds made
+ * @param candidates  candidate edits made over all rounds
+ * @param stopReason  why the loop stopped
+ * @param scores      scores of every version, in the order they were scored
+ * @param tokens      model tokens used
+ * @param tokensSaved estimated tokens patch mode saved compared with full
+ *                    rewrites; 0 in full-rewrite mode
+ */
+public record RefinementResult(String content, double score, int iterations, int candidates, StopReason stopReason,
+        List<Double> scores, long tokens, long tokensSaved) {
+}
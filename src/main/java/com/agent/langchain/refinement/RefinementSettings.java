@@ -0,0 +1,88 @@
+package com.agent.langchain.refinement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Termination settings of a refinement loop.
+ *
+ * Per-request settings leave unset components null; {@link #orElse} fills
+ * them from the configured defaults ({@code agent.loop.*}). A zero or
+ * negative budget disables that budget, as does a zero plateau window.
+ *
+ * @param qualityThreshold score at which the content is good enough
+ * @param maxIterations    maximum number of edit rounds
+ * @param plateauWindow    rounds over which the best score must improve
+ * @param minImprovement   minimum improvement over the plateau window
+ * @param latencyBudget    wall-clock budget of the whole refinement
+ * @param tokenBudget      model tokens the whole refinement may use
+ * @param candidates       candidate edits per round (best-of-K); 1 edits serially
+ * @param editMode         whether edits rewrite the content or patch it
+ */
+public record RefinementSettings(Double qualityThreshold, Integer maxIterations, Integer plateauWindow,
+        Double minImprovement, Duration latencyBudget, Long tokenBudget, Integer candidates, EditMode editMode) {
+
+    /**
+     * Settings overriding nothing.
+     */
+    public static final RefinementSettings NONE = new RefinementSettings(null, null, null, null, null, null, null,
+            null);
+
+    public RefinementSettings {
+        if (qualityThreshold != null && (qualityThreshold <= 0.0 || qualityThreshold > 1.0)) {
+            throw new IllegalArgumentException("Quality threshold must be in (0.0, 1.0]");
+        }
+        if (maxIterations != null && maxIterations < 0) {
+            throw new IllegalArgumentException("Max iterations cannot be negative");
+        }
+        if (plateauWindow != null && plateauWindow < 0) {
+            throw new IllegalArgumentException("Plateau window cannot be negative");
+        }
+        if (minImprovement != null && minImprovement < 0.0) {
+            throw new IllegalArgumentException("Minimum improvement cannot be negative");
+        }
+        if (candidates != null && candidates < 1) {
+            throw new IllegalArgumentException("Candidates must be positive");
+        }
+    }
+
+    /**
+     * @return these settings with unset components taken from the defaults
+     */
+    public RefinementSettings orElse(RefinementSettings defaults) {
+        return new RefinementSettings(
+                qualityThreshold != null ? qualityThreshold : defaults.qualityThreshold,
+                maxIterations != null ? maxIterations : defaults.maxIterations,
+                plateauWindow != null ? plateauWindow : defaults.plateauWindow,
+                minImprovement != null ? minImprovement : defaults.minImprovement,
+                latencyBudget != null ? latencyBudget : defaults.latencyBudget,
+                tokenBudget != null ? tokenBudget : defaults.tokenBudget,
+                candidates != null ? candidates : defaults.candidates,
+                editMode != null ? editMode : defaults.editMode);
+    }
+
+    /**
+     * Builds the termination policy of fully resolved settings. The quality
+     * threshold is checked first, so content that is good enough is reported
+     * as such even when a budget runs out at the same time.
+     */
+    public TerminationPolicy terminationPolicy() {
+        if (qualityThreshold == null || maxIterations == null) {
+            throw new IllegalStateException("Quality threshold and max iterations must be resolved");
+        }
+        List<TerminationPolicy> policies = new ArrayList<>();
+        policies.add(TerminationPolicy.qualityReached(qualityThreshold));
+        policies.add(TerminationPolicy.maxIterations(maxIterations));
+        if (plateauWindow != null && plateauWindow > 0) {
+            policies.add(TerminationPolicy.plateau(plateauWindow, minImprovement == null ? 0.0 : minImprovement));
+        }
+        if (latencyBudget != null && latencyBudget.isPositive()) {
+            policies.add(TerminationPolicy.latencyBudget(latencyBudget));
+        }
+        if (tokenBudget != null && tokenBudget > 0) {
+            policies.add(TerminationPolicy.tokenBudget(tokenBudget));
+        }
+        return TerminationPolicy.anyOf(policies);
+    }
+}
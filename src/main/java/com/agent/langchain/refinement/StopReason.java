@@ -0,0 +1,31 @@
+package com.agent.langchain.refinement;
+
+import java.util.Locale;
+
+/**
+ * Why a refinement loop stopped.
+ */
+public enum StopReason {
+
+    /** The best score reached the quality threshold. */
+    QUALITY_REACHED,
+
+    /** The maximum number of edit iterations was used. */
+    MAX_ITERATIONS,
+
+    /** The best score stopped improving over the plateau window. */
+    PLATEAU,
+
+    /** Another iteration would exceed the latency budget. */
+    LATENCY_BUDGET,
+
+    /** Another iteration would exceed the token budget. */
+    TOKEN_BUDGET;
+
+    /**
+     * @return the metric tag value, e.g. {@code quality-reached}
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
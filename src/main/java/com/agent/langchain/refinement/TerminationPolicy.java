@@ -0,0 +1,85 @@
+package com.agent.langchain.refinement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decides after every scoring whether a refinement loop should stop.
+ *
+ * Policies are small predicates over the {@link RefinementProgress} and are
+ * combined with {@link #anyOf}; the first one that fires names the
+ * {@link StopReason}. Budget policies look ahead: they stop the loop when the
+ * next round, at the average cost of the rounds so far, would overrun the
+ * budget, rather than after it has been overrun.
+ */
+@FunctionalInterface
+public interface TerminationPolicy {
+
+    /**
+     * @return the reason to stop, or empty to run another iteration
+     */
+    Optional<StopReason> evaluate(RefinementProgress progress);
+
+    /**
+     * Stops once the best score reaches the threshold.
+     */
+    static TerminationPolicy qualityReached(double threshold) {
+        return progress -> progress.getBestScore() >= threshold
+                ? Optional.of(StopReason.QUALITY_REACHED)
+                : Optional.empty();
+    }
+
+    /**
+     * Stops after the given number of edit rounds.
+     */
+    static TerminationPolicy maxIterations(int maxIterations) {
+        return progress -> progress.getIterations() >= maxIterations
+                ? Optional.of(StopReason.MAX_ITERATIONS)
+                : Optional.empty();
+    }
+
+    /**
+     * Stops when the best score rose by less than {@code minImprovement} over
+     * the last {@code window} rounds.
+     */
+    static TerminationPolicy plateau(int window, double minImprovement) {
+        return progress -> progress.improvementOver(window) < minImprovement
+                ? Optional.of(StopReason.PLATEAU)
+                : Optional.empty();
+    }
+
+    /**
+     * Stops when another round would end after the latency budget.
+     */
+    static TerminationPolicy latencyBudget(Duration budget) {
+        return progress -> progress.getElapsed().plus(progress.averageRoundDuration()).compareTo(budget) > 0
+                ? Optional.of(StopReason.LATENCY_BUDGET)
+                : Optional.empty();
+    }
+
+    /**
+     * Stops when another round would use more tokens than the budget allows.
+     */
+    static TerminationPolicy tokenBudget(long budget) {
+        return progress -> progress.getTokensUsed() + progress.averageRoundTokens() > budget
+                ? Optional.of(StopReason.TOKEN_BUDGET)
+                : Optional.empty();
+    }
+
+    /**
+     * @return a policy firing with the reason of the first given policy that fires
+     */
+    static TerminationPolicy anyOf(List<TerminationPolicy> policies) {
+        List<TerminationPolicy> all = List.copyOf(policies);
+        return progress -> {
+            for (TerminationPolicy policy : all) {
+                Optional<StopReason> reason = policy.evaluate(progress);
+                if (reason.isPresent()) {
+                    return reason;
+                }
+            }
+            return Optional.empty();
+        };
+    }
+}
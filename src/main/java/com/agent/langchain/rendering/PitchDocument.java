@@ -0,0 +1,220 @@
+package com.agent.langchain.rendering;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import com.agent.langchain.dataflow.DataflowRun.NodeFailure;
+
+/**
+ * Startup pitch document: the sections written by the parallel pitch agents,
+ * kept as produced instead of concatenated.
+ *
+ * The document is rendered by writing the template and every section
+ * straight into a {@link Writer}, typically the HTTP response, so a pitch is
+ * never materialized as one string on the way out. It renders as the plain
+ * text document, as markdown, or as JSON in the shape of
+ * {@code ParallelFlowResponse} ({@code {"pitch": "..."}}) with the text
+ * document escaped on the fly. {@link #toString()} renders the text document
+ * for callers that need a string.
+ *
+ * @param sections the sections, in document order
+ */
+public record PitchDocument(List<Section> sections) {
+
+    private static final String RULE = "═══════════════════════════════════════════════════════════\n";
+    private static final String SECTION_RULE = "───────────────────────────────────────────────────────────\n";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * One section of the document.
+     *
+     * @param title   heading of the section
+     * @param content the agent's output, or the {@link NodeFailure} that took
+     *                its place
+     */
+    public record Section(String title, Object content) {
+
+        /**
+         * @return the section content, or a marker saying why it is missing
+         */
+        public String text() {
+            if (content instanceof NodeFailure failure) {
+                return "[SECTION UNAVAILABLE (" + failure.status().tag() + "): " + failure.message() + "]";
+            }
+            return content == null ? "" : content.toString();
+        }
+    }
+
+    public PitchDocument {
+        sections = List.copyOf(sections);
+    }
+
+    /**
+     * Takes the sections from the final state of the pitch workflow.
+     */
+    public static PitchDocument of(Map<String, Object> state) {
+        return new PitchDocument(List.of(
+                new Section("EXECUTIVE SUMMARY", state.get("executiveSummary")),
+                new Section("MARKET ANALYSIS", state.get("marketAnalysis")),
+                new Section("RISK ASSESSMENT & MITIGATION", state.get("riskAssessment"))));
+    }
+
+    /**
+     * Writes the plain text document.
+     */
+    public void writeText(Writer out) throws IOException {
+        out.write(RULE);
+        out.write("                    STARTUP PITCH DOCUMENT\n");
+        out.write(RULE);
+        for (Section section : sections) {
+            out.write('\n');
+            out.write(section.title());
+            out.write('\n');
+            out.write(SECTION_RULE);
+            out.write(section.text());
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Writes the document as markdown, one second-level heading per section.
+     */
+    public void writeMarkdown(Writer out) throws IOException {
+        out.write("# Startup Pitch Document\n");
+        for (Section section : sections) {
+            out.write("\n## ");
+            out.write(toTitleCase(section.title()));
+            out.write("\n\n");
+            out.write(section.text());
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Writes {@code {"pitch": "<text document>"}}, escaping the template and
+     * the sections as they are written. The text reaches {@code out} in short
+     * runs between escapes, so {@code out} should be buffered.
+     */
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\"pitch\":\"");
+        writeText(new JsonStringWriter(out));
+        out.write("\"}");
+    }
+
+    /**
+     * Renders the text document into a string.
+     */
+    @Override
+    public String toString() {
+        StringWriter text = new StringWriter();
+        try {
+            writeText(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    private static String toTitleCase(String title) {
+        StringBuilder heading = new StringBuilder(title.length());
+        boolean wordStart = true;
+        for (char c : title.toCharArray()) {
+            heading.append(wordStart ? c : Character.toLowerCase(c));
+            wordStart = !Character.isLetter(c);
+        }
+        return heading.toString();
+    }
+
+    /**
+     * Writes its input as the content of a JSON string, escaping quotes,
+     * backslashes and control characters. Runs of characters that need no
+     * escaping are passed through without copying.
+     */
+    private static final class JsonStringWriter extends Writer {
+
+        private final Writer out;
+
+        JsonStringWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            int run = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                char c = text.charAt(i);
+                if (escaped(c)) {
+                    out.write(text, run, i - run);
+                    escape(c);
+                    run = i + 1;
+                }
+            }
+            out.write(text, run, end - run);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int run = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                char c = chars[i];
+                if (escaped(c)) {
+                    out.write(chars, run, i - run);
+                    escape(c);
+                    run = i + 1;
+                }
+            }
+            out.write(chars, run, end - run);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (escaped(c)) {
+                escape((char) c);
+            } else {
+                out.write(c);
+            }
+        }
+
+        @Override
+        public void write(String text) throws IOException {
+            write(text, 0, text.length());
+        }
+
+        private static boolean escaped(int c) {
+            return c == '"' || c == '\\' || c < 0x20;
+        }
+
+        private void escape(char c) throws IOException {
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                case '\b' -> out.write("\\b");
+                case '\f' -> out.write("\\f");
+                default -> {
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xF]);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+            // the underlying writer belongs to the caller
+        }
+    }
+}
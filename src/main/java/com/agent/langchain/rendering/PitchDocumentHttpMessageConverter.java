@@ -0,0 +1,69 @@
+package com.agent.langchain.rendering;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a {@link PitchDocument} straight into the response body, in the
+ * format negotiated from the request's {@code Accept} header:
+ * - application/json (default): {@code {"pitch": "..."}}, as
+ *   {@code ParallelFlowResponse} is serialized
+ * - text/markdown: the markdown document
+ * - text/plain: the plain text document
+ *
+ * The document is copied into a character buffer and encoded from there into
+ * the response stream, so the pitch is neither assembled into a string nor
+ * serialized to an intermediate JSON tree. The buffer matters: an unbuffered
+ * {@link OutputStreamWriter} copies every string it is given, and the JSON
+ * escaping hands it one short run per quote or line break. Being a bean, the
+ * converter is registered ahead of Jackson.
+ */
+@Component
+public class PitchDocumentHttpMessageConverter extends AbstractHttpMessageConverter<PitchDocument> {
+
+    public static final MediaType TEXT_MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
+    public PitchDocumentHttpMessageConverter() {
+        super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON, TEXT_MARKDOWN,
+                new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PitchDocument.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PitchDocument readInternal(Class<? extends PitchDocument> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pitch documents are written only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(PitchDocument document, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        Writer out = new BufferedWriter(new OutputStreamWriter(outputMessage.getBody(), StandardCharsets.UTF_8));
+        if (contentType != null && contentType.isCompatibleWith(TEXT_MARKDOWN)) {
+            document.writeMarkdown(out);
+        } else if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_PLAIN)) {
+            document.writeText(out);
+        } else {
+            document.writeJson(out);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,111 @@
+package com.agent.langchain.review;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A suspended or resumed interview workflow, identified by its ticket.
+ *
+ * The scope holds the workflow variables produced so far under the names the
+ * agents use for them ({@code candidateName}, {@code coachFeedback},
+ * {@code humanFeedback}, ...). It is everything needed to resume the
+ * workflow, so a waiting review costs this record and no thread.
+ *
+ * @param ticket      identifier handed to the client and the reviewer
+ * @param status      current status
+ * @param scope       workflow variables by name
+ * @param submittedAt when the interview was suspended for review
+ * @param updatedAt   when the status last changed
+ * @param error       why the assessment failed, or null
+ */
+public record InterviewReview(String ticket, ReviewStatus status, Map<String, String> scope,
+        Instant submittedAt, Instant updatedAt, String error) {
+
+    public static final String CANDIDATE_NAME = "candidateName";
+    public static final String POSITION = "position";
+    public static final String QUESTION = "question";
+    public static final String RESPONSE = "response";
+    public static final String COACH_FEEDBACK = "coachFeedback";
+    public static final String HUMAN_FEEDBACK = "humanFeedback";
+    public static final String ASSESSMENT = "assessment";
+
+    public InterviewReview {
+        scope = Map.copyOf(scope);
+    }
+
+    public String get(String variable) {
+        return scope.get(variable);
+    }
+
+    /**
+     * @return a copy in the given status with the variables added to the scope
+     */
+    public InterviewReview with(ReviewStatus newStatus, Map<String, String> variables, String newError,
+            Instant now) {
+        Map<String, String> updated = new HashMap<>(scope);
+        updated.putAll(variables);
+        return new InterviewReview(ticket, newStatus, updated, submittedAt, now, newError);
+    }
+
+    public byte[] toBytes() {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, ticket);
+            writeString(out, status.name());
+            out.writeInt(scope.size());
+            for (Map.Entry<String, String> variable : scope.entrySet()) {
+                writeString(out, variable.getKey());
+                writeString(out, variable.getValue());
+            }
+            out.writeLong(submittedAt.toEpochMilli());
+            out.writeLong(updatedAt.toEpochMilli());
+            out.writeBoolean(error != null);
+            if (error != null) {
+                writeString(out, error);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode interview review", e);
+        }
+    }
+
+    public static InterviewReview fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            String ticket = readString(in);
+            ReviewStatus status = ReviewStatus.valueOf(readString(in));
+            int variables = in.readInt();
+            Map<String, String> scope = new HashMap<>();
+            for (int i = 0; i < variables; i++) {
+                scope.put(readString(in), readString(in));
+            }
+            Instant submittedAt = Instant.ofEpochMilli(in.readLong());
+            Instant updatedAt = Instant.ofEpochMilli(in.readLong());
+            String error = in.readBoolean() ? readString(in) : null;
+            return new InterviewReview(ticket, status, scope, submittedAt, updatedAt, error);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode interview review", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF is limited to 64KB, agent outputs can be longer
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,278 @@
+package com.agent.langchain.review;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.storage.MappedRecordLog;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Holds interview reviews between suspension and completion.
+ *
+ * Reviews waiting for a human expire after the pending TTL; completed and
+ * failed reviews stay readable for the retention period so clients can
+ * fetch the assessment, then they are dropped. Expired reviews are removed
+ * whenever a review is saved or the pending list is read. Status changes
+ * go through {@link #update}, which is atomic per ticket, so two reviewers
+ * cannot both resume the same interview.
+ *
+ * With a log path, every saved or updated review is also appended to a
+ * {@link MappedRecordLog} and the reviews are reloaded from it on startup,
+ * so suspended interviews survive restarts. An assessment interrupted by a
+ * restart is reloaded as failed, which lets the reviewer submit the feedback
+ * again. When the log is full it is compacted down to the latest record of
+ * every review still held. Write errors are logged and never fail the
+ * workflow; the review is then only kept in memory. Without a log path the
+ * reviews are only kept in memory.
+ *
+ * Metrics (tag: status):
+ * - agent.review.stored: reviews currently held
+ */
+public class InterviewReviewStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterviewReviewStore.class);
+
+    private final ConcurrentHashMap<String, InterviewReview> reviews = new ConcurrentHashMap<>();
+    private final Duration pendingTtl;
+    private final Duration retention;
+    private final Clock clock;
+    private final MappedRecordLog log;
+    private final Map<String, Long> offsets = new HashMap<>();
+
+    private InterviewReviewStore(Builder builder) throws IOException {
+        if (!builder.pendingTtl.isPositive() || builder.retention.isNegative()) {
+            throw new IllegalArgumentException("Pending TTL must be positive and retention not negative");
+        }
+        this.pendingTtl = builder.pendingTtl;
+        this.retention = builder.retention;
+        this.clock = builder.clock;
+        this.log = builder.path == null ? null : MappedRecordLog.open(builder.path, builder.maxBytes);
+        if (log != null) {
+            load();
+            logger.info("Opened interview review log at {} with {} reviews ({} bytes)", builder.path,
+                    reviews.size(), log.usedBytes());
+        }
+        for (ReviewStatus status : ReviewStatus.values()) {
+            Gauge.builder("agent.review.stored", reviews, map -> count(status))
+                    .tag("status", status.tag())
+                    .register(builder.meterRegistry);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public void save(InterviewReview review) {
+        evictExpired();
+        reviews.put(review.ticket(), review);
+        persist(review);
+    }
+
+    public Optional<InterviewReview> find(String ticket) {
+        return Optional.ofNullable(reviews.get(ticket)).filter(review -> !isExpired(review, now()));
+    }
+
+    /**
+     * Atomically replaces a review.
+     *
+     * @param change maps the current review to its replacement; it may throw
+     *               to reject the change
+     * @return the replacement, or empty if the ticket is unknown or expired
+     */
+    public Optional<InterviewReview> update(String ticket, UnaryOperator<InterviewReview> change) {
+        Instant now = now();
+        return Optional.ofNullable(reviews.computeIfPresent(ticket, (key, review) -> {
+            if (isExpired(review, now)) {
+                return null;
+            }
+            InterviewReview replacement = change.apply(review);
+            persist(replacement);
+            return replacement;
+        }));
+    }
+
+    /**
+     * @param limit maximum number of reviews returned
+     * @return reviews waiting for human feedback, oldest first
+     */
+    public List<InterviewReview> pending(int limit) {
+        evictExpired();
+        return reviews.values().stream()
+                .filter(review -> review.status() == ReviewStatus.AWAITING_REVIEW)
+                .sorted(Comparator.comparing(InterviewReview::submittedAt))
+                .limit(limit)
+                .toList();
+    }
+
+    public int count(ReviewStatus status) {
+        return (int) reviews.values().stream().filter(review -> review.status() == status).count();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private void evictExpired() {
+        Instant now = now();
+        reviews.values().removeIf(review -> isExpired(review, now));
+    }
+
+    private boolean isExpired(InterviewReview review, Instant now) {
+        return switch (review.status()) {
+            case AWAITING_REVIEW -> review.submittedAt().plus(pendingTtl).isBefore(now);
+            case ASSESSING -> false;
+            case COMPLETED, FAILED -> review.updatedAt().plus(retention).isBefore(now);
+        };
+    }
+
+    /**
+     * Appends the review to the log, compacting it when full. Called while
+     * the ticket is being updated, so it only reads the review map.
+     */
+    private synchronized void persist(InterviewReview review) {
+        if (log == null) {
+            return;
+        }
+        try {
+            byte[] key = review.ticket().getBytes(StandardCharsets.UTF_8);
+            byte[] value = review.toBytes();
+            long offset = log.append(key, value);
+            if (offset < 0) {
+                compact();
+                offset = log.append(key, value);
+                if (offset < 0) {
+                    logger.warn("No room in the interview review log, review {} is only kept in memory",
+                            review.ticket());
+                    return;
+                }
+            }
+            offsets.put(review.ticket(), offset);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write interview review {}: {}", review.ticket(), e.getMessage());
+        }
+    }
+
+    private void compact() throws IOException {
+        int dropped = log.compact((offset, key, value) -> {
+            String ticket = new String(key, StandardCharsets.UTF_8);
+            return value != null && reviews.containsKey(ticket) && Long.valueOf(offset).equals(offsets.get(ticket));
+        });
+        offsets.clear();
+        log.forEach((offset, key, value) -> offsets.put(new String(key, StandardCharsets.UTF_8), offset));
+        logger.info("Compacted interview review log: dropped {} records", dropped);
+    }
+
+    /**
+     * Reloads the latest record of every review, dropping expired reviews
+     * and failing assessments that were running when the log was last open.
+     */
+    private synchronized void load() {
+        log.forEach((offset, key, value) -> {
+            if (value == null) {
+                return;
+            }
+            InterviewReview review = InterviewReview.fromBytes(value);
+            reviews.put(review.ticket(), review);
+            offsets.put(review.ticket(), offset);
+        });
+        evictExpired();
+        offsets.keySet().retainAll(reviews.keySet());
+        for (InterviewReview review : List.copyOf(reviews.values())) {
+            if (review.status() == ReviewStatus.ASSESSING) {
+                InterviewReview failed = review.with(ReviewStatus.FAILED, Map.of(),
+                        "Assessment interrupted by a restart", now());
+                reviews.put(failed.ticket(), failed);
+                persist(failed);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link InterviewReviewStore}.
+     */
+    public static class Builder {
+
+        private Duration pendingTtl = Duration.ofDays(7);
+        private Duration retention = Duration.ofHours(1);
+        private Path path;
+        private long maxBytes = 16L * 1024 * 1024;
+        private Clock clock = Clock.systemUTC();
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        /**
+         * How long a review waits for human feedback.
+         */
+        public Builder pendingTtl(Duration pendingTtl) {
+            this.pendingTtl = pendingTtl;
+            return this;
+        }
+
+        /**
+         * How long a completed or failed review stays readable.
+         */
+        public Builder retention(Duration retention) {
+            this.retention = retention;
+            return this;
+        }
+
+        /**
+         * Location of the review log; without one, reviews are only kept in
+         * memory and lost on restart.
+         */
+        public Builder path(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Size of the review log file.
+         */
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * @throws IOException if the review log cannot be opened
+         */
+        public InterviewReviewStore build() throws IOException {
+            return new InterviewReviewStore(this);
+        }
+    }
+}
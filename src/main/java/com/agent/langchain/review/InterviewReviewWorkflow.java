@@ -0,0 +1,204 @@
+package com.agent.langchain.review;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.exception.ReviewConflictException;
+import com.agent.langchain.exception.ReviewNotFoundException;
+import com.agent.langchain.patterns.HumanInLoopPattern.InterviewAssessor;
+import com.agent.langchain.patterns.HumanInLoopPattern.InterviewCoach;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static com.agent.langchain.review.InterviewReview.ASSESSMENT;
+import static com.agent.langchain.review.InterviewReview.CANDIDATE_NAME;
+import static com.agent.langchain.review.InterviewReview.COACH_FEEDBACK;
+import static com.agent.langchain.review.InterviewReview.HUMAN_FEEDBACK;
+import static com.agent.langchain.review.InterviewReview.POSITION;
+import static com.agent.langchain.review.InterviewReview.QUESTION;
+import static com.agent.langchain.review.InterviewReview.RESPONSE;
+
+/**
+ * Interview workflow that suspends for human feedback instead of waiting
+ * for it.
+ *
+ * {@link #start} runs the {@link InterviewCoach} and suspends the workflow:
+ * its scope is stored as an {@link InterviewReview} under a new ticket and
+ * the calling thread is released. A reviewer later lists the pending
+ * reviews, {@link #submitFeedback submits feedback} for one of them, which
+ * claims it atomically, and {@link #assess} resumes the workflow with the
+ * {@link InterviewAssessor}. A failed assessment leaves the review open for
+ * another attempt.
+ *
+ * All methods run on the calling thread; the caller decides where the
+ * agents run.
+ *
+ * Metrics:
+ * - agent.review.suspended: interviews suspended for review
+ * - agent.review.wait: time between suspension and human feedback
+ * - agent.review.assessments: finished assessments (tag: outcome)
+ */
+public class InterviewReviewWorkflow {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterviewReviewWorkflow.class);
+
+    private final InterviewCoach interviewCoach;
+    private final InterviewAssessor interviewAssessor;
+    private final InterviewReviewStore store;
+    private final Counter suspended;
+    private final Timer reviewWait;
+    private final Counter completed;
+    private final Counter failed;
+
+    private InterviewReviewWorkflow(Builder builder) {
+        if (builder.interviewCoach == null || builder.interviewAssessor == null || builder.store == null) {
+            throw new IllegalArgumentException("Coach and assessor agents and a review store are required");
+        }
+        this.interviewCoach = builder.interviewCoach;
+        this.interviewAssessor = builder.interviewAssessor;
+        this.store = builder.store;
+        this.suspended = Counter.builder("agent.review.suspended").register(builder.meterRegistry);
+        this.reviewWait = Timer.builder("agent.review.wait").register(builder.meterRegistry);
+        this.completed = Counter.builder("agent.review.assessments").tag("outcome", ReviewStatus.COMPLETED.tag())
+                .register(builder.meterRegistry);
+        this.failed = Counter.builder("agent.review.assessments").tag("outcome", ReviewStatus.FAILED.tag())
+                .register(builder.meterRegistry);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Coaches the interview and suspends it for human review.
+     *
+     * @return the stored review, awaiting feedback
+     */
+    public InterviewReview start(String candidateName, String position, String question, String response) {
+        String coachFeedback = interviewCoach.provideFeedback(position, question, response);
+        Instant now = store.now();
+        InterviewReview review = new InterviewReview(UUID.randomUUID().toString(), ReviewStatus.AWAITING_REVIEW,
+                Map.of(CANDIDATE_NAME, candidateName, POSITION, position, QUESTION, question, RESPONSE, response,
+                        COACH_FEEDBACK, coachFeedback),
+                now, now, null);
+        store.save(review);
+        suspended.increment();
+        logger.info("Interview of {} suspended for review with ticket {}", candidateName, review.ticket());
+        return review;
+    }
+
+    /**
+     * Records human feedback and claims the review for assessment; the
+     * caller is expected to run {@link #assess} next.
+     *
+     * @return the claimed review
+     * @throws ReviewNotFoundException if the ticket is unknown or expired
+     * @throws ReviewConflictException if the review does not wait for feedback
+     */
+    public InterviewReview submitFeedback(String ticket, String humanFeedback) {
+        InterviewReview claimed = store.update(ticket, review -> {
+            if (!review.status().acceptsFeedback()) {
+                throw new ReviewConflictException(ticket, review.status().tag());
+            }
+            return review.with(ReviewStatus.ASSESSING, Map.of(HUMAN_FEEDBACK, humanFeedback), null, store.now());
+        }).orElseThrow(() -> new ReviewNotFoundException(ticket));
+        reviewWait.record(Duration.between(claimed.submittedAt(), claimed.updatedAt()));
+        return claimed;
+    }
+
+    /**
+     * Resumes a claimed review with the assessor.
+     *
+     * @return the completed review
+     * @throws ReviewNotFoundException if the ticket is unknown or expired
+     * @throws ReviewConflictException if the review was not claimed
+     */
+    public InterviewReview assess(String ticket) {
+        InterviewReview review = find(ticket);
+        if (review.status() != ReviewStatus.ASSESSING) {
+            throw new ReviewConflictException(ticket, review.status().tag());
+        }
+        try {
+            String assessment = interviewAssessor.assessInterview(review.get(CANDIDATE_NAME), review.get(POSITION),
+                    review.get(COACH_FEEDBACK), review.get(HUMAN_FEEDBACK));
+            InterviewReview done = store.update(ticket,
+                    current -> current.with(ReviewStatus.COMPLETED, Map.of(ASSESSMENT, assessment), null, store.now()))
+                    .orElseThrow(() -> new ReviewNotFoundException(ticket));
+            completed.increment();
+            logger.info("Interview review {} completed", ticket);
+            return done;
+        } catch (RuntimeException e) {
+            store.update(ticket, current -> current.with(ReviewStatus.FAILED, Map.of(), e.getMessage(), store.now()));
+            failed.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands back a claimed review whose assessment could not be started, so
+     * the feedback can be submitted again.
+     */
+    public void release(String ticket, String reason) {
+        store.update(ticket, current -> current.status() == ReviewStatus.ASSESSING
+                ? current.with(ReviewStatus.FAILED, Map.of(), reason, store.now())
+                : current);
+    }
+
+    /**
+     * @throws ReviewNotFoundException if the ticket is unknown or expired
+     */
+    public InterviewReview find(String ticket) {
+        return store.find(ticket).orElseThrow(() -> new ReviewNotFoundException(ticket));
+    }
+
+    /**
+     * @return reviews waiting for human feedback, oldest first
+     */
+    public List<InterviewReview> pending(int limit) {
+        return store.pending(limit);
+    }
+
+    /**
+     * Builder for {@link InterviewReviewWorkflow}.
+     */
+    public static class Builder {
+
+        private InterviewCoach interviewCoach;
+        private InterviewAssessor interviewAssessor;
+        private InterviewReviewStore store;
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder interviewCoach(InterviewCoach interviewCoach) {
+            this.interviewCoach = interviewCoach;
+            return this;
+        }
+
+        public Builder interviewAssessor(InterviewAssessor interviewAssessor) {
+            this.interviewAssessor = interviewAssessor;
+            return this;
+        }
+
+        public Builder store(InterviewReviewStore store) {
+            this.store = store;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public InterviewReviewWorkflow build() {
+            return new InterviewReviewWorkflow(this);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.agent.langchain.review;
+
+import java.util.Locale;
+
+/**
+ * Where an interview review stands.
+ */
+public enum ReviewStatus {
+
+    /** AI coaching is done; the interview waits for a human reviewer. */
+    AWAITING_REVIEW,
+
+    /** Human feedback was submitted and the final assessment is being written. */
+    ASSESSING,
+
+    /** The final assessment is available. */
+    COMPLETED,
+
+    /** Writing the final assessment failed; feedback may be submitted again. */
+    FAILED;
+
+    /**
+     * @return the API and metric tag value, e.g. {@code awaiting-review}
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * @return whether a reviewer may submit feedback in this status
+     */
+    public boolean acceptsFeedback() {
+        return this == AWAITING_REVIEW || this == FAILED;
+    }
+}
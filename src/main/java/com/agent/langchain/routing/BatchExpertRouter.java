@@ -0,0 +1,256 @@
+package com.agent.langchain.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.patterns.ConditionalRoutingPattern.BatchCategoryRouter;
+import com.agent.langchain.patterns.ConditionalRoutingPattern.ExpertPanel;
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routes a batch of queries to the expert agents.
+ *
+ * Classification first tries the in-process stages of the
+ * {@link CategoryResolver} for every query. The remaining queries are packed
+ * into numbered lists of at most {@code maxQueriesPerCall} entries and
+ * classified with one {@link BatchCategoryRouter} call per list. Queries the
+ * model left out of its answer (or answered unparseably) fall back to the
+ * single-query router.
+ *
+ * The expert calls then fan out on the shared agent executor with at most
+ * {@code maxConcurrency} running at once. Results keep the input order and
+ * every query succeeds or fails on its own.
+ *
+ * Metrics:
+ * - agent.routing.batch.classifications: packed classification calls
+ * - agent.routing.batch.queries.per.call: queries per packed call
+ * - agent.routing.batch.fallbacks: queries re-classified one at a time
+ */
+@Component
+public class BatchExpertRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchExpertRouter.class);
+
+    private static final Pattern ANSWER_LINE = Pattern.compile("^\\W*(\\d{1,6})\\s*[:.)\\-]\\s*'?([A-Za-z]+)");
+
+    /**
+     * Outcome of one query: its category and the expert answer, or the error
+     * that stopped it.
+     */
+    public record RoutedAnswer(RequestCategory category, String response, String error) {
+
+        public static RoutedAnswer success(RequestCategory category, String response) {
+            return new RoutedAnswer(category, response, null);
+        }
+
+        public static RoutedAnswer failure(RequestCategory category, String error) {
+            return new RoutedAnswer(category, null, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    private final CategoryResolver categoryResolver;
+    private final BatchCategoryRouter batchCategoryRouter;
+    private final ExpertPanel expertPanel;
+    private final AgentExecutor agentExecutor;
+    private final int maxQueriesPerCall;
+    private final int maxConcurrency;
+
+    private final Counter classificationCalls;
+    private final DistributionSummary queriesPerCall;
+    private final Counter fallbacks;
+
+    public BatchExpertRouter(CategoryResolver categoryResolver, BatchCategoryRouter batchCategoryRouter,
+            ExpertPanel expertPanel, AgentExecutor agentExecutor,
+            @Value("${agent.routing.batch.max-queries-per-call:25}") int maxQueriesPerCall,
+            @Value("${agent.routing.batch.max-concurrency:8}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        if (maxQueriesPerCall < 1 || maxConcurrency < 1) {
+            throw new IllegalArgumentException("Batch sizes must be positive");
+        }
+        this.categoryResolver = categoryResolver;
+        this.batchCategoryRouter = batchCategoryRouter;
+        this.expertPanel = expertPanel;
+        this.agentExecutor = agentExecutor;
+        this.maxQueriesPerCall = maxQueriesPerCall;
+        this.maxConcurrency = maxConcurrency;
+
+        this.classificationCalls = Counter.builder("agent.routing.batch.classifications").register(meterRegistry);
+        this.queriesPerCall = DistributionSummary.builder("agent.routing.batch.queries.per.call")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("agent.routing.batch.fallbacks").register(meterRegistry);
+    }
+
+    /**
+     * Classifies and answers every query.
+     *
+     * @param queries the user queries; blank entries fail individually
+     * @return one answer per query, in input order
+     */
+    public List<RoutedAnswer> route(List<String> queries) {
+        RoutedAnswer[] answers = new RoutedAnswer[queries.size()];
+        RequestCategory[] categories = classify(queries, answers);
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<?>> running = new ArrayList<>();
+        try {
+            for (int i = 0; i < queries.size(); i++) {
+                if (answers[i] != null) {
+                    continue;
+                }
+                int index = i;
+                permits.acquire();
+                running.add(agentExecutor.submit(() -> {
+                    try {
+                        answers[index] = answer(categories[index], queries.get(index));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            running.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while routing batch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch routing task failed", e.getCause());
+        }
+        return List.of(answers);
+    }
+
+    private RoutedAnswer answer(RequestCategory category, String query) {
+        try {
+            return RoutedAnswer.success(category, expertPanel.answer(category, query));
+        } catch (RuntimeException e) {
+            logger.warn("Expert {} failed for batch query: {}", category, e.getMessage());
+            return RoutedAnswer.failure(category, e.getMessage());
+        }
+    }
+
+    /**
+     * Decides the category of every valid query. Invalid queries and queries
+     * whose classification failed get their failed answer set instead.
+     */
+    private RequestCategory[] classify(List<String> queries, RoutedAnswer[] answers) {
+        RequestCategory[] categories = new RequestCategory[queries.size()];
+        List<Integer> pending = new ArrayList<>();
+        Map<Integer, CategoryResolver.Attempt> attempts = new HashMap<>();
+
+        for (int i = 0; i < queries.size(); i++) {
+            String query = queries.get(i);
+            if (query == null || query.isBlank()) {
+                answers[i] = RoutedAnswer.failure(null, "Query cannot be null or empty");
+                continue;
+            }
+            try {
+                CategoryResolver.Attempt attempt = categoryResolver.resolveLocally(query);
+                if (attempt.category().isPresent()) {
+                    categories[i] = attempt.category().get();
+                } else {
+                    attempts.put(i, attempt);
+                    pending.add(i);
+                }
+            } catch (RuntimeException e) {
+                answers[i] = RoutedAnswer.failure(null, "Classification failed: " + e.getMessage());
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += maxQueriesPerCall) {
+            List<Integer> chunk = pending.subList(from, Math.min(pending.size(), from + maxQueriesPerCall));
+            Map<Integer, RequestCategory> decided = classifyChunk(chunk, queries);
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                CategoryResolver.Attempt attempt = attempts.get(index);
+                RequestCategory category = decided.get(i + 1);
+                try {
+                    if (category != null) {
+                        categoryResolver.recordLlmDecision(attempt, category);
+                    } else {
+                        fallbacks.increment();
+                        category = categoryResolver.resolveWithLlm(attempt);
+                    }
+                    categories[index] = category;
+                } catch (RuntimeException e) {
+                    answers[index] = RoutedAnswer.failure(null, "Classification failed: " + e.getMessage());
+                }
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Classifies one packed list.
+     *
+     * @return categories keyed by 1-based position in the chunk; missing
+     *         positions need a fallback
+     */
+    private Map<Integer, RequestCategory> classifyChunk(List<Integer> chunk, List<String> queries) {
+        if (chunk.size() == 1) {
+            return Map.of();
+        }
+        StringBuilder packed = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            String query = queries.get(chunk.get(i)).replaceAll("\\s+", " ").strip();
+            packed.append(i + 1).append(": ").append(query).append('\n');
+        }
+        classificationCalls.increment();
+        queriesPerCall.record(chunk.size());
+        try {
+            return parse(batchCategoryRouter.classifyAll(packed.toString()), chunk.size());
+        } catch (RuntimeException e) {
+            logger.warn("Batch classification of {} queries failed, falling back to single calls: {}",
+                    chunk.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Parses {@code <number>: <category>} lines, ignoring anything else.
+     */
+    static Map<Integer, RequestCategory> parse(String answer, int size) {
+        Map<Integer, RequestCategory> categories = new HashMap<>();
+        if (answer == null) {
+            return categories;
+        }
+        for (String line : answer.split("\\R")) {
+            Matcher matcher = ANSWER_LINE.matcher(line);
+            if (!matcher.find()) {
+                continue;
+            }
+            int position = Integer.parseInt(matcher.group(1));
+            if (position < 1 || position > size) {
+                continue;
+            }
+            try {
+                categories.putIfAbsent(position, RequestCategory.valueOf(matcher.group(2).toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                // Not a category name; the query falls back to a single call.
+            }
+        }
+        return categories;
+    }
+}
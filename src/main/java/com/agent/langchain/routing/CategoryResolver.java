@@ -0,0 +1,161 @@
+package com.agent.langchain.routing;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.CategoryRouter;
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides the {@link RequestCategory} of a query for the conditional routing
+ * pattern.
+ *
+ * Resolution order:
+ * 1. Semantic route cache: reuse the decision of a near-duplicate query
+ * 2. Local classifier: answer in-process when confident enough
+ * 3. LLM CategoryRouter agent: full classification round-trip
+ *
+ * Decisions made by the LLM are fed back into the semantic cache and used to
+ * train the local classifier.
+ *
+ * Metrics:
+ * - agent.routing.decisions{source=semantic-cache|local|llm}
+ * - agent.routing.local.share
+ */
+@Component
+public class CategoryResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryResolver.class);
+
+    private final CategoryRouter categoryRouter;
+    private final SemanticRouteCache semanticRouteCache;
+    private final LocalClassifierStage localClassifier;
+    private final boolean semanticCacheEnabled;
+
+    private final Counter semanticCacheDecisions;
+    private final Counter localDecisions;
+    private final Counter llmDecisions;
+
+    public CategoryResolver(CategoryRouter categoryRouter, SemanticRouteCache semanticRouteCache,
+            LocalClassifierStage localClassifier,
+            @Value("${agent.routing.semantic-cache.enabled:true}") boolean semanticCacheEnabled,
+            MeterRegistry meterRegistry) {
+        this.categoryRouter = categoryRouter;
+        this.semanticRouteCache = semanticRouteCache;
+        this.localClassifier = localClassifier;
+        this.semanticCacheEnabled = semanticCacheEnabled;
+
+        this.semanticCacheDecisions = Counter.builder("agent.routing.decisions").tag("source", "semantic-cache")
+                .register(meterRegistry);
+        this.localDecisions = Counter.builder("agent.routing.decisions").tag("source", "local").register(meterRegistry);
+        this.llmDecisions = Counter.builder("agent.routing.decisions").tag("source", "llm").register(meterRegistry);
+        Gauge.builder("agent.routing.local.share", this, CategoryResolver::localShare).register(meterRegistry);
+    }
+
+    /**
+     * Outcome of the in-process stages for one query. When no category was
+     * found the query needs an LLM decision, which should be reported through
+     * {@link #recordLlmDecision(Attempt, RequestCategory)}.
+     */
+    public record Attempt(String request, Optional<RequestCategory> category, SemanticRouteCache.Lookup lookup) {
+    }
+
+    /**
+     * Classifies a query into one of the supported categories.
+     *
+     * @param request the user query
+     * @return the routing category, never null
+     */
+    public RequestCategory resolve(String request) {
+        Attempt attempt = resolveLocally(request);
+        if (attempt.category().isPresent()) {
+            return attempt.category().get();
+        }
+        return resolveWithLlm(attempt);
+    }
+
+    /**
+     * Runs the semantic cache and local classifier stages only.
+     *
+     * @param request the user query
+     * @return the attempt, holding a category when an in-process stage answered
+     */
+    public Attempt resolveLocally(String request) {
+        SemanticRouteCache.Lookup lookup = null;
+        if (semanticCacheEnabled) {
+            lookup = semanticRouteCache.lookup(request);
+            if (lookup.category().isPresent()) {
+                logger.debug("Semantic route cache hit ({}) with similarity {}",
+                        lookup.category().get(), lookup.similarity());
+                semanticCacheDecisions.increment();
+                return new Attempt(request, lookup.category(), lookup);
+            }
+        }
+
+        Optional<RequestCategory> local = localClassifier.classify(request);
+        if (local.isPresent()) {
+            logger.debug("Local classifier answered {}", local.get());
+            localDecisions.increment();
+            if (localClassifier.sampleForShadow()) {
+                localClassifier.shadow(request, local.get(), () -> classifyWithLlm(request));
+            }
+            return new Attempt(request, local, lookup);
+        }
+        return new Attempt(request, Optional.empty(), lookup);
+    }
+
+    /**
+     * Classifies an unresolved attempt with the LLM CategoryRouter.
+     */
+    public RequestCategory resolveWithLlm(Attempt attempt) {
+        RequestCategory category = classifyWithLlm(attempt.request());
+        recordLlmDecision(attempt, category);
+        return category;
+    }
+
+    /**
+     * Records a decision the LLM made for an unresolved attempt, e.g. as part
+     * of a batch classification: counts it, trains the local classifier and
+     * feeds the semantic cache.
+     */
+    public void recordLlmDecision(Attempt attempt, RequestCategory category) {
+        llmDecisions.increment();
+        localClassifier.learn(attempt.request(), category);
+        if (attempt.lookup() != null) {
+            semanticRouteCache.record(attempt.lookup(), category);
+        }
+    }
+
+    public long getSemanticCacheDecisions() {
+        return (long) semanticCacheDecisions.count();
+    }
+
+    public long getLocalDecisions() {
+        return (long) localDecisions.count();
+    }
+
+    public long getLlmDecisions() {
+        return (long) llmDecisions.count();
+    }
+
+    /**
+     * @return share of all routing decisions answered by the local classifier
+     */
+    public double localShare() {
+        double total = semanticCacheDecisions.count() + localDecisions.count() + llmDecisions.count();
+        return total == 0 ? 0.0 : localDecisions.count() / total;
+    }
+
+    private RequestCategory classifyWithLlm(String request) {
+        RequestCategory category = categoryRouter.classify(request);
+        return category != null ? category : RequestCategory.UNKNOWN;
+    }
+}
@@ -0,0 +1,79 @@
+package com.agent.langchain.routing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+
+/**
+ * In-process classifier that predicts the {@link RequestCategory} of a query
+ * without a model round-trip.
+ *
+ * Implementations are trained online from the decisions of the LLM router and
+ * must be safe for concurrent prediction and learning.
+ */
+public interface LocalCategoryClassifier {
+
+    /**
+     * A predicted category with a confidence in [0.0, 1.0].
+     */
+    record Prediction(RequestCategory category, double confidence) {
+
+        public static final Prediction NONE = new Prediction(RequestCategory.UNKNOWN, 0.0);
+    }
+
+    /**
+     * Predicts the category of a query.
+     *
+     * @param query the user query
+     * @return the prediction, {@link Prediction#NONE} when nothing is known
+     */
+    Prediction predict(String query);
+
+    /**
+     * Adds one labelled example to the model.
+     */
+    void learn(String query, RequestCategory category);
+
+    /**
+     * @return number of examples the model has been trained on
+     */
+    long trainingExamples();
+
+    void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Replaces the current model state with the serialized one.
+     */
+    void readFrom(InputStream in) throws IOException;
+
+    /**
+     * Persists the model, replacing the target file atomically.
+     */
+    default void save(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            writeTo(out);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reloads a model previously written with {@link #save(Path)}.
+     */
+    default void load(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            readFrom(in);
+        }
+    }
+}
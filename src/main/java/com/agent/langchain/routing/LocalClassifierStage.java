@@ -0,0 +1,338 @@
+package com.agent.langchain.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+import com.agent.langchain.routing.LocalCategoryClassifier.Prediction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Fast-path routing stage backed by a {@link LocalCategoryClassifier}.
+ *
+ * A local prediction is used only when the model has seen at least
+ * {@code minTrainingExamples} LLM decisions and its confidence reaches the
+ * threshold; otherwise the caller falls back to the LLM router. Every LLM
+ * decision is fed back as a training example, also while the stage is
+ * disabled, so the model can be warmed up before it starts answering.
+ *
+ * A sampled share of the locally answered queries is re-classified by the LLM
+ * in the background (shadow mode). Disagreements are counted and the LLM
+ * answer is learned, which keeps the model honest once it handles most of the
+ * traffic.
+ *
+ * The model is reloaded from {@code modelPath} on start-up, saved every
+ * {@code saveEvery} new examples and on close.
+ *
+ * Metrics:
+ * - agent.routing.local.predictions{result=confident|uncertain}
+ * - agent.routing.local.shadow{result=agree|disagree|skipped}
+ * - agent.routing.local.shadow.disagreement.ratio
+ * - agent.routing.local.training.examples
+ * - agent.routing.local.confidence.threshold
+ */
+public class LocalClassifierStage implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalClassifierStage.class);
+
+    private final LocalCategoryClassifier classifier;
+    private final boolean enabled;
+    private final long minTrainingExamples;
+    private final double shadowSampleRate;
+    private final Path modelPath;
+    private final long saveEvery;
+    private final Executor backgroundExecutor;
+    private final Semaphore shadowPermits;
+    private volatile double confidenceThreshold;
+
+    private final AtomicLong learnedSinceSave = new AtomicLong();
+    private final AtomicLong shadowAgreements = new AtomicLong();
+    private final AtomicLong shadowDisagreements = new AtomicLong();
+    private final Counter confidentCounter;
+    private final Counter uncertainCounter;
+    private final Counter agreeCounter;
+    private final Counter disagreeCounter;
+    private final Counter skippedCounter;
+
+    private LocalClassifierStage(Builder builder) {
+        this.classifier = builder.classifier;
+        this.enabled = builder.enabled;
+        this.minTrainingExamples = builder.minTrainingExamples;
+        this.shadowSampleRate = builder.shadowSampleRate;
+        this.modelPath = builder.modelPath;
+        this.saveEvery = builder.saveEvery;
+        this.backgroundExecutor = builder.backgroundExecutor;
+        this.shadowPermits = new Semaphore(builder.maxConcurrentShadowChecks);
+        setConfidenceThreshold(builder.confidenceThreshold);
+
+        MeterRegistry registry = builder.meterRegistry;
+        this.confidentCounter = Counter.builder("agent.routing.local.predictions").tag("result", "confident").register(registry);
+        this.uncertainCounter = Counter.builder("agent.routing.local.predictions").tag("result", "uncertain").register(registry);
+        this.agreeCounter = Counter.builder("agent.routing.local.shadow").tag("result", "agree").register(registry);
+        this.disagreeCounter = Counter.builder("agent.routing.local.shadow").tag("result", "disagree").register(registry);
+        this.skippedCounter = Counter.builder("agent.routing.local.shadow").tag("result", "skipped").register(registry);
+        Gauge.builder("agent.routing.local.shadow.disagreement.ratio", this, LocalClassifierStage::disagreementRate)
+                .register(registry);
+        Gauge.builder("agent.routing.local.training.examples", classifier, LocalCategoryClassifier::trainingExamples)
+                .register(registry);
+        Gauge.builder("agent.routing.local.confidence.threshold", this, LocalClassifierStage::getConfidenceThreshold)
+                .register(registry);
+
+        loadModel();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Classifies a query locally when the model is trusted for it.
+     *
+     * @param query the user query
+     * @return the category, or empty when the LLM router must decide
+     */
+    public Optional<RequestCategory> classify(String query) {
+        if (!enabled || classifier.trainingExamples() < minTrainingExamples) {
+            return Optional.empty();
+        }
+        Prediction prediction = classifier.predict(query);
+        if (prediction.confidence() < confidenceThreshold) {
+            uncertainCounter.increment();
+            return Optional.empty();
+        }
+        confidentCounter.increment();
+        return Optional.of(prediction.category());
+    }
+
+    /**
+     * Decides whether a locally answered query should also be checked by the LLM.
+     */
+    public boolean sampleForShadow() {
+        return shadowSampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < shadowSampleRate;
+    }
+
+    /**
+     * Re-classifies a locally answered query with the LLM in the background and
+     * records whether both agree. Checks beyond the concurrency limit are skipped
+     * rather than queued.
+     *
+     * @param query         the user query
+     * @param localCategory the category answered locally
+     * @param llm           the LLM classification to compare against
+     */
+    public void shadow(String query, RequestCategory localCategory, Supplier<RequestCategory> llm) {
+        if (!shadowPermits.tryAcquire()) {
+            skippedCounter.increment();
+            return;
+        }
+        try {
+            backgroundExecutor.execute(() -> {
+                try {
+                    RequestCategory llmCategory = llm.get();
+                    if (llmCategory == localCategory) {
+                        shadowAgreements.incrementAndGet();
+                        agreeCounter.increment();
+                    } else {
+                        shadowDisagreements.incrementAndGet();
+                        disagreeCounter.increment();
+                        logger.debug("Local classifier answered {} but LLM router answered {}",
+                                localCategory, llmCategory);
+                    }
+                    learn(query, llmCategory);
+                } catch (RuntimeException e) {
+                    logger.warn("Shadow classification failed: {}", e.getMessage());
+                } finally {
+                    shadowPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shadowPermits.release();
+            skippedCounter.increment();
+        }
+    }
+
+    /**
+     * Adds an LLM routing decision to the training set.
+     */
+    public void learn(String query, RequestCategory category) {
+        if (category == null) {
+            return;
+        }
+        classifier.learn(query, category);
+        if (saveEvery > 0 && learnedSinceSave.incrementAndGet() >= saveEvery) {
+            learnedSinceSave.set(0);
+            try {
+                backgroundExecutor.execute(this::saveModel);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Skipping periodic model save, executor is shut down");
+            }
+        }
+    }
+
+    /**
+     * Persists the model to {@code modelPath}, if one is configured.
+     */
+    public synchronized void saveModel() {
+        if (modelPath == null) {
+            return;
+        }
+        try {
+            classifier.save(modelPath);
+            logger.debug("Saved local category classifier ({} examples) to {}",
+                    classifier.trainingExamples(), modelPath);
+        } catch (IOException e) {
+            logger.warn("Failed to save local category classifier to {}: {}", modelPath, e.getMessage());
+        }
+    }
+
+    private void loadModel() {
+        if (modelPath == null || !Files.exists(modelPath)) {
+            return;
+        }
+        try {
+            classifier.load(modelPath);
+            logger.info("Loaded local category classifier ({} examples) from {}",
+                    classifier.trainingExamples(), modelPath);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable local category classifier at {}: {}", modelPath, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getConfidenceThreshold() {
+        return confidenceThreshold;
+    }
+
+    /**
+     * Changes the confidence a local prediction must reach to be used.
+     *
+     * @param confidenceThreshold value in (0.0, 1.0]
+     */
+    public void setConfidenceThreshold(double confidenceThreshold) {
+        if (confidenceThreshold <= 0.0 || confidenceThreshold > 1.0) {
+            throw new IllegalArgumentException("Confidence threshold must be in (0.0, 1.0]");
+        }
+        this.confidenceThreshold = confidenceThreshold;
+    }
+
+    public long getTrainingExamples() {
+        return classifier.trainingExamples();
+    }
+
+    public long getShadowSamples() {
+        return shadowAgreements.get() + shadowDisagreements.get();
+    }
+
+    public long getShadowDisagreements() {
+        return shadowDisagreements.get();
+    }
+
+    public double disagreementRate() {
+        long samples = getShadowSamples();
+        return samples == 0 ? 0.0 : (double) shadowDisagreements.get() / samples;
+    }
+
+    @Override
+    public void close() {
+        saveModel();
+    }
+
+    /**
+     * Builder for {@link LocalClassifierStage}.
+     */
+    public static class Builder {
+
+        private LocalCategoryClassifier classifier = new NaiveBayesCategoryClassifier();
+        private boolean enabled = true;
+        private double confidenceThreshold = 0.9;
+        private long minTrainingExamples = 50;
+        private double shadowSampleRate = 0.05;
+        private int maxConcurrentShadowChecks = 4;
+        private Path modelPath;
+        private long saveEvery = 50;
+        private Executor backgroundExecutor = Runnable::run;
+        private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        public Builder classifier(LocalCategoryClassifier classifier) {
+            this.classifier = classifier;
+            return this;
+        }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder confidenceThreshold(double confidenceThreshold) {
+            this.confidenceThreshold = confidenceThreshold;
+            return this;
+        }
+
+        public Builder minTrainingExamples(long minTrainingExamples) {
+            this.minTrainingExamples = minTrainingExamples;
+            return this;
+        }
+
+        public Builder shadowSampleRate(double shadowSampleRate) {
+            this.shadowSampleRate = shadowSampleRate;
+            return this;
+        }
+
+        public Builder maxConcurrentShadowChecks(int maxConcurrentShadowChecks) {
+            this.maxConcurrentShadowChecks = maxConcurrentShadowChecks;
+            return this;
+        }
+
+        /**
+         * @param modelPath model file, or null to keep the model in memory only
+         */
+        public Builder modelPath(Path modelPath) {
+            this.modelPath = modelPath;
+            return this;
+        }
+
+        /**
+         * @param saveEvery new examples between periodic saves, 0 to save on close only
+         */
+        public Builder saveEvery(long saveEvery) {
+            this.saveEvery = saveEvery;
+            return this;
+        }
+
+        /**
+         * @param backgroundExecutor runs shadow checks and periodic saves off the request path
+         */
+        public Builder backgroundExecutor(Executor backgroundExecutor) {
+            this.backgroundExecutor = backgroundExecutor;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public LocalClassifierStage build() {
+            return new LocalClassifierStage(this);
+        }
+    }
+}
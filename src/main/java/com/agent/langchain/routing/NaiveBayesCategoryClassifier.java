@@ -0,0 +1,234 @@
+package com.agent.langchain.routing;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+
+/**
+ * Multinomial naive-Bayes classifier over lower-cased word tokens with
+ * Laplace smoothing.
+ *
+ * Confidence is the posterior probability of the winning category. Queries
+ * sharing no token with the training vocabulary get {@link Prediction#NONE}
+ * rather than a prior-only guess.
+ *
+ * Serialized form (big-endian):
+ * [int magic][int version][int categories]
+ * per category: [UTF name][long documents][long tokens]
+ * [int vocabulary] per token: [UTF token] then one [long count] per category
+ */
+public class NaiveBayesCategoryClassifier implements LocalCategoryClassifier {
+
+    private static final int MAGIC = 0x4E424331;
+    private static final int VERSION = 1;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from", "how",
+            "i", "in", "is", "it", "me", "my", "of", "on", "or", "should", "so", "that", "the", "this",
+            "to", "what", "when", "where", "which", "who", "why", "will", "with", "you", "your");
+
+    private static final RequestCategory[] CATEGORIES = RequestCategory.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, long[]> tokenCounts = new HashMap<>();
+    private final long[] documentCounts = new long[CATEGORIES.length];
+    private final long[] tokenTotals = new long[CATEGORIES.length];
+    private long documents;
+
+    @Override
+    public Prediction predict(String query) {
+        List<String> tokens = tokenize(query);
+        lock.readLock().lock();
+        try {
+            if (documents == 0) {
+                return Prediction.NONE;
+            }
+            double vocabulary = tokenCounts.size();
+            double[] logPosterior = new double[CATEGORIES.length];
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                logPosterior[c] = documentCounts[c] == 0
+                        ? Double.NEGATIVE_INFINITY
+                        : Math.log((double) documentCounts[c] / documents);
+            }
+
+            boolean anyKnown = false;
+            for (String token : tokens) {
+                long[] counts = tokenCounts.get(token);
+                if (counts == null) {
+                    continue;
+                }
+                anyKnown = true;
+                for (int c = 0; c < CATEGORIES.length; c++) {
+                    if (documentCounts[c] > 0) {
+                        logPosterior[c] += Math.log((counts[c] + 1.0) / (tokenTotals[c] + vocabulary));
+                    }
+                }
+            }
+            if (!anyKnown) {
+                return Prediction.NONE;
+            }
+            return softmaxArgMax(logPosterior);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void learn(String query, RequestCategory category) {
+        List<String> tokens = tokenize(query);
+        int c = category.ordinal();
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens) {
+                tokenCounts.computeIfAbsent(token, t -> new long[CATEGORIES.length])[c]++;
+            }
+            tokenTotals[c] += tokens.size();
+            documentCounts[c]++;
+            documents++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long trainingExamples() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        lock.readLock().lock();
+        try {
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(CATEGORIES.length);
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                data.writeUTF(CATEGORIES[c].name());
+                data.writeLong(documentCounts[c]);
+                data.writeLong(tokenTotals[c]);
+            }
+            data.writeInt(tokenCounts.size());
+            for (Map.Entry<String, long[]> entry : tokenCounts.entrySet()) {
+                data.writeUTF(entry.getKey());
+                for (long count : entry.getValue()) {
+                    data.writeLong(count);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        data.flush();
+    }
+
+    @Override
+    public void readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a naive-Bayes category model");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported category model version " + version);
+        }
+
+        // Categories are stored by name so reordering the enum does not corrupt the model;
+        // categories that no longer exist are dropped.
+        int storedCategories = data.readInt();
+        int[] mapping = new int[storedCategories];
+        long[] newDocumentCounts = new long[CATEGORIES.length];
+        long[] newTokenTotals = new long[CATEGORIES.length];
+        for (int s = 0; s < storedCategories; s++) {
+            String name = data.readUTF();
+            long docs = data.readLong();
+            long tokens = data.readLong();
+            mapping[s] = ordinalOf(name);
+            if (mapping[s] >= 0) {
+                newDocumentCounts[mapping[s]] = docs;
+                newTokenTotals[mapping[s]] = tokens;
+            }
+        }
+
+        int vocabulary = data.readInt();
+        Map<String, long[]> newTokenCounts = new HashMap<>(vocabulary * 2);
+        for (int v = 0; v < vocabulary; v++) {
+            String token = data.readUTF();
+            long[] counts = new long[CATEGORIES.length];
+            for (int s = 0; s < storedCategories; s++) {
+                long count = data.readLong();
+                if (mapping[s] >= 0) {
+                    counts[mapping[s]] = count;
+                }
+            }
+            newTokenCounts.put(token, counts);
+        }
+
+        lock.writeLock().lock();
+        try {
+            tokenCounts.clear();
+            tokenCounts.putAll(newTokenCounts);
+            System.arraycopy(newDocumentCounts, 0, documentCounts, 0, CATEGORIES.length);
+            System.arraycopy(newTokenTotals, 0, tokenTotals, 0, CATEGORIES.length);
+            long total = 0;
+            for (long count : documentCounts) {
+                total += count;
+            }
+            documents = total;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Prediction softmaxArgMax(double[] logPosterior) {
+        int best = 0;
+        for (int c = 1; c < logPosterior.length; c++) {
+            if (logPosterior[c] > logPosterior[best]) {
+                best = c;
+            }
+        }
+        double sum = 0.0;
+        for (double value : logPosterior) {
+            sum += Math.exp(value - logPosterior[best]);
+        }
+        return new Prediction(CATEGORIES[best], 1.0 / sum);
+    }
+
+    private static int ordinalOf(String name) {
+        for (RequestCategory category : CATEGORIES) {
+            if (category.name().equals(name)) {
+                return category.ordinal();
+            }
+        }
+        return -1;
+    }
+}
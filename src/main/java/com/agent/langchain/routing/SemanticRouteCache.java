@@ -0,0 +1,163 @@
+package com.agent.langchain.routing;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.CosineSimilarity;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.RelevanceScore;
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Embedding-based cache of routing decisions.
+ *
+ * Queries are embedded with a local (in-process) embedding model and looked
+ * up in an in-memory vector index of previously classified queries. When the
+ * nearest neighbour's cosine similarity is at or above the configured
+ * threshold its category is reused, so paraphrases of a known question skip
+ * the LLM router entirely. The index holds at most {@code maxEntries}
+ * decisions and forgets the oldest first.
+ *
+ * The similarity threshold can be changed at runtime: lower values raise the
+ * hit rate at the cost of more misrouted queries.
+ *
+ * Metrics:
+ * - agent.routing.cache.requests{result=hit|miss}
+ * - agent.routing.cache.hit.ratio
+ * - agent.routing.cache.entries
+ * - agent.routing.cache.similarity.threshold
+ */
+public class SemanticRouteCache {
+
+    /**
+     * Result of a lookup. The embedding is kept so that recording the
+     * eventual decision does not embed the query a second time.
+     */
+    public record Lookup(Embedding embedding, Optional<RequestCategory> category, double similarity) {
+    }
+
+    private final EmbeddingModel embeddingModel;
+    private final InMemoryEmbeddingStore<RequestCategory> index = new InMemoryEmbeddingStore<>();
+    private final ConcurrentLinkedDeque<String> insertionOrder = new ConcurrentLinkedDeque<>();
+    private final int maxEntries;
+    private volatile double similarityThreshold;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public SemanticRouteCache(EmbeddingModel embeddingModel, double similarityThreshold, int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel;
+        this.maxEntries = maxEntries;
+        setSimilarityThreshold(similarityThreshold);
+
+        this.hitCounter = Counter.builder("agent.routing.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("agent.routing.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("agent.routing.cache.hit.ratio", this, SemanticRouteCache::hitRate).register(meterRegistry);
+        Gauge.builder("agent.routing.cache.entries", this, SemanticRouteCache::size).register(meterRegistry);
+        Gauge.builder("agent.routing.cache.similarity.threshold", this, SemanticRouteCache::getSimilarityThreshold)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Embeds the query and looks for a near-duplicate decision.
+     *
+     * @param query the user query
+     * @return lookup result holding the query embedding and, on a hit, the
+     *         cached category
+     */
+    public Lookup lookup(String query) {
+        Embedding embedding = embeddingModel.embed(query).content();
+        double threshold = similarityThreshold;
+        List<EmbeddingMatch<RequestCategory>> matches = index.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(embedding)
+                .maxResults(1)
+                .minScore(RelevanceScore.fromCosineSimilarity(threshold))
+                .build()).matches();
+
+        if (matches.isEmpty()) {
+            misses.incrementAndGet();
+            missCounter.increment();
+            return new Lookup(embedding, Optional.empty(), 0.0);
+        }
+        EmbeddingMatch<RequestCategory> match = matches.get(0);
+        hits.incrementAndGet();
+        hitCounter.increment();
+        return new Lookup(embedding, Optional.of(match.embedded()), CosineSimilarity.fromRelevanceScore(match.score()));
+    }
+
+    /**
+     * Records a routing decision for future lookups. UNKNOWN decisions are not
+     * cached so that an unroutable query never shadows a routable paraphrase.
+     */
+    public void record(Lookup lookup, RequestCategory category) {
+        if (category == null || category == RequestCategory.UNKNOWN) {
+            return;
+        }
+        String id = index.add(lookup.embedding(), category);
+        insertionOrder.addLast(id);
+        while (insertionOrder.size() > maxEntries) {
+            String eldest = insertionOrder.pollFirst();
+            if (eldest != null) {
+                index.removeAll(List.of(eldest));
+            }
+        }
+    }
+
+    public double getSimilarityThreshold() {
+        return similarityThreshold;
+    }
+
+    /**
+     * Changes the cosine similarity a cached decision must reach to be reused.
+     *
+     * @param similarityThreshold value in (0.0, 1.0]
+     */
+    public void setSimilarityThreshold(double similarityThreshold) {
+        if (similarityThreshold <= 0.0 || similarityThreshold > 1.0) {
+            throw new IllegalArgumentException("Similarity threshold must be in (0.0, 1.0]");
+        }
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double hitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public int size() {
+        return insertionOrder.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Forgets every cached decision, e.g. after prompt or category changes.
+     */
+    public void clear() {
+        index.removeAll();
+        insertionOrder.clear();
+    }
+}
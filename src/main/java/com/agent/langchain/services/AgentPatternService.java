@@ -1,13 +1,33 @@
 package com.agent.langchain.services;
 
+import com.agent.langchain.exception.PatternTimeoutException;
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.execution.SingleFlight;
+import com.agent.langchain.model.limit.PatternBulkheads;
+import com.agent.langchain.observability.AgentTracer;
 import com.agent.langchain.patterns.ConditionalRoutingPattern.ExpertRouterAgent;
 import com.agent.langchain.patterns.LoopPattern.ContentRefiner;
 import com.agent.langchain.patterns.ParallelFlowPattern.StartupPitcher;
 import com.agent.langchain.patterns.SequentialFlowPattern.RecipeDeveloper;
+import com.agent.langchain.refinement.RefinementResult;
+import com.agent.langchain.refinement.RefinementSettings;
+import com.agent.langchain.rendering.PitchDocument;
+import com.agent.langchain.review.InterviewReview;
+import com.agent.langchain.review.InterviewReviewWorkflow;
+import com.agent.langchain.routing.BatchExpertRouter;
+import com.agent.langchain.routing.BatchExpertRouter.RoutedAnswer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * Service layer for AI Agent Patterns.
  * 
@@ -22,6 +42,29 @@ import org.springframework.stereotype.Service;
  * - Loop Pattern: Iteratively refines content through quality scoring and
  * editing
  * - Parallel Flow: Executes multiple independent agents concurrently
+ * - Human in Loop: Interview coaching with human interviewer feedback; the
+ * workflow is suspended while it waits for the human and resumed when the
+ * feedback is submitted
+ * 
+ * Every pattern has a blocking {@code execute*} method and an
+ * {@code execute*Async} counterpart that runs on the shared agent executor,
+ * so callers do not hold a thread while agents talk to the model. Async
+ * executions are bounded by a per-pattern timeout ({@code agent.async.timeout.*});
+ * on expiry the future fails with {@link PatternTimeoutException} and the
+ * running agents are interrupted.
+ * 
+ * Concurrent async requests with the same normalized inputs are coalesced
+ * into a single execution whose result every caller receives. Each caller
+ * can cancel its own future; the execution stops once no caller is left.
+ * 
+ * Each execution holds a slot of its pattern's bulkhead
+ * ({@code agent.bulkhead.max-concurrent.*}); when the pattern is already at
+ * its limit the call fails fast with a
+ * {@link com.agent.langchain.exception.BulkheadFullException}.
+ * 
+ * Every execution is recorded as one trace, a tree of spans for the workflow
+ * nodes, agent invocations and model calls it went through; recent traces are
+ * available under {@code /api/v1/admin/traces}.
  * 
  * Future patterns can be added as additional methods in this service.
  */
@@ -34,13 +77,46 @@ public class AgentPatternService {
     private final RecipeDeveloper recipeDeveloper;
     private final ContentRefiner contentRefiner;
     private final StartupPitcher startupPitcher;
+    private final InterviewReviewWorkflow interviewReviews;
+    private final AgentExecutor agentExecutor;
+    private final PatternBulkheads patternBulkheads;
+    private final SingleFlight singleFlight;
+    private final BatchExpertRouter batchExpertRouter;
+    private final AgentTracer agentTracer;
+
+    @Value("${agent.async.timeout.conditional-routing:60s}")
+    private Duration conditionalRoutingTimeout = Duration.ofSeconds(60);
+
+    @Value("${agent.async.timeout.conditional-routing-batch:300s}")
+    private Duration conditionalRoutingBatchTimeout = Duration.ofSeconds(300);
+
+    @Value("${agent.async.timeout.sequential-flow:180s}")
+    private Duration sequentialFlowTimeout = Duration.ofSeconds(180);
+
+    @Value("${agent.async.timeout.loop:300s}")
+    private Duration loopTimeout = Duration.ofSeconds(300);
+
+    @Value("${agent.async.timeout.parallel-flow:180s}")
+    private Duration parallelFlowTimeout = Duration.ofSeconds(180);
+
+    @Value("${agent.async.timeout.human-in-loop:60s}")
+    private Duration humanInLoopTimeout = Duration.ofSeconds(60);
 
     public AgentPatternService(ExpertRouterAgent expertRouterAgent, RecipeDeveloper recipeDeveloper,
-            ContentRefiner contentRefiner, StartupPitcher startupPitcher) {
+            ContentRefiner contentRefiner, StartupPitcher startupPitcher,
+            InterviewReviewWorkflow interviewReviews, AgentExecutor agentExecutor,
+            PatternBulkheads patternBulkheads, SingleFlight singleFlight, BatchExpertRouter batchExpertRouter,
+            AgentTracer agentTracer) {
         this.expertRouterAgent = expertRouterAgent;
         this.recipeDeveloper = recipeDeveloper;
         this.contentRefiner = contentRefiner;
         this.startupPitcher = startupPitcher;
+        this.interviewReviews = interviewReviews;
+        this.agentExecutor = agentExecutor;
+        this.patternBulkheads = patternBulkheads;
+        this.singleFlight = singleFlight;
+        this.batchExpertRouter = batchExpertRouter;
+        this.agentTracer = agentTracer;
     }
 
     /**
@@ -68,16 +144,77 @@ public class AgentPatternService {
         logger.info("Executing conditional routing pattern for query: {}",
                 query.substring(0, Math.min(query.length(), 50)) + "...");
 
+        PatternBulkheads.Permit permit = patternBulkheads.acquire("conditional-routing");
         try {
-            String response = expertRouterAgent.ask(query);
+            String response = agentTracer.trace("conditional-routing", () -> expertRouterAgent.ask(query));
             logger.info("Successfully executed conditional routing and received expert response");
             return response;
         } catch (Exception e) {
             logger.error("Error executing conditional routing: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to execute conditional routing: " + e.getMessage(), e);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #executeConditionalRouting(String)}.
+     *
+     * @param query the user's question or request
+     * @return future completing with the expert's response
+     */
+    public CompletableFuture<String> executeConditionalRoutingAsync(String query) {
+        return singleFlight.execute("conditional-routing", SingleFlight.key("conditional-routing", query),
+                () -> supplyAsync("Conditional routing", conditionalRoutingTimeout,
+                        () -> executeConditionalRouting(query)));
+    }
+
+    /**
+     * Executes the Conditional Routing pattern for a batch of queries.
+     * 
+     * Queries that need the LLM router are classified together in as few
+     * packed router calls as possible; the expert agents then answer them
+     * with bounded concurrency. A failing query does not fail the batch.
+     *
+     * @param queries the user queries
+     * @return one answer per query, in input order
+     * @throws IllegalArgumentException if the list is null or empty
+     * @throws RuntimeException         if the batch cannot be processed
+     */
+    public List<RoutedAnswer> executeConditionalRoutingBatch(List<String> queries) {
+        if (queries == null || queries.isEmpty()) {
+            logger.warn("Received null or empty query batch for conditional routing");
+            throw new IllegalArgumentException("Queries cannot be null or empty");
+        }
+
+        logger.info("Executing conditional routing pattern for a batch of {} queries", queries.size());
+
+        PatternBulkheads.Permit permit = patternBulkheads.acquire("conditional-routing-batch");
+        try {
+            List<RoutedAnswer> answers = agentTracer.trace("conditional-routing-batch",
+                    () -> batchExpertRouter.route(queries));
+            logger.info("Successfully executed conditional routing batch: {} of {} queries answered",
+                    answers.stream().filter(RoutedAnswer::isSuccess).count(), queries.size());
+            return answers;
+        } catch (Exception e) {
+            logger.error("Error executing conditional routing batch: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to execute conditional routing batch: " + e.getMessage(), e);
+        } finally {
+            permit.close();
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #executeConditionalRoutingBatch(List)}.
+     *
+     * @param queries the user queries
+     * @return future completing with one answer per query, in input order
+     */
+    public CompletableFuture<List<RoutedAnswer>> executeConditionalRoutingBatchAsync(List<String> queries) {
+        return supplyAsync("Conditional routing batch", conditionalRoutingBatchTimeout,
+                () -> executeConditionalRoutingBatch(queries));
+    }
+
     /**
      * Executes the Sequential Flow pattern.
      * 
@@ -120,16 +257,32 @@ public class AgentPatternService {
         logger.info("Executing sequential flow pattern for cuisine: {}, dietary: {}, mealType: {}",
                 cuisine, dietary, mealType);
 
+        PatternBulkheads.Permit permit = patternBulkheads.acquire("sequential-flow");
         try {
-            String result = recipeDeveloper.developRecipe(cuisine, dietary, mealType);
+            String result = agentTracer.trace("sequential-flow",
+                    () -> recipeDeveloper.developRecipe(cuisine, dietary, mealType));
             logger.info("Successfully executed sequential flow and generated complete recipe");
             return result;
         } catch (Exception e) {
             logger.error("Error executing sequential flow: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to execute sequential flow: " + e.getMessage(), e);
+        } finally {
+            permit.close();
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #executeSequentialFlow(String, String, String)}.
+     *
+     * @return future completing with the complete recipe
+     */
+    public CompletableFuture<String> executeSequentialFlowAsync(String cuisine, String dietary, String mealType) {
+        return singleFlight.execute("sequential-flow",
+                SingleFlight.key("sequential-flow", cuisine, dietary, mealType),
+                () -> supplyAsync("Sequential flow", sequentialFlowTimeout,
+                        () -> executeSequentialFlow(cuisine, dietary, mealType)));
+    }
+
     /**
      * Executes the Loop Pattern.
      * 
@@ -138,19 +291,22 @@ public class AgentPatternService {
      * The loop flow:
      * 1. ContentCreator generates initial content based on topic and style
      * 2. QualityScorer evaluates content quality (0.0 to 1.0 scale)
-     * 3. ContentEditor improves content based on score
-     * 4. Steps 2-3 repeat until score >= 0.8 or max 5 iterations reached
+     * 3. ContentEditor improves the best content so far based on its score
+     * 4. Steps 2-3 repeat until the termination policy stops the loop: quality
+     * threshold reached, iteration limit, score plateau or budget spent
      * 
-     * This pattern demonstrates feedback-driven iterative improvement.
+     * This pattern demonstrates feedback-driven iterative improvement. The
+     * best-scored version is returned, never an edit that lowered the score.
      *
-     * @param topic the topic to write about
-     * @param style the writing style (e.g., "professional", "casual", "technical",
-     *              "creative")
-     * @return refined content that meets quality standards
+     * @param topic    the topic to write about
+     * @param style    the writing style (e.g., "professional", "casual", "technical",
+     *                 "creative")
+     * @param settings termination settings overriding the configured defaults
+     * @return the refined content with its score and loop statistics
      * @throws IllegalArgumentException if any parameter is null or empty
      * @throws RuntimeException         if content refinement fails
      */
-    public String executeLoopPattern(String topic, String style) {
+    public RefinementResult executeLoopPattern(String topic, String style, RefinementSettings settings) {
         if (topic == null || topic.trim().isEmpty()) {
             logger.warn("Received null or empty topic for loop pattern");
             throw new IllegalArgumentException("Topic cannot be null or empty");
@@ -162,16 +318,33 @@ public class AgentPatternService {
 
         logger.info("Executing loop pattern for topic: {}, style: {}", topic, style);
 
+        PatternBulkheads.Permit permit = patternBulkheads.acquire("loop");
         try {
-            String result = contentRefiner.refineContent(topic, style);
+            RefinementResult result = agentTracer.trace("loop",
+                    () -> contentRefiner.refineContent(topic, style, settings));
             logger.info("Successfully executed loop pattern and generated refined content");
             return result;
         } catch (Exception e) {
             logger.error("Error executing loop pattern: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to execute loop pattern: " + e.getMessage(), e);
+        } finally {
+            permit.close();
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #executeLoopPattern(String, String, RefinementSettings)}.
+     * Only requests with equal settings are coalesced.
+     *
+     * @return future completing with the refined content
+     */
+    public CompletableFuture<RefinementResult> executeLoopPatternAsync(String topic, String style,
+            RefinementSettings settings) {
+        RefinementSettings effective = settings == null ? RefinementSettings.NONE : settings;
+        return singleFlight.execute("loop", List.of(SingleFlight.key("loop", topic, style), effective),
+                () -> supplyAsync("Loop pattern", loopTimeout, () -> executeLoopPattern(topic, style, effective)));
+    }
+
     /**
      * Executes the Parallel Flow pattern.
      * 
@@ -186,11 +359,22 @@ public class AgentPatternService {
      * @param startupName  the name of the startup
      * @param idea         the startup's product/service idea
      * @param targetMarket the target market/audience
-     * @return comprehensive startup pitch document
+     * @return comprehensive startup pitch document, as plain text
      * @throws IllegalArgumentException if any parameter is null or empty
      * @throws RuntimeException         if pitch generation fails
      */
     public String executeParallelFlow(String startupName, String idea, String targetMarket) {
+        return buildPitchDocument(startupName, idea, targetMarket).toString();
+    }
+
+    /**
+     * Variant of {@link #executeParallelFlow(String, String, String)}
+     * returning the pitch sections unassembled, for rendering straight into
+     * the response.
+     *
+     * @return the startup pitch document
+     */
+    public PitchDocument buildPitchDocument(String startupName, String idea, String targetMarket) {
         if (startupName == null || startupName.trim().isEmpty()) {
             logger.warn("Received null or empty startup name for parallel flow");
             throw new IllegalArgumentException("Startup name cannot be null or empty");
@@ -207,14 +391,198 @@ public class AgentPatternService {
         logger.info("Executing parallel flow pattern for startup: {}, idea: {}, market: {}",
                 startupName, idea.substring(0, Math.min(idea.length(), 30)), targetMarket);
 
+        PatternBulkheads.Permit permit = patternBulkheads.acquire("parallel-flow");
         try {
-            String result = startupPitcher.buildPitch(startupName, idea, targetMarket);
+            PitchDocument result = agentTracer.trace("parallel-flow",
+                    () -> startupPitcher.buildPitchDocument(startupName, idea, targetMarket));
             logger.info("Successfully executed parallel flow and generated startup pitch");
             return result;
         } catch (Exception e) {
             logger.error("Error executing parallel flow: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to execute parallel flow: " + e.getMessage(), e);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #buildPitchDocument(String, String, String)}.
+     *
+     * @return future completing with the startup pitch document
+     */
+    public CompletableFuture<PitchDocument> executeParallelFlowAsync(String startupName, String idea,
+            String targetMarket) {
+        return singleFlight.execute("parallel-flow",
+                SingleFlight.key("parallel-flow", startupName, idea, targetMarket),
+                () -> supplyAsync("Parallel flow", parallelFlowTimeout,
+                        () -> buildPitchDocument(startupName, idea, targetMarket)));
+    }
+
+    /**
+     * Executes the first phase of the Human in Loop pattern.
+     * 
+     * The interview coach writes AI coaching feedback, then the workflow is
+     * suspended: its scope is stored under a review ticket and no thread
+     * waits for the human interviewer. The workflow resumes once feedback is
+     * submitted with {@link #submitInterviewFeedback(String, String)}.
+     *
+     * @param candidateName the candidate's name
+     * @param position      the position interviewed for
+     * @param question      the interview question
+     * @param response      the candidate's answer
+     * @return the suspended review with its ticket and the coaching feedback
+     * @throws IllegalArgumentException if any parameter is null or empty
+     * @throws RuntimeException         if the interview workflow fails
+     */
+    public InterviewReview executeHumanInLoop(String candidateName, String position, String question,
+            String response) {
+        if (candidateName == null || candidateName.trim().isEmpty()) {
+            logger.warn("Received null or empty candidate name for human in loop");
+            throw new IllegalArgumentException("Candidate name cannot be null or empty");
+        }
+        if (position == null || position.trim().isEmpty()) {
+            logger.warn("Received null or empty position for human in loop");
+            throw new IllegalArgumentException("Position cannot be null or empty");
+        }
+        if (question == null || question.trim().isEmpty()) {
+            logger.warn("Received null or empty question for human in loop");
+            throw new IllegalArgumentException("Question cannot be null or empty");
+        }
+        if (response == null || response.trim().isEmpty()) {
+            logger.warn("Received null or empty response for human in loop");
+            throw new IllegalArgumentException("Response cannot be null or empty");
+        }
+
+        logger.info("Executing human in loop pattern for candidate: {}, position: {}", candidateName, position);
+
+        PatternBulkheads.Permit permit = patternBulkheads.acquire("human-in-loop");
+        try {
+            InterviewReview review = agentTracer.trace("human-in-loop",
+                    () -> interviewReviews.start(candidateName, position, question, response));
+            logger.info("Interview of candidate {} awaits human review, ticket {}", candidateName, review.ticket());
+            return review;
+        } catch (Exception e) {
+            logger.error("Error processing interview: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to process interview: " + e.getMessage(), e);
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #executeHumanInLoop(String, String, String, String)}.
+     *
+     * @return future completing with the suspended review
+     */
+    public CompletableFuture<InterviewReview> executeHumanInLoopAsync(String candidateName, String position,
+            String question, String response) {
+        return singleFlight.execute("human-in-loop",
+                SingleFlight.key("human-in-loop", candidateName, position, question, response),
+                () -> supplyAsync("Human in loop", humanInLoopTimeout,
+                        () -> executeHumanInLoop(candidateName, position, question, response)));
+    }
+
+    /**
+     * Resumes a suspended Human in Loop workflow with the interviewer's
+     * feedback.
+     * 
+     * The review is claimed and the method returns at once; the final
+     * assessment is written on the agent executor and can be fetched with
+     * {@link #getInterviewReview(String)}. If it fails or cannot be started,
+     * the review accepts feedback again.
+     *
+     * @param ticket        the review ticket
+     * @param humanFeedback the interviewer's feedback
+     * @return the claimed review, being assessed
+     * @throws IllegalArgumentException if the feedback is null or empty
+     * @throws com.agent.langchain.exception.ReviewNotFoundException if the ticket is unknown or expired
+     * @throws com.agent.langchain.exception.ReviewConflictException if the review does not wait for feedback
+     */
+    public InterviewReview submitInterviewFeedback(String ticket, String humanFeedback) {
+        if (humanFeedback == null || humanFeedback.trim().isEmpty()) {
+            logger.warn("Received null or empty human feedback for review {}", ticket);
+            throw new IllegalArgumentException("Human feedback cannot be null or empty");
+        }
+
+        // Fail fast while the review can still be claimed by a later attempt
+        PatternBulkheads.Permit permit = patternBulkheads.acquire("human-in-loop");
+        InterviewReview claimed;
+        try {
+            claimed = interviewReviews.submitFeedback(ticket, humanFeedback);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+
+        logger.info("Resuming interview review {} with human feedback", ticket);
+        try {
+            agentExecutor.execute(() -> {
+                try {
+                    agentTracer.trace("human-in-loop", () -> interviewReviews.assess(ticket));
+                } catch (Exception e) {
+                    logger.error("Error assessing interview review {}: {}", ticket, e.getMessage(), e);
+                } finally {
+                    permit.close();
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            interviewReviews.release(ticket, "Assessment could not be started: " + e.getMessage());
+            throw e;
+        }
+        return claimed;
+    }
+
+    /**
+     * @param ticket the review ticket
+     * @return the review in its current status
+     * @throws com.agent.langchain.exception.ReviewNotFoundException if the ticket is unknown or expired
+     */
+    public InterviewReview getInterviewReview(String ticket) {
+        return interviewReviews.find(ticket);
+    }
+
+    /**
+     * @param limit maximum number of reviews returned
+     * @return reviews waiting for a human interviewer, oldest first
+     */
+    public List<InterviewReview> getPendingInterviewReviews(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return interviewReviews.pending(limit);
+    }
+
+    /**
+     * Runs a pattern on the agent executor.
+     * 
+     * The returned future fails with {@link PatternTimeoutException} once the
+     * timeout elapses (a non-positive timeout disables it). On timeout or
+     * cancellation of the future the running task is interrupted.
+     */
+    private <T> CompletableFuture<T> supplyAsync(String patternName, Duration timeout, Supplier<T> pattern) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = agentExecutor.submit(() -> {
+            try {
+                result.complete(pattern.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+
+        if (timeout != null && timeout.isPositive()) {
+            CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                if (result.completeExceptionally(new PatternTimeoutException(patternName, timeout))) {
+                    logger.warn("{} timed out after {} ms, interrupting agents", patternName, timeout.toMillis());
+                }
+            });
         }
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                running.cancel(true);
+            }
+        });
+        return result;
     }
 
     /**
@@ -0,0 +1,70 @@
+package com.agent.langchain.services;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.agent.langchain.dto.ErrorResponse;
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.streaming.AgentStreams;
+import com.agent.langchain.streaming.SseAgentStreamListener;
+
+/**
+ * Service running agent patterns as Server-Sent Event streams.
+ *
+ * The pattern is invoked on the shared agent executor with an
+ * {@link SseAgentStreamListener} attached, so stage boundaries and token
+ * deltas reach the client while the workflow is still running. The final
+ * event is either {@code result}, carrying the same DTO as the blocking
+ * endpoint, or {@code error}, carrying an {@link ErrorResponse}.
+ */
+@Service
+public class AgentStreamingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentStreamingService.class);
+
+    private final AgentExecutor agentExecutor;
+    private final Duration timeout;
+
+    public AgentStreamingService(AgentExecutor agentExecutor,
+            @Value("${agent.streaming.timeout:5m}") Duration timeout) {
+        this.agentExecutor = agentExecutor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Starts a streamed pattern invocation.
+     *
+     * @param patternName name used in logs
+     * @param invocation  runs the pattern and returns the response DTO
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter stream(String patternName, Supplier<?> invocation) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        SseAgentStreamListener listener = new SseAgentStreamListener(emitter);
+
+        agentExecutor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                Object result = AgentStreams.withListener(listener, invocation);
+                listener.send("result", result);
+                logger.info("Streamed {} in {} ms", patternName, (System.nanoTime() - start) / 1_000_000);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid {} stream request: {}", patternName, e.getMessage());
+                listener.send("error", new ErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value()));
+            } catch (RuntimeException e) {
+                logger.error("Error streaming {}: {}", patternName, e.getMessage(), e);
+                listener.send("error", new ErrorResponse(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value()));
+            } finally {
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+}
@@ -0,0 +1,250 @@
+package com.agent.langchain.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only key/value record log backed by a memory-mapped file.
+ *
+ * Layout:
+ * - Header (16 bytes): magic, format version, write position
+ * - Records: key length, value length, key bytes, value bytes
+ *
+ * A value length of -1 marks a tombstone. Records are written before the
+ * header's write position is advanced, so a crash mid-append leaves at most a
+ * torn tail that is ignored on the next open. The log never grows beyond its
+ * capacity: {@link #append} returns -1 when a record does not fit and callers
+ * are expected to {@link #compact} and retry.
+ *
+ * All methods are synchronized; the log is meant for small, infrequent
+ * records (cached responses, checkpoints), not for high-frequency streaming.
+ */
+public final class MappedRecordLog implements Closeable {
+
+    private static final int MAGIC = 0x41474C47; // "AGLG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int WRITE_POSITION_OFFSET = 8;
+    private static final int RECORD_OVERHEAD = 8;
+    private static final int TOMBSTONE = -1;
+
+    /**
+     * Callback for {@link #forEach}. Value is null for tombstones.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long offset, byte[] key, byte[] value);
+    }
+
+    /**
+     * Decides which records survive {@link #compact}. Value is null for
+     * tombstones.
+     */
+    @FunctionalInterface
+    public interface RecordFilter {
+        boolean keep(long offset, byte[] key, byte[] value);
+    }
+
+    private final Path path;
+    private final long capacity;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long writePosition;
+
+    private MappedRecordLog(Path path, long capacity) {
+        this.path = path;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Opens (or creates) the log at the given path.
+     *
+     * @param path          log file location; parent directories are created
+     * @param capacityBytes maximum file size including the header
+     * @return the opened log, positioned after the last intact record
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static MappedRecordLog open(Path path, long capacityBytes) throws IOException {
+        if (capacityBytes <= HEADER_SIZE || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Log capacity must be between " + (HEADER_SIZE + 1) + " and " + Integer.MAX_VALUE + " bytes");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MappedRecordLog log = new MappedRecordLog(path, capacityBytes);
+        log.map();
+        return log;
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+            writePosition = Math.min(buffer.getLong(WRITE_POSITION_OFFSET), capacity);
+            writePosition = lastIntactPosition();
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            writePosition = HEADER_SIZE;
+        }
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param key   record key, never null
+     * @param value record value, or null to write a tombstone
+     * @return the record offset, or -1 if the log has no room left
+     */
+    public synchronized long append(byte[] key, byte[] value) {
+        long size = recordSize(key, value);
+        if (writePosition + size > capacity) {
+            return -1;
+        }
+        int offset = (int) writePosition;
+        buffer.putInt(offset, key.length);
+        buffer.putInt(offset + 4, value == null ? TOMBSTONE : value.length);
+        buffer.put(offset + RECORD_OVERHEAD, key);
+        if (value != null) {
+            buffer.put(offset + RECORD_OVERHEAD + key.length, value);
+        }
+        writePosition += size;
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+        return offset;
+    }
+
+    /**
+     * Reads the value of the record at the given offset.
+     *
+     * @return the value bytes, or null for a tombstone or an invalid offset
+     */
+    public synchronized byte[] readValue(long offset) {
+        if (offset < HEADER_SIZE || offset + RECORD_OVERHEAD > writePosition) {
+            return null;
+        }
+        int keyLength = buffer.getInt((int) offset);
+        int valueLength = buffer.getInt((int) offset + 4);
+        if (valueLength == TOMBSTONE) {
+            return null;
+        }
+        byte[] value = new byte[valueLength];
+        buffer.get((int) offset + RECORD_OVERHEAD + keyLength, value);
+        return value;
+    }
+
+    /**
+     * Visits every intact record in append order.
+     */
+    public synchronized void forEach(RecordVisitor visitor) {
+        long position = HEADER_SIZE;
+        while (position + RECORD_OVERHEAD <= writePosition) {
+            int keyLength = buffer.getInt((int) position);
+            int valueLength = buffer.getInt((int) position + 4);
+            byte[] key = new byte[keyLength];
+            buffer.get((int) position + RECORD_OVERHEAD, key);
+            byte[] value = null;
+            if (valueLength != TOMBSTONE) {
+                value = new byte[valueLength];
+                buffer.get((int) position + RECORD_OVERHEAD + keyLength, value);
+            }
+            visitor.visit(position, key, value);
+            position += RECORD_OVERHEAD + keyLength + Math.max(valueLength, 0);
+        }
+    }
+
+    /**
+     * Rewrites the log keeping only the records accepted by the filter.
+     * Offsets change, so callers must rebuild any offset index afterwards.
+     *
+     * @return number of records dropped
+     * @throws IOException if the compacted file cannot be written or swapped in
+     */
+    public synchronized int compact(RecordFilter filter) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        int[] dropped = { 0 };
+        try (MappedRecordLog target = MappedRecordLog.open(compacted, capacity)) {
+            forEach((offset, key, value) -> {
+                if (filter.keep(offset, key, value)) {
+                    target.append(key, value);
+                } else {
+                    dropped[0]++;
+                }
+            });
+        }
+        closeMapping();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map();
+        return dropped[0];
+    }
+
+    /**
+     * Drops every record.
+     */
+    public synchronized void clear() {
+        writePosition = HEADER_SIZE;
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+    }
+
+    public synchronized long usedBytes() {
+        return writePosition;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Size a record will occupy in the log, including its length prefixes.
+     */
+    public static long recordSize(byte[] key, byte[] value) {
+        return RECORD_OVERHEAD + (long) key.length + (value == null ? 0 : value.length);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeMapping();
+    }
+
+    private void closeMapping() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Walks the records up to the recorded write position and returns the end of
+     * the last record whose lengths are consistent, discarding a torn tail.
+     */
+    private long lastIntactPosition() {
+        long position = HEADER_SIZE;
+        while (position + RECORD_OVERHEAD <= writePosition) {
+            int keyLength = buffer.getInt((int) position);
+            int valueLength = buffer.getInt((int) position + 4);
+            if (keyLength < 0 || valueLength < TOMBSTONE) {
+                break;
+            }
+            long next = position + RECORD_OVERHEAD + keyLength + Math.max(valueLength, 0);
+            if (next > writePosition) {
+                break;
+            }
+            position = next;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,37 @@
+package com.agent.langchain.streaming;
+
+/**
+ * Receives the progress of a streamed pattern invocation.
+ *
+ * Agents of a parallel workflow speak concurrently, so implementations must
+ * be thread-safe; every callback names the agent it belongs to.
+ */
+public interface AgentStreamListener {
+
+    /**
+     * An agent started talking to its model.
+     */
+    void onStageStarted(String agent);
+
+    /**
+     * A partial response (token delta) of the given agent.
+     */
+    void onToken(String agent, String token);
+
+    /**
+     * An agent finished; {@code output} is its complete model response text.
+     */
+    void onStageCompleted(String agent, String output);
+
+    /**
+     * A section of the final result is known before the whole result is,
+     * e.g. one part of a document assembled from parallel agents.
+     *
+     * @param section name of the section
+     * @param status  {@code completed}, or why the section has no content
+     *                ({@code failed}, {@code timed-out}, {@code skipped})
+     * @param content the section content, or the reason it is missing
+     */
+    default void onSectionCompleted(String section, String status, String content) {
+    }
+}
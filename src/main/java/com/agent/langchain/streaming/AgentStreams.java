@@ -0,0 +1,118 @@
+package com.agent.langchain.streaming;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import dev.langchain4j.agentic.scope.AgenticScope;
+import dev.langchain4j.invocation.LangChain4jManaged;
+
+/**
+ * Carries an {@link AgentStreamListener} from the caller of a workflow to the
+ * chat models of its agents.
+ *
+ * Sub-agents may run on other threads (e.g. the parallel flow executor), so a
+ * plain thread-local is not enough. Instead the listener is stored in the
+ * {@link AgenticScope} of the root call, which is shared by every sub-agent
+ * and is made current on the executing thread by the agentic framework for the
+ * duration of each agent invocation:
+ *
+ * 1. {@link #withListener} exposes the listener to the calling thread
+ * 2. The root workflow copies it into its scope through
+ * {@link #attachToScope()}, registered as the workflow's {@code beforeCall}
+ * 3. {@link StreamStageChatModel} finds it again via {@link #currentListener()}
+ *
+ * Agents running on the calling thread itself (e.g. under a supervisor, whose
+ * builder has no {@code beforeCall}) see the listener even without step 2.
+ *
+ * Invocations without a listener are unaffected.
+ */
+public final class AgentStreams {
+
+    /**
+     * AgenticScope state key holding the listener.
+     */
+    public static final String LISTENER_STATE_KEY = "agentStreamListener";
+
+    private static final ThreadLocal<AgentStreamListener> PENDING_LISTENER = new ThreadLocal<>();
+    private static final ThreadLocal<StreamStage> CURRENT_STAGE = new ThreadLocal<>();
+
+    private AgentStreams() {
+    }
+
+    /**
+     * Runs a workflow invocation with the given listener attached.
+     */
+    public static <T> T withListener(AgentStreamListener listener, Supplier<T> invocation) {
+        AgentStreamListener previous = PENDING_LISTENER.get();
+        PENDING_LISTENER.set(listener);
+        try {
+            return invocation.get();
+        } finally {
+            if (previous != null) {
+                PENDING_LISTENER.set(previous);
+            } else {
+                PENDING_LISTENER.remove();
+            }
+        }
+    }
+
+    /**
+     * Binds a task to the listener of the calling thread, for tasks handed to
+     * another thread outside an agentic workflow.
+     *
+     * @return the task, unchanged when not streaming
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        AgentStreamListener listener = currentListener();
+        return listener == null ? task : () -> withListener(listener, task);
+    }
+
+    /**
+     * {@code beforeCall} hook for root workflows that should support streaming.
+     */
+    public static Consumer<AgenticScope> attachToScope() {
+        return agenticScope -> {
+            AgentStreamListener listener = PENDING_LISTENER.get();
+            if (listener != null && !agenticScope.hasState(LISTENER_STATE_KEY)) {
+                agenticScope.writeState(LISTENER_STATE_KEY, listener);
+            }
+        };
+    }
+
+    /**
+     * @return the listener of the agent invocation running on this thread, or
+     *         null when it is not being streamed
+     */
+    public static AgentStreamListener currentListener() {
+        Map<Class<? extends LangChain4jManaged>, LangChain4jManaged> managed = LangChain4jManaged.current();
+        if (managed != null && managed.get(AgenticScope.class) instanceof AgenticScope agenticScope
+                && agenticScope.readState(LISTENER_STATE_KEY) instanceof AgentStreamListener listener) {
+            return listener;
+        }
+        return PENDING_LISTENER.get();
+    }
+
+    /**
+     * @return whether a stage is being streamed on this thread; its tokens
+     *         only reach the client from model calls made on this thread
+     */
+    public static boolean inStreamedStage() {
+        return CURRENT_STAGE.get() != null;
+    }
+
+    /**
+     * @return the stage being streamed on this thread, or null
+     */
+    static StreamStage currentStage() {
+        return CURRENT_STAGE.get();
+    }
+
+    static void enterStage(StreamStage stage) {
+        CURRENT_STAGE.set(stage);
+    }
+
+    static void exitStage() {
+        CURRENT_STAGE.remove();
+    }
+}
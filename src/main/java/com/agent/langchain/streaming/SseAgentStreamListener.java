@@ -0,0 +1,80 @@
+package com.agent.langchain.streaming;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * {@link AgentStreamListener} that writes Server-Sent Events.
+ *
+ * Event names:
+ * - stage: {"agent": "...", "status": "started|completed"}
+ * - token: {"agent": "...", "text": "..."}
+ * - section: {"section": "...", "status": "completed|failed|timed-out|skipped", "content": "..."}
+ *
+ * Sends are serialized because parallel agents report concurrently. Once the
+ * client has gone away further events are dropped; the invocation itself is
+ * left to finish.
+ */
+public class SseAgentStreamListener implements AgentStreamListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseAgentStreamListener.class);
+
+    public record StageEvent(String agent, String status) {
+    }
+
+    public record TokenEvent(String agent, String text) {
+    }
+
+    public record SectionEvent(String section, String status, String content) {
+    }
+
+    private final SseEmitter emitter;
+    private boolean disconnected;
+
+    public SseAgentStreamListener(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void onStageStarted(String agent) {
+        send("stage", new StageEvent(agent, "started"));
+    }
+
+    @Override
+    public void onToken(String agent, String token) {
+        send("token", new TokenEvent(agent, token));
+    }
+
+    @Override
+    public void onStageCompleted(String agent, String output) {
+        send("stage", new StageEvent(agent, "completed"));
+    }
+
+    @Override
+    public void onSectionCompleted(String section, String status, String content) {
+        send("section", new SectionEvent(section, status, content));
+    }
+
+    /**
+     * Sends a named event with a JSON payload.
+     *
+     * @return false when the client is no longer connected
+     */
+    public synchronized boolean send(String name, Object payload) {
+        if (disconnected) {
+            return false;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            disconnected = true;
+            logger.debug("Stream client disconnected: {}", e.getMessage());
+            return false;
+        }
+    }
+}
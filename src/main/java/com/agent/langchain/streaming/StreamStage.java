@@ -0,0 +1,27 @@
+package com.agent.langchain.streaming;
+
+/**
+ * One agent's turn within a streamed invocation.
+ */
+final class StreamStage {
+
+    private final AgentStreamListener listener;
+    private final String agent;
+    private volatile boolean tokensEmitted;
+
+    StreamStage(AgentStreamListener listener, String agent) {
+        this.listener = listener;
+        this.agent = agent;
+    }
+
+    void token(String token) {
+        if (token != null && !token.isEmpty()) {
+            tokensEmitted = true;
+            listener.onToken(agent, token);
+        }
+    }
+
+    boolean tokensEmitted() {
+        return tokensEmitted;
+    }
+}
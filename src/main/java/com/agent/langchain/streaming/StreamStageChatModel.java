@@ -0,0 +1,51 @@
+package com.agent.langchain.streaming;
+
+import com.agent.langchain.model.DelegatingChatModel;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+/**
+ * Outermost {@link ChatModel} decorator of an agent that reports stage
+ * boundaries to the {@link AgentStreamListener} of a streamed invocation.
+ *
+ * Token deltas are produced further down the chain by
+ * {@link StreamingBridgeChatModel}. When the call is answered without
+ * streaming (e.g. a response cache hit) the complete text is reported as a
+ * single token, so clients always see every stage's output.
+ */
+public class StreamStageChatModel extends DelegatingChatModel {
+
+    private final String agentName;
+
+    public StreamStageChatModel(ChatModel delegate, String agentName) {
+        super(delegate);
+        this.agentName = agentName;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        AgentStreamListener listener = AgentStreams.currentListener();
+        if (listener == null) {
+            return delegate.chat(chatRequest);
+        }
+
+        StreamStage stage = new StreamStage(listener, agentName);
+        listener.onStageStarted(agentName);
+        AgentStreams.enterStage(stage);
+        ChatResponse response;
+        try {
+            response = delegate.chat(chatRequest);
+        } finally {
+            AgentStreams.exitStage();
+        }
+
+        String text = response.aiMessage() != null ? response.aiMessage().text() : null;
+        if (!stage.tokensEmitted()) {
+            stage.token(text);
+        }
+        listener.onStageCompleted(agentName, text);
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package com.agent.langchain.streaming;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.agent.langchain.model.DelegatingChatModel;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+/**
+ * Innermost {@link ChatModel} of an agent that switches to the
+ * {@link StreamingChatModel} while a stage is being streamed.
+ *
+ * Partial responses are forwarded to the current {@link StreamStage} as they
+ * arrive and the assembled response is returned synchronously, so the agentic
+ * workflows and every decorator above this model work unchanged. Outside a
+ * streamed stage the blocking model is used.
+ */
+public class StreamingBridgeChatModel extends DelegatingChatModel {
+
+    private final StreamingChatModel streamingModel;
+
+    public StreamingBridgeChatModel(ChatModel delegate, StreamingChatModel streamingModel) {
+        super(delegate);
+        this.streamingModel = streamingModel;
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest) {
+        StreamStage stage = AgentStreams.currentStage();
+        if (stage == null) {
+            return delegate.chat(chatRequest);
+        }
+
+        CompletableFuture<ChatResponse> response = new CompletableFuture<>();
+        streamingModel.chat(chatRequest, new StreamingChatResponseHandler() {
+
+            @Override
+            public void onPartialResponse(String partialResponse) {
+                stage.token(partialResponse);
+            }
+
+            @Override
+            public void onCompleteResponse(ChatResponse completeResponse) {
+                response.complete(completeResponse);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                response.completeExceptionally(error);
+            }
+        });
+
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Streaming chat request failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.agent.langchain.checkpoint;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the durable workflow checkpoint store.
+ */
+@DisplayName("Checkpoint Store Tests")
+public class CheckpointStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Clock advanced by hand, for retention checks.
+     */
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CheckpointStore store(long maxBytes) throws Exception {
+        return CheckpointStore.builder()
+                .path(tempDir.resolve("checkpoints.log"))
+                .maxBytes(maxBytes)
+                .retention(Duration.ofHours(1))
+                .clock(clock)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    private WorkflowCheckpoint checkpoint(String id, String... steps) {
+        WorkflowCheckpoint checkpoint = WorkflowCheckpoint.start(id, "RecipeDeveloper", clock.instant());
+        for (String step : steps) {
+            checkpoint = checkpoint.with(step, Map.of(step + "Output", "output of " + step), clock.instant());
+        }
+        return checkpoint;
+    }
+
+    @Test
+    @DisplayName("Should keep the latest checkpoint of a run across restarts")
+    public void testSurvivesRestart() throws Exception {
+        // Given
+        try (CheckpointStore store = store(64 * 1024)) {
+            store.save(checkpoint("run-1", "IngredientCurator"));
+            store.save(checkpoint("run-1", "IngredientCurator", "CookingMethodDesigner"));
+            store.save(checkpoint("run-2", "IngredientCurator"));
+            store.delete("run-2");
+        }
+
+        // When
+        try (CheckpointStore reopened = store(64 * 1024)) {
+            WorkflowCheckpoint restored = reopened.resume("run-1").orElseThrow();
+
+            // Then
+            assertEquals(1, reopened.size());
+            assertEquals(List.of("IngredientCurator", "CookingMethodDesigner"), restored.steps());
+            assertEquals("output of CookingMethodDesigner", restored.get("CookingMethodDesignerOutput"));
+            assertTrue(reopened.find("run-2").isEmpty());
+            assertEquals(1.0, meterRegistry.get("agent.checkpoint.resumed").tag("workflow", "RecipeDeveloper")
+                    .counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop checkpoints not updated within the retention period")
+    public void testRetention() throws Exception {
+        try (CheckpointStore store = store(64 * 1024)) {
+            // Given
+            store.save(checkpoint("old", "IngredientCurator"));
+            clock.advance(Duration.ofMinutes(45));
+            store.save(checkpoint("recent", "IngredientCurator"));
+
+            // When
+            clock.advance(Duration.ofMinutes(30));
+
+            // Then
+            assertTrue(store.find("old").isEmpty());
+            assertEquals(List.of("recent"), store.inProgress(10).stream().map(WorkflowCheckpoint::id).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact superseded checkpoints when the log is full")
+    public void testCompaction() throws Exception {
+        try (CheckpointStore store = store(4 * 1024)) {
+            // When: far more saves of two runs than the log holds
+            for (int i = 0; i < 100; i++) {
+                clock.advance(Duration.ofSeconds(1));
+                store.save(checkpoint("run-" + (i % 2), "IngredientCurator", "step " + i));
+            }
+
+            // Then
+            assertEquals(2, store.size());
+            assertEquals("output of step 99", store.find("run-1").orElseThrow().get("step 99Output"));
+            assertEquals("output of step 98", store.find("run-0").orElseThrow().get("step 98Output"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not resume runs that completed no agent or when disabled")
+    public void testNothingToResume() throws Exception {
+        try (CheckpointStore store = store(64 * 1024);
+                CheckpointStore disabled = CheckpointStore.builder().enabled(false).build()) {
+            // Given
+            store.save(checkpoint("fresh"));
+            disabled.save(checkpoint("run-1", "IngredientCurator"));
+
+            // When / Then
+            assertTrue(store.find("fresh").isPresent());
+            assertTrue(store.resume("fresh").isEmpty());
+            assertFalse(disabled.isEnabled());
+            assertTrue(disabled.find("run-1").isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should identify runs by workflow and normalized inputs")
+    public void testRunIdentity() {
+        // When
+        String id = WorkflowCheckpoint.idOf("RecipeDeveloper", "Italian", "vegetarian", "dinner");
+
+        // Then
+        assertEquals(id, WorkflowCheckpoint.idOf("RecipeDeveloper", " italian ", "Vegetarian", "dinner"));
+        assertNotEquals(id, WorkflowCheckpoint.idOf("RecipeDeveloper", "Italian", "vegan", "dinner"));
+        assertNotEquals(id, WorkflowCheckpoint.idOf("ContentRefiner", "Italian", "vegetarian", "dinner"));
+    }
+}
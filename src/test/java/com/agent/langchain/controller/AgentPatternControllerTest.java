@@ -2,7 +2,7 @@ package com.agent.langchain.controller;
 
 import com.agent.langchain.dto.ExpertQueryRequest;
 import com.agent.langchain.services.AgentPatternService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,10 +10,15 @@ import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.agent.langchain.execution.AgentExecutor;
+
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
@@ -28,7 +33,8 @@ import static org.hamcrest.Matchers.*;
  * 
  * The tests use MockMvc to simulate HTTP requests and verify responses without
  * starting
- * a full HTTP server.
+ * a full HTTP server. The endpoints are asynchronous, so routed responses are
+ * asserted on the async dispatch once the stubbed future has completed.
  */
 @WebMvcTest(AgentPatternController.class)
 @DisplayName("Agent Pattern Controller WebMvc Tests")
@@ -43,6 +49,10 @@ public class AgentPatternControllerTest {
     @MockitoBean
     private AgentPatternService agentPatternService;
 
+    // Required by WebAsyncConfig, which is part of the WebMvc slice
+    @MockitoBean
+    private AgentExecutor agentExecutor;
+
     // ==================== Creative Expert Tests ====================
 
     @Test
@@ -53,13 +63,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "As a creative expert, I recommend focusing on wet-on-wet techniques and color blending...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -74,13 +89,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "To write compelling short stories, focus on strong character development, create conflict early...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -95,13 +115,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Creating a catchy melody involves using repetition, memorable hooks, and understanding musical scales...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -116,13 +141,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Good UI/UX design follows principles like consistency, simplicity, visual hierarchy, and user feedback...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -139,13 +169,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "For long-term stock investing, consider diversification, dollar-cost averaging, and focusing on index funds...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -160,13 +195,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Creating an effective budget involves tracking expenses, using the 50/30/20 rule, and setting financial goals...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -181,13 +221,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Retirement planning with 401k involves understanding employer matching, contribution limits, and tax advantages...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -202,13 +247,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Managing small business cash flow requires monitoring receivables, controlling expenses, and maintaining reserves...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -225,13 +275,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "For beginners, start with a balanced routine including cardio, strength training, and flexibility exercises...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -246,13 +301,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Improving your diet involves eating whole foods, balancing macronutrients, staying hydrated, and meal planning...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -267,13 +327,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "To reduce stress and anxiety, practice mindfulness, maintain regular sleep, exercise, and consider meditation...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -288,13 +353,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Improving sleep quality involves maintaining a consistent schedule, creating a relaxing bedtime routine...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -311,13 +381,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Effective job search strategies include networking, optimizing your resume, leveraging LinkedIn, and tailoring applications...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -332,13 +407,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Career advancement involves developing leadership skills, taking on challenging projects, building relationships...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -353,13 +433,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Handling workplace conflicts requires professional communication, seeking to understand perspectives, and finding common ground...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -374,13 +459,18 @@ public class AgentPatternControllerTest {
         ExpertQueryRequest request = new ExpertQueryRequest(query);
         String mockResponse = "Transitioning to tech involves identifying transferable skills, learning relevant technologies, building a portfolio...";
 
-        when(agentPatternService.executeConditionalRouting(query))
-                .thenReturn(mockResponse);
+        when(agentPatternService.executeConditionalRoutingAsync(query))
+                .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        // When & Then
-        mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/patterns/conditional-routing/route")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.response").value(mockResponse))
@@ -441,22 +531,4 @@ public class AgentPatternControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-
-    // ==================== Health Check Tests ====================
-
-    @Test
-    @DisplayName("Should return OK for conditional routing health check")
-    public void testConditionalRoutingHealthCheck() throws Exception {
-        mockMvc.perform(get("/api/v1/patterns/conditional-routing/health"))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Conditional Routing Pattern is operational"));
-    }
-
-    @Test
-    @DisplayName("Should return OK for general health check")
-    public void testGeneralHealthCheck() throws Exception {
-        mockMvc.perform(get("/api/v1/patterns/health"))
-                .andExpect(status().isOk())
-                .andExpect(content().string("Agent Pattern Service is operational"));
-    }
 }
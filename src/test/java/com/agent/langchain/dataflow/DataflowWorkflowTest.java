@@ -0,0 +1,446 @@
+package com.agent.langchain.dataflow;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.agent.langchain.checkpoint.CheckpointStore;
+import com.agent.langchain.dataflow.DataflowRun.NodeFailure;
+import com.agent.langchain.dataflow.DataflowRun.NodeStatus;
+import com.agent.langchain.dataflow.DataflowRun.NodeTiming;
+import com.agent.langchain.exception.PatternTimeoutException;
+import com.agent.langchain.streaming.AgentStreamListener;
+import com.agent.langchain.streaming.AgentStreams;
+
+import dev.langchain4j.agentic.Agent;
+import dev.langchain4j.agentic.planner.AgentArgument;
+import dev.langchain4j.agentic.planner.AgentInstance;
+import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the dependency-inferring dataflow workflow.
+ */
+@DisplayName("Dataflow Workflow Tests")
+public class DataflowWorkflowTest {
+
+    public interface Outliner {
+        @Agent("Outlines a topic")
+        String outline(@V("topic") String topic);
+    }
+
+    public interface Researcher {
+        @Agent("Researches a topic")
+        String research(@V("topic") String topic);
+    }
+
+    public interface Writer {
+        @Agent("Writes from an outline and research")
+        String write(@V("outline") String outline, @V("facts") String facts);
+    }
+
+    public interface Undeclared {
+        @Agent("Has an undeclared input")
+        String run(String input);
+    }
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stands in for an agent built with {@code AgenticServices.agentBuilder}
+     * and the given output key, answering with the implementation.
+     */
+    private static <T> T agent(Class<T> type, String outputKey, T implementation) {
+        AgentInstance instance = new AgentInstance() {
+            @Override
+            public Class<?> type() {
+                return type;
+            }
+
+            @Override
+            public String name() {
+                return type.getSimpleName();
+            }
+
+            @Override
+            public String agentId() {
+                return type.getSimpleName();
+            }
+
+            @Override
+            public String description() {
+                return "";
+            }
+
+            @Override
+            public Type outputType() {
+                return String.class;
+            }
+
+            @Override
+            public String outputKey() {
+                return outputKey;
+            }
+
+            @Override
+            public List<AgentArgument> arguments() {
+                return List.of();
+            }
+
+            @Override
+            public List<AgentInstance> subagents() {
+                return List.of();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type, AgentInstance.class },
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(method.getDeclaringClass() == AgentInstance.class ? instance
+                                : implementation, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }));
+    }
+
+    private static String sleep(long millis, String result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("Should derive the dependencies from @V inputs and output keys")
+    public void testDerivesGraph() {
+        // Given: the writer is registered first although it needs the other two
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("Article")
+                .inputs("topic")
+                .agent(agent(Writer.class, "article", (outline, facts) -> outline + " + " + facts))
+                .agent(agent(Outliner.class, "outline", topic -> "outline of " + topic))
+                .agent(agent(Researcher.class, "facts", topic -> "facts on " + topic))
+                .build();
+
+        // When
+        DataflowGraph graph = workflow.getGraph();
+        DataflowRun run = workflow.run(Map.of("topic", "cats"));
+
+        // Then
+        List<String> order = graph.topologicalOrder().stream().map(DataflowNode::name).toList();
+        assertEquals(List.of("Outliner", "Researcher", "Writer"), order);
+        assertEquals(List.of("Outliner", "Researcher"),
+                graph.dependenciesOf(graph.topologicalOrder().get(2)).stream().map(DataflowNode::name).toList());
+        assertEquals("outline of cats + facts on cats", run.output());
+    }
+
+    @Test
+    @DisplayName("Should run agents with independent inputs in parallel")
+    public void testRunsIndependentAgentsInParallel() {
+        // Given: outliner and researcher each wait until the other has started
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Outliner outliner = topic -> awaitBoth(bothStarted, "outline");
+        Researcher researcher = topic -> awaitBoth(bothStarted, "facts");
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("Article")
+                .inputs("topic")
+                .agent(agent(Outliner.class, "outline", outliner))
+                .agent(agent(Researcher.class, "facts", researcher))
+                .agent(agent(Writer.class, "article", (outline, facts) -> outline + "/" + facts))
+                .executor(executor)
+                .meterRegistry(meterRegistry)
+                .build();
+
+        // When
+        DataflowRun run = workflow.run(Map.of("topic", "cats"));
+
+        // Then
+        assertEquals("outline/facts", run.output());
+        assertEquals(3, run.timings().size());
+        assertEquals(1, meterRegistry.get("agent.dataflow.duration").tag("workflow", "Article").timer().count());
+    }
+
+    private static String awaitBoth(CountDownLatch bothStarted, String result) {
+        bothStarted.countDown();
+        try {
+            if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Agents did not run in parallel");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("Should report the slowest dependency chain as critical path")
+    public void testCriticalPath() {
+        // Given: research is slower than outlining
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("Article")
+                .inputs("topic")
+                .agent(agent(Outliner.class, "outline", topic -> sleep(10, "outline")))
+                .agent(agent(Researcher.class, "facts", topic -> sleep(150, "facts")))
+                .agent(agent(Writer.class, "article", (outline, facts) -> sleep(10, "article")))
+                .executor(executor)
+                .meterRegistry(meterRegistry)
+                .build();
+
+        // When
+        DataflowRun run = workflow.run(Map.of("topic", "cats"));
+
+        // Then
+        assertEquals(List.of("Researcher", "Writer"), run.criticalPath().stream().map(NodeTiming::node).toList());
+        assertTrue(run.describeCriticalPath().startsWith("Researcher ("));
+        NodeTiming writer = run.criticalPath().get(1);
+        assertTrue(writer.start().compareTo(run.criticalPath().get(0).end()) >= 0);
+        assertEquals(1.0, meterRegistry.get("agent.dataflow.critical.path")
+                .tags("workflow", "Article", "agent", "Researcher").counter().count());
+        assertThrows(Exception.class, () -> meterRegistry.get("agent.dataflow.critical.path")
+                .tags("workflow", "Article", "agent", "Outliner").counter());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the failure of an agent")
+    public void testAgentFailure() {
+        // Given
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("Article")
+                .inputs("topic")
+                .agent(agent(Outliner.class, "outline", topic -> {
+                    throw new IllegalStateException("model unavailable");
+                }))
+                .agent(agent(Researcher.class, "facts", topic -> "facts"))
+                .agent(agent(Writer.class, "article", (outline, facts) -> "article"))
+                .executor(executor)
+                .build();
+
+        // When / Then
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> workflow.run(Map.of("topic", "cats")));
+        assertEquals("model unavailable", failure.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should resume a failed run after its last completed agents")
+    public void testResumesFromCheckpoint(@TempDir Path tempDir) throws Exception {
+        // Given: the writer fails on the first attempt
+        AtomicInteger outlines = new AtomicInteger();
+        AtomicInteger researches = new AtomicInteger();
+        AtomicInteger writes = new AtomicInteger();
+        try (CheckpointStore checkpoints = CheckpointStore.builder()
+                .path(tempDir.resolve("checkpoints.log"))
+                .maxBytes(64 * 1024)
+                .build()) {
+            DataflowWorkflow workflow = DataflowWorkflow.builder()
+                    .name("Article")
+                    .inputs("topic")
+                    .agent(agent(Outliner.class, "outline", topic -> {
+                        outlines.incrementAndGet();
+                        return "outline";
+                    }))
+                    .agent(agent(Researcher.class, "facts", topic -> {
+                        researches.incrementAndGet();
+                        return "facts";
+                    }))
+                    .agent(agent(Writer.class, "article", (outline, facts) -> {
+                        if (writes.incrementAndGet() == 1) {
+                            throw new IllegalStateException("model unavailable");
+                        }
+                        return outline + " + " + facts;
+                    }))
+                    .executor(executor)
+                    .checkpoints(checkpoints)
+                    .build();
+            assertThrows(IllegalStateException.class, () -> workflow.run(Map.of("topic", "cats")));
+
+            // When: the client retries with the same (differently spaced) topic
+            DataflowRun run = workflow.run(Map.of("topic", " Cats"));
+
+            // Then
+            assertEquals("outline + facts", run.output());
+            assertEquals(1, outlines.get());
+            assertEquals(1, researches.get());
+            assertEquals(2, writes.get());
+            assertEquals(0, checkpoints.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should derive the checkpoint id from input names and values, not their order")
+    public void testCheckpointIdIgnoresInputOrder() {
+        // Given: the same workflow with its inputs declared in both orders
+        Writer writer = (outline, facts) -> outline + " + " + facts;
+        DataflowWorkflow declared = DataflowWorkflow.builder().name("Article")
+                .inputs("outline", "facts").agent(agent(Writer.class, "article", writer)).build();
+        DataflowWorkflow reversed = DataflowWorkflow.builder().name("Article")
+                .inputs("facts", "outline").agent(agent(Writer.class, "article", writer)).build();
+
+        // When
+        String id = declared.checkpointId(Map.of("outline", "intro", "facts", "cats purr"));
+
+        // Then
+        assertEquals(id, reversed.checkpointId(Map.of("facts", "cats purr", "outline", "intro")));
+        assertNotEquals(id, declared.checkpointId(Map.of("outline", "cats purr", "facts", "intro")));
+    }
+
+    @Test
+    @DisplayName("Should return the finished sections and mark the late ones in partial-result mode")
+    public void testPartialResults() {
+        // Given: research misses its deadline, so the writer never gets its facts
+        List<String> sections = Collections.synchronizedList(new ArrayList<>());
+        AgentStreamListener listener = new AgentStreamListener() {
+            @Override
+            public void onStageStarted(String agent) {
+            }
+
+            @Override
+            public void onToken(String agent, String token) {
+            }
+
+            @Override
+            public void onStageCompleted(String agent, String output) {
+            }
+
+            @Override
+            public void onSectionCompleted(String section, String status, String content) {
+                sections.add(section + ":" + status);
+            }
+        };
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("Article")
+                .inputs("topic")
+                .agent(agent(Outliner.class, "outline", topic -> "outline"), Duration.ofSeconds(5))
+                .agent(agent(Researcher.class, "facts", topic -> sleep(5_000, "facts")), Duration.ofMillis(100))
+                .agent(agent(Writer.class, "article", (outline, facts) -> "article"))
+                .partialResults(true)
+                .output(state -> state)
+                .executor(executor)
+                .meterRegistry(meterRegistry)
+                .build();
+
+        // When
+        long start = System.nanoTime();
+        DataflowRun run = AgentStreams.withListener(listener, () -> workflow.run(Map.of("topic", "cats")));
+
+        // Then
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        Map<?, ?> state = (Map<?, ?>) run.output();
+        assertEquals("outline", state.get("outline"));
+        NodeFailure facts = (NodeFailure) state.get("facts");
+        assertEquals(NodeStatus.TIMED_OUT, facts.status());
+        assertEquals(NodeStatus.SKIPPED, ((NodeFailure) state.get("article")).status());
+        assertFalse(run.isComplete());
+        assertEquals(List.of("Researcher", "Writer"), run.failures().stream().map(NodeFailure::node).toList());
+        assertEquals(List.of("outline:completed", "facts:timed-out", "article:skipped"), sections);
+        assertEquals(1.0, meterRegistry.get("agent.dataflow.node.failures")
+                .tags("agent", "Researcher", "status", "timed-out").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep the other sections when an agent fails in partial-result mode")
+    public void testPartialResultsOnFailure() {
+        // Given
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("Sections")
+                .inputs("topic")
+                .agent(agent(Outliner.class, "outline", topic -> {
+                    throw new IllegalStateException("model unavailable");
+                }))
+                .agent(agent(Researcher.class, "facts", topic -> "facts"))
+                .partialResults(true)
+                .output(state -> state)
+                .executor(executor)
+                .build();
+
+        // When
+        DataflowRun run = workflow.run(Map.of("topic", "cats"));
+
+        // Then
+        Map<?, ?> state = (Map<?, ?>) run.output();
+        assertEquals("facts", state.get("facts"));
+        NodeFailure outline = (NodeFailure) state.get("outline");
+        assertEquals(NodeStatus.FAILED, outline.status());
+        assertEquals("model unavailable", outline.message());
+    }
+
+    @Test
+    @DisplayName("Should fail the run when an agent misses its deadline without partial results")
+    public void testDeadlineFailsRun() {
+        // Given
+        DataflowWorkflow workflow = DataflowWorkflow.builder()
+                .name("Article")
+                .inputs("topic")
+                .agent(agent(Outliner.class, "outline", topic -> sleep(5_000, "outline")), Duration.ofMillis(50))
+                .executor(executor)
+                .build();
+
+        // When / Then
+        assertThrows(PatternTimeoutException.class, () -> workflow.run(Map.of("topic", "cats")));
+        assertThrows(IllegalArgumentException.class, () -> DataflowWorkflow.builder().name("Serial")
+                .inputs("topic").agent(agent(Outliner.class, "outline", topic -> "outline"), Duration.ofSeconds(1))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should reject graphs that cannot run")
+    public void testInvalidGraphs() {
+        Outliner outliner = topic -> "outline";
+        Writer writer = (outline, facts) -> "article";
+
+        // Missing producer of "facts"
+        assertThrows(IllegalArgumentException.class, () -> DataflowWorkflow.builder().name("Article")
+                .inputs("topic").agent(agent(Outliner.class, "outline", outliner))
+                .agent(agent(Writer.class, "article", writer)).build());
+        // Two agents writing the same key
+        assertThrows(IllegalArgumentException.class, () -> DataflowWorkflow.builder().name("Article")
+                .inputs("topic").agent(agent(Outliner.class, "outline", outliner))
+                .agent(agent(Researcher.class, "outline", topic -> "facts")).build());
+        // Cycle: the writer produces the outline it reads
+        assertThrows(IllegalArgumentException.class, () -> DataflowWorkflow.builder().name("Article")
+                .inputs("topic", "facts").agent(agent(Writer.class, "outline", writer)).build());
+        // Two final agents and no output
+        assertThrows(IllegalArgumentException.class, () -> DataflowWorkflow.builder().name("Article")
+                .inputs("topic").agent(agent(Outliner.class, "outline", outliner))
+                .agent(agent(Researcher.class, "facts", topic -> "facts")).build());
+        // Agent without declarations, not built by AgenticServices
+        assertThrows(IllegalArgumentException.class, () -> DataflowNode.of(outliner));
+        // Parameter without @V
+        assertThrows(IllegalArgumentException.class,
+                () -> DataflowNode.of(agent(Undeclared.class, "out", input -> input)));
+        // Missing workflow input at run time
+        DataflowWorkflow workflow = DataflowWorkflow.builder().name("Outline").inputs("topic")
+                .agent(agent(Outliner.class, "outline", outliner)).build();
+        assertThrows(IllegalArgumentException.class, () -> workflow.run(Map.of()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.agent.langchain.execution;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the shared agent executor.
+ */
+@DisplayName("Agent Executor Tests")
+public class AgentExecutorTest {
+
+    @Test
+    @DisplayName("Should report active and queued tasks of the bounded pool")
+    public void testPlatformPoolMetrics() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        try (AgentExecutor executor = AgentExecutor.platformThreads(1, 1, 4, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), registry)) {
+
+            // When
+            Future<?> first = executor.submit(() -> await(release));
+            Future<?> second = executor.submit(() -> await(release));
+            waitUntil(() -> executor.getActiveCount() == 1);
+
+            // Then
+            assertEquals(1, executor.getActiveCount());
+            assertEquals(1, executor.getQueuedCount());
+            assertEquals(1.0, registry.get("agent.executor.queued").gauge().value());
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            waitUntil(() -> executor.getActiveCount() == 0);
+            assertEquals(2.0, registry.get("agent.executor.completed").counter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should run tasks on the caller when the bounded pool is saturated")
+    public void testCallerRunsWhenSaturated() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        try (AgentExecutor executor = AgentExecutor.platformThreads(1, 1, 1, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), new SimpleMeterRegistry())) {
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            // When
+            Thread[] ranOn = new Thread[1];
+            executor.execute(() -> ranOn[0] = Thread.currentThread());
+
+            // Then
+            assertEquals(Thread.currentThread(), ranOn[0]);
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run on virtual threads and drain running tasks on close")
+    public void testVirtualThreadsAndGracefulClose() throws Exception {
+        // Given
+        AgentExecutor executor = AgentExecutor.virtualThreads(Duration.ofSeconds(5), new SimpleMeterRegistry());
+        boolean[] virtual = new boolean[1];
+        boolean[] finished = new boolean[1];
+
+        // When
+        executor.execute(() -> {
+            virtual[0] = Thread.currentThread().isVirtual();
+            sleep(100);
+            finished[0] = true;
+        });
+        executor.close();
+
+        // Then
+        assertTrue(virtual[0]);
+        assertTrue(finished[0]);
+        assertTrue(executor.isTerminated());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(0, executor.getQueuedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.agent.langchain.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for single-flight coalescing of identical in-flight requests.
+ */
+@DisplayName("Single Flight Tests")
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(true, meterRegistry);
+
+    @Test
+    @DisplayName("Should share one execution between identical concurrent requests")
+    public void testCoalescesIdenticalRequests() throws Exception {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> running = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<String> first = singleFlight.execute("sequential-flow",
+                SingleFlight.key("sequential-flow", "Italian", "vegan", "dinner"),
+                () -> {
+                    executions.incrementAndGet();
+                    return running;
+                });
+        CompletableFuture<String> second = singleFlight.execute("sequential-flow",
+                SingleFlight.key("sequential-flow", "  italian ", "Vegan", "dinner"),
+                () -> {
+                    executions.incrementAndGet();
+                    return CompletableFuture.completedFuture("other");
+                });
+        running.complete("recipe");
+
+        // Then
+        assertEquals("recipe", first.get());
+        assertEquals("recipe", second.get());
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+        assertEquals(1.0, meterRegistry.get("agent.coalescing.callers").tag("pattern", "sequential-flow")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Should cancel the shared execution only when its last caller cancels")
+    public void testIndependentCancellation() {
+        // Given
+        CompletableFuture<String> running = new CompletableFuture<>();
+        Object key = SingleFlight.key("loop", "AI", "casual");
+        CompletableFuture<String> first = singleFlight.execute("loop", key, () -> running);
+        CompletableFuture<String> second = singleFlight.execute("loop", key, () -> running);
+
+        // When
+        first.cancel(true);
+
+        // Then
+        assertFalse(running.isCancelled());
+        assertFalse(second.isDone());
+
+        // When
+        second.cancel(true);
+
+        // Then
+        assertTrue(running.isCancelled());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should start a new execution once the previous one completed")
+    public void testDoesNotCacheCompletedResults() throws Exception {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        Object key = SingleFlight.key("conditional-routing", "How do I budget?");
+
+        // When
+        String first = singleFlight.execute("conditional-routing", key,
+                () -> CompletableFuture.completedFuture("answer " + executions.incrementAndGet())).get();
+        String second = singleFlight.execute("conditional-routing", key,
+                () -> CompletableFuture.completedFuture("answer " + executions.incrementAndGet())).get();
+
+        // Then
+        assertEquals("answer 1", first);
+        assertEquals("answer 2", second);
+    }
+}
@@ -0,0 +1,109 @@
+package com.agent.langchain.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.agent.langchain.model.ModelRegistry.RegisteredModel;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the model registry and per-agent model assignment.
+ */
+@DisplayName("Model Registry Tests")
+public class ModelRegistryTest {
+
+    private final List<String> created = new ArrayList<>();
+
+    /**
+     * Factory of models answering with their own model name.
+     */
+    private final ModelRegistry.ModelFactory factory = new ModelRegistry.ModelFactory() {
+        @Override
+        public ChatModel chatModel(String modelName) {
+            created.add(modelName);
+            return new ChatModel() {
+                @Override
+                public ChatResponse doChat(ChatRequest chatRequest) {
+                    return ChatResponse.builder().aiMessage(AiMessage.from(modelName)).build();
+                }
+            };
+        }
+
+        @Override
+        public StreamingChatModel streamingChatModel(String modelName) {
+            return new StreamingChatModel() {
+                @Override
+                public void doChat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                    handler.onCompleteResponse(ChatResponse.builder().aiMessage(AiMessage.from(modelName)).build());
+                }
+            };
+        }
+    };
+
+    private ModelRegistry.Builder tiers() {
+        return ModelRegistry.builder()
+                .model("fast", "gemini-lite")
+                .model("strong", "gemini-pro")
+                .factory(factory);
+    }
+
+    @Test
+    @DisplayName("Should pick the agent's model, else its role's model, else the default")
+    public void testAssignment() {
+        // Given
+        ModelRegistry registry = tiers()
+                .defaultModel("strong")
+                .role(ModelRole.ROUTER, "fast")
+                .role(ModelRole.SCORER, "fast")
+                .agent("ChangeScorer", "strong")
+                .build();
+
+        // When / Then
+        assertEquals("fast", registry.forAgent("CategoryRouter", ModelRole.ROUTER).name());
+        assertEquals("fast", registry.forAgent("QualityScorer", ModelRole.SCORER).name());
+        assertEquals("strong", registry.forAgent("ChangeScorer", ModelRole.SCORER).name());
+        assertEquals("strong", registry.forAgent("ContentEditor", ModelRole.WRITER).name());
+        RegisteredModel fast = registry.forAgent("CategoryRouter", ModelRole.ROUTER);
+        assertEquals("gemini-lite", fast.modelName());
+        assertEquals("gemini-lite", fast.chatModel().chat("Classify this"));
+    }
+
+    @Test
+    @DisplayName("Should create every model once and default to the first")
+    public void testDefaults() {
+        // When
+        ModelRegistry registry = tiers().build();
+
+        // Then
+        assertEquals(List.of("gemini-lite", "gemini-pro"), created);
+        assertEquals("fast", registry.defaultModel().name());
+        assertEquals("fast", registry.forAgent("CreativeExpert", ModelRole.EXPERT).name());
+        assertEquals(List.of("fast", "strong"), registry.models().stream().map(RegisteredModel::name).toList());
+    }
+
+    @Test
+    @DisplayName("Should reject assignments to unregistered models")
+    public void testUnknownModel() {
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> tiers().role(ModelRole.WRITER, "premium").build());
+
+        // Then
+        assertTrue(error.getMessage().contains("premium"));
+        assertThrows(IllegalArgumentException.class, () -> tiers().defaultModel("premium").build());
+        assertThrows(IllegalArgumentException.class, () -> ModelRegistry.builder().factory(factory).build());
+    }
+}
@@ -0,0 +1,329 @@
+package com.agent.langchain.model.balance;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.InternalServerException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for load balancing, ejection and failover over local stub
+ * backends.
+ */
+@DisplayName("Backend Pool Tests")
+public class BackendPoolTest {
+
+    /**
+     * Clock advanced by hand, for ejection and re-admission checks.
+     */
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    /**
+     * Stub backend answering with its name after the given latency, or
+     * failing with the given failure while one is set. Streams answer with
+     * two tokens and may fail after the first one.
+     */
+    private static class StubBackend implements ChatModel {
+        final String name;
+        final long latencyMillis;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile RuntimeException failure;
+        volatile boolean failMidStream;
+
+        StubBackend(String name, long latencyMillis) {
+            this.name = name;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public ChatResponse doChat(ChatRequest chatRequest) {
+            calls.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ChatResponse.builder().aiMessage(AiMessage.from(name)).build();
+        }
+
+        StreamingChatModel streaming() {
+            return new StreamingChatModel() {
+                @Override
+                public void chat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+                    calls.incrementAndGet();
+                    if (failure != null && !failMidStream) {
+                        handler.onError(failure);
+                        return;
+                    }
+                    handler.onPartialResponse(name + " ");
+                    if (failure != null) {
+                        handler.onError(failure);
+                        return;
+                    }
+                    handler.onPartialResponse("streamed");
+                    handler.onCompleteResponse(
+                            ChatResponse.builder().aiMessage(AiMessage.from(name + " streamed")).build());
+                }
+            };
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BackendPool pool(BalancingStrategy strategy, StubBackend... backends) {
+        BackendPool.Builder pool = BackendPool.builder()
+                .modelName("gemini-test")
+                .strategy(strategy)
+                .baseEjection(Duration.ofSeconds(1))
+                .maxEjection(Duration.ofSeconds(4))
+                .clock(clock)
+                .meterRegistry(meterRegistry);
+        for (StubBackend backend : backends) {
+            pool.backend(backend.name, backend, backend.streaming());
+        }
+        return pool.build();
+    }
+
+    private double available(String backend) {
+        return meterRegistry.get("agent.backend.available").tag("backend", backend).gauge().value();
+    }
+
+    private static CompletableFuture<String> stream(StreamingChatModel model, List<String> tokens) {
+        CompletableFuture<String> answer = new CompletableFuture<>();
+        model.chat(ChatRequest.builder().messages(UserMessage.from("Hi")).build(),
+                new StreamingChatResponseHandler() {
+                    @Override
+                    public void onPartialResponse(String partialResponse) {
+                        tokens.add(partialResponse);
+                    }
+
+                    @Override
+                    public void onCompleteResponse(ChatResponse completeResponse) {
+                        answer.complete(completeResponse.aiMessage().text());
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        answer.completeExceptionally(error);
+                    }
+                });
+        return answer;
+    }
+
+    @Test
+    @DisplayName("Should send calls to the backend with the lowest latency EWMA")
+    public void testEwmaSelection() {
+        // Given
+        StubBackend slow = new StubBackend("slow", 30);
+        StubBackend fast = new StubBackend("fast", 0);
+        ChatModel model = pool(BalancingStrategy.EWMA, slow, fast).chatModel();
+
+        // When: both are measured once, then the fast one wins every call
+        model.chat("Hi");
+        model.chat("Hi");
+        for (int i = 0; i < 5; i++) {
+            assertEquals("fast", model.chat("Hi"));
+        }
+
+        // Then
+        assertEquals(1, slow.calls.get());
+        assertEquals(6, fast.calls.get());
+    }
+
+    @Test
+    @DisplayName("Should spread calls over equally loaded backends")
+    public void testLeastOutstandingSelection() {
+        // Given
+        StubBackend first = new StubBackend("first", 0);
+        StubBackend second = new StubBackend("second", 0);
+        ChatModel model = pool(BalancingStrategy.LEAST_OUTSTANDING, first, second).chatModel();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            model.chat("Hi");
+        }
+
+        // Then
+        assertEquals(5, first.calls.get());
+        assertEquals(5, second.calls.get());
+    }
+
+    @Test
+    @DisplayName("Should fail over and eject a rate limited backend")
+    public void testFailover() {
+        // Given
+        StubBackend limited = new StubBackend("limited", 0);
+        StubBackend healthy = new StubBackend("healthy", 0);
+        limited.failure = new RateLimitException("429 Too Many Requests");
+        ChatModel model = pool(BalancingStrategy.LEAST_OUTSTANDING, limited, healthy).chatModel();
+
+        // When
+        List<String> answers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            answers.add(model.chat("Hi"));
+        }
+
+        // Then
+        assertEquals(List.of("healthy", "healthy", "healthy", "healthy"), answers);
+        assertEquals(1, limited.calls.get());
+        assertEquals(0.0, available("limited"));
+        assertEquals(1.0, meterRegistry.get("agent.backend.failovers").counter().count());
+        assertEquals(1.0, meterRegistry.get("agent.backend.calls").tag("backend", "limited")
+                .tag("outcome", "ejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should re-admit an ejected backend after exponentially growing ejections")
+    public void testReadmission() {
+        // Given
+        StubBackend flaky = new StubBackend("flaky", 0);
+        StubBackend healthy = new StubBackend("healthy", 0);
+        BackendPool pool = pool(BalancingStrategy.LEAST_OUTSTANDING, flaky, healthy);
+        Backend backend = pool.select(Set.of());
+        assertEquals("flaky", backend.name());
+        InternalServerException failure = new InternalServerException("503 Service Unavailable");
+
+        // When / Then: ejected for 1s, 2s, 4s, then at most 4s
+        for (long seconds : new long[] { 1, 2, 4, 4 }) {
+            assertTrue(pool.onFailure(backend, failure));
+            clock.advance(Duration.ofSeconds(seconds).minusMillis(1));
+            assertEquals(0.0, available("flaky"));
+            clock.advance(Duration.ofMillis(1));
+            assertEquals(1.0, available("flaky"));
+        }
+
+        // A success resets the ejection
+        pool.onSuccess(backend, 1_000_000);
+        pool.onFailure(backend, failure);
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1.0, available("flaky"));
+    }
+
+    @Test
+    @DisplayName("Should not fail over on errors that are not the backend's fault")
+    public void testClientError() {
+        // Given
+        StubBackend first = new StubBackend("first", 0);
+        StubBackend second = new StubBackend("second", 0);
+        HttpException badRequest = new HttpException(400, "Invalid request");
+        first.failure = badRequest;
+        second.failure = badRequest;
+        ChatModel model = pool(BalancingStrategy.LEAST_OUTSTANDING, first, second).chatModel();
+
+        // When
+        HttpException error = assertThrows(HttpException.class, () -> model.chat("Hi"));
+
+        // Then
+        assertSame(badRequest, error);
+        assertEquals(1, first.calls.get() + second.calls.get());
+        assertEquals(1.0, available("first"));
+        assertEquals(1.0, available("second"));
+    }
+
+    @Test
+    @DisplayName("Should try every backend once before failing")
+    public void testAllBackendsFail() {
+        // Given
+        StubBackend first = new StubBackend("first", 0);
+        StubBackend second = new StubBackend("second", 0);
+        first.failure = new HttpException(502, "Bad Gateway");
+        second.failure = new HttpException(503, "Service Unavailable");
+        ChatModel model = pool(BalancingStrategy.EWMA, first, second).chatModel();
+
+        // When
+        assertThrows(HttpException.class, () -> model.chat("Hi"));
+
+        // Then
+        assertEquals(1, first.calls.get());
+        assertEquals(1, second.calls.get());
+
+        // Once both are ejected, the one re-admitted first is still tried
+        second.failure = null;
+        assertEquals("second", model.chat("Hi"));
+    }
+
+    @Test
+    @DisplayName("Should fail a stream over only before its first token")
+    public void testStreamingFailover() {
+        // Given
+        StubBackend failing = new StubBackend("failing", 0);
+        StubBackend healthy = new StubBackend("healthy", 0);
+        failing.failure = new RateLimitException("429 Too Many Requests");
+        StreamingChatModel model = pool(BalancingStrategy.LEAST_OUTSTANDING, failing, healthy)
+                .streamingChatModel();
+
+        // When
+        List<String> tokens = new ArrayList<>();
+        String answer = stream(model, tokens).join();
+
+        // Then
+        assertEquals("healthy streamed", answer);
+        assertEquals(List.of("healthy ", "streamed"), tokens);
+
+        // Given every backend fails after its first token
+        clock.advance(Duration.ofSeconds(10));
+        for (StubBackend backend : List.of(failing, healthy)) {
+            backend.failure = new InternalServerException("500 Internal Server Error");
+            backend.failMidStream = true;
+        }
+
+        // When
+        List<String> partial = new ArrayList<>();
+        CompletableFuture<String> failed = stream(model, partial);
+
+        // Then
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(1, partial.size());
+        assertEquals(3, failing.calls.get() + healthy.calls.get());
+    }
+}
@@ -0,0 +1,157 @@
+package com.agent.langchain.model.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the two-tier chat response cache and its ChatModel decorator.
+ */
+@DisplayName("Chat Response Cache Tests")
+public class CachingChatModelTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Stub model that answers with a counter so cache hits are observable.
+     */
+    private static class CountingChatModel implements ChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ChatResponse doChat(ChatRequest chatRequest) {
+            int call = calls.incrementAndGet();
+            return ChatResponse.builder()
+                    .aiMessage(AiMessage.from("answer " + call))
+                    .finishReason(FinishReason.STOP)
+                    .build();
+        }
+    }
+
+    private ChatResponseCache cache(Path diskPath, long heapBytes) throws Exception {
+        return ChatResponseCache.builder()
+                .heapMaxBytes(heapBytes)
+                .diskPath(diskPath)
+                .diskMaxBytes(64 * 1024)
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should serve identical prompts from cache")
+    public void testIdenticalPromptIsServedFromCache() throws Exception {
+        // Given
+        CountingChatModel model = new CountingChatModel();
+        try (ChatResponseCache cache = cache(null, 1024 * 1024)) {
+            CachingChatModel cachingModel = new CachingChatModel(model, cache);
+
+            // When
+            String first = cachingModel.chat("What is a budget?");
+            String second = cachingModel.chat("What is a budget?");
+            String other = cachingModel.chat("What is a stock?");
+
+            // Then
+            assertEquals("answer 1", first);
+            assertEquals("answer 1", second);
+            assertEquals("answer 2", other);
+            assertEquals(2, model.calls.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should survive a restart through the disk tier")
+    public void testDiskTierSurvivesRestart() throws Exception {
+        // Given
+        Path diskPath = tempDir.resolve("cache.log");
+        CountingChatModel model = new CountingChatModel();
+        try (ChatResponseCache cache = cache(diskPath, 1024 * 1024)) {
+            new CachingChatModel(model, cache).chat("Persist me");
+        }
+
+        // When
+        try (ChatResponseCache reopened = cache(diskPath, 1024 * 1024)) {
+            String answer = new CachingChatModel(model, reopened).chat("Persist me");
+
+            // Then
+            assertEquals("answer 1", answer);
+            assertEquals(1, model.calls.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries when the heap byte bound is exceeded")
+    public void testHeapTierEvictsByBytes() {
+        // Given
+        HeapCacheTier tier = new HeapCacheTier(600, Duration.ofHours(1));
+        CachedResponse response = new CachedResponse("x".repeat(100), null, null, 0);
+
+        // When
+        tier.put("a", response);
+        tier.put("b", response);
+        tier.get("a");
+        int evicted = tier.put("c", response);
+
+        // Then
+        assertEquals(1, evicted);
+        assertNotNull(tier.get("a"));
+        assertNull(tier.get("b"));
+        assertTrue(tier.sizeBytes() <= 600);
+    }
+
+    @Test
+    @DisplayName("Should compact the disk tier instead of growing past its byte bound")
+    public void testDiskTierCompactsWhenFull() throws Exception {
+        // Given
+        try (DiskCacheTier tier = new DiskCacheTier(tempDir.resolve("small.log"), 4096, Duration.ofHours(1))) {
+            CachedResponse response = new CachedResponse("y".repeat(200), null, null, 0);
+
+            // When
+            int evicted = 0;
+            for (int i = 0; i < 50; i++) {
+                evicted += tier.put("key-" + i, response);
+            }
+
+            // Then
+            assertTrue(evicted > 0);
+            assertTrue(tier.sizeBytes() <= 4096);
+            assertNotNull(tier.get("key-49"));
+            assertNull(tier.get("key-0"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should honour per-agent include and exclude lists")
+    public void testPerAgentOptInOptOut() throws Exception {
+        try (ChatResponseCache cache = ChatResponseCache.builder()
+                .excludedAgents(Set.of("ContentCreator"))
+                .build()) {
+            assertTrue(cache.isEnabledFor("CategoryRouter"));
+            assertFalse(cache.isEnabledFor("ContentCreator"));
+        }
+        try (ChatResponseCache cache = ChatResponseCache.builder()
+                .includedAgents(Set.of("FinancialAdvisor"))
+                .build()) {
+            assertTrue(cache.isEnabledFor("FinancialAdvisor"));
+            assertFalse(cache.isEnabledFor("CreativeExpert"));
+        }
+    }
+}
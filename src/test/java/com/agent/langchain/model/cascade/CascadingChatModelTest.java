@@ -0,0 +1,257 @@
+package com.agent.langchain.model.cascade;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.agent.langchain.exception.ConcurrencyLimitExceededException;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for cascaded model requests, their escalation checks and
+ * shadow evaluation.
+ */
+@DisplayName("Cascading Chat Model Tests")
+public class CascadingChatModelTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stub model answering its n-th call (1-based) with the scripted text; a
+     * null text fails the call instead.
+     */
+    private static class ScriptedChatModel implements ChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+        final IntFunction<String> answers;
+
+        ScriptedChatModel(IntFunction<String> answers) {
+            this.answers = answers;
+        }
+
+        @Override
+        public ChatResponse doChat(ChatRequest chatRequest) {
+            int call = calls.incrementAndGet();
+            String answer = answers.apply(call);
+            if (answer == null) {
+                throw new IllegalStateException("call " + call + " failed");
+            }
+            return ChatResponse.builder().aiMessage(AiMessage.from(answer)).build();
+        }
+    }
+
+    /**
+     * Check model rating the answers of the first tier with firstScore and
+     * all others with 0.9.
+     */
+    private static ChatModel checkModel(String firstScore) {
+        return new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                String prompt = ((UserMessage) chatRequest.messages().getLast()).singleText();
+                String score = prompt.contains("answer is: 'small answer'") ? firstScore : "0.9";
+                return ChatResponse.builder().aiMessage(AiMessage.from(score)).build();
+            }
+        };
+    }
+
+    private CascadePolicy.Builder policy() {
+        return CascadePolicy.builder()
+                .agents(Set.of("CreativeExpert"))
+                .executor(executor)
+                .meterRegistry(meterRegistry);
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry.get("agent.cascade.requests").tag("agent", "CreativeExpert").tag("outcome", outcome)
+                .counter().count();
+    }
+
+    private long tierCalls(String tier) {
+        return meterRegistry.get("agent.cascade.tier.duration").tag("agent", "CreativeExpert").tag("tier", tier)
+                .timer().count();
+    }
+
+    @Test
+    @DisplayName("Should keep a confident first-tier answer")
+    public void testAccepted() {
+        // Given
+        ScriptedChatModel small = new ScriptedChatModel(call -> "small answer");
+        ScriptedChatModel large = new ScriptedChatModel(call -> "large answer");
+        CascadingChatModel model = new CascadingChatModel(large, small, checkModel("0.8"), policy().build(),
+                "CreativeExpert");
+
+        // When
+        String answer = model.chat("Name a color");
+
+        // Then
+        assertEquals("small answer", answer);
+        assertEquals(0, large.calls.get());
+        assertEquals(1.0, requests("accepted"));
+        assertEquals(0.0, requests("escalated"));
+        assertEquals(1, tierCalls("first"));
+        assertEquals(1, tierCalls("check"));
+        assertEquals(0, tierCalls("escalation"));
+    }
+
+    @Test
+    @DisplayName("Should escalate when the check model is not confident")
+    public void testEscalatedOnLowConfidence() {
+        // Given
+        ScriptedChatModel small = new ScriptedChatModel(call -> "small answer");
+        ScriptedChatModel large = new ScriptedChatModel(call -> "large answer");
+        CascadingChatModel model = new CascadingChatModel(large, small, checkModel("Confidence: 0.4"),
+                policy().build(), "CreativeExpert");
+
+        // When
+        String answer = model.chat("Design a logo for a bakery");
+
+        // Then
+        assertEquals("large answer", answer);
+        assertEquals(1, large.calls.get());
+        assertEquals(1.0, requests("escalated"));
+        assertEquals(1, tierCalls("escalation"));
+    }
+
+    @Test
+    @DisplayName("Should escalate when the first tier fails")
+    public void testEscalatedOnFailure() {
+        // Given
+        ScriptedChatModel small = new ScriptedChatModel(call -> null);
+        ScriptedChatModel large = new ScriptedChatModel(call -> "large answer");
+        CascadingChatModel model = new CascadingChatModel(large, small, checkModel("0.8"), policy().build(),
+                "CreativeExpert");
+
+        // When
+        String answer = model.chat("Name a color");
+
+        // Then
+        assertEquals("large answer", answer);
+        assertEquals(1.0, requests("escalated"));
+    }
+
+    @Test
+    @DisplayName("Should pass on overload and interrupts of the first tier without escalating")
+    public void testNotEscalatedOnOverloadOrInterrupt() {
+        // Given
+        ChatModel overloaded = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                throw new ConcurrencyLimitExceededException(4, Duration.ofSeconds(1));
+            }
+        };
+        ChatModel interrupted = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                throw new IllegalStateException("Interrupted while waiting for a model call slot",
+                        new InterruptedException());
+            }
+        };
+        ScriptedChatModel large = new ScriptedChatModel(call -> "large answer");
+        CascadingChatModel overloadedModel = new CascadingChatModel(large, overloaded, checkModel("0.8"),
+                policy().build(), "CreativeExpert");
+        CascadingChatModel interruptedModel = new CascadingChatModel(large, interrupted, checkModel("0.8"),
+                policy().build(), "CreativeExpert");
+
+        // When / Then
+        assertThrows(ConcurrencyLimitExceededException.class, () -> overloadedModel.chat("Name a color"));
+        assertThrows(IllegalStateException.class, () -> interruptedModel.chat("Name a color"));
+        assertEquals(0, large.calls.get());
+        assertEquals(0.0, requests("escalated"));
+    }
+
+    @Test
+    @DisplayName("Should escalate when two first-tier answers disagree")
+    public void testSelfConsistency() {
+        // Given
+        ScriptedChatModel small = new ScriptedChatModel(
+                call -> call <= 3 ? "use warm colors" : "try a serif typeface");
+        ScriptedChatModel large = new ScriptedChatModel(call -> "large answer");
+        CascadingChatModel model = new CascadingChatModel(large, small, checkModel("0.0"),
+                policy().check(CascadeCheck.SELF_CONSISTENCY).build(), "CreativeExpert");
+
+        // When
+        String agreed = model.chat("Which colors suit a bakery?");
+        String disagreed = model.chat("Which colors suit a bakery?");
+
+        // Then
+        assertEquals("use warm colors", agreed);
+        assertEquals("large answer", disagreed);
+        assertEquals(4, small.calls.get());
+        assertEquals(1.0, requests("accepted"));
+        assertEquals(1.0, requests("escalated"));
+    }
+
+    @Test
+    @DisplayName("Should score both tiers of shadow-evaluated answers")
+    public void testShadowEvaluation() throws InterruptedException {
+        // Given
+        ScriptedChatModel small = new ScriptedChatModel(call -> "small answer");
+        ScriptedChatModel large = new ScriptedChatModel(call -> "large answer");
+        CascadingChatModel model = new CascadingChatModel(large, small, checkModel("0.75"),
+                policy().shadowRate(1.0).build(), "CreativeExpert");
+
+        // When
+        String answer = model.chat("Name a color");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals("small answer", answer);
+        assertEquals(1, large.calls.get());
+        assertEquals(0.15, model.meanQualityDelta(), 1e-9);
+        assertEquals(0.15, meterRegistry.get("agent.cascade.shadow.quality.delta").gauge().value(), 1e-9);
+        assertEquals(0.9, meterRegistry.get("agent.cascade.shadow.score").tag("tier", "escalation").summary()
+                .totalAmount(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should keep the answer when the shadow evaluation is rejected")
+    public void testShadowRejected() {
+        // Given: an executor that no longer takes tasks
+        executor.shutdown();
+        ScriptedChatModel small = new ScriptedChatModel(call -> "small answer");
+        ScriptedChatModel large = new ScriptedChatModel(call -> "large answer");
+        CascadingChatModel model = new CascadingChatModel(large, small, checkModel("0.75"),
+                policy().shadowRate(1.0).build(), "CreativeExpert");
+
+        // When
+        String answer = model.chat("Name a color");
+
+        // Then
+        assertEquals("small answer", answer);
+        assertEquals(0, large.calls.get());
+        assertEquals(1.0, requests("accepted"));
+    }
+
+    @Test
+    @DisplayName("Should measure answer agreement by shared words")
+    public void testAgreement() {
+        assertEquals(1.0, CascadingChatModel.agreement("Use warm colors.", "use WARM colors"));
+        assertEquals(1.0 / 3, CascadingChatModel.agreement("warm colors", "warm tones"), 1e-9);
+        assertEquals(0.0, CascadingChatModel.agreement("warm", ""));
+    }
+}
@@ -0,0 +1,295 @@
+package com.agent.langchain.model.hedge;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for hedged model requests, their delay and their budget.
+ */
+@DisplayName("Hedging Chat Model Tests")
+public class HedgingChatModelTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stub model whose n-th call (1-based) sleeps for the scripted latency and
+     * answers "answer n"; a negative latency fails the call instead.
+     */
+    private static class ScriptedChatModel implements ChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger interrupted = new AtomicInteger();
+        final IntFunction<Long> latencyMillis;
+
+        ScriptedChatModel(IntFunction<Long> latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public ChatResponse doChat(ChatRequest chatRequest) {
+            int call = calls.incrementAndGet();
+            long latency = latencyMillis.apply(call);
+            if (latency < 0) {
+                throw new IllegalStateException("call " + call + " failed");
+            }
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("call " + call + " cancelled");
+            }
+            return ChatResponse.builder()
+                    .aiMessage(AiMessage.from("answer " + call))
+                    .finishReason(FinishReason.STOP)
+                    .build();
+        }
+    }
+
+    private HedgePolicy.Builder policy() {
+        return HedgePolicy.builder()
+                .agents(Set.of("MarketAnalyzer"))
+                .minDelay(Duration.ofMillis(20))
+                .minSamples(3)
+                .windowSize(10)
+                .executor(executor)
+                .meterRegistry(meterRegistry);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("agent", "MarketAnalyzer").counter().count();
+    }
+
+    @Test
+    @DisplayName("Should answer with the hedge when the original call is slow")
+    public void testHedgeWinsOverSlowCall() {
+        // Given: three fast calls warm up the latency window, then one call stalls
+        ScriptedChatModel model = new ScriptedChatModel(call -> call == 4 ? 5_000L : 5L);
+        HedgingChatModel hedging = new HedgingChatModel(model, policy().build(), "MarketAnalyzer");
+        for (int i = 0; i < 3; i++) {
+            hedging.chat("warm up");
+        }
+
+        // When
+        long start = System.nanoTime();
+        String answer = hedging.chat("Analyze the market");
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertEquals("answer 5", answer);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "Should not wait for the stalled call");
+        assertEquals(1.0, counter("agent.hedge.fired"));
+        assertEquals(1.0, counter("agent.hedge.won"));
+    }
+
+    @Test
+    @DisplayName("Should record the running time of a cancelled original call")
+    public void testCancelledCallIsRecorded() {
+        // Given
+        ScriptedChatModel model = new ScriptedChatModel(call -> call == 4 ? 5_000L : 5L);
+        HedgingChatModel hedging = new HedgingChatModel(model, policy().build(), "MarketAnalyzer");
+        for (int i = 0; i < 3; i++) {
+            hedging.chat("warm up");
+        }
+
+        // When
+        hedging.chat("Analyze the market");
+
+        // Then: one sample for the request, at least the hedge delay, instead of the hedge's own latency
+        assertEquals(4, hedging.latencies().size());
+        assertTrue(hedging.latencies().percentile(1.0).compareTo(Duration.ofMillis(20)) >= 0);
+    }
+
+    @Test
+    @DisplayName("Should cancel the losing call")
+    public void testLoserIsCancelled() throws Exception {
+        // Given
+        ScriptedChatModel model = new ScriptedChatModel(call -> call == 4 ? 5_000L : 5L);
+        HedgingChatModel hedging = new HedgingChatModel(model, policy().build(), "MarketAnalyzer");
+        for (int i = 0; i < 3; i++) {
+            hedging.chat("warm up");
+        }
+
+        // When
+        hedging.chat("Analyze the market");
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (model.interrupted.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, model.interrupted.get());
+    }
+
+    @Test
+    @DisplayName("Should not hedge before enough latencies are known")
+    public void testNoHedgeDuringWarmUp() {
+        // Given
+        ScriptedChatModel model = new ScriptedChatModel(call -> 50L);
+        HedgingChatModel hedging = new HedgingChatModel(model, policy().build(), "MarketAnalyzer");
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            hedging.chat("warm up");
+        }
+
+        // Then
+        assertEquals(3, model.calls.get());
+        assertEquals(0.0, counter("agent.hedge.fired"));
+    }
+
+    @Test
+    @DisplayName("Should not hedge once the budget is spent")
+    public void testBudgetLimitsHedges() {
+        // Given: a budget of a single hedge that is never credited again, and a
+        // median-based delay that the slow calls do not raise
+        ScriptedChatModel model = new ScriptedChatModel(call -> call <= 3 ? 5L : 150L);
+        HedgingChatModel hedging = new HedgingChatModel(model,
+                policy().percentile(0.5).budgetRatio(0.0).budgetBurst(1).build(), "MarketAnalyzer");
+        for (int i = 0; i < 3; i++) {
+            hedging.chat("warm up");
+        }
+
+        // When
+        hedging.chat("first slow call");
+        int callsAfterFirst = model.calls.get();
+        hedging.chat("second slow call");
+
+        // Then
+        assertEquals(5, callsAfterFirst);
+        assertEquals(6, model.calls.get());
+        assertEquals(1.0, counter("agent.hedge.fired"));
+        assertEquals(1.0, counter("agent.hedge.denied"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the other call when one fails")
+    public void testFailedCallFallsBackToOther() {
+        // Given: the original call is slow and the hedge fails
+        ScriptedChatModel model = new ScriptedChatModel(call -> switch (call) {
+            case 4 -> 150L;
+            case 5 -> -1L;
+            default -> 5L;
+        });
+        HedgingChatModel hedging = new HedgingChatModel(model, policy().build(), "MarketAnalyzer");
+        for (int i = 0; i < 3; i++) {
+            hedging.chat("warm up");
+        }
+
+        // When
+        String answer = hedging.chat("Analyze the market");
+
+        // Then
+        assertEquals("answer 4", answer);
+        assertEquals(0.0, counter("agent.hedge.won"));
+    }
+
+    @Test
+    @DisplayName("Should fail when the only call fails")
+    public void testFailureWithoutHedge() {
+        // Given
+        ScriptedChatModel model = new ScriptedChatModel(call -> call == 4 ? -1L : 5L);
+        HedgingChatModel hedging = new HedgingChatModel(model, policy().build(), "MarketAnalyzer");
+        for (int i = 0; i < 3; i++) {
+            hedging.chat("warm up");
+        }
+
+        // When / Then
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> hedging.chat("Analyze the market"));
+        assertEquals("call 4 failed", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should hedge only the configured agents")
+    public void testPolicyAgents() {
+        // Given
+        HedgePolicy policy = policy().build();
+        HedgePolicy disabled = policy().enabled(false).build();
+
+        // When / Then
+        assertTrue(policy.isEnabledFor("MarketAnalyzer"));
+        assertFalse(policy.isEnabledFor("ContentEditor"));
+        assertFalse(disabled.isEnabledFor("MarketAnalyzer"));
+    }
+
+    @Test
+    @DisplayName("Should derive the hedge delay from the latency percentile")
+    public void testDelayFromPercentile() {
+        // Given
+        HedgePolicy policy = policy().percentile(0.9).build();
+        LatencyWindow window = policy.newWindow();
+        assertNull(policy.delayFor(window));
+
+        // When
+        for (int i = 1; i <= 10; i++) {
+            window.record(Duration.ofMillis(i * 10L));
+        }
+
+        // Then
+        assertEquals(Duration.ofMillis(90), policy.delayFor(window));
+        assertEquals(Duration.ofMillis(100), window.percentile(0.99));
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent latencies")
+    public void testLatencyWindowRollsOver() {
+        // Given
+        LatencyWindow window = new LatencyWindow(3);
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            window.record(Duration.ofMillis(i));
+        }
+
+        // Then
+        assertEquals(3, window.size());
+        assertEquals(Duration.ofMillis(3), window.percentile(0.01));
+        assertEquals(Duration.ofMillis(5), window.percentile(1.0));
+    }
+
+    @Test
+    @DisplayName("Should refill the hedge budget per request")
+    public void testHedgeBudget() {
+        // Given
+        HedgeBudget budget = new HedgeBudget(0.5, 1);
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+
+        // When
+        budget.onRequest();
+        boolean afterOne = budget.tryAcquire();
+        budget.onRequest();
+        budget.onRequest();
+
+        // Then
+        assertFalse(afterOne);
+        assertTrue(budget.tryAcquire());
+    }
+}
@@ -0,0 +1,129 @@
+package com.agent.langchain.model.limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.agent.langchain.exception.BulkheadFullException;
+import com.agent.langchain.exception.ConcurrencyLimitExceededException;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the adaptive model concurrency limiter and the per-pattern
+ * bulkheads.
+ */
+@DisplayName("Adaptive Concurrency Limiter Tests")
+public class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return AdaptiveConcurrencyLimiter.builder()
+                .initialLimit(initialLimit)
+                .minLimit(1)
+                .maxLimit(100)
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while the limit is in use and latency is stable")
+    public void testLimitGrowsUnderSteadyLatency() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+
+        // When
+        for (int round = 0; round < 20; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                permits.add(limiter.tryAcquire(Duration.ZERO));
+            }
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::onSuccess);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() > 4, "limit was " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should back off when the backend signals overload")
+    public void testLimitBacksOffOnDrops() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        ChatModel model = new ConcurrencyLimitedChatModel(new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                throw new RateLimitException("quota exceeded");
+            }
+        }, limiter, Duration.ZERO);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RateLimitException.class, () -> model.chat("hello"));
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() < 20, "limit was " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should reject model calls fast once the limit is reached")
+    public void testRejectsWhenLimitReached() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        ChatModel model = new ConcurrencyLimitedChatModel(new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                return ChatResponse.builder().aiMessage(AiMessage.from("ok")).build();
+            }
+        }, limiter, Duration.ofMillis(20));
+        AdaptiveConcurrencyLimiter.Permit held = limiter.tryAcquire(Duration.ZERO);
+
+        // When
+        ConcurrencyLimitExceededException rejected = assertThrows(ConcurrencyLimitExceededException.class,
+                () -> model.chat("hello"));
+        assertNull(limiter.tryAcquire(Duration.ZERO));
+        held.onSuccess();
+
+        // Then
+        assertEquals(503, rejected.getStatus());
+        assertTrue(rejected.getRetryAfter().toSeconds() >= 1);
+        assertEquals("ok", model.chat("hello"));
+    }
+
+    @Test
+    @DisplayName("Should isolate patterns in their own bulkheads")
+    public void testBulkheadsIsolatePatterns() {
+        // Given
+        PatternBulkheads bulkheads = new PatternBulkheads(Map.of("loop", 1, "conditional-routing", 2), 4,
+                Duration.ofSeconds(3), new SimpleMeterRegistry());
+
+        // When
+        PatternBulkheads.Permit loop = bulkheads.acquire("loop");
+        BulkheadFullException rejected = assertThrows(BulkheadFullException.class, () -> bulkheads.acquire("loop"));
+        PatternBulkheads.Permit routing = bulkheads.acquire("conditional-routing");
+
+        // Then
+        assertEquals(429, rejected.getStatus());
+        assertEquals(Duration.ofSeconds(3), rejected.getRetryAfter());
+        assertEquals(1, bulkheads.active("conditional-routing"));
+        loop.close();
+        routing.close();
+        assertEquals(0, bulkheads.active("loop"));
+        bulkheads.acquire("loop").close();
+    }
+}
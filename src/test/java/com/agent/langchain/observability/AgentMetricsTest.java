@@ -0,0 +1,117 @@
+package com.agent.langchain.observability;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.CategoryRouter;
+import com.agent.langchain.patterns.HumanInLoopPattern.InterviewCoach;
+
+import dev.langchain4j.agentic.Agent;
+import dev.langchain4j.agentic.AgenticServices;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the shared agent instrumentation.
+ */
+@DisplayName("Agent Metrics Tests")
+public class AgentMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AgentMetrics metrics = new AgentMetrics(meterRegistry);
+
+    public interface Summarizer {
+        @UserMessage("Summarize {{text}}")
+        @Agent(value = "Summarizes text", outputKey = "summary")
+        String summarize(@V("text") String text);
+    }
+
+    public interface Pipeline {
+        @Agent("Runs the summarizer")
+        String run(@V("text") String text);
+    }
+
+    private static ChatModel answering(String text) {
+        return new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                return ChatResponse.builder()
+                        .aiMessage(AiMessage.from(text))
+                        .tokenUsage(new TokenUsage(12, 3))
+                        .build();
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should derive the pattern tag from the declaring pattern class")
+    public void testPatternOf() {
+        assertEquals("conditional-routing", AgentMetrics.patternOf(CategoryRouter.class));
+        assertEquals("human-in-loop", AgentMetrics.patternOf(InterviewCoach.class));
+        assertEquals("none", AgentMetrics.patternOf(String.class));
+    }
+
+    @Test
+    @DisplayName("Should record model call latency, outcome and token usage per agent")
+    public void testModelCallMetrics() {
+        // Given
+        ChatModel ok = new MeteredChatModel(answering("fine"), metrics, "loop", "QualityScorer");
+        ChatModel failing = new MeteredChatModel(new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                throw new IllegalStateException("backend down");
+            }
+        }, metrics, "loop", "QualityScorer");
+
+        // When
+        ok.chat("score this");
+        ok.chat("score that");
+        assertThrows(IllegalStateException.class, () -> failing.chat("score again"));
+
+        // Then
+        Timer success = meterRegistry.get("agent.model.call.duration")
+                .tags("pattern", "loop", "agent", "QualityScorer", "outcome", "success").timer();
+        Timer error = meterRegistry.get("agent.model.call.duration")
+                .tags("pattern", "loop", "agent", "QualityScorer", "outcome", "error").timer();
+        assertEquals(2, success.count());
+        assertEquals(1, error.count());
+        assertEquals(24.0, meterRegistry.get("agent.tokens").tag("type", "prompt").counter().count());
+        assertEquals(6.0, meterRegistry.get("agent.tokens").tag("type", "completion").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should time agent invocations inside a workflow")
+    public void testInvocationHooks() {
+        // Given
+        Summarizer summarizer = AgenticServices.agentBuilder(Summarizer.class)
+                .chatModel(answering("short"))
+                .beforeAgentInvocation(metrics.beforeInvocation("test"))
+                .afterAgentInvocation(metrics.afterInvocation("test"))
+                .build();
+        Pipeline pipeline = AgenticServices.sequenceBuilder(Pipeline.class)
+                .subAgents(summarizer)
+                .outputKey("summary")
+                .build();
+
+        // When
+        String summary = pipeline.run("a long text");
+
+        // Then
+        assertEquals("short", summary);
+        Timer invocations = meterRegistry.get("agent.invocation.duration")
+                .tags("pattern", "test", "agent", "Summarizer", "outcome", "success").timer();
+        assertEquals(1, invocations.count());
+        assertTrue(invocations.totalTime(java.util.concurrent.TimeUnit.NANOSECONDS) > 0);
+    }
+}
@@ -0,0 +1,223 @@
+package com.agent.langchain.observability;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.agent.langchain.model.balance.BackendPool;
+import com.agent.langchain.model.balance.BalancingStrategy;
+
+import dev.langchain4j.agentic.Agent;
+import dev.langchain4j.agentic.AgenticServices;
+import dev.langchain4j.agentic.UntypedAgent;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for agent execution traces.
+ */
+@DisplayName("Agent Tracer Tests")
+public class AgentTracerTest {
+
+    private final AgentTracer tracer = new AgentTracer(true, 3, 100, List.of());
+
+    public interface Summarizer {
+        @UserMessage("Summarize {{text}}")
+        @Agent(value = "Summarizes text", outputKey = "summary")
+        String summarize(@V("text") String text);
+    }
+
+    public interface Translator {
+        @UserMessage("Translate {{summary}}")
+        @Agent(value = "Translates the summary", outputKey = "translation")
+        String translate(@V("summary") String summary);
+    }
+
+    public interface Pipeline {
+        @Agent("Summarizes and translates")
+        String run(@V("text") String text);
+    }
+
+    private ChatModel answering(String agentName, String text) {
+        return new TracingChatModel(new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                return ChatResponse.builder()
+                        .aiMessage(AiMessage.from(text))
+                        .tokenUsage(new TokenUsage(12, 3))
+                        .build();
+            }
+        }, tracer, agentName);
+    }
+
+    private Pipeline pipeline() {
+        Summarizer summarizer = AgenticServices.agentBuilder(Summarizer.class)
+                .chatModel(answering("Summarizer", "short"))
+                .beforeAgentInvocation(tracer.beforeInvocation())
+                .afterAgentInvocation(tracer.afterInvocation())
+                .build();
+        Translator translator = AgenticServices.agentBuilder(Translator.class)
+                .chatModel(answering("Translator", "kurz"))
+                .beforeAgentInvocation(tracer.beforeInvocation())
+                .afterAgentInvocation(tracer.afterInvocation())
+                .build();
+        UntypedAgent steps = AgenticServices.sequenceBuilder()
+                .subAgents(summarizer, translator)
+                .outputKey("translation")
+                .beforeAgentInvocation(tracer.beforeInvocation())
+                .afterAgentInvocation(tracer.afterInvocation())
+                .build();
+        return AgenticServices.sequenceBuilder(Pipeline.class)
+                .beforeCall(tracer.attachToScope())
+                .subAgents(steps)
+                .outputKey("translation")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should record workflow, agent and model spans as a tree")
+    public void testSpanTree() {
+        // Given
+        Pipeline pipeline = pipeline();
+
+        // When
+        String result = tracer.trace("test", () -> pipeline.run("a long text"));
+
+        // Then
+        assertEquals("kurz", result);
+        AgentTrace trace = tracer.recentTraces().get(0);
+        TraceSpan root = trace.getRoot();
+        assertEquals(TraceSpan.Status.OK, root.getStatus());
+        assertEquals(1, root.getChildren().size());
+
+        TraceSpan workflow = root.getChildren().get(0);
+        assertEquals(TraceSpan.Kind.WORKFLOW, workflow.getKind());
+        assertEquals(List.of("Summarizer", "Translator"),
+                workflow.getChildren().stream().map(TraceSpan::getName).toList());
+
+        TraceSpan summarizer = workflow.getChildren().get(0);
+        assertEquals(TraceSpan.Kind.AGENT, summarizer.getKind());
+        assertEquals(11, summarizer.getAttributes().get("input.chars"));
+        assertEquals(5, summarizer.getAttributes().get("output.chars"));
+
+        TraceSpan modelCall = summarizer.getChildren().get(0);
+        assertEquals(TraceSpan.Kind.MODEL, modelCall.getKind());
+        assertEquals(12, modelCall.getAttributes().get("tokens.prompt"));
+        assertEquals(3, modelCall.getAttributes().get("tokens.completion"));
+        assertTrue(modelCall.getStartOffsetNanos() >= summarizer.getStartOffsetNanos());
+        assertEquals(6, trace.getSpanCount());
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent traces and record failures")
+    public void testRingBuffer() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            int run = i;
+            tracer.trace("run-" + run, () -> tracer.inSpan("step", () -> run));
+        }
+        assertThrows(IllegalStateException.class, () -> tracer.trace("failing", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Then
+        List<AgentTrace> traces = tracer.recentTraces();
+        assertEquals(List.of("failing", "run-4", "run-3"), traces.stream().map(AgentTrace::getPattern).toList());
+        assertEquals(TraceSpan.Status.ERROR, traces.get(0).getRoot().getStatus());
+        assertEquals("boom", traces.get(0).getRoot().getError());
+        assertEquals("step", traces.get(1).getRoot().getChildren().get(0).getName());
+        assertTrue(tracer.findTrace(traces.get(2).getTraceId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should export each trace as one OTLP/JSON line")
+    public void testOtlpExport(@TempDir Path dir) throws Exception {
+        // Given
+        Path file = dir.resolve("traces.jsonl");
+        AgentTracer exporting = new AgentTracer(true, 3, 100, List.of(new OtlpJsonFileExporter(file, 1024 * 1024)));
+
+        // When
+        exporting.trace("loop", () -> exporting.inSpan("HumanFeedback", () -> "ok"));
+        exporting.trace("loop", () -> "again");
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        String line = lines.get(0);
+        AgentTrace trace = exporting.recentTraces().get(1);
+        assertTrue(line.startsWith("{\"resourceSpans\":[{\"resource\":"));
+        assertTrue(line.contains("\"traceId\":\"" + trace.getTraceId() + "\""));
+        assertTrue(line.contains("\"parentSpanId\":\"" + trace.getRoot().getSpanId() + "\""));
+        assertTrue(line.contains("\"name\":\"HumanFeedback\""));
+        assertTrue(line.contains("{\"key\":\"output.chars\",\"value\":{\"intValue\":\"2\"}}"));
+        assertTrue(line.contains("\"status\":{\"code\":1}"));
+    }
+
+    @Test
+    @DisplayName("Should count retries below a model call on its span")
+    public void testRetries() {
+        // Given: a model that retries its request once
+        ChatModel model = new TracingChatModel(new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                AgentTracer.recordRetry();
+                return ChatResponse.builder().aiMessage(AiMessage.from("ok")).build();
+            }
+        }, tracer, "Summarizer");
+
+        // When
+        tracer.trace("retry", () -> tracer.inSpan("step", () -> model.chat("Hi")));
+
+        // Then: the retry is on the model call, not on the enclosing step
+        TraceSpan step = tracer.recentTraces().get(0).getRoot().getChildren().get(0);
+        assertEquals(0, step.getRetries());
+        assertEquals(1, step.getChildren().get(0).getRetries());
+        assertEquals(TraceSpan.Kind.MODEL, step.getChildren().get(0).getKind());
+    }
+
+    @Test
+    @DisplayName("Should count backend failovers as retries of the model call span")
+    public void testFailoverRetries() {
+        // Given: a pool whose first backend is rate limited
+        ChatModel limited = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                throw new RateLimitException("429 Too Many Requests");
+            }
+        };
+        ChatModel healthy = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest chatRequest) {
+                return ChatResponse.builder().aiMessage(AiMessage.from("ok")).build();
+            }
+        };
+        ChatModel model = new TracingChatModel(BackendPool.builder()
+                .strategy(BalancingStrategy.LEAST_OUTSTANDING)
+                .backend("limited", limited, null)
+                .backend("healthy", healthy, null)
+                .build()
+                .chatModel(), tracer, "Summarizer");
+
+        // When: each backend is picked first once
+        tracer.trace("failover", () -> model.chat("Hi") + model.chat("Hi"));
+
+        // Then
+        List<TraceSpan> modelCalls = tracer.recentTraces().get(0).getRoot().getChildren();
+        assertEquals(2, modelCalls.size());
+        assertEquals(1, modelCalls.stream().mapToInt(TraceSpan::getRetries).sum());
+    }
+}
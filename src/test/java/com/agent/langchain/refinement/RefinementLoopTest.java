@@ -0,0 +1,404 @@
+package com.agent.langchain.refinement;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.agent.langchain.checkpoint.CheckpointStore;
+import com.agent.langchain.model.limit.AdaptiveConcurrencyLimiter;
+import com.agent.langchain.observability.AgentInstrumentation;
+import com.agent.langchain.observability.AgentMetrics;
+import com.agent.langchain.observability.AgentTracer;
+import com.agent.langchain.refinement.RefinementProgress.Candidate;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the refinement loop and its termination policies.
+ */
+@DisplayName("Refinement Loop Tests")
+public class RefinementLoopTest {
+
+    private static final RefinementSettings DEFAULTS = new RefinementSettings(0.9, 5, 2, 0.02, Duration.ZERO, 0L, 1,
+            EditMode.FULL);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AgentInstrumentation instrumentation = new AgentInstrumentation(new AgentMetrics(meterRegistry),
+            new AgentTracer(true, 10, 100, List.of()));
+    private final List<String> edited = new ArrayList<>();
+
+    /**
+     * Loop whose scorer hands out the given scores in order; the n-th edit
+     * returns "v<n>".
+     */
+    private RefinementLoop loop(double... scores) {
+        Iterator<Double> next = Arrays.stream(scores).boxed().iterator();
+        return RefinementLoop.builder()
+                .contentCreator((topic, style) -> "v0")
+                .qualityScorer(content -> next.next())
+                .contentEditor((content, score) -> {
+                    edited.add(content);
+                    return "v" + edited.size();
+                })
+                .instrumentation(instrumentation)
+                .defaults(DEFAULTS)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    /**
+     * Best-of-K loop on an executor: the n-th edit returns "e<n>" and scores
+     * 0.5 + n / 10, whichever thread makes it.
+     */
+    private RefinementLoop parallelLoop(ExecutorService executor, CandidateSizer sizer) {
+        AtomicInteger edits = new AtomicInteger();
+        return RefinementLoop.builder()
+                .contentCreator((topic, style) -> "v0")
+                .qualityScorer(content -> content.equals("v0") ? 0.5
+                        : 0.5 + Integer.parseInt(content.substring(1)) / 10.0)
+                .contentEditor((content, score) -> {
+                    synchronized (edited) {
+                        edited.add(content);
+                    }
+                    return "e" + edits.incrementAndGet();
+                })
+                .instrumentation(instrumentation)
+                .executor(executor)
+                .candidateSizer(sizer)
+                .defaults(DEFAULTS)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should stop as soon as the quality threshold is reached")
+    public void testQualityReached() {
+        // When
+        RefinementResult result = loop(0.5, 0.7, 0.95).refineContent("AI", "casual", RefinementSettings.NONE);
+
+        // Then
+        assertEquals("v2", result.content());
+        assertEquals(0.95, result.score());
+        assertEquals(2, result.iterations());
+        assertEquals(StopReason.QUALITY_REACHED, result.stopReason());
+        assertEquals(List.of(0.5, 0.7, 0.95), result.scores());
+    }
+
+    @Test
+    @DisplayName("Should keep the best version and edit from it when an edit lowers the score")
+    public void testKeepBest() {
+        // When
+        RefinementResult result = loop(0.6, 0.8, 0.7, 0.75, 0.7, 0.7)
+                .refineContent("AI", "casual", new RefinementSettings(null, null, 0, null, null, null, null, null));
+
+        // Then
+        assertEquals("v1", result.content());
+        assertEquals(0.8, result.score());
+        assertEquals(StopReason.MAX_ITERATIONS, result.stopReason());
+        assertEquals(List.of("v0", "v1", "v1", "v1", "v1"), edited);
+        assertEquals(4.0, meterRegistry.get("agent.loop.discarded.edits").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop when the best score plateaus")
+    public void testPlateau() {
+        // When
+        RefinementResult result = loop(0.80, 0.81, 0.80, 0.90).refineContent("AI", "casual", RefinementSettings.NONE);
+
+        // Then
+        assertEquals(StopReason.PLATEAU, result.stopReason());
+        assertEquals(2, result.iterations());
+        assertEquals(0.81, result.score());
+    }
+
+    @Test
+    @DisplayName("Should apply per-request overrides on top of the defaults")
+    public void testRequestOverrides() {
+        // When
+        RefinementResult result = loop(0.5, 0.6, 0.7)
+                .refineContent("AI", "casual", new RefinementSettings(0.65, 1, null, null, null, null, null, null));
+
+        // Then
+        assertEquals(StopReason.MAX_ITERATIONS, result.stopReason());
+        assertEquals(1, result.iterations());
+    }
+
+    @Test
+    @DisplayName("Should record iterations used per stop reason")
+    public void testIterationsHistogram() {
+        // When
+        loop(0.5, 0.95).refineContent("AI", "casual", RefinementSettings.NONE);
+
+        // Then
+        DistributionSummary iterations = meterRegistry.get("agent.loop.iterations")
+                .tag("reason", "quality-reached").summary();
+        assertEquals(1, iterations.count());
+        assertEquals(1.0, iterations.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should stop before a round that would overrun the token budget")
+    public void testTokenBudget() {
+        // Given: 100 tokens for creation and first scoring, then 300 per round
+        AtomicLong tokens = new AtomicLong(100);
+        RefinementProgress progress = new RefinementProgress(tokens::get);
+        TerminationPolicy policy = TerminationPolicy.tokenBudget(900);
+        progress.recordInitial(new Candidate("v0", 0.5));
+
+        // When / Then
+        assertEquals(Optional.empty(), policy.evaluate(progress));
+        tokens.addAndGet(300);
+        progress.recordRound(List.of(new Candidate("v1", 0.6)));
+        assertEquals(Optional.empty(), policy.evaluate(progress));
+        tokens.addAndGet(300);
+        progress.recordRound(List.of(new Candidate("v2", 0.7)));
+        assertEquals(Optional.of(StopReason.TOKEN_BUDGET), policy.evaluate(progress));
+    }
+
+    @Test
+    @DisplayName("Should stop when the latency budget is spent")
+    public void testLatencyBudget() throws InterruptedException {
+        // Given
+        RefinementProgress progress = new RefinementProgress(() -> 0);
+        progress.recordInitial(new Candidate("v0", 0.5));
+        Thread.sleep(20);
+
+        // When / Then
+        assertEquals(Optional.of(StopReason.LATENCY_BUDGET),
+                TerminationPolicy.latencyBudget(Duration.ofMillis(10)).evaluate(progress));
+        assertTrue(TerminationPolicy.latencyBudget(Duration.ofMinutes(1)).evaluate(progress).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the best of several parallel candidates per round")
+    public void testBestOfCandidates() {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            RefinementLoop loop = parallelLoop(executor, new CandidateSizer(null, 4, 1.0));
+
+            // When: three candidates scoring 0.6, 0.7 and 0.8
+            RefinementResult result = loop.refineContent("AI", "casual",
+                    new RefinementSettings(0.75, null, null, null, null, null, 3, null));
+
+            // Then: one round reaches the threshold a serial loop needs three rounds for
+            assertEquals("e3", result.content());
+            assertEquals(0.8, result.score(), 1e-9);
+            assertEquals(1, result.iterations());
+            assertEquals(3, result.candidates());
+            assertEquals(StopReason.QUALITY_REACHED, result.stopReason());
+            assertEquals(List.of("v0", "v0", "v0"), edited);
+            assertEquals(2.0, meterRegistry.get("agent.loop.discarded.edits").counter().count());
+            assertEquals(3.0, meterRegistry.get("agent.loop.round.candidates").summary().max());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should edit serially when no executor is configured")
+    public void testCandidatesWithoutExecutor() {
+        // When
+        RefinementResult result = parallelLoop(null, new CandidateSizer(null, 4, 1.0))
+                .refineContent("AI", "casual", new RefinementSettings(0.75, null, null, null, null, null, 3, null));
+
+        // Then
+        assertEquals(3, result.iterations());
+        assertEquals(3, result.candidates());
+    }
+
+    @Test
+    @DisplayName("Should shrink candidates to the free share of the model call limiter")
+    public void testCandidateSizer() throws InterruptedException {
+        // Given: a limit of 8 with 4 calls in flight leaves 4 free slots
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+                .initialLimit(8).minLimit(2).maxLimit(8).build();
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Duration.ZERO);
+        }
+        CandidateSizer sizer = new CandidateSizer(limiter, 4, 0.5);
+
+        // When / Then
+        assertEquals(2, sizer.candidates(4));
+        assertEquals(1, sizer.candidates(1));
+        assertEquals(4, new CandidateSizer(null, 4, 0.5).candidates(6));
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(Duration.ZERO);
+        }
+        assertEquals(1, sizer.candidates(4));
+        assertThrows(IllegalArgumentException.class, () -> new CandidateSizer(null, 0, 0.5));
+    }
+
+    /**
+     * Patch-mode loop over a long text: the patcher answers with the given
+     * answers in order, the change scorer with the given scores.
+     */
+    private RefinementLoop patchLoop(AtomicInteger summaries, List<String> answers, double... changeScores) {
+        Iterator<String> answer = answers.iterator();
+        Iterator<Double> changeScore = Arrays.stream(changeScores).boxed().iterator();
+        return RefinementLoop.builder()
+                .contentCreator((topic, style) -> "A weak opening. " + "Steady middle text. ".repeat(100)
+                        + "A weak ending.")
+                .qualityScorer(content -> content.endsWith("Rewritten.") ? 0.7 : 0.5)
+                .contentEditor((content, score) -> {
+                    edited.add(content);
+                    return content + " Rewritten.";
+                })
+                .patchAgents((content, score) -> answer.next(),
+                        content -> {
+                            summaries.incrementAndGet();
+                            return "A steady text with a weak opening and ending.";
+                        },
+                        (summary, changes) -> changeScore.next())
+                .defaults(DEFAULTS)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    private static String patch(String find, String replacement) {
+        return "<<<<<<< FIND\n" + find + "\n=======\n" + replacement + "\n>>>>>>> REPLACE\n";
+    }
+
+    @Test
+    @DisplayName("Should apply patches locally and score only the changes in patch mode")
+    public void testPatchMode() {
+        // Given: two rounds of patches against the same summary
+        AtomicInteger summaries = new AtomicInteger();
+        RefinementLoop loop = patchLoop(summaries,
+                List.of(patch("A weak opening.", "A strong opening."),
+                        patch("A strong opening.", "A gripping opening.") + patch("A weak ending.", "A strong ending.")),
+                0.6, 0.95);
+
+        // When
+        RefinementResult result = loop.refineContent("AI", "casual",
+                new RefinementSettings(null, null, 0, null, null, null, null, EditMode.PATCH));
+
+        // Then
+        assertTrue(result.content().startsWith("A gripping opening. Steady middle text."));
+        assertTrue(result.content().endsWith("A strong ending."));
+        assertEquals(List.of(0.5, 0.6, 0.95), result.scores());
+        assertEquals(2, summaries.get(), "One summary per version edited");
+        assertTrue(edited.isEmpty(), "No full rewrite");
+        assertTrue(result.tokensSaved() > 0, "Saved " + result.tokensSaved());
+        assertEquals(result.tokensSaved(),
+                (long) meterRegistry.get("agent.loop.tokens.saved").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should fall back to a full rewrite when no patch applies")
+    public void testPatchFallback() {
+        // Given: the first answer holds no patch block, the second one quotes missing text
+        AtomicInteger summaries = new AtomicInteger();
+        RefinementLoop loop = patchLoop(summaries,
+                List.of("I improved the text.", patch("Text that is not there.", "Anything.")));
+
+        // When
+        RefinementResult result = loop.refineContent("AI", "casual",
+                new RefinementSettings(null, 2, 0, null, null, null, null, EditMode.PATCH));
+
+        // Then
+        assertEquals(2, edited.size());
+        assertTrue(result.content().endsWith("Rewritten."));
+        assertEquals(0, summaries.get());
+        assertTrue(result.tokensSaved() < 0, "Failed patches cost tokens");
+        assertEquals(2.0, meterRegistry.get("agent.loop.patch.fallbacks").counter().count());
+        assertEquals(1.0, meterRegistry.get("agent.loop.patch.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reject patch mode without patch agents")
+    public void testPatchModeUnavailable() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> loop(0.5).refineContent("AI", "casual",
+                new RefinementSettings(null, null, null, null, null, null, null, EditMode.PATCH)));
+    }
+
+    @Test
+    @DisplayName("Should apply only unique, non-overlapping patches")
+    public void testContentPatchApplication() {
+        // Given
+        String content = "one two three two four";
+        List<ContentPatch> patches = ContentPatch.parse(patch("three", "3") + patch("two", "2")
+                + patch("five", "5") + patch("one two", "1 2") + patch("two three", "2 3") + patch("four", ""));
+
+        // When
+        ContentPatch.Applied applied = ContentPatch.apply(content, patches);
+
+        // Then: "two" is ambiguous, "five" missing and "two three" overlaps "three"
+        assertEquals(6, patches.size());
+        assertEquals("1 2 3 two ", applied.content());
+        assertEquals(3, applied.rejected());
+        assertEquals(3, applied.changedRegions().size());
+        assertTrue(ContentPatch.apply(content, ContentPatch.parse("no patches")).changedRegions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should resume a failed refinement from its last round")
+    public void testResumesFromCheckpoint(@TempDir Path tempDir) throws Exception {
+        // Given: the second edit fails; the n-th edit returns "v<n>" and scores 0.5 + n / 10
+        AtomicInteger creations = new AtomicInteger();
+        AtomicInteger edits = new AtomicInteger();
+        try (CheckpointStore checkpoints = CheckpointStore.builder()
+                .path(tempDir.resolve("checkpoints.log"))
+                .maxBytes(64 * 1024)
+                .build()) {
+            RefinementLoop loop = RefinementLoop.builder()
+                    .contentCreator((topic, style) -> {
+                        creations.incrementAndGet();
+                        return "v0";
+                    })
+                    .qualityScorer(content -> 0.5 + Integer.parseInt(content.substring(1)) / 10.0)
+                    .contentEditor((content, score) -> {
+                        int edit = edits.incrementAndGet();
+                        if (edit == 2) {
+                            throw new IllegalStateException("model unavailable");
+                        }
+                        return "v" + edit;
+                    })
+                    .defaults(DEFAULTS)
+                    .checkpoints(checkpoints)
+                    .meterRegistry(meterRegistry)
+                    .build();
+            assertThrows(IllegalStateException.class,
+                    () -> loop.refineContent("AI", "casual", RefinementSettings.NONE));
+
+            // When
+            RefinementResult result = loop.refineContent("AI", "casual", RefinementSettings.NONE);
+
+            // Then: the retry edits v1 instead of creating and editing v0 again
+            assertEquals("v4", result.content());
+            assertEquals(StopReason.QUALITY_REACHED, result.stopReason());
+            assertEquals(3, result.iterations());
+            assertEquals(4, result.scores().size());
+            assertEquals(1, creations.get());
+            assertEquals(4, edits.get());
+            assertEquals(0, checkpoints.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid settings")
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RefinementSettings(1.5, null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new RefinementSettings(null, -1, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new RefinementSettings(null, null, null, null, null, null, 0, null));
+        assertThrows(IllegalStateException.class, () -> RefinementSettings.NONE.terminationPolicy());
+    }
+}
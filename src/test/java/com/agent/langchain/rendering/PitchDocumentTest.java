@@ -0,0 +1,92 @@
+package com.agent.langchain.rendering;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.agent.langchain.dataflow.DataflowRun.NodeFailure;
+import com.agent.langchain.dataflow.DataflowRun.NodeStatus;
+import com.agent.langchain.dto.ParallelFlowResponse;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the streamed rendering of the startup pitch document.
+ */
+@DisplayName("Pitch Document Tests")
+public class PitchDocumentTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final PitchDocumentHttpMessageConverter converter = new PitchDocumentHttpMessageConverter();
+
+    private final PitchDocument document = PitchDocument.of(Map.of(
+            "executiveSummary", "Acme delivers \"last-mile\" parcels by drone.",
+            "marketAnalysis", "TAM: $12B\n\tgrowing 18%\\yr\u0001",
+            "riskAssessment", new NodeFailure("RiskAssessor", "riskAssessment", NodeStatus.TIMED_OUT,
+                    "RiskAssessor did not complete within 90000 ms")));
+
+    private String write(MediaType contentType) throws Exception {
+        MockHttpOutputMessage response = new MockHttpOutputMessage();
+        converter.write(document, contentType, response);
+        return response.getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should render the plain text pitch document")
+    public void testText() throws Exception {
+        // Given
+        String expected = """
+                ═══════════════════════════════════════════════════════════
+                                    STARTUP PITCH DOCUMENT
+                ═══════════════════════════════════════════════════════════
+
+                EXECUTIVE SUMMARY
+                ───────────────────────────────────────────────────────────
+                Acme delivers "last-mile" parcels by drone.
+
+                MARKET ANALYSIS
+                ───────────────────────────────────────────────────────────
+                TAM: $12B
+                \tgrowing 18%\\yr\u0001
+
+                RISK ASSESSMENT & MITIGATION
+                ───────────────────────────────────────────────────────────
+                [SECTION UNAVAILABLE (timed-out): RiskAssessor did not complete within 90000 ms]
+                """;
+
+        // When / Then
+        assertEquals(expected, document.toString());
+        assertEquals(expected, write(MediaType.TEXT_PLAIN));
+    }
+
+    @Test
+    @DisplayName("Should stream JSON shaped as the parallel flow response")
+    public void testJson() throws Exception {
+        // When
+        String json = write(MediaType.APPLICATION_JSON);
+
+        // Then: same document and the same bytes as serializing the assembled pitch
+        assertEquals(document.toString(), jsonMapper.readValue(json, ParallelFlowResponse.class).getPitch());
+        assertEquals(jsonMapper.writeValueAsString(new ParallelFlowResponse(document.toString())), json);
+    }
+
+    @Test
+    @DisplayName("Should render markdown when requested")
+    public void testMarkdown() throws Exception {
+        // When
+        String markdown = write(PitchDocumentHttpMessageConverter.TEXT_MARKDOWN);
+
+        // Then
+        assertTrue(markdown.startsWith("# Startup Pitch Document\n\n## Executive Summary\n\nAcme delivers"));
+        assertTrue(markdown.contains("\n## Market Analysis\n\nTAM: $12B\n"));
+        assertTrue(markdown.endsWith("## Risk Assessment & Mitigation\n\n"
+                + "[SECTION UNAVAILABLE (timed-out): RiskAssessor did not complete within 90000 ms]\n"));
+    }
+}
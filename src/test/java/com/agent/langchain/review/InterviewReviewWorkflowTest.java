@@ -0,0 +1,261 @@
+package com.agent.langchain.review;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.agent.langchain.exception.ReviewConflictException;
+import com.agent.langchain.exception.ReviewNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the suspendable interview review workflow and its store.
+ */
+@DisplayName("Interview Review Workflow Tests")
+public class InterviewReviewWorkflowTest {
+
+    /**
+     * Clock advanced by hand, for TTL and retention checks.
+     */
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger assessments = new AtomicInteger();
+    private InterviewReviewStore store = store(null, 16 * 1024);
+
+    private InterviewReviewStore store(Path path, long maxBytes) {
+        try {
+            return InterviewReviewStore.builder()
+                    .pendingTtl(Duration.ofDays(7))
+                    .retention(Duration.ofHours(1))
+                    .path(path)
+                    .maxBytes(maxBytes)
+                    .clock(clock)
+                    .meterRegistry(meterRegistry)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    private InterviewReviewWorkflow workflow(boolean assessorFails) {
+        return InterviewReviewWorkflow.builder()
+                .interviewCoach((position, question, response) -> "coaching for " + position)
+                .interviewAssessor((candidateName, position, coachFeedback, humanFeedback) -> {
+                    assessments.incrementAndGet();
+                    if (assessorFails) {
+                        throw new IllegalStateException("model unavailable");
+                    }
+                    return candidateName + ": " + coachFeedback + " / " + humanFeedback;
+                })
+                .store(store)
+                .meterRegistry(meterRegistry)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should suspend after coaching and resume with the human feedback")
+    public void testSuspendAndResume() {
+        // Given
+        InterviewReviewWorkflow workflow = workflow(false);
+        InterviewReview suspended = workflow.start("Alex", "Backend Engineer", "Describe a system",
+                "A payment service");
+
+        // When
+        clock.advance(Duration.ofMinutes(30));
+        workflow.submitFeedback(suspended.ticket(), "Strong design skills");
+        InterviewReview completed = workflow.assess(suspended.ticket());
+
+        // Then
+        assertEquals(ReviewStatus.AWAITING_REVIEW, suspended.status());
+        assertEquals("coaching for Backend Engineer", suspended.get(InterviewReview.COACH_FEEDBACK));
+        assertEquals(ReviewStatus.COMPLETED, completed.status());
+        assertEquals("Alex: coaching for Backend Engineer / Strong design skills",
+                completed.get(InterviewReview.ASSESSMENT));
+        assertEquals(Duration.ofMinutes(30).toMillis(),
+                meterRegistry.get("agent.review.wait").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Should list pending reviews oldest first")
+    public void testPendingReviews() {
+        // Given
+        InterviewReviewWorkflow workflow = workflow(false);
+        InterviewReview first = workflow.start("Alex", "Backend Engineer", "Question one", "Answer one");
+        clock.advance(Duration.ofMinutes(1));
+        InterviewReview second = workflow.start("Sam", "Data Engineer", "Question two", "Answer two");
+        clock.advance(Duration.ofMinutes(1));
+        InterviewReview third = workflow.start("Kim", "SRE", "Question three", "Answer three");
+
+        // When
+        workflow.submitFeedback(second.ticket(), "Good");
+
+        // Then
+        assertEquals(List.of(first.ticket(), third.ticket()),
+                workflow.pending(10).stream().map(InterviewReview::ticket).toList());
+        assertEquals(1, workflow.pending(1).size());
+    }
+
+    @Test
+    @DisplayName("Should let only one reviewer claim a review")
+    public void testSecondFeedbackConflicts() {
+        // Given
+        InterviewReviewWorkflow workflow = workflow(false);
+        InterviewReview review = workflow.start("Alex", "Backend Engineer", "Describe a system", "An answer");
+        workflow.submitFeedback(review.ticket(), "First reviewer");
+
+        // When / Then
+        assertThrows(ReviewConflictException.class, () -> workflow.submitFeedback(review.ticket(), "Second"));
+        assertEquals("First reviewer", workflow.find(review.ticket()).get(InterviewReview.HUMAN_FEEDBACK));
+    }
+
+    @Test
+    @DisplayName("Should reopen a review whose assessment failed")
+    public void testFailedAssessmentAcceptsFeedbackAgain() {
+        // Given
+        InterviewReviewWorkflow workflow = workflow(true);
+        InterviewReview review = workflow.start("Alex", "Backend Engineer", "Describe a system", "An answer");
+        workflow.submitFeedback(review.ticket(), "Good");
+
+        // When
+        assertThrows(IllegalStateException.class, () -> workflow.assess(review.ticket()));
+        InterviewReview failed = workflow.find(review.ticket());
+        InterviewReview reclaimed = workflow.submitFeedback(review.ticket(), "Good, second try");
+
+        // Then
+        assertEquals(ReviewStatus.FAILED, failed.status());
+        assertEquals("model unavailable", failed.error());
+        assertEquals(ReviewStatus.ASSESSING, reclaimed.status());
+        assertNull(reclaimed.error());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown tickets and unclaimed assessments")
+    public void testUnknownTicketAndUnclaimedAssessment() {
+        // Given
+        InterviewReviewWorkflow workflow = workflow(false);
+        InterviewReview review = workflow.start("Alex", "Backend Engineer", "Describe a system", "An answer");
+
+        // When / Then
+        assertThrows(ReviewNotFoundException.class, () -> workflow.submitFeedback("no-such-ticket", "Good"));
+        assertThrows(ReviewConflictException.class, () -> workflow.assess(review.ticket()));
+        assertEquals(0, assessments.get());
+    }
+
+    @Test
+    @DisplayName("Should expire unanswered reviews and drop finished ones after retention")
+    public void testExpiry() {
+        // Given
+        InterviewReviewWorkflow workflow = workflow(false);
+        InterviewReview unanswered = workflow.start("Alex", "Backend Engineer", "Question one", "Answer one");
+        InterviewReview answered = workflow.start("Sam", "Data Engineer", "Question two", "Answer two");
+        workflow.submitFeedback(answered.ticket(), "Good");
+        workflow.assess(answered.ticket());
+
+        // When
+        clock.advance(Duration.ofHours(2));
+        boolean unansweredKept = workflow.pending(10).size() == 1;
+        clock.advance(Duration.ofDays(7));
+
+        // Then
+        assertTrue(unansweredKept);
+        assertThrows(ReviewNotFoundException.class, () -> workflow.find(answered.ticket()));
+        assertThrows(ReviewNotFoundException.class, () -> workflow.submitFeedback(unanswered.ticket(), "Late"));
+        assertEquals(0, workflow.pending(10).size());
+    }
+
+    @Test
+    @DisplayName("Should reload suspended reviews after a restart and reopen interrupted assessments")
+    public void testReviewsSurviveRestart(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path log = tempDir.resolve("reviews.log");
+        store = store(log, 64 * 1024);
+        InterviewReviewWorkflow workflow = workflow(false);
+        InterviewReview waiting = workflow.start("Alex", "Backend Engineer", "Question one", "Answer one");
+        InterviewReview interrupted = workflow.start("Sam", "Data Engineer", "Question two", "Answer two");
+        workflow.submitFeedback(interrupted.ticket(), "Good");
+
+        // When
+        store.close();
+        store = store(log, 64 * 1024);
+        InterviewReviewWorkflow restarted = workflow(false);
+
+        // Then
+        assertEquals(List.of(waiting.ticket()),
+                restarted.pending(10).stream().map(InterviewReview::ticket).toList());
+        InterviewReview reopened = restarted.find(interrupted.ticket());
+        assertEquals(ReviewStatus.FAILED, reopened.status());
+        assertEquals("Good", reopened.get(InterviewReview.HUMAN_FEEDBACK));
+        restarted.submitFeedback(interrupted.ticket(), "Good, second try");
+        assertEquals(ReviewStatus.COMPLETED, restarted.assess(interrupted.ticket()).status());
+    }
+
+    @Test
+    @DisplayName("Should compact the review log down to the latest record of every review")
+    public void testLogCompaction(@TempDir Path tempDir) throws IOException {
+        // Given: a log with room for a few dozen records
+        Path log = tempDir.resolve("reviews.log");
+        store = store(log, 8 * 1024);
+        InterviewReviewWorkflow workflow = workflow(true);
+        InterviewReview review = workflow.start("Alex", "Backend Engineer", "Describe a system", "An answer");
+
+        // When: every failed attempt appends two more records
+        for (int i = 0; i < 50; i++) {
+            workflow.submitFeedback(review.ticket(), "Attempt " + i);
+            assertThrows(IllegalStateException.class, () -> workflow.assess(review.ticket()));
+        }
+        store.close();
+        store = store(log, 8 * 1024);
+
+        // Then
+        InterviewReview reloaded = workflow(false).find(review.ticket());
+        assertEquals(ReviewStatus.FAILED, reloaded.status());
+        assertEquals("Attempt 49", reloaded.get(InterviewReview.HUMAN_FEEDBACK));
+    }
+}
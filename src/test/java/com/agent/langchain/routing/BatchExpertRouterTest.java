@@ -0,0 +1,119 @@
+package com.agent.langchain.routing;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.patterns.ConditionalRoutingPattern.BatchCategoryRouter;
+import com.agent.langchain.patterns.ConditionalRoutingPattern.ExpertPanel;
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+import com.agent.langchain.routing.BatchExpertRouter.RoutedAnswer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for batch routing with packed multi-query classification.
+ */
+@DisplayName("Batch Expert Router Tests")
+public class BatchExpertRouterTest {
+
+    private final AgentExecutor agentExecutor = AgentExecutor.virtualThreads(Duration.ofSeconds(1),
+            new SimpleMeterRegistry());
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        agentExecutor.close();
+    }
+
+    private String expert(String name, String request) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+            if (request.contains("fail")) {
+                throw new IllegalStateException("expert unavailable");
+            }
+            return name + ": " + request;
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private BatchExpertRouter router(BatchCategoryRouter batchRouter, int maxQueriesPerCall) {
+        CategoryResolver resolver = new CategoryResolver(request -> {
+            singleCalls.incrementAndGet();
+            return RequestCategory.CAREER;
+        }, null, LocalClassifierStage.builder().enabled(false).meterRegistry(new SimpleMeterRegistry()).build(),
+                false, new SimpleMeterRegistry());
+        ExpertPanel panel = new ExpertPanel(
+                request -> expert("creative", request),
+                request -> expert("financial", request),
+                request -> expert("wellness", request),
+                request -> expert("career", request));
+        return new BatchExpertRouter(resolver, requests -> {
+            batchCalls.incrementAndGet();
+            return batchRouter.classifyAll(requests);
+        }, panel, agentExecutor, maxQueriesPerCall, 2, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should classify a batch in one call and keep the input order")
+    public void testPackedClassificationKeepsOrder() {
+        // Given
+        BatchExpertRouter router = router(requests -> """
+                1: financial
+                2: creative
+                3: wellness
+                4: unknown
+                """, 25);
+
+        // When
+        List<RoutedAnswer> answers = router.route(List.of("budget", "paint", "sleep", "weather"));
+
+        // Then
+        assertEquals(1, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+        assertEquals("financial: budget", answers.get(0).response());
+        assertEquals("creative: paint", answers.get(1).response());
+        assertEquals("wellness: sleep", answers.get(2).response());
+        assertEquals(RequestCategory.UNKNOWN, answers.get(3).category());
+        assertNull(answers.get(3).response());
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    @DisplayName("Should report per-item errors and fall back for unanswered queries")
+    public void testPerItemErrorsAndFallback() {
+        // Given
+        BatchExpertRouter router = router(requests -> "1: financial\n2: financial\nthe rest is unclear", 3);
+
+        // When
+        List<RoutedAnswer> answers = router.route(Arrays.asList("budget", "fail please", " ", "new job", "promotion"));
+
+        // Then
+        assertEquals(1, batchCalls.get());
+        assertEquals(2, singleCalls.get());
+        assertTrue(answers.get(0).isSuccess());
+        assertFalse(answers.get(1).isSuccess());
+        assertEquals("expert unavailable", answers.get(1).error());
+        assertFalse(answers.get(2).isSuccess());
+        assertEquals("career: new job", answers.get(3).response());
+        assertEquals("career: promotion", answers.get(4).response());
+    }
+}
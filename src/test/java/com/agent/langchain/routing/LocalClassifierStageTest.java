@@ -0,0 +1,161 @@
+package com.agent.langchain.routing;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+import com.agent.langchain.routing.LocalCategoryClassifier.Prediction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the local fast-path category classifier.
+ */
+@DisplayName("Local Classifier Stage Tests")
+public class LocalClassifierStageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<String> FINANCIAL = List.of(
+            "How should I invest my savings for retirement?",
+            "What is a good monthly budget for rent and savings?",
+            "Should I pay off debt before investing in stocks?",
+            "How do index funds and bonds differ for investing?");
+
+    private static final List<String> CREATIVE = List.of(
+            "Help me write a poem about the sea",
+            "Give me ideas for a logo design with bold colors",
+            "How can I improve the melody of my song?",
+            "Suggest a plot twist for my short story");
+
+    private static void train(LocalCategoryClassifier classifier) {
+        FINANCIAL.forEach(query -> classifier.learn(query, RequestCategory.FINANCIAL));
+        CREATIVE.forEach(query -> classifier.learn(query, RequestCategory.CREATIVE));
+    }
+
+    @Test
+    @DisplayName("Should predict the trained category and know nothing about unseen vocabulary")
+    public void testNaiveBayesPrediction() {
+        // Given
+        NaiveBayesCategoryClassifier classifier = new NaiveBayesCategoryClassifier();
+        train(classifier);
+
+        // When
+        Prediction financial = classifier.predict("Is investing my savings in index funds wise?");
+        Prediction creative = classifier.predict("Write a short poem for my song");
+        Prediction unseen = classifier.predict("Zebra xylophone quark");
+
+        // Then
+        assertEquals(RequestCategory.FINANCIAL, financial.category());
+        assertTrue(financial.confidence() > 0.9);
+        assertEquals(RequestCategory.CREATIVE, creative.category());
+        assertEquals(Prediction.NONE, unseen);
+    }
+
+    @Test
+    @DisplayName("Should reload a persisted model with identical predictions")
+    public void testSaveAndReload() throws Exception {
+        // Given
+        Path modelPath = tempDir.resolve("model.bin");
+        NaiveBayesCategoryClassifier classifier = new NaiveBayesCategoryClassifier();
+        train(classifier);
+        classifier.save(modelPath);
+
+        // When
+        NaiveBayesCategoryClassifier reloaded = new NaiveBayesCategoryClassifier();
+        reloaded.load(modelPath);
+
+        // Then
+        assertEquals(classifier.trainingExamples(), reloaded.trainingExamples());
+        String query = "Budget for debt and savings";
+        assertEquals(classifier.predict(query), reloaded.predict(query));
+    }
+
+    @Test
+    @DisplayName("Should defer to the LLM until trained and confident")
+    public void testThresholdAndWarmUp() {
+        // Given
+        LocalClassifierStage stage = LocalClassifierStage.builder()
+                .minTrainingExamples(8)
+                .confidenceThreshold(0.9)
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+
+        // When / Then
+        stage.learn(FINANCIAL.get(0), RequestCategory.FINANCIAL);
+        assertFalse(stage.classify("Investing my savings").isPresent());
+
+        FINANCIAL.stream().skip(1).forEach(query -> stage.learn(query, RequestCategory.FINANCIAL));
+        CREATIVE.forEach(query -> stage.learn(query, RequestCategory.CREATIVE));
+        assertEquals(RequestCategory.FINANCIAL, stage.classify("Investing my savings in stocks").orElseThrow());
+        assertFalse(stage.classify("Zebra xylophone quark").isPresent());
+
+        stage.setConfidenceThreshold(1.0);
+        assertFalse(stage.classify("Investing my savings in stocks").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should count shadow disagreements and learn the LLM answer")
+    public void testShadowDisagreement() {
+        // Given
+        LocalClassifierStage stage = LocalClassifierStage.builder()
+                .minTrainingExamples(0)
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+        AtomicInteger llmCalls = new AtomicInteger();
+
+        // When
+        stage.shadow("Invest in art", RequestCategory.FINANCIAL, () -> {
+            llmCalls.incrementAndGet();
+            return RequestCategory.FINANCIAL;
+        });
+        stage.shadow("Paint my savings", RequestCategory.FINANCIAL, () -> {
+            llmCalls.incrementAndGet();
+            return RequestCategory.CREATIVE;
+        });
+
+        // Then
+        assertEquals(2, llmCalls.get());
+        assertEquals(2, stage.getShadowSamples());
+        assertEquals(1, stage.getShadowDisagreements());
+        assertEquals(0.5, stage.disagreementRate());
+        assertEquals(2, stage.getTrainingExamples());
+    }
+
+    @Test
+    @DisplayName("Should route through the local classifier once it has learned from the LLM")
+    public void testResolverChain() {
+        // Given
+        AtomicInteger llmCalls = new AtomicInteger();
+        LocalClassifierStage stage = LocalClassifierStage.builder()
+                .minTrainingExamples(8)
+                .shadowSampleRate(0.0)
+                .meterRegistry(new SimpleMeterRegistry())
+                .build();
+        CategoryResolver resolver = new CategoryResolver(request -> {
+            llmCalls.incrementAndGet();
+            return FINANCIAL.contains(request) ? RequestCategory.FINANCIAL : RequestCategory.CREATIVE;
+        }, null, stage, false, new SimpleMeterRegistry());
+
+        // When
+        FINANCIAL.forEach(resolver::resolve);
+        CREATIVE.forEach(resolver::resolve);
+        RequestCategory category = resolver.resolve("Investing my savings in bonds");
+
+        // Then
+        assertEquals(RequestCategory.FINANCIAL, category);
+        assertEquals(8, llmCalls.get());
+        assertEquals(1, resolver.getLocalDecisions());
+        assertEquals(8, resolver.getLlmDecisions());
+    }
+}
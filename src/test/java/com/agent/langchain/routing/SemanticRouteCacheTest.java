@@ -0,0 +1,96 @@
+package com.agent.langchain.routing;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.agent.langchain.patterns.ConditionalRoutingPattern.RequestCategory;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the embedding-based routing decision cache.
+ */
+@DisplayName("Semantic Route Cache Tests")
+public class SemanticRouteCacheTest {
+
+    /**
+     * Hand-picked vectors so that similarities are exact.
+     */
+    private static final Map<String, float[]> VECTORS = Map.of(
+            "How do I save for retirement?", new float[] { 1.0f, 0.0f, 0.0f },
+            "How should I save for my retirement?", new float[] { 0.98f, 0.2f, 0.0f },
+            "Write me a poem", new float[] { 0.0f, 1.0f, 0.0f },
+            "Book a flight", new float[] { 0.0f, 0.0f, 1.0f });
+
+    private static final EmbeddingModel STUB_MODEL = new EmbeddingModel() {
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+            return Response.from(segments.stream()
+                    .map(segment -> Embedding.from(VECTORS.get(segment.text())))
+                    .toList());
+        }
+    };
+
+    @Test
+    @DisplayName("Should reuse the decision of a near-duplicate query")
+    public void testNearDuplicateIsHit() {
+        // Given
+        SemanticRouteCache cache = new SemanticRouteCache(STUB_MODEL, 0.95, 100, new SimpleMeterRegistry());
+        cache.record(cache.lookup("How do I save for retirement?"), RequestCategory.FINANCIAL);
+
+        // When
+        SemanticRouteCache.Lookup paraphrase = cache.lookup("How should I save for my retirement?");
+        SemanticRouteCache.Lookup unrelated = cache.lookup("Write me a poem");
+
+        // Then
+        assertEquals(RequestCategory.FINANCIAL, paraphrase.category().orElseThrow());
+        assertTrue(paraphrase.similarity() >= 0.95);
+        assertFalse(unrelated.category().isPresent());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should miss once the threshold is raised above the similarity")
+    public void testThresholdIsAdjustable() {
+        // Given
+        SemanticRouteCache cache = new SemanticRouteCache(STUB_MODEL, 0.95, 100, new SimpleMeterRegistry());
+        cache.record(cache.lookup("How do I save for retirement?"), RequestCategory.FINANCIAL);
+
+        // When
+        cache.setSimilarityThreshold(0.999);
+
+        // Then
+        assertFalse(cache.lookup("How should I save for my retirement?").category().isPresent());
+        assertThrows(IllegalArgumentException.class, () -> cache.setSimilarityThreshold(0.0));
+    }
+
+    @Test
+    @DisplayName("Should forget the oldest decision when full and never cache UNKNOWN")
+    public void testBoundedAndSkipsUnknown() {
+        // Given
+        SemanticRouteCache cache = new SemanticRouteCache(STUB_MODEL, 0.95, 1, new SimpleMeterRegistry());
+
+        // When
+        cache.record(cache.lookup("How do I save for retirement?"), RequestCategory.FINANCIAL);
+        cache.record(cache.lookup("Write me a poem"), RequestCategory.CREATIVE);
+        cache.record(cache.lookup("Book a flight"), RequestCategory.UNKNOWN);
+
+        // Then
+        assertEquals(1, cache.size());
+        assertFalse(cache.lookup("How do I save for retirement?").category().isPresent());
+        assertEquals(RequestCategory.CREATIVE, cache.lookup("Write me a poem").category().orElseThrow());
+    }
+}
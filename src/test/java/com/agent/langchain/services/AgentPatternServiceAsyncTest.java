@@ -0,0 +1,166 @@
+package com.agent.langchain.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.agent.langchain.exception.PatternTimeoutException;
+import com.agent.langchain.execution.AgentExecutor;
+import com.agent.langchain.execution.SingleFlight;
+import com.agent.langchain.model.limit.PatternBulkheads;
+import com.agent.langchain.observability.AgentTracer;
+import com.agent.langchain.refinement.RefinementResult;
+import com.agent.langchain.refinement.RefinementSettings;
+import com.agent.langchain.refinement.StopReason;
+import com.agent.langchain.rendering.PitchDocument;
+import com.agent.langchain.review.InterviewReview;
+import com.agent.langchain.review.InterviewReviewStore;
+import com.agent.langchain.review.InterviewReviewWorkflow;
+import com.agent.langchain.review.ReviewStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the asynchronous pattern execution API.
+ */
+@DisplayName("Agent Pattern Service Async Tests")
+public class AgentPatternServiceAsyncTest {
+
+    private final AgentExecutor agentExecutor = AgentExecutor.virtualThreads(Duration.ofSeconds(1),
+            new SimpleMeterRegistry());
+    private final PatternBulkheads bulkheads = new PatternBulkheads(Map.of(), 16, Duration.ofSeconds(1),
+            new SimpleMeterRegistry());
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    private final AgentPatternService service = new AgentPatternService(
+            query -> "answer to " + query,
+            (cuisine, dietary, mealType) -> "recipe",
+            (topic, style, settings) -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return new RefinementResult("content", 0.9, 0, 0, StopReason.QUALITY_REACHED, List.of(0.9), 0, 0);
+            },
+            (startupName, idea, targetMarket) -> new PitchDocument(
+                    List.of(new PitchDocument.Section("EXECUTIVE SUMMARY", "pitch"))),
+            InterviewReviewWorkflow.builder()
+                    .interviewCoach((position, question, response) -> "coaching")
+                    .interviewAssessor((candidateName, position, coachFeedback, humanFeedback) -> "assessment")
+                    .store(reviewStore())
+                    .build(),
+            agentExecutor,
+            bulkheads,
+            new SingleFlight(true, new SimpleMeterRegistry()),
+            null,
+            new AgentTracer(true, 10, 100, List.of()));
+
+    private static InterviewReviewStore reviewStore() {
+        try {
+            return InterviewReviewStore.builder().pendingTtl(Duration.ofDays(1)).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        agentExecutor.close();
+    }
+
+    @Test
+    @DisplayName("Should complete the future off the calling thread")
+    public void testAsyncCompletion() throws Exception {
+        // When
+        CompletableFuture<String> future = service.executeConditionalRoutingAsync("How do I budget?");
+
+        // Then
+        assertEquals("answer to How do I budget?", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should fail the future with the validation error")
+    public void testAsyncValidationError() {
+        // When
+        CompletableFuture<String> future = service.executeSequentialFlowAsync("", "vegan", "dinner");
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Should time out and interrupt the running pattern")
+    public void testAsyncTimeout() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(service, "loopTimeout", Duration.ofMillis(100));
+
+        // When
+        CompletableFuture<RefinementResult> future = service.executeLoopPatternAsync("AI", "casual",
+                RefinementSettings.NONE);
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PatternTimeoutException.class, e.getCause());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should suspend the interview and resume it on feedback")
+    public void testHumanInLoopSuspendAndResume() throws Exception {
+        // Given
+        InterviewReview suspended = service.executeHumanInLoopAsync("Alex", "Backend Engineer",
+                "Describe a system you designed", "A payment service").get(5, TimeUnit.SECONDS);
+
+        // When
+        InterviewReview claimed = service.submitInterviewFeedback(suspended.ticket(), "Clear and confident");
+
+        // Then
+        assertEquals(ReviewStatus.AWAITING_REVIEW, suspended.status());
+        assertEquals("coaching", suspended.get(InterviewReview.COACH_FEEDBACK));
+        assertEquals(ReviewStatus.ASSESSING, claimed.status());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getInterviewReview(suspended.ticket()).status() != ReviewStatus.COMPLETED
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("assessment", service.getInterviewReview(suspended.ticket()).get(InterviewReview.ASSESSMENT));
+    }
+
+    @Test
+    @DisplayName("Should hand the review back when the assessment cannot be started")
+    public void testFeedbackRejectedByExecutor() throws Exception {
+        // Given: the executor shuts down while the interview waits for review
+        InterviewReview suspended = service.executeHumanInLoopAsync("Alex", "Backend Engineer",
+                "Describe a system you designed", "A payment service").get(5, TimeUnit.SECONDS);
+        agentExecutor.close();
+
+        // When
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submitInterviewFeedback(suspended.ticket(), "Clear and confident"));
+
+        // Then
+        InterviewReview review = service.getInterviewReview(suspended.ticket());
+        assertEquals(ReviewStatus.FAILED, review.status());
+        assertTrue(review.status().acceptsFeedback());
+        assertEquals(0, bulkheads.active("human-in-loop"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.agent.langchain.streaming;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.agentic.Agent;
+import dev.langchain4j.agentic.AgenticServices;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.service.V;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests streaming of stage and token events through a real agentic workflow.
+ */
+@DisplayName("Agent Streams Tests")
+public class AgentStreamsTest {
+
+    public interface Writer {
+        @dev.langchain4j.service.UserMessage("Write about {{topic}}")
+        @Agent("Writes a draft")
+        String write(@V("topic") String topic);
+    }
+
+    public interface Reviewer {
+        @dev.langchain4j.service.UserMessage("Review {{draft}}")
+        @Agent("Reviews a draft")
+        String review(@V("draft") String draft);
+    }
+
+    public interface Pipeline {
+        String run(@V("topic") String topic);
+    }
+
+    /**
+     * Blocking and streaming models echoing the user message, word by word
+     * when streaming.
+     */
+    private static class EchoModels {
+        final AtomicInteger blockingCalls = new AtomicInteger();
+        final AtomicInteger streamingCalls = new AtomicInteger();
+
+        final ChatModel blocking = new ChatModel() {
+            @Override
+            public ChatResponse doChat(ChatRequest request) {
+                blockingCalls.incrementAndGet();
+                return response(echo(request));
+            }
+        };
+
+        final StreamingChatModel streaming = new StreamingChatModel() {
+            @Override
+            public void doChat(ChatRequest request, StreamingChatResponseHandler handler) {
+                streamingCalls.incrementAndGet();
+                String text = echo(request);
+                for (String word : text.split("(?<= )")) {
+                    handler.onPartialResponse(word);
+                }
+                handler.onCompleteResponse(response(text));
+            }
+        };
+
+        private static String echo(ChatRequest request) {
+            return "echo " + ((UserMessage) request.messages().get(request.messages().size() - 1)).singleText();
+        }
+
+        private static ChatResponse response(String text) {
+            return ChatResponse.builder().aiMessage(AiMessage.from(text)).finishReason(FinishReason.STOP).build();
+        }
+    }
+
+    private static Pipeline pipeline(EchoModels models) {
+        ChatModel bridge = new StreamingBridgeChatModel(models.blocking, models.streaming);
+        Writer writer = AgenticServices.agentBuilder(Writer.class)
+                .chatModel(new StreamStageChatModel(bridge, "Writer"))
+                .outputKey("draft")
+                .build();
+        Reviewer reviewer = AgenticServices.agentBuilder(Reviewer.class)
+                .chatModel(new StreamStageChatModel(bridge, "Reviewer"))
+                .outputKey("review")
+                .build();
+        return AgenticServices.sequenceBuilder(Pipeline.class)
+                .beforeCall(AgentStreams.attachToScope())
+                .subAgents(writer, reviewer)
+                .outputKey("review")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should emit stage boundaries and token deltas for every agent")
+    public void testStreamedInvocation() {
+        // Given
+        EchoModels models = new EchoModels();
+        Pipeline pipeline = pipeline(models);
+        List<String> events = new CopyOnWriteArrayList<>();
+        AgentStreamListener listener = new AgentStreamListener() {
+            @Override
+            public void onStageStarted(String agent) {
+                events.add("start " + agent);
+            }
+
+            @Override
+            public void onToken(String agent, String token) {
+                events.add("token " + agent + " " + token.trim());
+            }
+
+            @Override
+            public void onStageCompleted(String agent, String output) {
+                events.add("end " + agent);
+            }
+        };
+
+        // When
+        String result = AgentStreams.withListener(listener, () -> pipeline.run("cats"));
+
+        // Then
+        assertEquals("echo Review echo Write about cats", result);
+        assertEquals(2, models.streamingCalls.get());
+        assertEquals(0, models.blockingCalls.get());
+        assertEquals(List.of(
+                "start Writer", "token Writer echo", "token Writer Write", "token Writer about",
+                "token Writer cats", "end Writer",
+                "start Reviewer", "token Reviewer echo", "token Reviewer Review", "token Reviewer echo",
+                "token Reviewer Write", "token Reviewer about", "token Reviewer cats", "end Reviewer"), events);
+    }
+
+    @Test
+    @DisplayName("Should use the blocking model when no listener is attached")
+    public void testUnstreamedInvocation() {
+        // Given
+        EchoModels models = new EchoModels();
+
+        // When
+        String result = pipeline(models).run("dogs");
+
+        // Then
+        assertEquals("echo Review echo Write about dogs", result);
+        assertEquals(2, models.blockingCalls.get());
+        assertEquals(0, models.streamingCalls.get());
+        assertNull(AgentStreams.currentListener());
+    }
+}